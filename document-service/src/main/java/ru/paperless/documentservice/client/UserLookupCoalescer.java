@@ -0,0 +1,146 @@
+package ru.paperless.documentservice.client;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.paperless.documentservice.model.DTO.UserSummaryDTO;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Склеивает одиночные запросы пользователей, пришедшие в течение {@code window}, в один вызов
+ * {@code POST /api/v1/users/batch-get} (по образцу DataLoader). Одинаковые ID в окне разделяют
+ * один результат; пачка уходит раньше окна, если набралось {@code maxBatchSize} ID.
+ */
+@Slf4j
+@Component
+public class UserLookupCoalescer {
+
+    private final Function<Collection<UUID>, Map<UUID, UserSummaryDTO>> batchLoader;
+
+    private final long windowNanos;
+
+    private final int maxBatchSize;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private Map<UUID, CompletableFuture<Optional<UserSummaryDTO>>> pending = new HashMap<>();
+
+    private long batchGeneration;
+
+    @Autowired
+    public UserLookupCoalescer(UserServiceClient userServiceClient,
+                               @Value("${paperless.user-service.batch-window:5ms}") Duration window,
+                               @Value("${paperless.user-service.max-batch-size:500}") int maxBatchSize) {
+        this(userServiceClient::getUsersByIds, window, maxBatchSize);
+    }
+
+    public UserLookupCoalescer(Function<Collection<UUID>, Map<UUID, UserSummaryDTO>> batchLoader,
+                               Duration window,
+                               int maxBatchSize) {
+        this.batchLoader = batchLoader;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("user-lookup-coalescer")
+                .daemon(true)
+                .factory());
+    }
+
+    public CompletableFuture<Optional<UserSummaryDTO>> load(UUID id) {
+        Map<UUID, CompletableFuture<Optional<UserSummaryDTO>>> fullBatch = null;
+        CompletableFuture<Optional<UserSummaryDTO>> future;
+        lock.lock();
+        try {
+            future = pending.get(id);
+            if (future != null) {
+                return future;
+            }
+            future = new CompletableFuture<>();
+            pending.put(id, future);
+            if (pending.size() >= maxBatchSize) {
+                fullBatch = takePending();
+            } else if (pending.size() == 1) {
+                long generation = batchGeneration;
+                scheduler.schedule(() -> flush(generation), windowNanos, TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (fullBatch != null) {
+            Map<UUID, CompletableFuture<Optional<UserSummaryDTO>>> batch = fullBatch;
+            scheduler.execute(() -> dispatch(batch));
+        }
+        return future;
+    }
+
+    public CompletableFuture<Map<UUID, UserSummaryDTO>> loadMany(Collection<UUID> ids) {
+        Map<UUID, CompletableFuture<Optional<UserSummaryDTO>>> futures = new LinkedHashMap<>();
+        for (UUID id : ids) {
+            futures.computeIfAbsent(id, this::load);
+        }
+        return CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> {
+                    Map<UUID, UserSummaryDTO> users = new LinkedHashMap<>();
+                    futures.forEach((id, future) -> future.join().ifPresent(user -> users.put(id, user)));
+                    return users;
+                });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    // Окно, открытое уже отправленной по размеру пачкой, не должно досрочно отправлять следующую
+    private void flush(long generation) {
+        Map<UUID, CompletableFuture<Optional<UserSummaryDTO>>> batch;
+        lock.lock();
+        try {
+            if (generation != batchGeneration || pending.isEmpty()) {
+                return;
+            }
+            batch = takePending();
+        } finally {
+            lock.unlock();
+        }
+        dispatch(batch);
+    }
+
+    private Map<UUID, CompletableFuture<Optional<UserSummaryDTO>>> takePending() {
+        Map<UUID, CompletableFuture<Optional<UserSummaryDTO>>> batch = pending;
+        pending = new HashMap<>();
+        batchGeneration++;
+        return batch;
+    }
+
+    // Вызов уходит в виртуальный поток, чтобы медленный user-service не задерживал следующие окна
+    private void dispatch(Map<UUID, CompletableFuture<Optional<UserSummaryDTO>>> batch) {
+        Thread.ofVirtual().name("user-lookup-batch").start(() -> {
+            try {
+                Map<UUID, UserSummaryDTO> users = batchLoader.apply(List.copyOf(batch.keySet()));
+                batch.forEach((id, future) -> future.complete(Optional.ofNullable(users.get(id))));
+            } catch (RuntimeException e) {
+                log.warn("Batch lookup of {} users failed", batch.size(), e);
+                batch.values().forEach(future -> future.completeExceptionally(e));
+            }
+        });
+    }
+}
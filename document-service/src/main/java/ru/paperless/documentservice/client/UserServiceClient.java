@@ -0,0 +1,51 @@
+package ru.paperless.documentservice.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import ru.paperless.documentservice.model.DTO.UserSummaryDTO;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+@Component
+public class UserServiceClient {
+
+    private static final ParameterizedTypeReference<Map<UUID, UserSummaryDTO>> USER_MAP =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final RestClient restClient;
+
+    public UserServiceClient(RestClient.Builder builder,
+                             @Value("${paperless.user-service.url}") String baseUrl,
+                             @Value("${paperless.user-service.timeout:2s}") Duration timeout,
+                             @Value("${paperless.user-service.client-id:${spring.application.name}}") String clientId) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        this.restClient = builder
+                .baseUrl(baseUrl)
+                .requestFactory(requestFactory)
+                // По нему user-service отличает наши запросы от клиентов с того же адреса
+                .defaultHeader("X-Client-Id", clientId)
+                .build();
+    }
+
+    public Map<UUID, UserSummaryDTO> getUsersByIds(Collection<UUID> ids) {
+        Map<UUID, UserSummaryDTO> users = restClient.post()
+                .uri("/api/v1/users/batch-get")
+                // CBOR компактнее JSON и дешевле в разборе; конвертер приходит из paperless-common
+                .contentType(MediaType.APPLICATION_CBOR)
+                .accept(MediaType.APPLICATION_CBOR)
+                .body(Map.of("ids", ids))
+                .retrieve()
+                .body(USER_MAP);
+        return users == null ? Map.of() : users;
+    }
+}
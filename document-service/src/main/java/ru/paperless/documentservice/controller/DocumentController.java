@@ -0,0 +1,153 @@
+package ru.paperless.documentservice.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import ru.paperless.documentservice.model.DTO.DocumentResponseDTO;
+import ru.paperless.documentservice.model.DTO.DocumentSearchPageDTO;
+import ru.paperless.documentservice.search.DocumentSearchCriteria;
+import ru.paperless.documentservice.service.DocumentSearchService;
+import ru.paperless.documentservice.service.DocumentService;
+import ru.paperless.documentservice.storage.BlobTransfer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping(path = "/api/v1/documents")
+@RequiredArgsConstructor
+@Tag(name = "Управление документами", description = "API`s для хранения и выдачи документов")
+public class DocumentController {
+
+    private final DocumentService documentService;
+
+    private final DocumentSearchService documentSearchService;
+
+    @GetMapping
+    @Operation(summary = "Получить последние документы владельца")
+    public ResponseEntity<List<DocumentResponseDTO>> getDocumentsByOwner(
+            @RequestParam("ownerId") UUID ownerId,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        return ResponseEntity.ok(documentService.getDocumentsByOwner(ownerId, limit));
+    }
+
+    @GetMapping(path = "/search")
+    @Operation(summary = "Полнотекстовый поиск документов по содержимому и имени файла")
+    public ResponseEntity<DocumentSearchPageDTO> searchDocuments(
+            @RequestParam("q") String query,
+            @RequestParam(name = "ownerId", required = false) UUID ownerId,
+            @RequestParam(name = "from", required = false) Instant from,
+            @RequestParam(name = "to", required = false) Instant to,
+            @RequestParam(name = "page", required = false) Integer page,
+            @RequestParam(name = "size", required = false) Integer size) {
+        return ResponseEntity.ok(documentSearchService.search(
+                new DocumentSearchCriteria(query, ownerId, from, to), page, size));
+    }
+
+    @GetMapping(path = "/{id}")
+    @Operation(summary = "Получить метаданные документа по ID")
+    public ResponseEntity<DocumentResponseDTO> getDocumentById(
+            @PathVariable("id") UUID id) {
+        return ResponseEntity.ok(documentService.getDocumentById(id));
+    }
+
+    @PostMapping
+    @Operation(summary = "Загрузка документа (тело запроса — содержимое файла)")
+    public ResponseEntity<DocumentResponseDTO> uploadDocument(
+            @RequestParam("ownerId") UUID ownerId,
+            @RequestParam("fileName") String fileName,
+            @RequestHeader(name = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            InputStream body) throws IOException {
+        DocumentResponseDTO document = documentService.uploadDocument(
+                ownerId,
+                fileName,
+                contentType == null ? MediaType.APPLICATION_OCTET_STREAM_VALUE : contentType,
+                body);
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .location(URI.create("/api/v1/documents/" + document.id()))
+                .body(document);
+    }
+
+    @GetMapping(path = "/{id}/content")
+    @Operation(summary = "Скачать содержимое документа (Range и If-Range; ETag -> 304)")
+    public void downloadDocument(
+            @PathVariable("id") UUID id,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        DocumentResponseDTO document = documentService.getDocumentById(id);
+        long size = document.size();
+        String eTag = "\"" + document.sha256() + "\"";
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(eTag)) {
+            return;
+        }
+        response.setContentType(document.contentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(document.fileName(), StandardCharsets.UTF_8)
+                .build()
+                .toString());
+
+        long start = 0;
+        long length = size;
+        List<HttpRange> ranges = rangeApplies(request, eTag)
+                ? parseRanges(request.getHeader(HttpHeaders.RANGE))
+                : List.of();
+        if (ranges.size() == 1) {
+            HttpRange range = ranges.get(0);
+            try {
+                start = range.getRangeStart(size);
+                length = range.getRangeEnd(size) - start + 1;
+            } catch (IllegalArgumentException e) {
+                length = 0;
+            }
+            if (start >= size || length <= 0) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE,
+                    "bytes " + start + "-" + (start + length - 1) + "/" + size);
+        }
+
+        BlobTransfer.transfer(request, response, documentService.getContentPath(document), start, length);
+    }
+
+    /**
+     * If-Range: докачка частью только той же версии содержимого. Если тег не совпал (документ
+     * заменили новой версией) или вместо тега дата, которую сверить не с чем, отдаётся весь файл.
+     */
+    private static boolean rangeApplies(HttpServletRequest request, String eTag) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        return ifRange == null || ifRange.strip().equals(eTag);
+    }
+
+    // Несколько диапазонов (multipart/byteranges) не поддерживаются — в этом случае отдаём файл целиком
+    private List<HttpRange> parseRanges(String rangeHeader) {
+        if (rangeHeader == null) {
+            return List.of();
+        }
+        try {
+            return HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package ru.paperless.documentservice.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import ru.paperless.documentservice.model.DTO.DocumentVersionDTO;
+import ru.paperless.documentservice.storage.BlobTransfer;
+import ru.paperless.documentservice.versioning.DocumentVersionService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping(path = "/api/v1/documents/{id}/versions")
+@RequiredArgsConstructor
+@Tag(name = "Версии документов", description = "API`s для версий содержимого документов")
+public class DocumentVersionController {
+
+    private final DocumentVersionService documentVersionService;
+
+    @GetMapping
+    @Operation(summary = "Список версий документа")
+    public ResponseEntity<List<DocumentVersionDTO>> getVersions(
+            @PathVariable("id") UUID id) {
+        return ResponseEntity.ok(documentVersionService.getVersions(id));
+    }
+
+    @PostMapping
+    @Operation(summary = "Загрузить новую версию документа (тело запроса — содержимое файла)")
+    public ResponseEntity<DocumentVersionDTO> uploadVersion(
+            @PathVariable("id") UUID id,
+            InputStream body) throws IOException {
+        DocumentVersionDTO version = documentVersionService.uploadVersion(id, body);
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .location(URI.create("/api/v1/documents/" + id + "/versions/" + version.version()))
+                .body(version);
+    }
+
+    @GetMapping(path = "/{version}/content")
+    @Operation(summary = "Скачать содержимое версии документа")
+    public void downloadVersion(
+            @PathVariable("id") UUID id,
+            @PathVariable("version") int version,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        DocumentVersionService.VersionContent content = documentVersionService.getVersionContent(id, version);
+        if (new ServletWebRequest(request, response).checkNotModified("\"" + content.version().sha256() + "\"")) {
+            return;
+        }
+        response.setContentType(content.document().contentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(content.document().fileName(), StandardCharsets.UTF_8)
+                .build()
+                .toString());
+        if (content.blob() != null) {
+            BlobTransfer.transfer(request, response, content.blob(), 0, content.version().size());
+        } else {
+            response.setContentLengthLong(content.version().size());
+            documentVersionService.writeChunks(content.chunks(), response.getOutputStream());
+        }
+    }
+
+    @DeleteMapping(path = "/{version}")
+    @Operation(summary = "Удалить версию документа (текущую удалить нельзя)")
+    public ResponseEntity<Void> deleteVersion(
+            @PathVariable("id") UUID id,
+            @PathVariable("version") int version) {
+        documentVersionService.deleteVersion(id, version);
+        return ResponseEntity.noContent().build();
+    }
+}
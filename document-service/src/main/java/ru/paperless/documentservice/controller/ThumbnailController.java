@@ -0,0 +1,61 @@
+package ru.paperless.documentservice.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import ru.paperless.documentservice.model.DTO.DocumentResponseDTO;
+import ru.paperless.documentservice.service.DocumentService;
+import ru.paperless.documentservice.storage.BlobTransfer;
+import ru.paperless.documentservice.thumbnail.Thumbnail;
+import ru.paperless.documentservice.thumbnail.ThumbnailKey;
+import ru.paperless.documentservice.thumbnail.ThumbnailService;
+import ru.paperless.documentservice.thumbnail.ThumbnailSize;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.UUID;
+
+@RestController
+@RequestMapping(path = "/api/v1/documents")
+@RequiredArgsConstructor
+@Tag(name = "Превью документов", description = "API`s для превью страниц документов")
+public class ThumbnailController {
+
+    private static final String CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(7)).cachePrivate().getHeaderValue();
+
+    private final DocumentService documentService;
+
+    private final ThumbnailService thumbnailService;
+
+    @GetMapping(path = "/{id}/thumbnail")
+    @Operation(summary = "Превью страницы документа в JPEG (size: SMALL, MEDIUM, LARGE; ETag -> 304)")
+    public void getThumbnail(
+            @PathVariable("id") UUID id,
+            @RequestParam(name = "page", defaultValue = "1") int page,
+            @RequestParam(name = "size", defaultValue = "SMALL") ThumbnailSize size,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        DocumentResponseDTO document = documentService.getDocumentById(id);
+        // Содержимое документа не меняется, поэтому ETag известен до рендера
+        if (new ServletWebRequest(request, response).checkNotModified(new ThumbnailKey(document.sha256(), page, size).eTag())) {
+            return;
+        }
+        try (Thumbnail thumbnail = thumbnailService.getThumbnail(document, page, size)) {
+            response.setContentType(MediaType.IMAGE_JPEG_VALUE);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+            if (thumbnail.channel() != null) {
+                BlobTransfer.transfer(response, thumbnail.channel(), 0, thumbnail.size());
+            } else {
+                response.setContentLengthLong(thumbnail.size());
+                response.getOutputStream().write(thumbnail.content());
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package ru.paperless.documentservice.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import ru.paperless.documentservice.model.DTO.DocumentResponseDTO;
+import ru.paperless.documentservice.model.DTO.UploadInitiateRequestDTO;
+import ru.paperless.documentservice.model.DTO.UploadSessionResponseDTO;
+import ru.paperless.documentservice.service.UploadService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.UUID;
+
+@RestController
+@RequestMapping(path = "/api/v1/uploads")
+@RequiredArgsConstructor
+@Tag(name = "Загрузка документов частями", description = "API`s для возобновляемой загрузки больших файлов")
+public class UploadController {
+
+    private final UploadService uploadService;
+
+    @PostMapping
+    @Operation(summary = "Начать загрузку документа частями")
+    public ResponseEntity<UploadSessionResponseDTO> initiateUpload(
+            @RequestBody @Valid UploadInitiateRequestDTO request) throws IOException {
+        UploadSessionResponseDTO session = uploadService.initiateUpload(request);
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .location(URI.create("/api/v1/uploads/" + session.id()))
+                .body(session);
+    }
+
+    @PutMapping(path = "/{id}/chunks/{index}")
+    @Operation(summary = "Загрузить часть файла (тело запроса — содержимое части)")
+    public ResponseEntity<Void> uploadChunk(
+            @PathVariable("id") UUID id,
+            @PathVariable("index") int index,
+            InputStream body) throws IOException {
+        uploadService.uploadChunk(id, index, body);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping(path = "/{id}")
+    @Operation(summary = "Получить состояние загрузки и список принятых частей")
+    public ResponseEntity<UploadSessionResponseDTO> getUploadSession(
+            @PathVariable("id") UUID id) {
+        return ResponseEntity.ok(uploadService.getUploadSession(id));
+    }
+
+    @PostMapping(path = "/{id}/complete")
+    @Operation(summary = "Завершить загрузку и создать документ")
+    public ResponseEntity<DocumentResponseDTO> completeUpload(
+            @PathVariable("id") UUID id) throws IOException {
+        DocumentResponseDTO document = uploadService.completeUpload(id);
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .location(URI.create("/api/v1/documents/" + document.id()))
+                .body(document);
+    }
+
+    @DeleteMapping(path = "/{id}")
+    @Operation(summary = "Отменить загрузку")
+    public ResponseEntity<Void> abortUpload(
+            @PathVariable("id") UUID id) throws IOException {
+        uploadService.abortUpload(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,6 @@
+package ru.paperless.documentservice.event;
+
+import ru.paperless.documentservice.model.DTO.DocumentResponseDTO;
+
+public record DocumentStoredEvent(DocumentResponseDTO document) {
+}
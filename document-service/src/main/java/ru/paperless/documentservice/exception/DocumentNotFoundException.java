@@ -0,0 +1,7 @@
+package ru.paperless.documentservice.exception;
+
+public class DocumentNotFoundException extends RuntimeException {
+    public DocumentNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.paperless.documentservice.exception;
+
+public class DocumentVersionConflictException extends RuntimeException {
+    public DocumentVersionConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.paperless.documentservice.exception;
+
+public class DocumentVersionNotFoundException extends RuntimeException {
+    public DocumentVersionNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.paperless.documentservice.exception;
+
+public class InvalidChunkException extends RuntimeException {
+    public InvalidChunkException(String message) {
+        super(message);
+    }
+}
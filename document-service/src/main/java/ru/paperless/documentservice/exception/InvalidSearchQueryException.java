@@ -0,0 +1,7 @@
+package ru.paperless.documentservice.exception;
+
+public class InvalidSearchQueryException extends RuntimeException {
+    public InvalidSearchQueryException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.paperless.documentservice.exception;
+
+public class PipelineOverloadedException extends RuntimeException {
+    public PipelineOverloadedException(String message) {
+        super(message);
+    }
+}
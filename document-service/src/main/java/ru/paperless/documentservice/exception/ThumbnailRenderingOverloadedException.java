@@ -0,0 +1,7 @@
+package ru.paperless.documentservice.exception;
+
+public class ThumbnailRenderingOverloadedException extends RuntimeException {
+    public ThumbnailRenderingOverloadedException(String message) {
+        super(message);
+    }
+}
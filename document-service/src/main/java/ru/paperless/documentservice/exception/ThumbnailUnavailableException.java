@@ -0,0 +1,7 @@
+package ru.paperless.documentservice.exception;
+
+public class ThumbnailUnavailableException extends RuntimeException {
+    public ThumbnailUnavailableException(String message) {
+        super(message);
+    }
+}
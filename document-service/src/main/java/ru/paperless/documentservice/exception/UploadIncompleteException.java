@@ -0,0 +1,7 @@
+package ru.paperless.documentservice.exception;
+
+public class UploadIncompleteException extends RuntimeException {
+    public UploadIncompleteException(String message) {
+        super(message);
+    }
+}
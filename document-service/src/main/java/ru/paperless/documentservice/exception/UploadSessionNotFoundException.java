@@ -0,0 +1,7 @@
+package ru.paperless.documentservice.exception;
+
+public class UploadSessionNotFoundException extends RuntimeException {
+    public UploadSessionNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,22 @@
+package ru.paperless.documentservice.mapper;
+
+import org.springframework.stereotype.Component;
+import ru.paperless.documentservice.model.DTO.DocumentResponseDTO;
+import ru.paperless.documentservice.model.entity.DocumentEntity;
+
+@Component
+public class DocumentMapper {
+
+    public DocumentResponseDTO toDto(DocumentEntity documentEntity) {
+        return new DocumentResponseDTO(
+                documentEntity.getId(),
+                documentEntity.getOwnerId(),
+                documentEntity.getFileName(),
+                documentEntity.getContentType(),
+                documentEntity.getSize(),
+                documentEntity.getSha256(),
+                documentEntity.getCreatedAt(),
+                documentEntity.getProcessingStage()
+        );
+    }
+}
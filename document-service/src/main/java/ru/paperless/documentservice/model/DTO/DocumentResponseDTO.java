@@ -0,0 +1,18 @@
+package ru.paperless.documentservice.model.DTO;
+
+import ru.paperless.documentservice.model.enums.ProcessingStage;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record DocumentResponseDTO(
+        UUID id,
+        UUID ownerId,
+        String fileName,
+        String contentType,
+        long size,
+        String sha256,
+        Instant createdAt,
+        ProcessingStage processingStage
+) {
+}
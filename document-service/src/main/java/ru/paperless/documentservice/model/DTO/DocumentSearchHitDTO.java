@@ -0,0 +1,8 @@
+package ru.paperless.documentservice.model.DTO;
+
+public record DocumentSearchHitDTO(
+        DocumentResponseDTO document,
+        double rank,
+        String highlight
+) {
+}
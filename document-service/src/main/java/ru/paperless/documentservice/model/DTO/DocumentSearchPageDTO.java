@@ -0,0 +1,14 @@
+package ru.paperless.documentservice.model.DTO;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public record DocumentSearchPageDTO(
+        List<DocumentSearchHitDTO> items,
+        Map<UUID, UserSummaryDTO> owners,
+        int page,
+        int size,
+        boolean hasMore
+) {
+}
@@ -0,0 +1,14 @@
+package ru.paperless.documentservice.model.DTO;
+
+import java.time.Instant;
+
+public record DocumentVersionDTO(
+        int version,
+        long size,
+        String sha256,
+        int chunkCount,
+        long storedBytes,
+        Instant createdAt,
+        boolean current
+) {
+}
@@ -0,0 +1,29 @@
+package ru.paperless.documentservice.model.DTO;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.util.UUID;
+
+public record UploadInitiateRequestDTO(
+
+        @NotNull
+        UUID ownerId,
+
+        @NotBlank
+        String fileName,
+
+        String contentType,
+
+        @NotNull
+        @Positive
+        Long totalSize,
+
+        @Min(64 * 1024)
+        @Max(256 * 1024 * 1024)
+        Integer chunkSize
+) {
+}
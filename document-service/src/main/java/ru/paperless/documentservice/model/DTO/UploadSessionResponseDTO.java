@@ -0,0 +1,21 @@
+package ru.paperless.documentservice.model.DTO;
+
+import ru.paperless.documentservice.model.enums.UploadSessionStatus;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public record UploadSessionResponseDTO(
+        UUID id,
+        String fileName,
+        long totalSize,
+        int chunkSize,
+        int chunkCount,
+        UploadSessionStatus status,
+        List<Integer> receivedChunks,
+        List<String> receivedRanges,
+        UUID documentId,
+        Instant createdAt
+) {
+}
@@ -0,0 +1,10 @@
+package ru.paperless.documentservice.model.DTO;
+
+import java.util.UUID;
+
+public record UserSummaryDTO(
+        UUID id,
+        String userName,
+        String email
+) {
+}
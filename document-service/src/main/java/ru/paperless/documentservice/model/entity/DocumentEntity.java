@@ -0,0 +1,57 @@
+package ru.paperless.documentservice.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import ru.paperless.documentservice.model.enums.ProcessingStage;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+@Table(name = "pl_documents", indexes = {
+        @Index(name = "ix_pl_documents_owner_created", columnList = "owner_id, created_at"),
+        @Index(name = "ix_pl_documents_sha256", columnList = "sha256"),
+        @Index(name = "ix_pl_documents_processing_stage", columnList = "processing_stage")
+})
+public class DocumentEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "owner_id", nullable = false)
+    private UUID ownerId;
+
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    @Column(name = "size", nullable = false)
+    private long size;
+
+    @Column(name = "sha256", nullable = false, length = 64)
+    private String sha256;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "processing_stage", length = 16)
+    private ProcessingStage processingStage;
+
+    @Column(name = "processing_error", length = 1000)
+    private String processingError;
+
+    // sha256 и size выше всегда относятся к текущей версии
+    @Builder.Default
+    @Column(name = "current_version", nullable = false)
+    private int currentVersion = 1;
+}
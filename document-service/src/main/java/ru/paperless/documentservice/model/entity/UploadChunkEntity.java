@@ -0,0 +1,40 @@
+package ru.paperless.documentservice.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+@IdClass(UploadChunkEntity.Key.class)
+@Table(name = "pl_upload_chunks")
+public class UploadChunkEntity {
+    @Id
+    @Column(name = "session_id")
+    private UUID sessionId;
+
+    @Id
+    @Column(name = "chunk_index")
+    private int chunkIndex;
+
+    @Column(name = "size", nullable = false)
+    private long size;
+
+    @Column(name = "received_at", nullable = false)
+    private Instant receivedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID sessionId;
+        private int chunkIndex;
+    }
+}
@@ -0,0 +1,68 @@
+package ru.paperless.documentservice.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import ru.paperless.documentservice.model.enums.UploadSessionStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+@Table(name = "pl_upload_sessions")
+public class UploadSessionEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "owner_id", nullable = false)
+    private UUID ownerId;
+
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    @Column(name = "total_size", nullable = false)
+    private long totalSize;
+
+    @Column(name = "chunk_size", nullable = false)
+    private int chunkSize;
+
+    @Column(name = "chunk_count", nullable = false)
+    private int chunkCount;
+
+    @Column(name = "temp_path", nullable = false)
+    private String tempPath;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private UploadSessionStatus status;
+
+    @Column(name = "blob_sha256", length = 64)
+    private String blobSha256;
+
+    @Column(name = "document_id")
+    private UUID documentId;
+
+    @Column(name = "completing_at")
+    private Instant completingAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    public long chunkOffset(int chunkIndex) {
+        return (long) chunkIndex * chunkSize;
+    }
+
+    public long chunkLength(int chunkIndex) {
+        return Math.min(chunkSize, totalSize - chunkOffset(chunkIndex));
+    }
+}
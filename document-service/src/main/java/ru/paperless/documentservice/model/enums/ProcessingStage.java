@@ -0,0 +1,9 @@
+package ru.paperless.documentservice.model.enums;
+
+public enum ProcessingStage {
+    EXTRACT_TEXT,
+    INDEX,
+    THUMBNAIL,
+    DONE,
+    FAILED
+}
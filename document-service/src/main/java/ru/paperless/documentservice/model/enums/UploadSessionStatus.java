@@ -0,0 +1,7 @@
+package ru.paperless.documentservice.model.enums;
+
+public enum UploadSessionStatus {
+    ACTIVE,
+    COMPLETING,
+    COMPLETED
+}
@@ -0,0 +1,201 @@
+package ru.paperless.documentservice.pipeline;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.paperless.documentservice.event.DocumentStoredEvent;
+import ru.paperless.documentservice.exception.PipelineOverloadedException;
+import ru.paperless.documentservice.mapper.DocumentMapper;
+import ru.paperless.documentservice.model.DTO.DocumentResponseDTO;
+import ru.paperless.documentservice.model.entity.DocumentEntity;
+import ru.paperless.documentservice.model.enums.ProcessingStage;
+import ru.paperless.documentservice.repository.DocumentRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Конвейер обработки загруженных документов: EXTRACT_TEXT → INDEX → THUMBNAIL. Хэш считается ещё при загрузке,
+ * поэтому здесь только тяжёлые стадии. Стадия сохраняется в {@code pl_documents.processing_stage}
+ * после каждого шага; незавершённые документы подхватываются при старте и периодически, в том числе
+ * те, что не влезли в очередь в момент загрузки.
+ * <p>
+ * Документ обрабатывается не более чем одной задачей одновременно. Если новая версия приходит, пока
+ * в конвейере задача по старой, новая запускается после её завершения, а старая прекращается на ближайшей
+ * стадии: стадия в БД обновляется только для того sha256, который обрабатывает задача.
+ */
+@Slf4j
+@Component
+public class DocumentPipeline {
+
+    private static final List<ProcessingStage> PENDING_STAGES = List.of(
+            ProcessingStage.EXTRACT_TEXT, ProcessingStage.INDEX, ProcessingStage.THUMBNAIL);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final DocumentRepository documentRepository;
+
+    private final DocumentMapper documentMapper;
+
+    private final List<PipelineStage> stages;
+
+    // id документа → sha256 содержимого, которое сейчас обрабатывается
+    private final Map<UUID, String> inFlight = new ConcurrentHashMap<>();
+
+    // Версии, пришедшие, пока в конвейере была задача по предыдущему содержимому того же документа
+    private final Map<UUID, DocumentResponseDTO> resubmit = new ConcurrentHashMap<>();
+
+    public DocumentPipeline(DocumentRepository documentRepository,
+                            DocumentMapper documentMapper,
+                            DocumentProcessor documentProcessor,
+                            @Value("${paperless.pipeline.extract-text.workers:2}") int extractWorkers,
+                            @Value("${paperless.pipeline.extract-text.queue-capacity:100}") int extractCapacity,
+                            @Value("${paperless.pipeline.index.workers:2}") int indexWorkers,
+                            @Value("${paperless.pipeline.index.queue-capacity:100}") int indexCapacity,
+                            @Value("${paperless.pipeline.thumbnail.workers:1}") int thumbnailWorkers,
+                            @Value("${paperless.pipeline.thumbnail.queue-capacity:100}") int thumbnailCapacity) {
+        this.documentRepository = documentRepository;
+        this.documentMapper = documentMapper;
+        this.stages = List.of(
+                new PipelineStage(ProcessingStage.EXTRACT_TEXT, extractWorkers, extractCapacity, documentProcessor::extractText),
+                new PipelineStage(ProcessingStage.INDEX, indexWorkers, indexCapacity, documentProcessor::index),
+                new PipelineStage(ProcessingStage.THUMBNAIL, thumbnailWorkers, thumbnailCapacity, documentProcessor::thumbnail));
+    }
+
+    @PostConstruct
+    void start() {
+        for (int i = 0; i < stages.size(); i++) {
+            PipelineStage stage = stages.get(i);
+            PipelineStage next = i + 1 < stages.size() ? stages.get(i + 1) : null;
+            stage.start(task -> advance(task, next), (task, e) -> fail(stage, task, e));
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        stages.forEach(PipelineStage::stop);
+    }
+
+    /**
+     * Проверка перед приёмом нового файла: если очередь первой стадии заполнена, загрузку отклоняем
+     * сразу, не дочитывая тело запроса.
+     */
+    public void checkCapacity() {
+        if (stages.get(0).remainingCapacity() == 0) {
+            throw new PipelineOverloadedException("Очередь обработки документов переполнена, повторите загрузку позже");
+        }
+    }
+
+    public boolean submit(DocumentResponseDTO document) {
+        String running = inFlight.putIfAbsent(document.id(), document.sha256());
+        if (running != null) {
+            if (!running.equals(document.sha256())) {
+                resubmit.put(document.id(), document);
+                // Задача могла завершиться до того, как мы положили версию в resubmit
+                if (!inFlight.containsKey(document.id())) {
+                    submitPending(document.id());
+                }
+            }
+            return true;
+        }
+        if (!stages.get(0).offer(PipelineTask.of(document))) {
+            inFlight.remove(document.id());
+            log.debug("Pipeline is full, document {} will be picked up by the next resume pass", document.id());
+            return false;
+        }
+        return true;
+    }
+
+    public List<PipelineStageStats> stats() {
+        return stages.stream().map(PipelineStage::stats).toList();
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentStored(DocumentStoredEvent event) {
+        submit(event.document());
+    }
+
+    // Извлечённый текст не сохраняется между стадиями, поэтому документ всегда начинается с первой стадии
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${paperless.pipeline.resume-interval:1m}",
+            fixedDelayString = "${paperless.pipeline.resume-interval:1m}")
+    public void resumePending() {
+        int capacity = stages.get(0).remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+        List<DocumentEntity> pending = documentRepository.findByProcessingStageInOrderByCreatedAtAsc(
+                PENDING_STAGES, Limit.of(capacity + inFlight.size()));
+        int resumed = 0;
+        for (DocumentEntity document : pending) {
+            if (inFlight.containsKey(document.getId())) {
+                continue;
+            }
+            if (!submit(documentMapper.toDto(document))) {
+                break;
+            }
+            resumed++;
+        }
+        if (resumed > 0) {
+            log.info("Resumed processing of {} documents", resumed);
+        }
+    }
+
+    private void advance(PipelineTask task, PipelineStage next) {
+        DocumentResponseDTO document = task.document();
+        if (next == null) {
+            documentRepository.updateProcessingStage(document.id(), document.sha256(), ProcessingStage.DONE, null);
+            complete(document.id());
+            return;
+        }
+        if (documentRepository.updateProcessingStage(document.id(), document.sha256(), next.getStage(), null) == 0) {
+            log.debug("Document {} got a new version, dropping the task for {}", document.id(), document.sha256());
+            complete(document.id());
+            return;
+        }
+        try {
+            next.put(task);
+        } catch (InterruptedException e) {
+            inFlight.remove(document.id());
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void fail(PipelineStage stage, PipelineTask task, Exception e) {
+        DocumentResponseDTO document = task.document();
+        log.warn("Document {} failed at stage {}", document.id(), stage.getStage(), e);
+        String error = stage.getStage() + ": " + e;
+        try {
+            documentRepository.updateProcessingStage(document.id(), document.sha256(), ProcessingStage.FAILED,
+                    error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        } finally {
+            complete(document.id());
+        }
+    }
+
+    private void complete(UUID id) {
+        inFlight.remove(id);
+        submitPending(id);
+    }
+
+    // Если очередь заполнена, версия остаётся в EXTRACT_TEXT и её подберёт resumePending
+    private void submitPending(UUID id) {
+        DocumentResponseDTO pending = resubmit.remove(id);
+        if (pending != null) {
+            submit(pending);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package ru.paperless.documentservice.pipeline;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.paperless.documentservice.model.enums.ProcessingStage;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+@Component
+@RequiredArgsConstructor
+public class DocumentPipelineMetrics implements MeterBinder {
+
+    private final DocumentPipeline documentPipeline;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("documents.pipeline.in-flight", documentPipeline, DocumentPipeline::inFlight)
+                .description("Документы, находящиеся в конвейере обработки")
+                .register(registry);
+        for (PipelineStageStats initial : documentPipeline.stats()) {
+            ProcessingStage stage = initial.stage();
+            String tag = stage.name().toLowerCase();
+            Gauge.builder("documents.pipeline.queue.depth", documentPipeline, gauge(stage, PipelineStageStats::queueDepth))
+                    .description("Длина очереди стадии")
+                    .tag("stage", tag)
+                    .register(registry);
+            Gauge.builder("documents.pipeline.queue.capacity", documentPipeline, gauge(stage, PipelineStageStats::queueCapacity))
+                    .description("Ёмкость очереди стадии")
+                    .tag("stage", tag)
+                    .register(registry);
+            FunctionCounter.builder("documents.pipeline.failed", documentPipeline, gauge(stage, PipelineStageStats::failed))
+                    .description("Документы, на которых стадия завершилась ошибкой")
+                    .tag("stage", tag)
+                    .register(registry);
+            FunctionTimer.builder("documents.pipeline.processing", documentPipeline,
+                            counter(stage, PipelineStageStats::processed),
+                            gauge(stage, PipelineStageStats::processingNanos),
+                            TimeUnit.NANOSECONDS)
+                    .description("Время обработки документа стадией")
+                    .tag("stage", tag)
+                    .register(registry);
+            FunctionTimer.builder("documents.pipeline.wait", documentPipeline,
+                            counter(stage, stats -> stats.processed() + stats.failed()),
+                            gauge(stage, PipelineStageStats::waitNanos),
+                            TimeUnit.NANOSECONDS)
+                    .description("Время ожидания документа в очереди стадии")
+                    .tag("stage", tag)
+                    .register(registry);
+        }
+    }
+
+    private static ToDoubleFunction<DocumentPipeline> gauge(ProcessingStage stage, ToLongFunction<PipelineStageStats> value) {
+        return pipeline -> value.applyAsLong(stats(pipeline, stage));
+    }
+
+    private static ToLongFunction<DocumentPipeline> counter(ProcessingStage stage, ToLongFunction<PipelineStageStats> value) {
+        return pipeline -> value.applyAsLong(stats(pipeline, stage));
+    }
+
+    private static PipelineStageStats stats(DocumentPipeline pipeline, ProcessingStage stage) {
+        return pipeline.stats().stream()
+                .filter(stats -> stats.stage() == stage)
+                .findFirst()
+                .orElseThrow();
+    }
+}
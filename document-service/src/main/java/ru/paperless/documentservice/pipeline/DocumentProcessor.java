@@ -0,0 +1,62 @@
+package ru.paperless.documentservice.pipeline;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.paperless.documentservice.model.DTO.DocumentResponseDTO;
+import ru.paperless.documentservice.search.DocumentSearchRepository;
+import ru.paperless.documentservice.search.TextExtractor;
+import ru.paperless.documentservice.storage.BlobStorage;
+import ru.paperless.documentservice.thumbnail.ThumbnailService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Обработчики стадий конвейера. Каждая стадия идемпотентна, поэтому после перезапуска документ
+ * можно безопасно прогнать заново.
+ */
+@Component
+@RequiredArgsConstructor
+public class DocumentProcessor {
+
+    private final DocumentSearchRepository documentSearchRepository;
+
+    private final TextExtractor textExtractor;
+
+    private final BlobStorage blobStorage;
+
+    private final ThumbnailService thumbnailService;
+
+    public PipelineTask extractText(PipelineTask task) {
+        DocumentResponseDTO document = task.document();
+        if (!documentSearchRepository.isSupported()) {
+            return task;
+        }
+        // Текст того же blob уже извлекался для другого документа — стадия индексации не нужна
+        if (documentSearchRepository.copyFromSameContent(
+                document.id(), document.ownerId(), document.createdAt(), document.fileName(), document.sha256())) {
+            return task;
+        }
+        try {
+            return task.withText(textExtractor.extract(blobStorage.resolve(document.sha256()), document.contentType()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public PipelineTask index(PipelineTask task) {
+        DocumentResponseDTO document = task.document();
+        if (task.text() != null) {
+            documentSearchRepository.upsert(
+                    document.id(), document.ownerId(), document.createdAt(), document.fileName(), task.text());
+        }
+        return task.withText(null);
+    }
+
+    // Превью первой страницы для списков. Рендер идёт в том же пуле, что и для HTTP-запросов,
+    // поэтому стадия не занимает ядра сверх него
+    public PipelineTask thumbnail(PipelineTask task) {
+        thumbnailService.prerender(task.document());
+        return task;
+    }
+}
@@ -0,0 +1,126 @@
+package ru.paperless.documentservice.pipeline;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.paperless.documentservice.model.enums.ProcessingStage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Стадия конвейера: ограниченная очередь и фиксированное число рабочих потоков. Вход в конвейер
+ * использует {@link #offer}, чтобы не блокировать HTTP-запрос, а передача между стадиями — {@link #put}:
+ * если следующая стадия не успевает, предыдущая останавливается, и давление доходит до входа.
+ */
+@Slf4j
+public class PipelineStage {
+
+    private final ProcessingStage stage;
+
+    private final int workerCount;
+
+    private final BlockingQueue<PipelineTask> queue;
+
+    private final UnaryOperator<PipelineTask> handler;
+
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final LongAdder processed = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    private final LongAdder processingNanos = new LongAdder();
+
+    private final LongAdder waitNanos = new LongAdder();
+
+    private volatile boolean running;
+
+    public PipelineStage(ProcessingStage stage, int workerCount, int queueCapacity, UnaryOperator<PipelineTask> handler) {
+        if (workerCount < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Stage " + stage + " needs at least one worker and queue slot");
+        }
+        this.stage = stage;
+        this.workerCount = workerCount;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.handler = handler;
+    }
+
+    public ProcessingStage getStage() {
+        return stage;
+    }
+
+    public void start(Consumer<PipelineTask> onSuccess, BiConsumer<PipelineTask, Exception> onFailure) {
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = Thread.ofPlatform()
+                    .name("pipeline-" + stage.name().toLowerCase() + "-" + i)
+                    .daemon(true)
+                    .start(() -> work(onSuccess, onFailure));
+            workers.add(worker);
+        }
+    }
+
+    public void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+    }
+
+    public boolean offer(PipelineTask task) {
+        return queue.offer(task.requeued());
+    }
+
+    public void put(PipelineTask task) throws InterruptedException {
+        queue.put(task.requeued());
+    }
+
+    public int remainingCapacity() {
+        return queue.remainingCapacity();
+    }
+
+    public PipelineStageStats stats() {
+        return new PipelineStageStats(
+                stage,
+                workerCount,
+                queue.size(),
+                queue.size() + queue.remainingCapacity(),
+                processed.sum(),
+                failed.sum(),
+                processingNanos.sum(),
+                waitNanos.sum());
+    }
+
+    private void work(Consumer<PipelineTask> onSuccess, BiConsumer<PipelineTask, Exception> onFailure) {
+        while (running) {
+            PipelineTask task;
+            try {
+                task = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long started = System.nanoTime();
+            waitNanos.add(started - task.enqueuedNanos());
+            PipelineTask result;
+            try {
+                result = handler.apply(task);
+            } catch (Exception e) {
+                processingNanos.add(System.nanoTime() - started);
+                failed.increment();
+                onFailure.accept(task, e);
+                continue;
+            }
+            processingNanos.add(System.nanoTime() - started);
+            processed.increment();
+            try {
+                onSuccess.accept(result);
+            } catch (Exception e) {
+                log.warn("Failed to hand over document {} after stage {}", task.document().id(), stage, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package ru.paperless.documentservice.pipeline;
+
+import ru.paperless.documentservice.model.enums.ProcessingStage;
+
+public record PipelineStageStats(
+        ProcessingStage stage,
+        int workers,
+        int queueDepth,
+        int queueCapacity,
+        long processed,
+        long failed,
+        long processingNanos,
+        long waitNanos
+) {
+}
@@ -0,0 +1,26 @@
+package ru.paperless.documentservice.pipeline;
+
+import ru.paperless.documentservice.model.DTO.DocumentResponseDTO;
+
+/**
+ * Документ в пути между стадиями. Результаты стадий, которые не сохраняются в БД (например,
+ * извлечённый текст), передаются дальше в самой задаче.
+ */
+public record PipelineTask(
+        DocumentResponseDTO document,
+        String text,
+        long enqueuedNanos
+) {
+
+    public static PipelineTask of(DocumentResponseDTO document) {
+        return new PipelineTask(document, null, System.nanoTime());
+    }
+
+    public PipelineTask withText(String text) {
+        return new PipelineTask(document, text, enqueuedNanos);
+    }
+
+    public PipelineTask requeued() {
+        return new PipelineTask(document, text, System.nanoTime());
+    }
+}
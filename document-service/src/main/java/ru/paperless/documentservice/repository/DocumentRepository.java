@@ -0,0 +1,47 @@
+package ru.paperless.documentservice.repository;
+
+import org.springframework.data.domain.Limit;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import ru.paperless.documentservice.model.entity.DocumentEntity;
+import ru.paperless.documentservice.model.enums.ProcessingStage;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface DocumentRepository extends JpaRepository<DocumentEntity, UUID> {
+
+    List<DocumentEntity> findByOwnerIdOrderByCreatedAtDesc(UUID ownerId, Limit limit);
+
+    List<DocumentEntity> findByProcessingStageInOrderByCreatedAtAsc(Collection<ProcessingStage> stages, Limit limit);
+
+    boolean existsBySha256(String sha256);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select d from DocumentEntity d where d.id = :id")
+    Optional<DocumentEntity> findByIdForUpdate(@Param("id") UUID id);
+
+    /**
+     * Стадия меняется, только пока у документа то содержимое, которое обрабатывала задача: новая версия
+     * сбрасывает стадию на EXTRACT_TEXT, и завершение задачи по старой версии не должно её перетереть.
+     *
+     * @return 0, если содержимое документа уже сменилось
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update DocumentEntity d set d.processingStage = :stage, d.processingError = :error
+            where d.id = :id and d.sha256 = :sha256""")
+    int updateProcessingStage(
+            @Param("id") UUID id,
+            @Param("sha256") String sha256,
+            @Param("stage") ProcessingStage stage,
+            @Param("error") String error);
+}
@@ -0,0 +1,37 @@
+package ru.paperless.documentservice.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import ru.paperless.documentservice.model.entity.UploadChunkEntity;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface UploadChunkRepository extends JpaRepository<UploadChunkEntity, UploadChunkEntity.Key> {
+
+    @Transactional
+    @Modifying
+    @Query(value = "insert into pl_upload_chunks (session_id, chunk_index, size, received_at) " +
+            "values (:sessionId, :chunkIndex, :size, :receivedAt) " +
+            "on conflict (session_id, chunk_index) do update set size = excluded.size, received_at = excluded.received_at",
+            nativeQuery = true)
+    void upsertChunk(
+            @Param("sessionId") UUID sessionId,
+            @Param("chunkIndex") int chunkIndex,
+            @Param("size") long size,
+            @Param("receivedAt") Instant receivedAt);
+
+    @Query("select c.chunkIndex from UploadChunkEntity c where c.sessionId = :sessionId order by c.chunkIndex")
+    List<Integer> findChunkIndexes(@Param("sessionId") UUID sessionId);
+
+    long countBySessionId(UUID sessionId);
+
+    @Transactional
+    @Modifying
+    @Query("delete from UploadChunkEntity c where c.sessionId = :sessionId")
+    void deleteBySessionId(@Param("sessionId") UUID sessionId);
+}
@@ -0,0 +1,56 @@
+package ru.paperless.documentservice.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import ru.paperless.documentservice.model.entity.UploadSessionEntity;
+import ru.paperless.documentservice.model.enums.UploadSessionStatus;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface UploadSessionRepository extends JpaRepository<UploadSessionEntity, UUID> {
+
+    @Transactional
+    @Modifying
+    @Query("update UploadSessionEntity s set s.status = :to where s.id = :id and s.status = :from")
+    int transitionStatus(
+            @Param("id") UUID id,
+            @Param("from") UploadSessionStatus from,
+            @Param("to") UploadSessionStatus to);
+
+    @Transactional
+    @Modifying
+    @Query("update UploadSessionEntity s " +
+            "set s.status = ru.paperless.documentservice.model.enums.UploadSessionStatus.COMPLETING, s.completingAt = :now " +
+            "where s.id = :id and s.status = ru.paperless.documentservice.model.enums.UploadSessionStatus.ACTIVE")
+    int startCompleting(@Param("id") UUID id, @Param("now") Instant now);
+
+    /**
+     * Возвращает в ACTIVE сессии, завершение которых началось раньше {@code cutoff} и так и не закончилось
+     * (например, экземпляр упал посреди переноса). Сессии без отметки остались от версий до V7.
+     */
+    @Transactional
+    @Modifying
+    @Query("update UploadSessionEntity s " +
+            "set s.status = ru.paperless.documentservice.model.enums.UploadSessionStatus.ACTIVE, s.completingAt = null " +
+            "where s.status = ru.paperless.documentservice.model.enums.UploadSessionStatus.COMPLETING " +
+            "and (s.completingAt is null or s.completingAt < :cutoff)")
+    int reclaimStuckCompleting(@Param("cutoff") Instant cutoff);
+
+    @Transactional
+    @Modifying
+    @Query("update UploadSessionEntity s set s.blobSha256 = :sha256 where s.id = :id")
+    int recordBlob(@Param("id") UUID id, @Param("sha256") String sha256);
+
+    // Завершаемые сессии не трогаем: их временный файл как раз переносится в хранилище. Зависшие
+    // в COMPLETING сначала возвращаются в ACTIVE через reclaimStuckCompleting
+    @Query("select s from UploadSessionEntity s where s.createdAt < :cutoff " +
+            "and s.status <> ru.paperless.documentservice.model.enums.UploadSessionStatus.COMPLETING and not exists (" +
+            "select c from UploadChunkEntity c where c.sessionId = s.id and c.receivedAt >= :cutoff)")
+    List<UploadSessionEntity> findAbandoned(@Param("cutoff") Instant cutoff, Limit limit);
+}
@@ -0,0 +1,12 @@
+package ru.paperless.documentservice.search;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record DocumentSearchCriteria(
+        String query,
+        UUID ownerId,
+        Instant from,
+        Instant to
+) {
+}
@@ -0,0 +1,147 @@
+package ru.paperless.documentservice.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.paperless.documentservice.model.DTO.DocumentResponseDTO;
+import ru.paperless.documentservice.model.DTO.DocumentSearchHitDTO;
+import ru.paperless.documentservice.model.enums.ProcessingStage;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Полнотекстовый индекс документов на Postgres: текст лежит в отдельной таблице
+ * {@code pl_document_texts}, чтобы большие строки не попадали в выборки метаданных, а
+ * {@code search_vector} — генерируемая колонка под GIN-индексом, поэтому индекс обновляется
+ * инкрементально вместе со вставкой строки. Имя файла весит больше текста (веса A и B).
+ * Схему создают миграции {@code V2__document_search.sql} и {@code V6__file_name_search_config.sql};
+ * обе части вектора строятся той же конфигурацией {@link #TEXT_SEARCH_CONFIG}, что и запрос.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class DocumentSearchRepository {
+
+    public static final String TEXT_SEARCH_CONFIG = "russian";
+
+    // Подсветка строится по началу текста: ts_headline заново разбирает весь документ
+    private static final int HEADLINE_TEXT_LENGTH = 100_000;
+
+    private static final String HEADLINE_OPTIONS = "MaxFragments=3, MaxWords=25, MinWords=8, StartSel=<mark>, StopSel=</mark>";
+
+    // Подсветка отдаётся клиенту как HTML, поэтому текст документа экранируется до ts_headline:
+    // разметка из файла остаётся текстом, а HTML в ответе — только теги <mark>. Парсер считает
+    // сущности вроде &lt; отдельными токенами, так что слова и фрагменты подсветки не меняются
+    private static final String HEADLINE_TEXT = "replace(replace(replace(left(t.content, :headlineLength), " +
+            "'&', '&amp;'), '<', '&lt;'), '>', '&gt;')";
+
+    private static final RowMapper<DocumentSearchHitDTO> HIT_MAPPER = (rs, rowNum) -> new DocumentSearchHitDTO(
+            new DocumentResponseDTO(
+                    rs.getObject("id", UUID.class),
+                    rs.getObject("owner_id", UUID.class),
+                    rs.getString("file_name"),
+                    rs.getString("content_type"),
+                    rs.getLong("size"),
+                    rs.getString("sha256"),
+                    rs.getTimestamp("created_at").toInstant(),
+                    rs.getString("processing_stage") == null ? null : ProcessingStage.valueOf(rs.getString("processing_stage"))),
+            rs.getDouble("rank"),
+            rs.getString("highlight"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Определяется при первом обращении, а не при старте: старт не должен ждать соединения с БД
+    private volatile Boolean supported;
+
+    public boolean isSupported() {
+        Boolean result = supported;
+        if (result == null) {
+            String database = jdbcTemplate.getJdbcTemplate().execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            result = "PostgreSQL".equals(database);
+            if (!result) {
+                log.warn("Full-text search requires PostgreSQL, {} detected: documents will not be indexed", database);
+            }
+            supported = result;
+        }
+        return result;
+    }
+
+    public void upsert(UUID documentId, UUID ownerId, Instant createdAt, String fileName, String content) {
+        jdbcTemplate.update("insert into pl_document_texts (document_id, owner_id, created_at, file_name, content) " +
+                        "values (:documentId, :ownerId, :createdAt, :fileName, :content) " +
+                        "on conflict (document_id) do update set file_name = excluded.file_name, content = excluded.content",
+                new MapSqlParameterSource()
+                        .addValue("documentId", documentId)
+                        .addValue("ownerId", ownerId)
+                        .addValue("createdAt", Timestamp.from(createdAt))
+                        .addValue("fileName", fileName)
+                        .addValue("content", content));
+    }
+
+    /**
+     * Одинаковое содержимое хранится одним blob, поэтому текст можно взять у уже проиндексированного
+     * документа с тем же SHA-256 вместо повторного разбора файла.
+     */
+    public boolean copyFromSameContent(UUID documentId, UUID ownerId, Instant createdAt, String fileName, String sha256) {
+        return jdbcTemplate.update("insert into pl_document_texts (document_id, owner_id, created_at, file_name, content) " +
+                        "select :documentId, :ownerId, :createdAt, :fileName, t.content " +
+                        "from pl_document_texts t join pl_documents d on d.id = t.document_id " +
+                        "where d.sha256 = :sha256 and d.id <> :documentId limit 1 " +
+                        "on conflict (document_id) do nothing",
+                new MapSqlParameterSource()
+                        .addValue("documentId", documentId)
+                        .addValue("ownerId", ownerId)
+                        .addValue("createdAt", Timestamp.from(createdAt))
+                        .addValue("fileName", fileName)
+                        .addValue("sha256", sha256)) > 0;
+    }
+
+    /**
+     * Ранжирование идёт по всем совпадениям, а ts_headline считается только для строк страницы.
+     */
+    public List<DocumentSearchHitDTO> search(DocumentSearchCriteria criteria, int limit, long offset) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("query", criteria.query())
+                .addValue("limit", limit)
+                .addValue("offset", offset)
+                .addValue("headlineLength", HEADLINE_TEXT_LENGTH)
+                .addValue("headlineOptions", HEADLINE_OPTIONS);
+        StringBuilder filters = new StringBuilder();
+        if (criteria.ownerId() != null) {
+            filters.append(" and t.owner_id = :ownerId");
+            parameters.addValue("ownerId", criteria.ownerId());
+        }
+        if (criteria.from() != null) {
+            filters.append(" and t.created_at >= :from");
+            parameters.addValue("from", Timestamp.from(criteria.from()));
+        }
+        if (criteria.to() != null) {
+            filters.append(" and t.created_at < :to");
+            parameters.addValue("to", Timestamp.from(criteria.to()));
+        }
+
+        String sql = "with query as (select websearch_to_tsquery('" + TEXT_SEARCH_CONFIG + "', :query) as q), " +
+                "hits as (" +
+                "select t.document_id, ts_rank_cd(t.search_vector, query.q, 1) as rank " +
+                "from pl_document_texts t, query " +
+                "where t.search_vector @@ query.q" + filters + " " +
+                "order by rank desc, t.document_id " +
+                "limit :limit offset :offset) " +
+                "select d.id, d.owner_id, d.file_name, d.content_type, d.size, d.sha256, d.created_at, d.processing_stage, h.rank, " +
+                "ts_headline('" + TEXT_SEARCH_CONFIG + "', " + HEADLINE_TEXT + ", query.q, :headlineOptions) as highlight " +
+                "from hits h " +
+                "join pl_document_texts t on t.document_id = h.document_id " +
+                "join pl_documents d on d.id = h.document_id " +
+                "cross join query " +
+                "order by h.rank desc, h.document_id";
+        return jdbcTemplate.query(sql, parameters, HIT_MAPPER);
+    }
+}
@@ -0,0 +1,72 @@
+package ru.paperless.documentservice.search;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Извлекает текст для индекса. PDF читается PDFBox с диска без загрузки файла в память,
+ * текстовые форматы читаются как UTF-8; остальные типы индексируются только по имени файла.
+ * Объём текста ограничен {@code paperless.search.max-text-length}, так как tsvector в Postgres не больше 1 МБ.
+ */
+@Component
+public class TextExtractor {
+
+    private final int maxTextLength;
+
+    private final int maxPdfPages;
+
+    public TextExtractor(@Value("${paperless.search.max-text-length:500000}") int maxTextLength,
+                         @Value("${paperless.search.max-pdf-pages:500}") int maxPdfPages) {
+        this.maxTextLength = maxTextLength;
+        this.maxPdfPages = maxPdfPages;
+    }
+
+    public String extract(Path file, String contentType) throws IOException {
+        String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+        String text;
+        if (type.startsWith("application/pdf")) {
+            text = extractPdf(file);
+        } else if (type.startsWith("text/")) {
+            text = extractPlainText(file);
+        } else {
+            return "";
+        }
+        // Postgres не хранит символ NUL в text
+        return text.replace('\u0000', ' ');
+    }
+
+    private String extractPdf(Path file) throws IOException {
+        try (PDDocument document = Loader.loadPDF(file.toFile())) {
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setEndPage(maxPdfPages);
+            return truncate(stripper.getText(document));
+        }
+    }
+
+    private String extractPlainText(Path file) throws IOException {
+        StringBuilder text = new StringBuilder();
+        char[] buffer = new char[8192];
+        try (Reader reader = new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8)) {
+            int read;
+            while (text.length() < maxTextLength && (read = reader.read(buffer)) != -1) {
+                text.append(buffer, 0, Math.min(read, maxTextLength - text.length()));
+            }
+        }
+        return text.toString();
+    }
+
+    private String truncate(String text) {
+        return text.length() > maxTextLength ? text.substring(0, maxTextLength) : text;
+    }
+}
@@ -0,0 +1,86 @@
+package ru.paperless.documentservice.service;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.paperless.documentservice.client.UserLookupCoalescer;
+import ru.paperless.documentservice.exception.InvalidSearchQueryException;
+import ru.paperless.documentservice.model.DTO.DocumentSearchHitDTO;
+import ru.paperless.documentservice.model.DTO.DocumentSearchPageDTO;
+import ru.paperless.documentservice.model.DTO.UserSummaryDTO;
+import ru.paperless.documentservice.search.DocumentSearchCriteria;
+import ru.paperless.documentservice.search.DocumentSearchRepository;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
+@Service
+@Timed(value = "documents.search", histogram = true)
+@RequiredArgsConstructor
+public class DocumentSearchService {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // Глубокие страницы требуют ранжировать все совпадения заново, дальше поиск нужно уточнять фильтрами
+    public static final int MAX_PAGE = 50;
+
+    private final DocumentSearchRepository documentSearchRepository;
+
+    private final UserLookupCoalescer userLookupCoalescer;
+
+    @Value("${paperless.user-service.timeout:2s}")
+    private Duration ownerLookupTimeout;
+
+    public DocumentSearchPageDTO search(DocumentSearchCriteria criteria, Integer page, Integer size) {
+        if (criteria.query() == null || criteria.query().isBlank()) {
+            throw new InvalidSearchQueryException("Поисковый запрос не может быть пустым");
+        }
+        if (criteria.from() != null && criteria.to() != null && !criteria.from().isBefore(criteria.to())) {
+            throw new InvalidSearchQueryException("Начало периода должно быть раньше конца");
+        }
+        if (!documentSearchRepository.isSupported()) {
+            throw new IllegalStateException("Full-text search requires PostgreSQL");
+        }
+        int pageNumber = page == null ? 0 : Math.max(0, page);
+        if (pageNumber > MAX_PAGE) {
+            throw new InvalidSearchQueryException("Номер страницы не может быть больше " + MAX_PAGE);
+        }
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        List<DocumentSearchHitDTO> hits = documentSearchRepository.search(
+                criteria, pageSize + 1, (long) pageNumber * pageSize);
+        boolean hasMore = hits.size() > pageSize;
+        List<DocumentSearchHitDTO> items = hasMore ? hits.subList(0, pageSize) : hits;
+        return new DocumentSearchPageDTO(items, resolveOwners(items), pageNumber, pageSize, hasMore);
+    }
+
+    // Владельцы — не главное в выдаче: при недоступности user-service отдаём результаты без них
+    private Map<UUID, UserSummaryDTO> resolveOwners(List<DocumentSearchHitDTO> items) {
+        Set<UUID> ownerIds = new LinkedHashSet<>();
+        items.forEach(hit -> ownerIds.add(hit.document().ownerId()));
+        if (ownerIds.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            return userLookupCoalescer.loadMany(ownerIds).get(ownerLookupTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Map.of();
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Failed to resolve {} document owners", ownerIds.size(), e);
+            return Map.of();
+        }
+    }
+}
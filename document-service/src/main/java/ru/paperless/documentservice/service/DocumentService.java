@@ -0,0 +1,93 @@
+package ru.paperless.documentservice.service;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.paperless.documentservice.event.DocumentStoredEvent;
+import ru.paperless.documentservice.exception.DocumentNotFoundException;
+import ru.paperless.documentservice.mapper.DocumentMapper;
+import ru.paperless.documentservice.model.DTO.DocumentResponseDTO;
+import ru.paperless.documentservice.model.entity.DocumentEntity;
+import ru.paperless.documentservice.model.enums.ProcessingStage;
+import ru.paperless.documentservice.pipeline.DocumentPipeline;
+import ru.paperless.documentservice.repository.DocumentRepository;
+import ru.paperless.documentservice.storage.BlobStorage;
+import ru.paperless.documentservice.storage.StoredBlob;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@Timed(value = "documents.service", histogram = true)
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class DocumentService {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private final DocumentRepository documentRepository;
+
+    private final DocumentMapper documentMapper;
+
+    private final BlobStorage blobStorage;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final DocumentPipeline documentPipeline;
+
+    public DocumentResponseDTO getDocumentById(UUID id) {
+        return documentMapper.toDto(getDocumentEntityById(id));
+    }
+
+    public List<DocumentResponseDTO> getDocumentsByOwner(UUID ownerId, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return documentRepository.findByOwnerIdOrderByCreatedAtDesc(ownerId, Limit.of(pageSize)).stream()
+                .map(documentMapper::toDto)
+                .toList();
+    }
+
+    // Поток тела запроса пишется на диск вне транзакции, чтобы долгая загрузка не держала соединение с БД
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public DocumentResponseDTO uploadDocument(UUID ownerId,
+                                              String fileName,
+                                              String contentType,
+                                              InputStream content) throws IOException {
+        documentPipeline.checkCapacity();
+        StoredBlob blob = blobStorage.store(content);
+        return saveDocument(ownerId, fileName, contentType, blob);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public DocumentResponseDTO saveDocument(UUID ownerId, String fileName, String contentType, StoredBlob blob) {
+        DocumentEntity document = DocumentEntity.builder()
+                .ownerId(ownerId)
+                .fileName(fileName)
+                .contentType(contentType)
+                .size(blob.size())
+                .sha256(blob.sha256())
+                .processingStage(ProcessingStage.EXTRACT_TEXT)
+                .build();
+        DocumentResponseDTO saved = documentMapper.toDto(documentRepository.save(document));
+        eventPublisher.publishEvent(new DocumentStoredEvent(saved));
+        return saved;
+    }
+
+    public Path getContentPath(DocumentResponseDTO document) {
+        return blobStorage.resolve(document.sha256());
+    }
+
+    private DocumentEntity getDocumentEntityById(UUID id) {
+        return documentRepository
+                .findById(id)
+                .orElseThrow(() -> new DocumentNotFoundException("Документ с ID: " + id + " не найден"));
+    }
+}
@@ -0,0 +1,321 @@
+package ru.paperless.documentservice.service;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.paperless.documentservice.exception.InvalidChunkException;
+import ru.paperless.documentservice.exception.UploadIncompleteException;
+import ru.paperless.documentservice.exception.UploadSessionNotFoundException;
+import ru.paperless.documentservice.model.DTO.DocumentResponseDTO;
+import ru.paperless.documentservice.model.DTO.UploadInitiateRequestDTO;
+import ru.paperless.documentservice.model.DTO.UploadSessionResponseDTO;
+import ru.paperless.documentservice.model.entity.UploadSessionEntity;
+import ru.paperless.documentservice.model.enums.UploadSessionStatus;
+import ru.paperless.documentservice.pipeline.DocumentPipeline;
+import ru.paperless.documentservice.repository.UploadChunkRepository;
+import ru.paperless.documentservice.repository.UploadSessionRepository;
+import ru.paperless.documentservice.storage.BlobStorage;
+import ru.paperless.documentservice.storage.StoredBlob;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Загрузка больших файлов частями. Под сессию заранее выделяется файл полного размера, каждая часть
+ * пишется позиционной записью по своему смещению, поэтому части можно слать параллельно и в любом
+ * порядке, а после обрыва — дослать только недостающие. При завершении файл один раз читается для
+ * подсчёта SHA-256 и переносится в хранилище без копирования.
+ * <p>
+ * Запись частей и переход в COMPLETING разделены блокировкой сессии: части пишутся под общей, а статус
+ * меняется под исключительной, и после неё запись видит COMPLETING и отклоняется. Иначе часть, пришедшая
+ * одновременно с завершением, могла бы изменить файл, пока он хэшируется и переносится. Блокировка
+ * локальна для процесса, как и временный файл сессии.
+ */
+@Slf4j
+@Service
+@Timed(value = "documents.uploads", histogram = true)
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class UploadService {
+
+    public static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int CLEANUP_BATCH_SIZE = 100;
+
+    private final UploadSessionRepository uploadSessionRepository;
+
+    private final UploadChunkRepository uploadChunkRepository;
+
+    private final DocumentService documentService;
+
+    private final BlobStorage blobStorage;
+
+    private final DocumentPipeline documentPipeline;
+
+    private final ConcurrentMap<UUID, ReadWriteLock> sessionLocks = new ConcurrentHashMap<>();
+
+    @Value("${paperless.uploads.session-ttl:24h}")
+    private Duration sessionTtl;
+
+    @Value("${paperless.uploads.completing-timeout:1h}")
+    private Duration completingTimeout;
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public UploadSessionResponseDTO initiateUpload(UploadInitiateRequestDTO request) throws IOException {
+        documentPipeline.checkCapacity();
+        int chunkSize = request.chunkSize() == null ? DEFAULT_CHUNK_SIZE : request.chunkSize();
+        long chunkCount = (request.totalSize() + chunkSize - 1) / chunkSize;
+        if (chunkCount > Integer.MAX_VALUE) {
+            throw new InvalidChunkException("Слишком много частей для размера файла " + request.totalSize());
+        }
+
+        Path tempFile = blobStorage.createTempFile("session-");
+        try (RandomAccessFile file = new RandomAccessFile(tempFile.toFile(), "rw")) {
+            file.setLength(request.totalSize());
+        } catch (IOException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+
+        UploadSessionEntity session = uploadSessionRepository.save(UploadSessionEntity.builder()
+                .ownerId(request.ownerId())
+                .fileName(request.fileName())
+                .contentType(request.contentType() == null ? "application/octet-stream" : request.contentType())
+                .totalSize(request.totalSize())
+                .chunkSize(chunkSize)
+                .chunkCount((int) chunkCount)
+                .tempPath(tempFile.toString())
+                .status(UploadSessionStatus.ACTIVE)
+                .build());
+        return toDto(session, List.of());
+    }
+
+    // Тело части пишется на диск вне транзакции, соединение с БД берётся только для отметки о приёме
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void uploadChunk(UUID sessionId, int chunkIndex, InputStream content) throws IOException {
+        // Первая проверка отсеивает чужие и завершённые сессии до того, как для них заведётся блокировка
+        getActiveSession(sessionId);
+        Lock lock = sessionLock(sessionId).readLock();
+        lock.lock();
+        try {
+            writeChunk(getActiveSession(sessionId), chunkIndex, content);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void writeChunk(UploadSessionEntity session, int chunkIndex, InputStream content) throws IOException {
+        UUID sessionId = session.getId();
+        if (chunkIndex < 0 || chunkIndex >= session.getChunkCount()) {
+            throw new InvalidChunkException("Номер части " + chunkIndex + " вне диапазона 0.." + (session.getChunkCount() - 1));
+        }
+        if (isCommitted(session)) {
+            throw new UploadIncompleteException("Файл загрузки " + sessionId + " уже перенесён в хранилище, повторите завершение");
+        }
+
+        long offset = session.chunkOffset(chunkIndex);
+        long expectedLength = session.chunkLength(chunkIndex);
+        long written = 0;
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (FileChannel channel = FileChannel.open(Path.of(session.getTempPath()), StandardOpenOption.WRITE)) {
+            int read;
+            while ((read = content.read(buffer, 0, (int) Math.min(buffer.length, expectedLength - written + 1))) != -1) {
+                if (written + read > expectedLength) {
+                    throw new InvalidChunkException("Часть " + chunkIndex + " больше ожидаемых " + expectedLength + " байт");
+                }
+                ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                while (chunk.hasRemaining()) {
+                    written += channel.write(chunk, offset + written);
+                }
+            }
+            channel.force(false);
+        }
+        if (written != expectedLength) {
+            throw new InvalidChunkException("Часть " + chunkIndex + " содержит " + written + " байт, ожидалось " + expectedLength);
+        }
+
+        uploadChunkRepository.upsertChunk(sessionId, chunkIndex, written, Instant.now());
+    }
+
+    public UploadSessionResponseDTO getUploadSession(UUID sessionId) {
+        UploadSessionEntity session = getSession(sessionId);
+        return toDto(session, uploadChunkRepository.findChunkIndexes(sessionId));
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public DocumentResponseDTO completeUpload(UUID sessionId) throws IOException {
+        UploadSessionEntity session = getActiveSession(sessionId);
+        documentPipeline.checkCapacity();
+        // Не ждём: часть может загружаться долго, а клиент повторит завершение, когда она придёт
+        Lock lock = sessionLock(sessionId).writeLock();
+        if (!lock.tryLock()) {
+            throw new UploadIncompleteException("Части загрузки " + sessionId + " ещё записываются, повторите завершение");
+        }
+        try {
+            long received = uploadChunkRepository.countBySessionId(sessionId);
+            if (received != session.getChunkCount()) {
+                throw new UploadIncompleteException("Получено " + received + " из " + session.getChunkCount() + " частей загрузки " + sessionId);
+            }
+            if (uploadSessionRepository.startCompleting(sessionId, Instant.now()) == 0) {
+                throw new UploadIncompleteException("Загрузка " + sessionId + " уже завершается");
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            StoredBlob blob = commitBlob(session);
+            DocumentResponseDTO document = documentService.saveDocument(
+                    session.getOwnerId(), session.getFileName(), session.getContentType(), blob);
+
+            session.setStatus(UploadSessionStatus.COMPLETED);
+            session.setDocumentId(document.id());
+            uploadSessionRepository.save(session);
+            uploadChunkRepository.deleteBySessionId(sessionId);
+            sessionLocks.remove(sessionId);
+            return document;
+        } catch (IOException | RuntimeException e) {
+            uploadSessionRepository.transitionStatus(sessionId, UploadSessionStatus.COMPLETING, UploadSessionStatus.ACTIVE);
+            throw e;
+        }
+    }
+
+    /**
+     * Хэш записывается в сессию до переноса файла. Если после переноса не сохранится документ, сессия
+     * вернётся в ACTIVE уже без временного файла, и повторное завершение возьмёт перенесённый blob.
+     */
+    private StoredBlob commitBlob(UploadSessionEntity session) throws IOException {
+        Path tempFile = Path.of(session.getTempPath());
+        if (isCommitted(session)) {
+            if (!Files.exists(blobStorage.resolve(session.getBlobSha256()))) {
+                throw new IOException("Blob " + session.getBlobSha256() + " of upload session " + session.getId() + " is missing");
+            }
+            return new StoredBlob(session.getBlobSha256(), session.getTotalSize(), true);
+        }
+        String sha256 = BlobStorage.sha256Of(tempFile);
+        uploadSessionRepository.recordBlob(session.getId(), sha256);
+        session.setBlobSha256(sha256);
+        return blobStorage.commit(tempFile, sha256, session.getTotalSize());
+    }
+
+    private boolean isCommitted(UploadSessionEntity session) {
+        return session.getBlobSha256() != null && !Files.exists(Path.of(session.getTempPath()));
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void abortUpload(UUID sessionId) throws IOException {
+        deleteSession(getActiveSession(sessionId));
+    }
+
+    /**
+     * Удаляет сессии, по которым дольше {@code paperless.uploads.session-ttl} не приходило ни одной части,
+     * вместе с их временными файлами. Сессии, застрявшие в COMPLETING дольше
+     * {@code paperless.uploads.completing-timeout}, сначала возвращаются в ACTIVE: клиент может повторить
+     * завершение, а если не вернётся, сессию удалит эта же очистка.
+     */
+    @Scheduled(fixedDelayString = "${paperless.uploads.cleanup-interval:10m}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void cleanupAbandonedUploads() {
+        Instant now = Instant.now();
+        int reclaimed = uploadSessionRepository.reclaimStuckCompleting(now.minus(completingTimeout));
+        if (reclaimed > 0) {
+            log.warn("Reclaimed {} upload sessions stuck in COMPLETING for over {}", reclaimed, completingTimeout);
+        }
+        Instant cutoff = now.minus(sessionTtl);
+        List<UploadSessionEntity> abandoned;
+        do {
+            abandoned = uploadSessionRepository.findAbandoned(cutoff, Limit.of(CLEANUP_BATCH_SIZE));
+            for (UploadSessionEntity session : abandoned) {
+                try {
+                    deleteSession(session);
+                } catch (IOException e) {
+                    log.warn("Failed to delete temp file of upload session {}", session.getId(), e);
+                    return;
+                }
+            }
+        } while (abandoned.size() == CLEANUP_BATCH_SIZE);
+    }
+
+    private void deleteSession(UploadSessionEntity session) throws IOException {
+        if (session.getStatus() != UploadSessionStatus.COMPLETED) {
+            Files.deleteIfExists(Path.of(session.getTempPath()));
+        }
+        uploadChunkRepository.deleteBySessionId(session.getId());
+        uploadSessionRepository.deleteById(session.getId());
+        sessionLocks.remove(session.getId());
+    }
+
+    // Удаление блокировки после завершения безопасно: получивший её позже увидит статус не ACTIVE
+    private ReadWriteLock sessionLock(UUID sessionId) {
+        return sessionLocks.computeIfAbsent(sessionId, id -> new ReentrantReadWriteLock());
+    }
+
+    private UploadSessionEntity getActiveSession(UUID sessionId) {
+        UploadSessionEntity session = getSession(sessionId);
+        if (session.getStatus() != UploadSessionStatus.ACTIVE) {
+            throw new UploadIncompleteException("Загрузка " + sessionId + " уже завершена");
+        }
+        return session;
+    }
+
+    private UploadSessionEntity getSession(UUID sessionId) {
+        return uploadSessionRepository
+                .findById(sessionId)
+                .orElseThrow(() -> new UploadSessionNotFoundException("Загрузка с ID: " + sessionId + " не найдена"));
+    }
+
+    private UploadSessionResponseDTO toDto(UploadSessionEntity session, List<Integer> receivedChunks) {
+        return new UploadSessionResponseDTO(
+                session.getId(),
+                session.getFileName(),
+                session.getTotalSize(),
+                session.getChunkSize(),
+                session.getChunkCount(),
+                session.getStatus(),
+                receivedChunks,
+                receivedRanges(session, receivedChunks),
+                session.getDocumentId(),
+                session.getCreatedAt());
+    }
+
+    // Подряд идущие части склеиваются в байтовые диапазоны, чтобы клиенту было проще досылать недостающее
+    private List<String> receivedRanges(UploadSessionEntity session, List<Integer> receivedChunks) {
+        List<String> ranges = new ArrayList<>();
+        int i = 0;
+        while (i < receivedChunks.size()) {
+            int first = receivedChunks.get(i);
+            int last = first;
+            while (i + 1 < receivedChunks.size() && receivedChunks.get(i + 1) == last + 1) {
+                last = receivedChunks.get(++i);
+            }
+            long end = session.chunkOffset(last) + session.chunkLength(last) - 1;
+            ranges.add("bytes=" + session.chunkOffset(first) + "-" + end);
+            i++;
+        }
+        return ranges;
+    }
+}
@@ -0,0 +1,156 @@
+package ru.paperless.documentservice.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * Контентно-адресуемое хранилище файлов: blob лежит по пути {@code blobs/ab/cd/<sha256>},
+ * поэтому одинаковые сканы хранятся один раз. Загрузка пишется во временный файл через
+ * {@link FileChannel} фиксированным буфером и атомарно переносится на место после подсчёта хэша.
+ */
+@Slf4j
+@Component
+public class BlobStorage {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path blobsDirectory;
+
+    private final Path tempDirectory;
+
+    public BlobStorage(@Value("${paperless.storage.root}") Path root) throws IOException {
+        this.blobsDirectory = Files.createDirectories(root.resolve("blobs"));
+        this.tempDirectory = Files.createDirectories(root.resolve("tmp"));
+    }
+
+    public StoredBlob store(InputStream content) throws IOException {
+        Path tempFile = createTempFile("upload-");
+        try {
+            MessageDigest digest = sha256Digest();
+            long size = 0;
+            byte[] buffer = new byte[BUFFER_SIZE];
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                    ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                    while (chunk.hasRemaining()) {
+                        channel.write(chunk);
+                    }
+                    size += read;
+                }
+                channel.force(false);
+            }
+            return commit(tempFile, HexFormat.of().formatHex(digest.digest()), size);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Переносит уже записанный и посчитанный файл в хранилище без копирования. Если такой blob
+     * уже есть, временный файл удаляется.
+     */
+    public StoredBlob commit(Path tempFile, String sha256, long size) throws IOException {
+        Path target = resolve(sha256);
+        if (Files.exists(target)) {
+            Files.deleteIfExists(tempFile);
+            touch(target);
+            return new StoredBlob(sha256, size, true);
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+            return new StoredBlob(sha256, size, false);
+        } catch (FileAlreadyExistsException e) {
+            log.debug("Blob {} was stored concurrently, dropping duplicate", sha256);
+            Files.deleteIfExists(tempFile);
+            return new StoredBlob(sha256, size, true);
+        }
+    }
+
+    /**
+     * Удаляет blob, если к нему не обращались дольше {@code idle}. Повторная загрузка того же
+     * содержимого обновляет время изменения, поэтому blob, который только что нашла загрузка
+     * и на который она вот-вот сошлётся, не удаляется.
+     */
+    public boolean deleteIfIdle(String sha256, Duration idle) throws IOException {
+        return deleteIfUntouchedSince(sha256, Instant.now().minus(idle));
+    }
+
+    /**
+     * Удаляет blob, если его время изменения не позже {@code since}. Загрузка, которая не смогла
+     * сослаться на только что сохранённый blob, передаёт сюда момент сохранения: если тем временем
+     * то же содержимое нашла параллельная загрузка, она обновила время изменения, и blob остаётся.
+     */
+    public boolean deleteIfUntouchedSince(String sha256, Instant since) throws IOException {
+        Path file = resolve(sha256);
+        try {
+            if (Files.getLastModifiedTime(file).toInstant().isAfter(since)) {
+                return false;
+            }
+        } catch (NoSuchFileException e) {
+            return true;
+        }
+        Files.deleteIfExists(file);
+        return true;
+    }
+
+    public static String sha256Of(Path file) throws IOException {
+        MessageDigest digest = sha256Digest();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE * 16);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public Path createTempFile(String prefix) throws IOException {
+        return Files.createTempFile(tempDirectory, prefix, ".part");
+    }
+
+    public Path resolve(String sha256) {
+        return blobsDirectory
+                .resolve(sha256.substring(0, 2))
+                .resolve(sha256.substring(2, 4))
+                .resolve(sha256);
+    }
+
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            log.debug("Failed to touch blob {}", file, e);
+        }
+    }
+
+    public static MessageDigest sha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package ru.paperless.documentservice.storage;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Отдаёт диапазон файла. Если коннектор Tomcat поддерживает sendfile, передача целиком уходит
+ * в ядро без копирования через heap. Иначе файл копируется {@link FileChannel#transferTo} в поток
+ * ответа; у сервлетного потока нет файлового дескриптора, так что это обычное копирование через
+ * буфер в heap.
+ */
+public final class BlobTransfer {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private BlobTransfer() {
+    }
+
+    public static void transfer(HttpServletRequest request,
+                                HttpServletResponse response,
+                                Path file,
+                                long start,
+                                long length) throws IOException {
+        response.setContentLengthLong(length);
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            transfer(response, channel, start, length);
+        }
+    }
+
+    /**
+     * Отдаёт диапазон уже открытого файла. Sendfile здесь не подходит: Tomcat открывает файл
+     * по имени сам, уже после возврата из контроллера, а к тому времени его могут удалить.
+     */
+    public static void transfer(HttpServletResponse response,
+                                FileChannel channel,
+                                long start,
+                                long length) throws IOException {
+        response.setContentLengthLong(length);
+        WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+        long position = start;
+        long remaining = length;
+        while (remaining > 0) {
+            long transferred = channel.transferTo(position, remaining, target);
+            if (transferred <= 0) {
+                break;
+            }
+            position += transferred;
+            remaining -= transferred;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package ru.paperless.documentservice.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Блоки версий документов, адресуемые SHA-256: {@code blocks/ab/cd/<sha256>}, как у {@link BlobStorage}.
+ * Хранилище ничего не знает о ссылках на блоки: учёт ссылок и удаление ведёт
+ * {@link ru.paperless.documentservice.versioning.BlockRepository}.
+ */
+@Component
+public class BlockStore {
+
+    private final Path blocksDirectory;
+
+    private final Path tempDirectory;
+
+    public BlockStore(@Value("${paperless.storage.root}") Path root) throws IOException {
+        this.blocksDirectory = Files.createDirectories(root.resolve("blocks"));
+        this.tempDirectory = Files.createDirectories(root.resolve("tmp"));
+    }
+
+    /**
+     * Записывает блок, если его ещё нет. Возвращает {@code true}, если блок записан этим вызовом.
+     */
+    public boolean write(String hash, byte[] data, int offset, int length) throws IOException {
+        Path target = resolve(hash);
+        if (Files.exists(target)) {
+            return false;
+        }
+        Files.createDirectories(target.getParent());
+        Path tempFile = Files.createTempFile(tempDirectory, "block-", ".part");
+        try {
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                ByteBuffer chunk = ByteBuffer.wrap(data, offset, length);
+                while (chunk.hasRemaining()) {
+                    channel.write(chunk);
+                }
+            }
+            // Одинаковый блок из параллельной загрузки заменяется тем же содержимым
+            Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Копирует блок в поток через переданный буфер, не выделяя память на каждый блок.
+     */
+    public void copyTo(String hash, OutputStream out, byte[] buffer) throws IOException {
+        try (FileChannel channel = FileChannel.open(resolve(hash), StandardOpenOption.READ)) {
+            ByteBuffer wrapped = ByteBuffer.wrap(buffer);
+            int read;
+            while ((read = channel.read(wrapped.clear())) != -1) {
+                out.write(buffer, 0, read);
+            }
+        } catch (NoSuchFileException e) {
+            throw new IllegalStateException("Block " + hash + " is missing from the block store", e);
+        }
+    }
+
+    public void delete(String hash) throws IOException {
+        Files.deleteIfExists(resolve(hash));
+    }
+
+    public Path resolve(String hash) {
+        return blocksDirectory
+                .resolve(hash.substring(0, 2))
+                .resolve(hash.substring(2, 4))
+                .resolve(hash);
+    }
+}
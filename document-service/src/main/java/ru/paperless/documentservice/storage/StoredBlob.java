@@ -0,0 +1,8 @@
+package ru.paperless.documentservice.storage;
+
+public record StoredBlob(
+        String sha256,
+        long size,
+        boolean deduplicated
+) {
+}
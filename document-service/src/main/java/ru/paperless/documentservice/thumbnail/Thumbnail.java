@@ -0,0 +1,33 @@
+package ru.paperless.documentservice.thumbnail;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+/**
+ * Готовое превью: открытый файл из кэша или байты рендера. Файл открывается кэшем до того, как
+ * вытеснение успеет его удалить, поэтому канал читается до конца в любом случае; закрывает его
+ * тот, кто отдаёт превью.
+ */
+public record Thumbnail(
+        ThumbnailKey key,
+        FileChannel channel,
+        byte[] content,
+        long size
+) implements Closeable {
+
+    public static Thumbnail cached(ThumbnailKey key, FileChannel channel, long size) {
+        return new Thumbnail(key, channel, null, size);
+    }
+
+    public static Thumbnail rendered(ThumbnailKey key, byte[] content) {
+        return new Thumbnail(key, null, content, content.length);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package ru.paperless.documentservice.thumbnail;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Дисковый LRU-кэш превью с бюджетом в байтах. На диске — по файлу на превью в
+ * {@code <storage.root>/thumbnails}, в памяти — только индекс «имя → размер» в порядке доступа.
+ * Попадание открывает файл под тем же замком, под которым вытеснение удаляет файлы: открытый канал
+ * остаётся читаемым, даже если параллельный {@link #put} тут же вытеснит превью. После перезапуска
+ * индекс восстанавливается по файлам в порядке их создания.
+ */
+@Slf4j
+@Component
+public class ThumbnailCache {
+
+    private static final String SUFFIX = ".jpg";
+
+    private final Path directory;
+
+    private final long maxBytes;
+
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private long usedBytes;
+
+    public ThumbnailCache(@Value("${paperless.storage.root}") Path root,
+                          @Value("${paperless.thumbnails.cache-size:1GB}") DataSize maxSize) throws IOException {
+        this.directory = Files.createDirectories(root.resolve("thumbnails"));
+        this.maxBytes = maxSize.toBytes();
+        load();
+    }
+
+    public Thumbnail get(ThumbnailKey key) throws IOException {
+        Thumbnail thumbnail = open(key);
+        (thumbnail == null ? misses : hits).increment();
+        return thumbnail;
+    }
+
+    // Без учёта в статистике попаданий: для повторных проверок перед рендером
+    public boolean contains(ThumbnailKey key) {
+        synchronized (entries) {
+            return entries.containsKey(key.fileName());
+        }
+    }
+
+    /**
+     * Содержимое превью из кэша или {@code null}, без учёта в статистике попаданий. Для рендера,
+     * который обнаружил, что превью уже построено: его результат делят все ждавшие запросы.
+     */
+    public byte[] read(ThumbnailKey key) throws IOException {
+        try (Thumbnail thumbnail = open(key)) {
+            if (thumbnail == null) {
+                return null;
+            }
+            ByteBuffer content = ByteBuffer.allocate(Math.toIntExact(thumbnail.size()));
+            while (content.hasRemaining() && thumbnail.channel().read(content) != -1) {
+                // читаем до конца
+            }
+            return content.array();
+        }
+    }
+
+    /**
+     * Кладёт превью в кэш и вытесняет самые давние, пока не уложится в бюджет. Возвращаются
+     * сами байты рендера: они уже в памяти, а файл к моменту отдачи могут вытеснить. Превью больше
+     * всего бюджета не кэшируется.
+     */
+    public Thumbnail put(ThumbnailKey key, byte[] content) throws IOException {
+        if (content.length > maxBytes) {
+            return Thumbnail.rendered(key, content);
+        }
+        String name = key.fileName();
+        Path target = directory.resolve(name);
+        Path tempFile = Files.createTempFile(directory, "render-", ".part");
+        try {
+            Files.write(tempFile, content);
+            Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        synchronized (entries) {
+            Long previous = entries.put(name, (long) content.length);
+            usedBytes += content.length - (previous == null ? 0 : previous);
+            // Удаление под замком: иначе файл, заново положенный параллельным рендером, можно стереть
+            evictOverBudget();
+        }
+        return Thumbnail.rendered(key, content);
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public long usedBytes() {
+        synchronized (entries) {
+            return usedBytes;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    private Thumbnail open(ThumbnailKey key) throws IOException {
+        String name = key.fileName();
+        synchronized (entries) {
+            Long size = entries.get(name);
+            if (size == null) {
+                return null;
+            }
+            try {
+                return Thumbnail.cached(key, FileChannel.open(directory.resolve(name), StandardOpenOption.READ), size);
+            } catch (NoSuchFileException e) {
+                // Файл удалили в обход кэша — считаем превью вытесненным
+                entries.remove(name);
+                usedBytes -= size;
+                return null;
+            }
+        }
+    }
+
+    private void evictOverBudget() {
+        Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+        while (usedBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            eldest.remove();
+            usedBytes -= entry.getValue();
+            evictions.increment();
+            try {
+                Files.deleteIfExists(directory.resolve(entry.getKey()));
+            } catch (IOException e) {
+                log.warn("Failed to delete evicted thumbnail {}", entry.getKey(), e);
+            }
+        }
+    }
+
+    private void load() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.toList();
+        }
+        List<Path> thumbnails = files.stream()
+                .filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+                .sorted(Comparator.comparing(ThumbnailCache::lastModified))
+                .toList();
+        synchronized (entries) {
+            for (Path file : thumbnails) {
+                long size = Files.size(file);
+                entries.put(file.getFileName().toString(), size);
+                usedBytes += size;
+            }
+            evictOverBudget();
+        }
+        // Недописанные файлы прошлого запуска
+        for (Path file : files) {
+            if (!file.getFileName().toString().endsWith(SUFFIX)) {
+                Files.deleteIfExists(file);
+            }
+        }
+        if (!thumbnails.isEmpty()) {
+            log.info("Thumbnail cache loaded: {} files, {} bytes of {}", size(), usedBytes(), maxBytes);
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package ru.paperless.documentservice.thumbnail;
+
+import java.util.Locale;
+
+/**
+ * Превью адресуется содержимым, а не документом: одинаковые сканы делят один файл в кэше.
+ */
+public record ThumbnailKey(
+        String sha256,
+        int page,
+        ThumbnailSize size
+) {
+
+    public String fileName() {
+        return sha256 + "-p" + page + "-" + size.name().toLowerCase(Locale.ROOT) + ".jpg";
+    }
+
+    public String eTag() {
+        return "\"" + sha256 + "-p" + page + "-" + size.name().toLowerCase(Locale.ROOT) + "\"";
+    }
+}
@@ -0,0 +1,62 @@
+package ru.paperless.documentservice.thumbnail;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+@Component
+@RequiredArgsConstructor
+public class ThumbnailMetrics implements MeterBinder {
+
+    private final ThumbnailService thumbnailService;
+
+    private final ThumbnailCache thumbnailCache;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("documents.thumbnails.cache.requests", thumbnailCache, ThumbnailCache::hits)
+                .description("Запросы превью, отданные из кэша")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("documents.thumbnails.cache.requests", thumbnailCache, ThumbnailCache::misses)
+                .description("Запросы превью, которых не было в кэше")
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("documents.thumbnails.cache.evictions", thumbnailCache, ThumbnailCache::evictions)
+                .description("Превью, вытесненные из кэша по бюджету")
+                .register(registry);
+        Gauge.builder("documents.thumbnails.cache.size", thumbnailCache, ThumbnailCache::usedBytes)
+                .description("Объём превью на диске")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("documents.thumbnails.cache.max-size", thumbnailCache, ThumbnailCache::maxBytes)
+                .description("Бюджет кэша превью")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("documents.thumbnails.cache.entries", thumbnailCache, ThumbnailCache::size)
+                .description("Число превью в кэше")
+                .register(registry);
+        FunctionTimer.builder("documents.thumbnails.render", thumbnailService,
+                        ThumbnailService::renders, ThumbnailService::renderNanos, TimeUnit.NANOSECONDS)
+                .description("Рендер превью")
+                .register(registry);
+        FunctionCounter.builder("documents.thumbnails.render.joined", thumbnailService, ThumbnailService::joined)
+                .description("Запросы, дождавшиеся уже идущего рендера того же превью")
+                .register(registry);
+        FunctionCounter.builder("documents.thumbnails.render.rejected", thumbnailService, ThumbnailService::rejected)
+                .description("Рендеры, отклонённые из-за переполненной очереди")
+                .register(registry);
+        Gauge.builder("documents.thumbnails.render.queue.depth", thumbnailService, ThumbnailService::queueDepth)
+                .description("Длина очереди рендера")
+                .register(registry);
+        Gauge.builder("documents.thumbnails.render.active", thumbnailService, ThumbnailService::activeRenders)
+                .description("Превью, которые рендерятся сейчас")
+                .register(registry);
+    }
+}
@@ -0,0 +1,83 @@
+package ru.paperless.documentservice.thumbnail;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.stereotype.Component;
+import ru.paperless.documentservice.exception.ThumbnailUnavailableException;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Рендерит страницу документа в JPEG заданной ширины. PDF растрируется PDFBox сразу в нужном
+ * масштабе, а не в полном разрешении с последующим уменьшением; картинки (у них одна страница)
+ * масштабируются через Java2D. Остальные типы превью не имеют.
+ */
+@Component
+public class ThumbnailRenderer {
+
+    public static boolean isSupported(String contentType) {
+        String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+        return type.startsWith("application/pdf") || type.startsWith("image/");
+    }
+
+    public byte[] render(Path file, String contentType, int page, ThumbnailSize size) throws IOException {
+        if (!isSupported(contentType)) {
+            throw new ThumbnailUnavailableException("Для документов типа " + contentType + " превью не строится");
+        }
+        BufferedImage image = contentType.toLowerCase(Locale.ROOT).startsWith("application/pdf")
+                ? renderPdf(file, page, size.getWidth())
+                : renderImage(file, page, size.getWidth());
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32 * 1024);
+        ImageIO.write(image, "jpg", out);
+        return out.toByteArray();
+    }
+
+    private BufferedImage renderPdf(Path file, int page, int width) throws IOException {
+        try (PDDocument document = Loader.loadPDF(file.toFile())) {
+            checkPage(page, document.getNumberOfPages());
+            PDPage pdPage = document.getPage(page - 1);
+            PDRectangle box = pdPage.getCropBox();
+            float pageWidth = pdPage.getRotation() % 180 == 0 ? box.getWidth() : box.getHeight();
+            PDFRenderer renderer = new PDFRenderer(document);
+            // Для превью полное разрешение встроенных сканов не нужно
+            renderer.setSubsamplingAllowed(true);
+            return renderer.renderImage(page - 1, width / pageWidth, ImageType.RGB);
+        }
+    }
+
+    private BufferedImage renderImage(Path file, int page, int width) throws IOException {
+        checkPage(page, 1);
+        BufferedImage source = ImageIO.read(file.toFile());
+        if (source == null) {
+            throw new ThumbnailUnavailableException("Формат изображения не поддерживается");
+        }
+        int targetWidth = Math.min(width, source.getWidth());
+        int targetHeight = Math.max(1, Math.round((float) source.getHeight() * targetWidth / source.getWidth()));
+        BufferedImage target = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(source, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static void checkPage(int page, int pageCount) {
+        if (page < 1 || page > pageCount) {
+            throw new ThumbnailUnavailableException("Страница " + page + " отсутствует в документе (страниц: " + pageCount + ")");
+        }
+    }
+}
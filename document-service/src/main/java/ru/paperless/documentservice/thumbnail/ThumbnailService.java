@@ -0,0 +1,195 @@
+package ru.paperless.documentservice.thumbnail;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.paperless.documentservice.exception.ThumbnailRenderingOverloadedException;
+import ru.paperless.documentservice.model.DTO.DocumentResponseDTO;
+import ru.paperless.documentservice.storage.BlobStorage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Превью страниц документов. Рендер идёт в отдельном пуле по числу ядер с ограниченной очередью:
+ * при её переполнении запрос получает 503, а не копит работу, которую клиент уже не дождётся.
+ * Одновременные запросы одного ещё не готового превью ждут один и тот же рендер (single-flight),
+ * поэтому всплеск просмотров свежего документа стоит одной растеризации.
+ */
+@Slf4j
+@Service
+public class ThumbnailService {
+
+    private final BlobStorage blobStorage;
+
+    private final ThumbnailRenderer thumbnailRenderer;
+
+    private final ThumbnailCache thumbnailCache;
+
+    private final Duration renderTimeout;
+
+    private final ThreadPoolExecutor renderPool;
+
+    private final ConcurrentHashMap<ThumbnailKey, CompletableFuture<Thumbnail>> rendering = new ConcurrentHashMap<>();
+
+    private final LongAdder renders = new LongAdder();
+
+    private final LongAdder renderNanos = new LongAdder();
+
+    private final LongAdder joined = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    public ThumbnailService(BlobStorage blobStorage,
+                            ThumbnailRenderer thumbnailRenderer,
+                            ThumbnailCache thumbnailCache,
+                            @Value("${paperless.thumbnails.render-threads:0}") int renderThreads,
+                            @Value("${paperless.thumbnails.queue-capacity:64}") int queueCapacity,
+                            @Value("${paperless.thumbnails.render-timeout:10s}") Duration renderTimeout) {
+        this.blobStorage = blobStorage;
+        this.thumbnailRenderer = thumbnailRenderer;
+        this.thumbnailCache = thumbnailCache;
+        this.renderTimeout = renderTimeout;
+        int threads = renderThreads > 0 ? renderThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.renderPool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> Thread.ofPlatform()
+                        .name("thumbnail-render-" + counter.getAndIncrement())
+                        .daemon(true)
+                        .unstarted(task));
+        log.info("Thumbnail rendering pool: {} threads, queue {}", threads, queueCapacity);
+    }
+
+    @PreDestroy
+    void stop() {
+        renderPool.shutdownNow();
+    }
+
+    public Thumbnail getThumbnail(DocumentResponseDTO document, int page, ThumbnailSize size) {
+        ThumbnailKey key = new ThumbnailKey(document.sha256(), page, size);
+        Thumbnail cached;
+        try {
+            cached = thumbnailCache.get(key);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            return render(document, key).get(renderTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ThumbnailRenderingOverloadedException("Превью не успело построиться, повторите запрос позже");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ThumbnailRenderingOverloadedException("Построение превью прервано");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Заранее строит маленькое превью первой страницы для списков. Ошибки не мешают обработке
+     * документа: превью построится при первом просмотре.
+     */
+    public void prerender(DocumentResponseDTO document) {
+        if (!ThumbnailRenderer.isSupported(document.contentType())) {
+            return;
+        }
+        ThumbnailKey key = new ThumbnailKey(document.sha256(), 1, ThumbnailSize.SMALL);
+        if (thumbnailCache.contains(key)) {
+            return;
+        }
+        try {
+            render(document, key).join();
+        } catch (ThumbnailRenderingOverloadedException e) {
+            log.debug("Render pool is full, thumbnail of document {} is left for the first view", document.id());
+        } catch (RuntimeException e) {
+            log.info("Failed to prerender thumbnail of document {}: {}", document.id(), e.toString());
+        }
+    }
+
+    public long renders() {
+        return renders.sum();
+    }
+
+    public long renderNanos() {
+        return renderNanos.sum();
+    }
+
+    public long joined() {
+        return joined.sum();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    public int queueDepth() {
+        return renderPool.getQueue().size();
+    }
+
+    public int activeRenders() {
+        return renderPool.getActiveCount();
+    }
+
+    private CompletableFuture<Thumbnail> render(DocumentResponseDTO document, ThumbnailKey key) {
+        boolean[] started = new boolean[1];
+        CompletableFuture<Thumbnail> future;
+        try {
+            future = rendering.computeIfAbsent(key, k -> {
+                started[0] = true;
+                return CompletableFuture.supplyAsync(() -> renderAndCache(document, k), renderPool);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ThumbnailRenderingOverloadedException("Очередь построения превью переполнена, повторите запрос позже");
+        }
+        if (started[0]) {
+            future.whenComplete((thumbnail, error) -> rendering.remove(key, future));
+        } else {
+            joined.increment();
+        }
+        return future;
+    }
+
+    private Thumbnail renderAndCache(DocumentResponseDTO document, ThumbnailKey key) {
+        // Рендер мог закончиться между промахом кэша и постановкой в очередь
+        byte[] cached;
+        try {
+            cached = thumbnailCache.read(key);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (cached != null) {
+            return Thumbnail.rendered(key, cached);
+        }
+        long started = System.nanoTime();
+        try {
+            byte[] content = thumbnailRenderer.render(
+                    blobStorage.resolve(document.sha256()), document.contentType(), key.page(), key.size());
+            return thumbnailCache.put(key, content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            renders.increment();
+            renderNanos.add(System.nanoTime() - started);
+        }
+    }
+}
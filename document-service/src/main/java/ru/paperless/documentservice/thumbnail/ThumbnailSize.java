@@ -0,0 +1,21 @@
+package ru.paperless.documentservice.thumbnail;
+
+/**
+ * Размеры превью по ширине в пикселях: SMALL — для списков документов, MEDIUM — для карточки,
+ * LARGE — для постраничного просмотра.
+ */
+public enum ThumbnailSize {
+    SMALL(160),
+    MEDIUM(480),
+    LARGE(1024);
+
+    private final int width;
+
+    ThumbnailSize(int width) {
+        this.width = width;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+}
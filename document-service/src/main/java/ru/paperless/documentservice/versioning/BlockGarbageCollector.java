@@ -0,0 +1,111 @@
+package ru.paperless.documentservice.versioning;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.paperless.documentservice.repository.DocumentRepository;
+import ru.paperless.documentservice.storage.BlobStorage;
+import ru.paperless.documentservice.storage.BlockStore;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Удаляет блоки без ссылок и полные копии вытесненных версий. И то и другое ждёт
+ * {@code paperless.versions.gc-grace}: блок могла только что зарезервировать загрузка,
+ * которая ещё не закоммитила версию, а blob — найти дедупликация новой загрузки.
+ */
+@Slf4j
+@Component
+public class BlockGarbageCollector {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final BlockRepository blockRepository;
+
+    private final DocumentVersionRepository documentVersionRepository;
+
+    private final DocumentRepository documentRepository;
+
+    private final BlockStore blockStore;
+
+    private final BlobStorage blobStorage;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Duration grace;
+
+    private final LongAdder sweptBlocks = new LongAdder();
+
+    private final LongAdder sweptBlobs = new LongAdder();
+
+    public BlockGarbageCollector(BlockRepository blockRepository,
+                                 DocumentVersionRepository documentVersionRepository,
+                                 DocumentRepository documentRepository,
+                                 BlockStore blockStore,
+                                 BlobStorage blobStorage,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${paperless.versions.gc-grace:1h}") Duration grace) {
+        this.blockRepository = blockRepository;
+        this.documentVersionRepository = documentVersionRepository;
+        this.documentRepository = documentRepository;
+        this.blockStore = blockStore;
+        this.blobStorage = blobStorage;
+        this.transactionTemplate = transactionTemplate;
+        this.grace = grace;
+    }
+
+    @Scheduled(fixedDelayString = "${paperless.versions.gc-interval:10m}")
+    public void collect() {
+        try {
+            sweepBlocks();
+            sweepBlobs();
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Version garbage collection stopped", e);
+        }
+    }
+
+    public long sweptBlocks() {
+        return sweptBlocks.sum();
+    }
+
+    public long sweptBlobs() {
+        return sweptBlobs.sum();
+    }
+
+    void sweepBlocks() {
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> {
+                List<String> hashes = blockRepository.deleteReleased(grace, BATCH_SIZE);
+                for (String hash : hashes) {
+                    try {
+                        blockStore.delete(hash);
+                    } catch (IOException e) {
+                        // Откат вернёт строки, и блоки удалятся при следующем проходе
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return hashes.size();
+            });
+            sweptBlocks.add(deleted);
+        } while (deleted == BATCH_SIZE);
+    }
+
+    void sweepBlobs() throws IOException {
+        for (DocumentVersionRepository.ReleasedBlob blob : documentVersionRepository.findReleasedBlobs(grace, BATCH_SIZE)) {
+            // Тем же содержимым может пользоваться другой документ или более новая версия
+            if (documentRepository.existsBySha256(blob.sha256())) {
+                documentVersionRepository.clearBlobRelease(blob.documentId(), blob.version());
+            } else if (blobStorage.deleteIfIdle(blob.sha256(), grace)) {
+                documentVersionRepository.clearBlobRelease(blob.documentId(), blob.version());
+                sweptBlobs.increment();
+            }
+        }
+    }
+}
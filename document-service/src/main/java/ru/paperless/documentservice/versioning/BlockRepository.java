@@ -0,0 +1,87 @@
+package ru.paperless.documentservice.versioning;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Счётчики ссылок на блоки ({@code pl_blocks}, миграция {@code V4__document_versions.sql}).
+ * Ссылка — вхождение блока в список версии. Блок без ссылок не удаляется сразу: у него
+ * проставляется {@code released_at}, и сборщик удаляет его только после grace-периода, так что
+ * загрузка, которая уже зарезервировала блок, успевает сослаться на него. Запросы — для Postgres.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BlockRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Заводит строки для блоков загружаемой версии или продлевает grace-период уже освобождённых.
+     * Вызывается до записи блоков на диск.
+     */
+    public void reserve(Collection<ChunkManifest.Chunk> chunks) {
+        Map<String, Integer> sizes = new TreeMap<>();
+        chunks.forEach(chunk -> sizes.put(chunk.hash(), chunk.length()));
+        jdbcTemplate.batchUpdate("insert into pl_blocks (hash, size, ref_count, released_at) " +
+                        "values (:hash, :size, 0, now()) " +
+                        "on conflict (hash) do update set released_at = now() where pl_blocks.ref_count = 0",
+                sizes.entrySet().stream()
+                        .map(entry -> new MapSqlParameterSource()
+                                .addValue("hash", entry.getKey())
+                                .addValue("size", entry.getValue()))
+                        .toArray(SqlParameterSource[]::new));
+    }
+
+    /**
+     * Добавляет ссылки версии на её блоки. Возвращает {@code false}, если строки какого-то блока нет:
+     * загрузка шла дольше grace-периода, и сборщик успел удалить зарезервированный блок вместе с файлом.
+     * Такую версию фиксировать нельзя — транзакцию нужно откатить.
+     */
+    public boolean acquire(List<ChunkManifest.Chunk> chunks) {
+        int[] updated = jdbcTemplate.batchUpdate("update pl_blocks set ref_count = ref_count + :count, " +
+                "released_at = null where hash = :hash", counts(chunks));
+        return Arrays.stream(updated).noneMatch(count -> count == 0);
+    }
+
+    public void release(List<ChunkManifest.Chunk> chunks) {
+        jdbcTemplate.batchUpdate("update pl_blocks set ref_count = ref_count - :count, " +
+                "released_at = case when ref_count = :count then now() else released_at end " +
+                "where hash = :hash", counts(chunks));
+    }
+
+    /**
+     * Удаляет строки блоков, освобождённых раньше grace-периода, и возвращает их хэши. Файлы нужно
+     * удалить в той же транзакции: пока она не завершена, параллельный {@link #reserve} того же блока ждёт.
+     */
+    public List<String> deleteReleased(Duration grace, int limit) {
+        return jdbcTemplate.queryForList("delete from pl_blocks where hash in (" +
+                        "select hash from pl_blocks where ref_count = 0 " +
+                        "and released_at < now() - :graceSeconds * interval '1 second' " +
+                        "limit :limit for update skip locked) returning hash",
+                new MapSqlParameterSource()
+                        .addValue("graceSeconds", grace.toSeconds())
+                        .addValue("limit", limit),
+                String.class);
+    }
+
+    // Строки блокируются в порядке хэшей, чтобы параллельные загрузки не взаимоблокировались
+    private static SqlParameterSource[] counts(List<ChunkManifest.Chunk> chunks) {
+        Map<String, Integer> counts = new TreeMap<>();
+        chunks.forEach(chunk -> counts.merge(chunk.hash(), 1, Integer::sum));
+        return counts.entrySet().stream()
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("hash", entry.getKey())
+                        .addValue("count", entry.getValue()))
+                .toArray(SqlParameterSource[]::new);
+    }
+}
@@ -0,0 +1,48 @@
+package ru.paperless.documentservice.versioning;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Список блоков версии по порядку. В БД хранится одним bytea: на блок 32 байта SHA-256 и 4 байта
+ * длины, то есть около 36 байт на 8 КБ содержимого, без строки на каждый блок.
+ */
+public final class ChunkManifest {
+
+    private static final int HASH_BYTES = 32;
+
+    private static final int ENTRY_BYTES = HASH_BYTES + Integer.BYTES;
+
+    private ChunkManifest() {
+    }
+
+    public record Chunk(String hash, int length) {
+    }
+
+    public static byte[] encode(List<Chunk> chunks) {
+        ByteBuffer buffer = ByteBuffer.allocate(chunks.size() * ENTRY_BYTES);
+        HexFormat hex = HexFormat.of();
+        for (Chunk chunk : chunks) {
+            buffer.put(hex.parseHex(chunk.hash()));
+            buffer.putInt(chunk.length());
+        }
+        return buffer.array();
+    }
+
+    public static List<Chunk> decode(byte[] manifest) {
+        if (manifest.length % ENTRY_BYTES != 0) {
+            throw new IllegalArgumentException("Corrupted chunk manifest of " + manifest.length + " bytes");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(manifest);
+        HexFormat hex = HexFormat.of();
+        byte[] hash = new byte[HASH_BYTES];
+        List<Chunk> chunks = new ArrayList<>(manifest.length / ENTRY_BYTES);
+        while (buffer.hasRemaining()) {
+            buffer.get(hash);
+            chunks.add(new Chunk(hex.formatHex(hash), buffer.getInt()));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,106 @@
+package ru.paperless.documentservice.versioning;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.SplittableRandom;
+
+/**
+ * Разбиение содержимого на блоки по самому содержимому (FastCDC): граница ставится там, где
+ * скользящий gear-хэш последних байт попадает под маску. Правка в середине файла сдвигает только
+ * соседние границы, остальные блоки новой версии совпадают с блоками старой и не пишутся повторно.
+ * До среднего размера маска строже, после — мягче (нормализация), поэтому размеры блоков
+ * собираются вокруг среднего, а минимальный размер пропускается без хэширования.
+ */
+public final class ContentDefinedChunker {
+
+    public static final int MIN_SIZE = 2 * 1024;
+
+    public static final int AVERAGE_SIZE = 8 * 1024;
+
+    public static final int MAX_SIZE = 64 * 1024;
+
+    // Хэш сдвигается влево, так что от последних 64 байт зависят только старшие биты: маски берутся по ним
+    private static final long MASK_STRICT = mask(15);
+
+    private static final long MASK_LOOSE = mask(11);
+
+    private static final long[] GEAR = gear();
+
+    private final byte[] buffer = new byte[4 * MAX_SIZE];
+
+    @FunctionalInterface
+    public interface ChunkConsumer {
+        void accept(byte[] data, int offset, int length) throws IOException;
+    }
+
+    /**
+     * Читает поток до конца и отдаёт блоки по порядку. Массив переиспользуется между вызовами
+     * {@code consumer}, поэтому данные нужно скопировать, если они нужны позже.
+     */
+    public void split(InputStream content, ChunkConsumer consumer) throws IOException {
+        int start = 0;
+        int end = 0;
+        boolean eof = false;
+        while (true) {
+            if (!eof && end - start < MAX_SIZE) {
+                System.arraycopy(buffer, start, buffer, 0, end - start);
+                end -= start;
+                start = 0;
+                while (end < buffer.length) {
+                    int read = content.read(buffer, end, buffer.length - end);
+                    if (read == -1) {
+                        eof = true;
+                        break;
+                    }
+                    end += read;
+                }
+            }
+            if (start == end) {
+                return;
+            }
+            int length = cutPoint(buffer, start, end - start);
+            consumer.accept(buffer, start, length);
+            start += length;
+        }
+    }
+
+    /**
+     * Длина первого блока в {@code data[offset, offset + length)}.
+     */
+    public static int cutPoint(byte[] data, int offset, int length) {
+        if (length <= MIN_SIZE) {
+            return length;
+        }
+        int limit = Math.min(length, MAX_SIZE);
+        int normal = Math.min(limit, AVERAGE_SIZE);
+        long hash = 0;
+        int i = MIN_SIZE;
+        for (; i < normal; i++) {
+            hash = (hash << 1) + GEAR[data[offset + i] & 0xff];
+            if ((hash & MASK_STRICT) == 0) {
+                return i + 1;
+            }
+        }
+        for (; i < limit; i++) {
+            hash = (hash << 1) + GEAR[data[offset + i] & 0xff];
+            if ((hash & MASK_LOOSE) == 0) {
+                return i + 1;
+            }
+        }
+        return limit;
+    }
+
+    private static long mask(int bits) {
+        return ((1L << bits) - 1) << (Long.SIZE - bits);
+    }
+
+    // Таблица фиксирована: от неё зависят границы, а значит, и дедупликация с уже записанными блоками
+    private static long[] gear() {
+        SplittableRandom random = new SplittableRandom(0x5eed_cdc0_fa57L);
+        long[] gear = new long[256];
+        for (int i = 0; i < gear.length; i++) {
+            gear[i] = random.nextLong();
+        }
+        return gear;
+    }
+}
@@ -0,0 +1,67 @@
+package ru.paperless.documentservice.versioning;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Эффективность хранения версий с момента старта: dedup ratio — логический объём версий к байтам
+ * новых блоков, write amplification — всё записанное на диск (блоки и полные копии) к логическому объёму.
+ */
+@Component
+@RequiredArgsConstructor
+public class DocumentVersionMetrics implements MeterBinder {
+
+    private final DocumentVersionService documentVersionService;
+
+    private final BlockGarbageCollector blockGarbageCollector;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("documents.versions.created", documentVersionService, DocumentVersionService::versions)
+                .description("Сохранённые версии документов")
+                .register(registry);
+        FunctionCounter.builder("documents.versions.logical", documentVersionService, DocumentVersionService::logicalBytes)
+                .description("Логический объём сохранённых версий")
+                .baseUnit("bytes")
+                .register(registry);
+        FunctionCounter.builder("documents.versions.written", documentVersionService, DocumentVersionService::storedBlockBytes)
+                .description("Байты новых блоков, записанных для версий")
+                .tag("kind", "block")
+                .baseUnit("bytes")
+                .register(registry);
+        FunctionCounter.builder("documents.versions.written", documentVersionService, DocumentVersionService::storedBlobBytes)
+                .description("Байты полных копий текущих версий")
+                .tag("kind", "blob")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("documents.versions.dedup.ratio", documentVersionService, DocumentVersionMetrics::dedupRatio)
+                .description("Логический объём версий на байт новых блоков")
+                .register(registry);
+        Gauge.builder("documents.versions.write.amplification", documentVersionService,
+                        DocumentVersionMetrics::writeAmplification)
+                .description("Записанные на диск байты на байт логического объёма версий")
+                .register(registry);
+        FunctionCounter.builder("documents.versions.gc.swept", blockGarbageCollector, BlockGarbageCollector::sweptBlocks)
+                .description("Удалённые блоки без ссылок")
+                .tag("kind", "block")
+                .register(registry);
+        FunctionCounter.builder("documents.versions.gc.swept", blockGarbageCollector, BlockGarbageCollector::sweptBlobs)
+                .description("Удалённые полные копии вытесненных версий")
+                .tag("kind", "blob")
+                .register(registry);
+    }
+
+    static double dedupRatio(DocumentVersionService service) {
+        long stored = service.storedBlockBytes();
+        return stored == 0 ? Double.NaN : (double) service.logicalBytes() / stored;
+    }
+
+    static double writeAmplification(DocumentVersionService service) {
+        long logical = service.logicalBytes();
+        return logical == 0 ? Double.NaN : (double) (service.storedBlockBytes() + service.storedBlobBytes()) / logical;
+    }
+}
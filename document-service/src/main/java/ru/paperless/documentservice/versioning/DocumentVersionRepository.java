@@ -0,0 +1,132 @@
+package ru.paperless.documentservice.versioning;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.paperless.documentservice.model.DTO.DocumentVersionDTO;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Версии документов ({@code pl_document_versions}): метаданные и список блоков одним bytea.
+ * Список блоков читается только при выдаче и удалении версии.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DocumentVersionRepository {
+
+    public record ReleasedBlob(UUID documentId, int version, String sha256) {
+    }
+
+    private static final String COLUMNS = "v.version, v.size, v.sha256, v.chunk_count, v.stored_bytes, v.created_at, " +
+            "v.version = d.current_version as current";
+
+    private static final RowMapper<DocumentVersionDTO> VERSION_MAPPER = (rs, rowNum) -> new DocumentVersionDTO(
+            rs.getInt("version"),
+            rs.getLong("size"),
+            rs.getString("sha256"),
+            rs.getInt("chunk_count"),
+            rs.getLong("stored_bytes"),
+            rs.getTimestamp("created_at").toInstant(),
+            rs.getBoolean("current"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void insert(UUID documentId, int version, long size, String sha256, long storedBytes,
+                       List<ChunkManifest.Chunk> chunks) {
+        jdbcTemplate.update("insert into pl_document_versions " +
+                        "(document_id, version, size, sha256, chunk_count, stored_bytes, manifest, created_at) " +
+                        "values (:documentId, :version, :size, :sha256, :chunkCount, :storedBytes, :manifest, now())",
+                new MapSqlParameterSource()
+                        .addValue("documentId", documentId)
+                        .addValue("version", version)
+                        .addValue("size", size)
+                        .addValue("sha256", sha256)
+                        .addValue("chunkCount", chunks.size())
+                        .addValue("storedBytes", storedBytes)
+                        .addValue("manifest", ChunkManifest.encode(chunks)));
+    }
+
+    public Optional<Integer> findLatestVersion(UUID documentId) {
+        return Optional.ofNullable(jdbcTemplate.queryForObject(
+                "select max(version) from pl_document_versions where document_id = :documentId",
+                new MapSqlParameterSource("documentId", documentId), Integer.class));
+    }
+
+    public List<DocumentVersionDTO> findAll(UUID documentId) {
+        return jdbcTemplate.query("select " + COLUMNS + " from pl_document_versions v " +
+                        "join pl_documents d on d.id = v.document_id " +
+                        "where v.document_id = :documentId order by v.version desc",
+                new MapSqlParameterSource("documentId", documentId), VERSION_MAPPER);
+    }
+
+    public Optional<DocumentVersionDTO> find(UUID documentId, int version) {
+        return jdbcTemplate.query("select " + COLUMNS + " from pl_document_versions v " +
+                                "join pl_documents d on d.id = v.document_id " +
+                                "where v.document_id = :documentId and v.version = :version",
+                        new MapSqlParameterSource()
+                                .addValue("documentId", documentId)
+                                .addValue("version", version),
+                        VERSION_MAPPER)
+                .stream()
+                .findFirst();
+    }
+
+    public List<ChunkManifest.Chunk> findChunks(UUID documentId, int version) {
+        return jdbcTemplate.query("select manifest from pl_document_versions " +
+                                "where document_id = :documentId and version = :version",
+                        new MapSqlParameterSource()
+                                .addValue("documentId", documentId)
+                                .addValue("version", version),
+                        (rs, rowNum) -> ChunkManifest.decode(rs.getBytes("manifest")))
+                .stream()
+                .findFirst()
+                .orElse(List.of());
+    }
+
+    public Optional<List<ChunkManifest.Chunk>> delete(UUID documentId, int version) {
+        return jdbcTemplate.query("delete from pl_document_versions " +
+                                "where document_id = :documentId and version = :version returning manifest",
+                        new MapSqlParameterSource()
+                                .addValue("documentId", documentId)
+                                .addValue("version", version),
+                        (rs, rowNum) -> ChunkManifest.decode(rs.getBytes("manifest")))
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Полная копия вытесненной версии больше не нужна: её содержимое есть в блоках.
+     * Удаляет её {@link BlockGarbageCollector}.
+     */
+    public void releaseBlob(UUID documentId, int version) {
+        jdbcTemplate.update("update pl_document_versions set blob_released_at = now() " +
+                        "where document_id = :documentId and version = :version",
+                new MapSqlParameterSource()
+                        .addValue("documentId", documentId)
+                        .addValue("version", version));
+    }
+
+    public List<ReleasedBlob> findReleasedBlobs(Duration grace, int limit) {
+        return jdbcTemplate.query("select document_id, version, sha256 from pl_document_versions " +
+                        "where blob_released_at < now() - :graceSeconds * interval '1 second' limit :limit",
+                new MapSqlParameterSource()
+                        .addValue("graceSeconds", grace.toSeconds())
+                        .addValue("limit", limit),
+                (rs, rowNum) -> new ReleasedBlob(
+                        rs.getObject("document_id", UUID.class), rs.getInt("version"), rs.getString("sha256")));
+    }
+
+    public void clearBlobRelease(UUID documentId, int version) {
+        jdbcTemplate.update("update pl_document_versions set blob_released_at = null " +
+                        "where document_id = :documentId and version = :version",
+                new MapSqlParameterSource()
+                        .addValue("documentId", documentId)
+                        .addValue("version", version));
+    }
+}
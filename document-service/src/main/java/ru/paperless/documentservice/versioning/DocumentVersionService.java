@@ -0,0 +1,276 @@
+package ru.paperless.documentservice.versioning;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.paperless.documentservice.event.DocumentStoredEvent;
+import ru.paperless.documentservice.exception.DocumentNotFoundException;
+import ru.paperless.documentservice.exception.DocumentVersionConflictException;
+import ru.paperless.documentservice.exception.DocumentVersionNotFoundException;
+import ru.paperless.documentservice.mapper.DocumentMapper;
+import ru.paperless.documentservice.model.DTO.DocumentResponseDTO;
+import ru.paperless.documentservice.model.DTO.DocumentVersionDTO;
+import ru.paperless.documentservice.model.entity.DocumentEntity;
+import ru.paperless.documentservice.model.enums.ProcessingStage;
+import ru.paperless.documentservice.pipeline.DocumentPipeline;
+import ru.paperless.documentservice.repository.DocumentRepository;
+import ru.paperless.documentservice.storage.BlobStorage;
+import ru.paperless.documentservice.storage.BlockStore;
+import ru.paperless.documentservice.storage.StoredBlob;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Версии документа. Каждая версия раскладывается на блоки по содержимому
+ * ({@link ContentDefinedChunker}), и в {@link BlockStore} пишутся только новые блоки: правка
+ * в договоре стоит нескольких блоков, а не полной копии. Текущая версия дополнительно лежит
+ * целиком в {@link BlobStorage}, поэтому скачивание, превью и поиск работают с ней как раньше;
+ * полная копия вытесненной версии удаляется {@link BlockGarbageCollector}, а сама версия
+ * собирается потоком из своих блоков. Исходный файл становится версией 1 при загрузке второй.
+ */
+@Slf4j
+@Service
+@Timed(value = "documents.versions", histogram = true)
+@RequiredArgsConstructor
+public class DocumentVersionService {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final DocumentRepository documentRepository;
+
+    private final DocumentMapper documentMapper;
+
+    private final DocumentVersionRepository documentVersionRepository;
+
+    private final BlockRepository blockRepository;
+
+    private final BlockStore blockStore;
+
+    private final BlobStorage blobStorage;
+
+    private final DocumentPipeline documentPipeline;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final LongAdder logicalBytes = new LongAdder();
+
+    private final LongAdder storedBlockBytes = new LongAdder();
+
+    private final LongAdder storedBlobBytes = new LongAdder();
+
+    private final LongAdder versions = new LongAdder();
+
+    /**
+     * Содержимое версии: текущая отдаётся из полной копии, остальные — списком блоков.
+     */
+    public record VersionContent(
+            DocumentResponseDTO document,
+            DocumentVersionDTO version,
+            Path blob,
+            List<ChunkManifest.Chunk> chunks
+    ) {
+    }
+
+    public DocumentVersionDTO uploadVersion(UUID documentId, InputStream content) throws IOException {
+        documentPipeline.checkCapacity();
+        DocumentEntity document = getDocumentEntityById(documentId);
+        StoredBlob blob = blobStorage.store(content);
+        Instant storedAt = Instant.now();
+        if (blob.sha256().equals(document.getSha256())) {
+            // Содержимое не изменилось — новая версия не нужна
+            return findVersion(document, document.getCurrentVersion());
+        }
+        DocumentVersionDTO version;
+        VersionWriter.Result written;
+        try {
+            importOriginal(document);
+            written = writeChunks(blobStorage.resolve(blob.sha256()));
+            version = transactionTemplate.execute(status -> commitVersion(documentId, blob, written));
+        } catch (IOException | RuntimeException e) {
+            discard(blob, storedAt);
+            throw e;
+        }
+        if (!blob.deduplicated()) {
+            storedBlobBytes.add(blob.size());
+        }
+        log.info("Document {} version {}: {} chunks, {} of {} bytes stored",
+                documentId, version.version(), version.chunkCount(), written.storedBytes(), written.size());
+        return version;
+    }
+
+    public List<DocumentVersionDTO> getVersions(UUID documentId) {
+        DocumentEntity document = getDocumentEntityById(documentId);
+        List<DocumentVersionDTO> stored = documentVersionRepository.findAll(documentId);
+        return stored.isEmpty() ? List.of(original(document)) : stored;
+    }
+
+    public DocumentVersionDTO getVersion(UUID documentId, int version) {
+        return findVersion(getDocumentEntityById(documentId), version);
+    }
+
+    public VersionContent getVersionContent(UUID documentId, int version) {
+        DocumentEntity document = getDocumentEntityById(documentId);
+        DocumentVersionDTO found = findVersion(document, version);
+        if (found.current()) {
+            return new VersionContent(documentMapper.toDto(document), found, blobStorage.resolve(document.getSha256()), null);
+        }
+        return new VersionContent(documentMapper.toDto(document), found, null,
+                documentVersionRepository.findChunks(documentId, version));
+    }
+
+    /**
+     * Собирает версию из блоков по порядку; память не зависит от размера версии.
+     */
+    public void writeChunks(List<ChunkManifest.Chunk> chunks, OutputStream out) throws IOException {
+        byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        for (ChunkManifest.Chunk chunk : chunks) {
+            blockStore.copyTo(chunk.hash(), out, buffer);
+        }
+    }
+
+    public void deleteVersion(UUID documentId, int version) {
+        transactionTemplate.executeWithoutResult(status -> {
+            DocumentEntity document = documentRepository.findByIdForUpdate(documentId)
+                    .orElseThrow(() -> documentNotFound(documentId));
+            if (document.getCurrentVersion() == version) {
+                throw new DocumentVersionConflictException("Текущую версию документа удалить нельзя");
+            }
+            List<ChunkManifest.Chunk> chunks = documentVersionRepository.delete(documentId, version)
+                    .orElseThrow(() -> versionNotFound(documentId, version));
+            blockRepository.release(chunks);
+        });
+    }
+
+    public long logicalBytes() {
+        return logicalBytes.sum();
+    }
+
+    public long storedBlockBytes() {
+        return storedBlockBytes.sum();
+    }
+
+    public long storedBlobBytes() {
+        return storedBlobBytes.sum();
+    }
+
+    public long versions() {
+        return versions.sum();
+    }
+
+    // Документ, загруженный до появления версий, один раз раскладывается на блоки как версия 1
+    private void importOriginal(DocumentEntity document) throws IOException {
+        if (documentVersionRepository.findLatestVersion(document.getId()).isPresent()) {
+            return;
+        }
+        VersionWriter.Result written = writeChunks(blobStorage.resolve(document.getSha256()));
+        transactionTemplate.executeWithoutResult(status -> {
+            documentRepository.findByIdForUpdate(document.getId()).orElseThrow(() -> documentNotFound(document.getId()));
+            // Параллельная загрузка могла уже импортировать оригинал; наши блоки тогда заберёт сборщик
+            if (documentVersionRepository.findLatestVersion(document.getId()).isPresent()) {
+                return;
+            }
+            if (!blockRepository.acquire(written.chunks())) {
+                throw blocksCollected(document.getId());
+            }
+            documentVersionRepository.insert(document.getId(), 1, written.size(), document.getSha256(),
+                    written.storedBytes(), written.chunks());
+            record(written);
+        });
+    }
+
+    private DocumentVersionDTO commitVersion(UUID documentId, StoredBlob blob, VersionWriter.Result written) {
+        DocumentEntity document = documentRepository.findByIdForUpdate(documentId)
+                .orElseThrow(() -> documentNotFound(documentId));
+        int superseded = document.getCurrentVersion();
+        int version = documentVersionRepository.findLatestVersion(documentId).orElse(0) + 1;
+        if (!blockRepository.acquire(written.chunks())) {
+            throw blocksCollected(documentId);
+        }
+        documentVersionRepository.insert(documentId, version, blob.size(), blob.sha256(),
+                written.storedBytes(), written.chunks());
+        documentVersionRepository.releaseBlob(documentId, superseded);
+        document.setSha256(blob.sha256());
+        document.setSize(blob.size());
+        document.setCurrentVersion(version);
+        document.setProcessingStage(ProcessingStage.EXTRACT_TEXT);
+        document.setProcessingError(null);
+        // Текст и превью перестраиваются конвейером после коммита
+        eventPublisher.publishEvent(new DocumentStoredEvent(documentMapper.toDto(documentRepository.save(document))));
+        record(written);
+        return new DocumentVersionDTO(version, blob.size(), blob.sha256(), written.chunks().size(),
+                written.storedBytes(), Instant.now(), true);
+    }
+
+    /**
+     * Полная копия версии, которую не удалось зафиксировать, никому не нужна. Blob, найденный
+     * дедупликацией, принадлежит другим документам и остаётся; свежий удаляется, если на него не
+     * сослался другой документ и его не нашла параллельная загрузка того же содержимого.
+     */
+    private void discard(StoredBlob blob, Instant storedAt) {
+        if (blob.deduplicated()) {
+            return;
+        }
+        try {
+            if (!documentRepository.existsBySha256(blob.sha256())) {
+                blobStorage.deleteIfUntouchedSince(blob.sha256(), storedAt);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to delete blob {} of an uncommitted version", blob.sha256(), e);
+        }
+    }
+
+    private VersionWriter.Result writeChunks(Path file) throws IOException {
+        try (InputStream content = Files.newInputStream(file)) {
+            return new VersionWriter(blockStore, blockRepository::reserve).write(content);
+        }
+    }
+
+    private void record(VersionWriter.Result written) {
+        versions.increment();
+        logicalBytes.add(written.size());
+        storedBlockBytes.add(written.storedBytes());
+    }
+
+    private DocumentVersionDTO findVersion(DocumentEntity document, int version) {
+        return documentVersionRepository.find(document.getId(), version)
+                .or(() -> version == 1 && document.getCurrentVersion() == 1
+                        ? Optional.of(original(document))
+                        : Optional.empty())
+                .orElseThrow(() -> versionNotFound(document.getId(), version));
+    }
+
+    private static DocumentVersionDTO original(DocumentEntity document) {
+        return new DocumentVersionDTO(1, document.getSize(), document.getSha256(), 0, 0, document.getCreatedAt(), true);
+    }
+
+    private DocumentEntity getDocumentEntityById(UUID id) {
+        return documentRepository.findById(id).orElseThrow(() -> documentNotFound(id));
+    }
+
+    private static DocumentNotFoundException documentNotFound(UUID id) {
+        return new DocumentNotFoundException("Документ с ID: " + id + " не найден");
+    }
+
+    private static DocumentVersionConflictException blocksCollected(UUID id) {
+        return new DocumentVersionConflictException("Загрузка версии документа " + id +
+                " заняла больше grace-периода сборщика, повторите загрузку");
+    }
+
+    private static DocumentVersionNotFoundException versionNotFound(UUID id, int version) {
+        return new DocumentVersionNotFoundException("Версия " + version + " документа " + id + " не найдена");
+    }
+}
@@ -0,0 +1,96 @@
+package ru.paperless.documentservice.versioning;
+
+import ru.paperless.documentservice.storage.BlobStorage;
+import ru.paperless.documentservice.storage.BlockStore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Раскладывает содержимое версии на блоки и пишет в {@link BlockStore} только те, которых там ещё нет.
+ * Блоки копятся пачками до {@link #BATCH_BYTES}: перед записью пачка резервируется
+ * ({@link BlockReservation}), чтобы сборщик мусора не удалил уже существующий блок, на который
+ * версия вот-вот сошлётся.
+ */
+public class VersionWriter {
+
+    static final int BATCH_BYTES = 4 * 1024 * 1024;
+
+    @FunctionalInterface
+    public interface BlockReservation {
+        void reserve(List<ChunkManifest.Chunk> chunks);
+    }
+
+    public record Result(
+            List<ChunkManifest.Chunk> chunks,
+            long size,
+            long storedBytes
+    ) {
+    }
+
+    private final BlockStore blockStore;
+
+    private final BlockReservation reservation;
+
+    public VersionWriter(BlockStore blockStore, BlockReservation reservation) {
+        this.blockStore = blockStore;
+        this.reservation = reservation;
+    }
+
+    public Result write(InputStream content) throws IOException {
+        Pass pass = new Pass();
+        new ContentDefinedChunker().split(content, pass);
+        pass.flush();
+        return new Result(pass.chunks, pass.size, pass.storedBytes);
+    }
+
+    private final class Pass implements ContentDefinedChunker.ChunkConsumer {
+
+        private final MessageDigest digest = BlobStorage.sha256Digest();
+
+        private final byte[] batch = new byte[BATCH_BYTES];
+
+        private final List<ChunkManifest.Chunk> pending = new ArrayList<>();
+
+        private final List<ChunkManifest.Chunk> chunks = new ArrayList<>();
+
+        private int batchLength;
+
+        private long size;
+
+        private long storedBytes;
+
+        @Override
+        public void accept(byte[] data, int offset, int length) throws IOException {
+            if (batchLength + length > batch.length) {
+                flush();
+            }
+            digest.update(data, offset, length);
+            pending.add(new ChunkManifest.Chunk(HexFormat.of().formatHex(digest.digest()), length));
+            System.arraycopy(data, offset, batch, batchLength, length);
+            batchLength += length;
+            size += length;
+        }
+
+        private void flush() throws IOException {
+            if (pending.isEmpty()) {
+                return;
+            }
+            reservation.reserve(pending);
+            int offset = 0;
+            for (ChunkManifest.Chunk chunk : pending) {
+                if (blockStore.write(chunk.hash(), batch, offset, chunk.length())) {
+                    storedBytes += chunk.length();
+                }
+                offset += chunk.length();
+            }
+            chunks.addAll(pending);
+            pending.clear();
+            batchLength = 0;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+-- Схема document-service. Базы, созданные раньше через ddl-auto=update, получают baseline 0
+-- и проходят эту миграцию как no-op: все операторы идемпотентны.
+
+create table if not exists pl_documents (
+    id               uuid         not null,
+    owner_id         uuid         not null,
+    file_name        varchar(255) not null,
+    content_type     varchar(255) not null,
+    size             bigint       not null,
+    sha256           varchar(64)  not null,
+    created_at       timestamp(6) with time zone not null,
+    processing_stage varchar(16) check (processing_stage in ('EXTRACT_TEXT', 'INDEX', 'DONE', 'FAILED')),
+    processing_error varchar(1000),
+    primary key (id)
+);
+
+alter table pl_documents add column if not exists processing_stage varchar(16)
+    check (processing_stage in ('EXTRACT_TEXT', 'INDEX', 'DONE', 'FAILED'));
+alter table pl_documents add column if not exists processing_error varchar(1000);
+
+create index if not exists ix_pl_documents_owner_created on pl_documents (owner_id, created_at);
+create index if not exists ix_pl_documents_sha256 on pl_documents (sha256);
+create index if not exists ix_pl_documents_processing_stage on pl_documents (processing_stage);
+
+create table if not exists pl_upload_sessions (
+    id           uuid         not null,
+    owner_id     uuid         not null,
+    file_name    varchar(255) not null,
+    content_type varchar(255) not null,
+    total_size   bigint       not null,
+    chunk_size   integer      not null,
+    chunk_count  integer      not null,
+    temp_path    varchar(255) not null,
+    status       varchar(16)  not null check (status in ('ACTIVE', 'COMPLETING', 'COMPLETED')),
+    document_id  uuid,
+    created_at   timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+create table if not exists pl_upload_chunks (
+    session_id  uuid    not null,
+    chunk_index integer not null,
+    size        bigint  not null,
+    received_at timestamp(6) with time zone not null,
+    primary key (chunk_index, session_id)
+);
@@ -0,0 +1,15 @@
+-- Полнотекстовый индекс (см. DocumentSearchRepository). Раньше создавался при старте сервиса.
+
+create table if not exists pl_document_texts (
+    document_id   uuid primary key,
+    owner_id      uuid not null,
+    created_at    timestamp(6) with time zone not null,
+    file_name     text not null,
+    content       text not null,
+    search_vector tsvector generated always as (
+        setweight(to_tsvector('simple', file_name), 'A') ||
+        setweight(to_tsvector('russian', content), 'B')) stored
+);
+
+create index if not exists ix_pl_document_texts_search on pl_document_texts using gin (search_vector);
+create index if not exists ix_pl_document_texts_owner_created on pl_document_texts (owner_id, created_at);
@@ -0,0 +1,6 @@
+-- Стадия THUMBNAIL конвейера (см. DocumentPipeline). Ограничение создавалось без имени,
+-- поэтому у Postgres оно называется по умолчанию.
+
+alter table pl_documents drop constraint if exists pl_documents_processing_stage_check;
+alter table pl_documents add constraint pl_documents_processing_stage_check
+    check (processing_stage in ('EXTRACT_TEXT', 'INDEX', 'THUMBNAIL', 'DONE', 'FAILED'));
@@ -0,0 +1,29 @@
+-- Версии документов (см. DocumentVersionService). Содержимое версий разложено на блоки в
+-- <storage.root>/blocks, здесь — счётчики ссылок на блоки и списки блоков версий.
+
+alter table pl_documents add column if not exists current_version integer not null default 1;
+
+create table if not exists pl_blocks (
+    hash        varchar(64) primary key,
+    size        integer     not null,
+    ref_count   bigint      not null,
+    released_at timestamp(6) with time zone
+);
+
+create index if not exists ix_pl_blocks_released on pl_blocks (released_at) where ref_count = 0;
+
+create table if not exists pl_document_versions (
+    document_id      uuid        not null references pl_documents (id),
+    version          integer     not null,
+    size             bigint      not null,
+    sha256           varchar(64) not null,
+    chunk_count      integer     not null,
+    stored_bytes     bigint      not null,
+    manifest         bytea       not null,
+    created_at       timestamp(6) with time zone not null,
+    blob_released_at timestamp(6) with time zone,
+    primary key (document_id, version)
+);
+
+create index if not exists ix_pl_document_versions_blob_released on pl_document_versions (blob_released_at)
+    where blob_released_at is not null;
@@ -0,0 +1,3 @@
+-- Хэш файла сессии фиксируется до переноса в хранилище: повторное завершение загрузки
+-- после сбоя берёт уже перенесённый blob, а не пропавший временный файл
+alter table pl_upload_sessions add column if not exists blob_sha256 varchar(64);
@@ -0,0 +1,11 @@
+-- Имя файла индексируется той же конфигурацией 'russian', что и запрос (websearch_to_tsquery
+-- в DocumentSearchRepository): с 'simple' словоформы из имени файла не находились по основе.
+-- Разделители заменяются пробелами, иначе парсер целиком берёт "invoice_2024.pdf" как токен file.
+-- Генерируемое выражение не меняется на месте, поэтому колонка и индекс пересоздаются.
+
+alter table pl_document_texts drop column if exists search_vector;
+alter table pl_document_texts add column search_vector tsvector generated always as (
+    setweight(to_tsvector('russian', regexp_replace(file_name, '[-._]+', ' ', 'g')), 'A') ||
+    setweight(to_tsvector('russian', content), 'B')) stored;
+
+create index if not exists ix_pl_document_texts_search on pl_document_texts using gin (search_vector);
@@ -0,0 +1,3 @@
+-- Время перехода сессии в COMPLETING: если экземпляр упал посреди завершения, по нему сессию
+-- возвращают в ACTIVE, чтобы клиент мог повторить завершение, а очистка — удалить брошенную
+alter table pl_upload_sessions add column if not exists completing_at timestamp(6) with time zone;
@@ -0,0 +1,91 @@
+package ru.paperless.documentservice.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.paperless.documentservice.model.DTO.UserSummaryDTO;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserLookupCoalescerTest {
+
+    private final List<Collection<UUID>> batches = new CopyOnWriteArrayList<>();
+
+    private UserLookupCoalescer coalescer;
+
+    @AfterEach
+    void tearDown() {
+        coalescer.shutdown();
+    }
+
+    @Test
+    void concurrentLookupsWithinWindowShareOneBatch() throws Exception {
+        coalescer = new UserLookupCoalescer(recordingLoader(), Duration.ofMillis(50), 500);
+        List<UUID> ids = IntStream.range(0, 20).mapToObj(i -> UUID.randomUUID()).toList();
+
+        List<CompletableFuture<Optional<UserSummaryDTO>>> futures = new ArrayList<>();
+        ids.parallelStream().forEach(id -> {
+            synchronized (futures) {
+                futures.add(coalescer.load(id));
+            }
+        });
+        futures.add(coalescer.load(ids.get(0)));
+
+        for (CompletableFuture<Optional<UserSummaryDTO>> future : futures) {
+            assertTrue(future.get(5, TimeUnit.SECONDS).isPresent());
+        }
+        assertEquals(1, batches.size());
+        assertEquals(20, batches.get(0).size());
+    }
+
+    @Test
+    void fullBatchIsSentBeforeWindowEnds() throws Exception {
+        coalescer = new UserLookupCoalescer(recordingLoader(), Duration.ofMinutes(1), 10);
+        List<UUID> ids = IntStream.range(0, 10).mapToObj(i -> UUID.randomUUID()).toList();
+
+        Map<UUID, UserSummaryDTO> users = coalescer.loadMany(ids).get(5, TimeUnit.SECONDS);
+
+        assertEquals(ids.size(), users.size());
+        assertEquals(1, batches.size());
+    }
+
+    @Test
+    void unknownUsersResolveEmptyAndFailuresPropagate() throws Exception {
+        UUID known = UUID.randomUUID();
+        coalescer = new UserLookupCoalescer(ids -> {
+            if (ids.contains(known)) {
+                return Map.of(known, new UserSummaryDTO(known, "known", "known@example.com"));
+            }
+            throw new IllegalStateException("user-service is down");
+        }, Duration.ofMillis(5), 500);
+
+        Map<UUID, UserSummaryDTO> users = coalescer.loadMany(List.of(known, UUID.randomUUID())).get(5, TimeUnit.SECONDS);
+
+        assertEquals(Map.of(known, new UserSummaryDTO(known, "known", "known@example.com")), users);
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> coalescer.load(UUID.randomUUID()).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+    }
+
+    private Function<Collection<UUID>, Map<UUID, UserSummaryDTO>> recordingLoader() {
+        return ids -> {
+            batches.add(ids);
+            return ids.stream().collect(Collectors.toMap(
+                    Function.identity(), id -> new UserSummaryDTO(id, "user_" + id, id + "@example.com")));
+        };
+    }
+}
@@ -0,0 +1,144 @@
+package ru.paperless.documentservice.controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.paperless.documentservice.model.DTO.DocumentResponseDTO;
+import ru.paperless.documentservice.model.DTO.DocumentSearchHitDTO;
+import ru.paperless.documentservice.model.DTO.DocumentSearchPageDTO;
+import ru.paperless.documentservice.model.DTO.UserSummaryDTO;
+import ru.paperless.documentservice.model.enums.ProcessingStage;
+import ru.paperless.documentservice.search.DocumentSearchCriteria;
+import ru.paperless.documentservice.service.DocumentSearchService;
+import ru.paperless.documentservice.service.DocumentService;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(DocumentController.class)
+public class DocumentControllerTest {
+
+    @TempDir
+    private static Path tempDir;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private DocumentService documentService;
+
+    @MockitoBean
+    private DocumentSearchService documentSearchService;
+
+    private final UUID id = UUID.fromString("0b7c6a5e-3c1f-4f0e-9d55-1b9a0f9a6c11");
+
+    @Test
+    void downloadWholeDocument() throws Exception {
+        givenDocument("0123456789");
+
+        mockMvc.perform(get("/api/v1/documents/{id}/content", id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""))
+                .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, "10"))
+                .andExpect(content().string("0123456789"));
+    }
+
+    @Test
+    void downloadRequestedRange() throws Exception {
+        givenDocument("0123456789");
+
+        mockMvc.perform(get("/api/v1/documents/{id}/content", id).header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(content().string("2345"));
+    }
+
+    @Test
+    void rejectUnsatisfiableRange() throws Exception {
+        givenDocument("0123456789");
+
+        mockMvc.perform(get("/api/v1/documents/{id}/content", id).header(HttpHeaders.RANGE, "bytes=20-30"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+    }
+
+    @Test
+    void matchingETagReturnsNotModified() throws Exception {
+        givenDocument("0123456789");
+
+        mockMvc.perform(get("/api/v1/documents/{id}/content", id).header(HttpHeaders.IF_NONE_MATCH, "\"abc\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void rangeIsServedWhenIfRangeMatches() throws Exception {
+        givenDocument("0123456789");
+
+        mockMvc.perform(get("/api/v1/documents/{id}/content", id)
+                        .header(HttpHeaders.RANGE, "bytes=2-5")
+                        .header(HttpHeaders.IF_RANGE, "\"abc\""))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("2345"));
+    }
+
+    @Test
+    void staleIfRangeGetsWholeDocument() throws Exception {
+        givenDocument("0123456789");
+
+        // Клиент докачивает прежнюю версию содержимого
+        mockMvc.perform(get("/api/v1/documents/{id}/content", id)
+                        .header(HttpHeaders.RANGE, "bytes=2-5")
+                        .header(HttpHeaders.IF_RANGE, "\"old\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(content().string("0123456789"));
+    }
+
+    @Test
+    void searchPassesFiltersToService() throws Exception {
+        UUID ownerId = UUID.randomUUID();
+        Instant from = Instant.parse("2025-01-01T00:00:00Z");
+        DocumentResponseDTO document = new DocumentResponseDTO(
+                id, ownerId, "invoice.pdf", "application/pdf", 10, "abc", Instant.now(), ProcessingStage.DONE);
+        when(documentSearchService.search(new DocumentSearchCriteria("счёт оплата", ownerId, from, null), 1, 10))
+                .thenReturn(new DocumentSearchPageDTO(
+                        List.of(new DocumentSearchHitDTO(document, 0.5, "<mark>счёт</mark> на оплату")),
+                        Map.of(ownerId, new UserSummaryDTO(ownerId, "buh", "buh@example.com")), 1, 10, false));
+
+        mockMvc.perform(get("/api/v1/documents/search")
+                        .param("q", "счёт оплата")
+                        .param("ownerId", ownerId.toString())
+                        .param("from", from.toString())
+                        .param("page", "1")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].document.id").value(id.toString()))
+                .andExpect(jsonPath("$.items[0].highlight").value("<mark>счёт</mark> на оплату"))
+                .andExpect(jsonPath("$.owners['" + ownerId + "'].userName").value("buh"))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    private void givenDocument(String content) throws Exception {
+        Path file = Files.writeString(tempDir.resolve(UUID.randomUUID().toString()), content, StandardCharsets.UTF_8);
+        DocumentResponseDTO document = new DocumentResponseDTO(
+                id, UUID.randomUUID(), "scan.txt", "text/plain", content.length(), "abc", Instant.now(), ProcessingStage.DONE);
+        when(documentService.getDocumentById(id)).thenReturn(document);
+        when(documentService.getContentPath(document)).thenReturn(file);
+    }
+}
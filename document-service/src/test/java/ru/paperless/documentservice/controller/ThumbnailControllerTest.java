@@ -0,0 +1,111 @@
+package ru.paperless.documentservice.controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.paperless.documentservice.exception.ThumbnailRenderingOverloadedException;
+import ru.paperless.documentservice.model.DTO.DocumentResponseDTO;
+import ru.paperless.documentservice.model.enums.ProcessingStage;
+import ru.paperless.documentservice.service.DocumentService;
+import ru.paperless.documentservice.thumbnail.Thumbnail;
+import ru.paperless.documentservice.thumbnail.ThumbnailKey;
+import ru.paperless.documentservice.thumbnail.ThumbnailService;
+import ru.paperless.documentservice.thumbnail.ThumbnailSize;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ThumbnailController.class)
+public class ThumbnailControllerTest {
+
+    @TempDir
+    private static Path tempDir;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private DocumentService documentService;
+
+    @MockitoBean
+    private ThumbnailService thumbnailService;
+
+    private final UUID id = UUID.fromString("0b7c6a5e-3c1f-4f0e-9d55-1b9a0f9a6c11");
+
+    @Test
+    void cachedThumbnailIsServedFromFile() throws Exception {
+        DocumentResponseDTO document = givenDocument();
+        ThumbnailKey key = new ThumbnailKey(document.sha256(), 2, ThumbnailSize.MEDIUM);
+        Path file = Files.write(tempDir.resolve(key.fileName()), new byte[]{1, 2, 3});
+        when(thumbnailService.getThumbnail(document, 2, ThumbnailSize.MEDIUM)).thenReturn(Thumbnail.cached(key, FileChannel.open(file), 3));
+
+        mockMvc.perform(get("/api/v1/documents/{id}/thumbnail", id).param("page", "2").param("size", "MEDIUM"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_JPEG))
+                .andExpect(header().string(HttpHeaders.ETAG, key.eTag()))
+                .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, "3"))
+                .andExpect(content().bytes(new byte[]{1, 2, 3}));
+    }
+
+    @Test
+    void thumbnailEvictedAfterCacheHitIsStillServed() throws Exception {
+        DocumentResponseDTO document = givenDocument();
+        ThumbnailKey key = new ThumbnailKey(document.sha256(), 1, ThumbnailSize.SMALL);
+        Path file = Files.write(tempDir.resolve(key.fileName()), new byte[]{4, 5});
+        FileChannel channel = FileChannel.open(file);
+        // Вытеснение удалило файл между попаданием в кэш и отдачей
+        Files.delete(file);
+        when(thumbnailService.getThumbnail(document, 1, ThumbnailSize.SMALL)).thenReturn(Thumbnail.cached(key, channel, 2));
+
+        mockMvc.perform(get("/api/v1/documents/{id}/thumbnail", id))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(new byte[]{4, 5}));
+        assertFalse(channel.isOpen());
+    }
+
+    @Test
+    void matchingETagSkipsRendering() throws Exception {
+        DocumentResponseDTO document = givenDocument();
+
+        mockMvc.perform(get("/api/v1/documents/{id}/thumbnail", id)
+                        .header(HttpHeaders.IF_NONE_MATCH, new ThumbnailKey(document.sha256(), 1, ThumbnailSize.SMALL).eTag()))
+                .andExpect(status().isNotModified());
+
+        verify(thumbnailService, never()).getThumbnail(any(), anyInt(), any());
+    }
+
+    @Test
+    void overloadedRenderingReturnsServiceUnavailable() throws Exception {
+        DocumentResponseDTO document = givenDocument();
+        when(thumbnailService.getThumbnail(document, 1, ThumbnailSize.SMALL))
+                .thenThrow(new ThumbnailRenderingOverloadedException("busy"));
+
+        mockMvc.perform(get("/api/v1/documents/{id}/thumbnail", id))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    private DocumentResponseDTO givenDocument() {
+        DocumentResponseDTO document = new DocumentResponseDTO(
+                id, UUID.randomUUID(), "scan.pdf", "application/pdf", 10, "abc", Instant.now(), ProcessingStage.DONE);
+        when(documentService.getDocumentById(id)).thenReturn(document);
+        return document;
+    }
+}
@@ -0,0 +1,150 @@
+package ru.paperless.documentservice.pipeline;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.paperless.documentservice.exception.PipelineOverloadedException;
+import ru.paperless.documentservice.mapper.DocumentMapper;
+import ru.paperless.documentservice.model.DTO.DocumentResponseDTO;
+import ru.paperless.documentservice.model.enums.ProcessingStage;
+import ru.paperless.documentservice.repository.DocumentRepository;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DocumentPipelineTest {
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private DocumentMapper documentMapper;
+
+    @Mock
+    private DocumentProcessor documentProcessor;
+
+    private DocumentPipeline documentPipeline;
+
+    @AfterEach
+    void tearDown() {
+        if (documentPipeline != null) {
+            documentPipeline.stop();
+        }
+    }
+
+    @Test
+    void documentPassesAllStagesAndIsMarkedDone() {
+        DocumentResponseDTO document = document();
+        when(documentProcessor.extractText(any())).thenAnswer(invocation ->
+                ((PipelineTask) invocation.getArgument(0)).withText("текст"));
+        when(documentProcessor.index(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(documentProcessor.thumbnail(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        startPipeline(10);
+
+        assertTrue(documentPipeline.submit(document));
+
+        verify(documentRepository, timeout(5000)).updateProcessingStage(document.id(), "abc", ProcessingStage.DONE, null);
+        verify(documentRepository).updateProcessingStage(document.id(), "abc", ProcessingStage.INDEX, null);
+        verify(documentRepository).updateProcessingStage(document.id(), "abc", ProcessingStage.THUMBNAIL, null);
+        verify(documentProcessor).index(argThat(task -> "текст".equals(task.text())));
+        assertEquals(0, documentPipeline.inFlight());
+        assertEquals(1, documentPipeline.stats().get(1).processed());
+        assertEquals(1, documentPipeline.stats().get(2).processed());
+    }
+
+    @Test
+    void failedStageMarksDocumentFailed() {
+        DocumentResponseDTO document = document();
+        when(documentProcessor.extractText(any())).thenThrow(new IllegalStateException("broken pdf"));
+        startPipeline(10);
+
+        documentPipeline.submit(document);
+
+        verify(documentRepository, timeout(5000))
+                .updateProcessingStage(eq(document.id()), eq("abc"), eq(ProcessingStage.FAILED), startsWith("EXTRACT_TEXT"));
+        verify(documentProcessor, never()).index(any());
+        assertEquals(1, documentPipeline.stats().get(0).failed());
+    }
+
+    @Test
+    void fullQueueRejectsNewUploads() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch busy = new CountDownLatch(1);
+        when(documentProcessor.extractText(any())).thenAnswer(invocation -> {
+            busy.countDown();
+            release.await();
+            return invocation.getArgument(0);
+        });
+        startPipeline(1);
+
+        assertTrue(documentPipeline.submit(document()));
+        assertTrue(busy.await(5, TimeUnit.SECONDS));
+        assertTrue(documentPipeline.submit(document()));
+
+        assertThrows(PipelineOverloadedException.class, () -> documentPipeline.checkCapacity());
+        assertFalse(documentPipeline.submit(document()));
+        release.countDown();
+    }
+
+    @Test
+    void newVersionUploadedWhileOldOneIsInStageIsProcessedAfterIt() throws Exception {
+        DocumentResponseDTO original = document();
+        DocumentResponseDTO updated = new DocumentResponseDTO(original.id(), original.ownerId(), original.fileName(),
+                original.contentType(), 20, "def", original.createdAt(), ProcessingStage.EXTRACT_TEXT);
+        // Содержимое документа в БД: условное обновление стадии срабатывает только для него
+        AtomicReference<String> storedSha = new AtomicReference<>(original.sha256());
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch busy = new CountDownLatch(1);
+        when(documentProcessor.extractText(any())).thenAnswer(invocation -> {
+            PipelineTask task = invocation.getArgument(0);
+            if (task.document().sha256().equals(original.sha256())) {
+                busy.countDown();
+                release.await();
+            }
+            return task.withText("текст " + task.document().sha256());
+        });
+        when(documentProcessor.index(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(documentProcessor.thumbnail(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        startPipeline(10);
+        when(documentRepository.updateProcessingStage(any(), any(), any(), any())).thenAnswer(invocation ->
+                storedSha.get().equals(invocation.getArgument(1)) ? 1 : 0);
+
+        assertTrue(documentPipeline.submit(original));
+        assertTrue(busy.await(5, TimeUnit.SECONDS));
+        // commitVersion: новое содержимое и стадия EXTRACT_TEXT, затем DocumentStoredEvent
+        storedSha.set(updated.sha256());
+        assertTrue(documentPipeline.submit(updated));
+        release.countDown();
+
+        verify(documentRepository, timeout(5000)).updateProcessingStage(updated.id(), "def", ProcessingStage.DONE, null);
+        verify(documentProcessor, never()).index(argThat(task -> "abc".equals(task.document().sha256())));
+        verify(documentProcessor).index(argThat(task -> "текст def".equals(task.text())));
+        verify(documentRepository, never()).updateProcessingStage(eq(original.id()), eq("abc"), eq(ProcessingStage.DONE), any());
+        assertEquals(0, documentPipeline.inFlight());
+    }
+
+    private void startPipeline(int queueCapacity) {
+        lenient().when(documentRepository.updateProcessingStage(any(), any(), any(), any())).thenReturn(1);
+        documentPipeline = new DocumentPipeline(
+                documentRepository, documentMapper, documentProcessor, 1, queueCapacity, 1, queueCapacity, 1, queueCapacity);
+        documentPipeline.start();
+    }
+
+    private static DocumentResponseDTO document() {
+        return new DocumentResponseDTO(UUID.randomUUID(), UUID.randomUUID(), "scan.pdf", "application/pdf",
+                10, "abc", Instant.now(), ProcessingStage.EXTRACT_TEXT);
+    }
+}
@@ -0,0 +1,98 @@
+package ru.paperless.documentservice.search;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.paperless.documentservice.model.DTO.DocumentResponseDTO;
+import ru.paperless.documentservice.model.DTO.DocumentSearchHitDTO;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testcontainers(disabledWithoutDocker = true)
+public class DocumentSearchRepositoryTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static NamedParameterJdbcTemplate jdbcTemplate;
+
+    private static DocumentSearchRepository searchRepository;
+
+    private final UUID ownerId = UUID.randomUUID();
+
+    @BeforeAll
+    static void migrate() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        searchRepository = new DocumentSearchRepository(jdbcTemplate);
+    }
+
+    @Test
+    void fileNameMatchesOtherWordForms() {
+        UUID reports = index("Квартальные_отчёты_2024.pdf", "Таблица без совпадений");
+        UUID invoices = index("supplier-invoices.pdf", "Таблица без совпадений");
+
+        assertEquals(List.of(reports), search("квартальный отчёт"));
+        assertEquals(List.of(invoices), search("invoice"));
+    }
+
+    @Test
+    void fileNameRanksAboveContent() {
+        UUID inContent = index("scan.pdf", "Договор поставки оборудования");
+        UUID inFileName = index("Договоры.pdf", "Скан без распознанного текста");
+
+        assertEquals(List.of(inFileName, inContent), search("договор"));
+    }
+
+    @Test
+    void highlightEscapesMarkupFromDocumentText() {
+        index("page.html", "Договор <script>alert(1)</script> & <b>приложение</b>");
+
+        String highlight = searchRepository.search(new DocumentSearchCriteria("договор", ownerId, null, null), 10, 0)
+                .get(0).highlight();
+
+        assertTrue(highlight.startsWith("<mark>Договор</mark> &lt;script&gt;alert(1)&lt;/script&gt; &amp; &lt;b&gt;"),
+                highlight);
+        // Единственная разметка в подсветке — её собственные теги
+        assertFalse(highlight.replace("<mark>", "").replace("</mark>", "").contains("<"), highlight);
+    }
+
+    private UUID index(String fileName, String content) {
+        UUID documentId = UUID.randomUUID();
+        Instant createdAt = Instant.now();
+        jdbcTemplate.update("insert into pl_documents (id, owner_id, file_name, content_type, size, sha256, created_at) " +
+                        "values (:id, :ownerId, :fileName, 'application/pdf', 1, :sha256, :createdAt)",
+                new MapSqlParameterSource()
+                        .addValue("id", documentId)
+                        .addValue("ownerId", ownerId)
+                        .addValue("fileName", fileName)
+                        .addValue("sha256", documentId.toString().replace("-", ""))
+                        .addValue("createdAt", Timestamp.from(createdAt)));
+        searchRepository.upsert(documentId, ownerId, createdAt, fileName, content);
+        return documentId;
+    }
+
+    private List<UUID> search(String query) {
+        return searchRepository.search(new DocumentSearchCriteria(query, ownerId, null, null), 10, 0).stream()
+                .map(DocumentSearchHitDTO::document)
+                .map(DocumentResponseDTO::id)
+                .toList();
+    }
+}
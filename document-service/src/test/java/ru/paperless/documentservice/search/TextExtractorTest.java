@@ -0,0 +1,56 @@
+package ru.paperless.documentservice.search;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TextExtractorTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private final TextExtractor textExtractor = new TextExtractor(20, 10);
+
+    @Test
+    void extractTextFromPdf() throws Exception {
+        Path file = tempDir.resolve("scan.pdf");
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                content.beginText();
+                content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+                content.newLineAtOffset(50, 700);
+                content.showText("Invoice 42");
+                content.endText();
+            }
+            document.save(file.toFile());
+        }
+
+        assertEquals("Invoice 42", textExtractor.extract(file, "application/pdf").trim());
+    }
+
+    @Test
+    void extractPlainTextUpToLimit() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("note.txt"), "договор\u0000поставки оборудования", StandardCharsets.UTF_8);
+
+        assertEquals("договор поставки обо", textExtractor.extract(file, "text/plain; charset=UTF-8"));
+    }
+
+    @Test
+    void skipUnsupportedContent() throws Exception {
+        Path file = Files.write(tempDir.resolve("image.png"), new byte[]{1, 2, 3});
+
+        assertEquals("", textExtractor.extract(file, "image/png"));
+    }
+}
@@ -0,0 +1,318 @@
+package ru.paperless.documentservice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.paperless.documentservice.exception.InvalidChunkException;
+import ru.paperless.documentservice.exception.UploadIncompleteException;
+import ru.paperless.documentservice.model.DTO.DocumentResponseDTO;
+import ru.paperless.documentservice.model.DTO.UploadInitiateRequestDTO;
+import ru.paperless.documentservice.model.DTO.UploadSessionResponseDTO;
+import ru.paperless.documentservice.model.entity.UploadSessionEntity;
+import ru.paperless.documentservice.model.enums.ProcessingStage;
+import ru.paperless.documentservice.model.enums.UploadSessionStatus;
+import ru.paperless.documentservice.pipeline.DocumentPipeline;
+import ru.paperless.documentservice.repository.UploadChunkRepository;
+import ru.paperless.documentservice.repository.UploadSessionRepository;
+import ru.paperless.documentservice.storage.BlobStorage;
+import ru.paperless.documentservice.storage.StoredBlob;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UploadServiceTest {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    @TempDir
+    private Path root;
+
+    @Mock
+    private UploadSessionRepository uploadSessionRepository;
+
+    @Mock
+    private UploadChunkRepository uploadChunkRepository;
+
+    @Mock
+    private DocumentService documentService;
+
+    @Mock
+    private DocumentPipeline documentPipeline;
+
+    private BlobStorage blobStorage;
+
+    private UploadService uploadService;
+
+    private final UUID sessionId = UUID.randomUUID();
+
+    private final UUID ownerId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        blobStorage = new BlobStorage(root);
+        uploadService = new UploadService(uploadSessionRepository, uploadChunkRepository, documentService, blobStorage, documentPipeline);
+    }
+
+    @Test
+    void initiateUploadPreallocatesFile() throws Exception {
+        when(uploadSessionRepository.save(any(UploadSessionEntity.class))).thenAnswer(invocation -> {
+            UploadSessionEntity session = invocation.getArgument(0);
+            session.setId(sessionId);
+            return session;
+        });
+
+        UploadSessionResponseDTO response = uploadService.initiateUpload(
+                new UploadInitiateRequestDTO(ownerId, "scan.pdf", "application/pdf", 200_000L, CHUNK_SIZE));
+
+        ArgumentCaptor<UploadSessionEntity> captor = ArgumentCaptor.forClass(UploadSessionEntity.class);
+        verify(uploadSessionRepository).save(captor.capture());
+        assertEquals(4, response.chunkCount());
+        assertEquals(UploadSessionStatus.ACTIVE, response.status());
+        assertTrue(response.receivedChunks().isEmpty());
+        assertEquals(200_000L, Files.size(Path.of(captor.getValue().getTempPath())));
+    }
+
+    @Test
+    void chunksWrittenOutOfOrderAreAssembledAndCommittedOnComplete() throws Exception {
+        byte[] content = randomBytes(3 * CHUNK_SIZE + 1234);
+        UploadSessionEntity session = preallocatedSession(content.length);
+        when(uploadSessionRepository.findById(sessionId)).thenReturn(Optional.of(session));
+
+        IntStream.of(3, 1, 0, 2).parallel().forEach(index -> {
+            int from = index * CHUNK_SIZE;
+            int to = Math.min(content.length, from + CHUNK_SIZE);
+            try {
+                uploadService.uploadChunk(sessionId, index, new ByteArrayInputStream(Arrays.copyOfRange(content, from, to)));
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        verify(uploadChunkRepository, times(4)).upsertChunk(eq(sessionId), anyInt(), anyLong(), any(Instant.class));
+
+        String sha256 = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        DocumentResponseDTO document = new DocumentResponseDTO(
+                UUID.randomUUID(), ownerId, "scan.pdf", "application/pdf", content.length, sha256, Instant.now(), ProcessingStage.EXTRACT_TEXT);
+        when(uploadChunkRepository.countBySessionId(sessionId)).thenReturn(4L);
+        when(uploadSessionRepository.startCompleting(eq(sessionId), any(Instant.class))).thenReturn(1);
+        when(documentService.saveDocument(ownerId, "scan.pdf", "application/pdf",
+                new StoredBlob(sha256, content.length, false))).thenReturn(document);
+
+        DocumentResponseDTO result = uploadService.completeUpload(sessionId);
+
+        assertEquals(document, result);
+        assertEquals(UploadSessionStatus.COMPLETED, session.getStatus());
+        assertEquals(document.id(), session.getDocumentId());
+        assertFalse(Files.exists(Path.of(session.getTempPath())));
+        assertArrayEquals(content, Files.readAllBytes(blobStorage.resolve(sha256)));
+        verify(uploadChunkRepository).deleteBySessionId(sessionId);
+    }
+
+    @Test
+    void completeRetriedAfterSaveFailureReusesCommittedBlob() throws Exception {
+        byte[] content = randomBytes(CHUNK_SIZE + 100);
+        UploadSessionEntity session = preallocatedSession(content.length);
+        Files.write(Path.of(session.getTempPath()), content);
+        when(uploadSessionRepository.findById(sessionId)).thenReturn(Optional.of(session));
+        when(uploadChunkRepository.countBySessionId(sessionId)).thenReturn(2L);
+        when(uploadSessionRepository.startCompleting(eq(sessionId), any(Instant.class))).thenReturn(1);
+        when(uploadSessionRepository.transitionStatus(sessionId, UploadSessionStatus.COMPLETING, UploadSessionStatus.ACTIVE))
+                .thenAnswer(invocation -> {
+                    session.setStatus(UploadSessionStatus.ACTIVE);
+                    return 1;
+                });
+
+        String sha256 = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        DocumentResponseDTO document = new DocumentResponseDTO(
+                UUID.randomUUID(), ownerId, "scan.pdf", "application/pdf", content.length, sha256, Instant.now(), ProcessingStage.EXTRACT_TEXT);
+        when(documentService.saveDocument(eq(ownerId), eq("scan.pdf"), eq("application/pdf"), any(StoredBlob.class)))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenReturn(document);
+
+        assertThrows(IllegalStateException.class, () -> uploadService.completeUpload(sessionId));
+        verify(uploadSessionRepository).recordBlob(sessionId, sha256);
+        assertEquals(UploadSessionStatus.ACTIVE, session.getStatus());
+        assertFalse(Files.exists(Path.of(session.getTempPath())));
+        assertThrows(UploadIncompleteException.class, () ->
+                uploadService.uploadChunk(sessionId, 0, new ByteArrayInputStream(new byte[CHUNK_SIZE])));
+
+        DocumentResponseDTO result = uploadService.completeUpload(sessionId);
+
+        assertEquals(document, result);
+        assertEquals(UploadSessionStatus.COMPLETED, session.getStatus());
+        verify(documentService, times(2)).saveDocument(eq(ownerId), eq("scan.pdf"), eq("application/pdf"),
+                argThat(blob -> blob.sha256().equals(sha256) && blob.size() == content.length));
+        assertArrayEquals(content, Files.readAllBytes(blobStorage.resolve(sha256)));
+    }
+
+    @Test
+    void uploadChunkRejectsWrongLength() throws Exception {
+        UploadSessionEntity session = preallocatedSession(2 * CHUNK_SIZE);
+        when(uploadSessionRepository.findById(sessionId)).thenReturn(Optional.of(session));
+
+        assertThrows(InvalidChunkException.class, () ->
+                uploadService.uploadChunk(sessionId, 0, new ByteArrayInputStream(new byte[CHUNK_SIZE - 1])));
+        assertThrows(InvalidChunkException.class, () ->
+                uploadService.uploadChunk(sessionId, 1, new ByteArrayInputStream(new byte[CHUNK_SIZE + 1])));
+        assertThrows(InvalidChunkException.class, () ->
+                uploadService.uploadChunk(sessionId, 2, new ByteArrayInputStream(new byte[1])));
+        verify(uploadChunkRepository, never()).upsertChunk(any(), anyInt(), anyLong(), any());
+    }
+
+    @Test
+    void completeUploadWithMissingChunksThrowsException() throws Exception {
+        UploadSessionEntity session = preallocatedSession(2 * CHUNK_SIZE);
+        when(uploadSessionRepository.findById(sessionId)).thenReturn(Optional.of(session));
+        when(uploadChunkRepository.countBySessionId(sessionId)).thenReturn(1L);
+
+        assertThrows(UploadIncompleteException.class, () -> uploadService.completeUpload(sessionId));
+        verify(uploadSessionRepository, never()).startCompleting(any(), any());
+        verifyNoInteractions(documentService);
+    }
+
+    @Test
+    void completeWaitsForChunksStillBeingWritten() throws Exception {
+        byte[] content = randomBytes(2 * CHUNK_SIZE);
+        UploadSessionEntity session = preallocatedSession(content.length);
+        when(uploadSessionRepository.findById(sessionId)).thenReturn(Optional.of(session));
+        // Обе части уже отмечены, так что завершение останавливает только идущая запись
+        when(uploadChunkRepository.countBySessionId(sessionId)).thenReturn(2L);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // Повтор части, тело которой ещё идёт по сети
+        InputStream slowChunk = new SequenceInputStream(
+                new ByteArrayInputStream(content, 0, CHUNK_SIZE / 2),
+                new InputStream() {
+                    private final InputStream rest = new ByteArrayInputStream(content, CHUNK_SIZE / 2, CHUNK_SIZE / 2);
+
+                    @Override
+                    public int read() throws IOException {
+                        return rest.read();
+                    }
+
+                    @Override
+                    public int read(byte[] b, int off, int len) throws IOException {
+                        writing.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            throw new IOException(e);
+                        }
+                        return rest.read(b, off, len);
+                    }
+                });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> upload = executor.submit(() -> {
+                uploadService.uploadChunk(sessionId, 0, slowChunk);
+                return null;
+            });
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+            assertThrows(UploadIncompleteException.class, () -> uploadService.completeUpload(sessionId));
+            verify(uploadSessionRepository, never()).startCompleting(any(), any());
+
+            release.countDown();
+            upload.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        when(uploadSessionRepository.startCompleting(eq(sessionId), any(Instant.class))).thenAnswer(invocation -> {
+            session.setStatus(UploadSessionStatus.COMPLETING);
+            return 1;
+        });
+        when(documentService.saveDocument(any(), any(), any(), any())).thenThrow(new IllegalStateException("database unavailable"));
+
+        assertThrows(IllegalStateException.class, () -> uploadService.completeUpload(sessionId));
+        verify(uploadSessionRepository).startCompleting(eq(sessionId), any(Instant.class));
+        // Пока сессия в COMPLETING, части не принимаются
+        assertThrows(UploadIncompleteException.class, () ->
+                uploadService.uploadChunk(sessionId, 1, new ByteArrayInputStream(content, CHUNK_SIZE, CHUNK_SIZE)));
+    }
+
+    @Test
+    void cleanupReclaimsSessionsStuckInCompleting() {
+        ReflectionTestUtils.setField(uploadService, "sessionTtl", Duration.ofHours(24));
+        ReflectionTestUtils.setField(uploadService, "completingTimeout", Duration.ofHours(1));
+        when(uploadSessionRepository.reclaimStuckCompleting(any())).thenReturn(1);
+        when(uploadSessionRepository.findAbandoned(any(), any())).thenReturn(List.of());
+
+        Instant before = Instant.now();
+        uploadService.cleanupAbandonedUploads();
+
+        ArgumentCaptor<Instant> cutoff = ArgumentCaptor.forClass(Instant.class);
+        verify(uploadSessionRepository).reclaimStuckCompleting(cutoff.capture());
+        assertFalse(cutoff.getValue().isAfter(before.minus(Duration.ofHours(1)).plusSeconds(5)));
+        assertTrue(cutoff.getValue().isAfter(before.minus(Duration.ofHours(1)).minusSeconds(5)));
+        verify(uploadSessionRepository).findAbandoned(any(), any());
+    }
+
+    @Test
+    void getUploadSessionMergesReceivedChunksIntoRanges() throws Exception {
+        UploadSessionEntity session = preallocatedSession(5 * CHUNK_SIZE - 10);
+        when(uploadSessionRepository.findById(sessionId)).thenReturn(Optional.of(session));
+        when(uploadChunkRepository.findChunkIndexes(sessionId)).thenReturn(List.of(0, 1, 3, 4));
+
+        UploadSessionResponseDTO response = uploadService.getUploadSession(sessionId);
+
+        assertEquals(List.of(
+                "bytes=0-" + (2 * CHUNK_SIZE - 1),
+                "bytes=" + 3 * CHUNK_SIZE + "-" + (5 * CHUNK_SIZE - 11)), response.receivedRanges());
+    }
+
+    private UploadSessionEntity preallocatedSession(long totalSize) throws Exception {
+        Path tempFile = blobStorage.createTempFile("session-");
+        try (var file = new java.io.RandomAccessFile(tempFile.toFile(), "rw")) {
+            file.setLength(totalSize);
+        }
+        return UploadSessionEntity.builder()
+                .id(sessionId)
+                .ownerId(ownerId)
+                .fileName("scan.pdf")
+                .contentType("application/pdf")
+                .totalSize(totalSize)
+                .chunkSize(CHUNK_SIZE)
+                .chunkCount((int) ((totalSize + CHUNK_SIZE - 1) / CHUNK_SIZE))
+                .tempPath(tempFile.toString())
+                .status(UploadSessionStatus.ACTIVE)
+                .build();
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+}
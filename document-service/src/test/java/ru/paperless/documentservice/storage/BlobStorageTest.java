@@ -0,0 +1,55 @@
+package ru.paperless.documentservice.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BlobStorageTest {
+
+    @TempDir
+    private Path root;
+
+    @Test
+    void storeContentAddressedBySha256() throws Exception {
+        BlobStorage blobStorage = new BlobStorage(root);
+        byte[] content = randomBytes(300_000);
+
+        StoredBlob blob = blobStorage.store(new ByteArrayInputStream(content));
+
+        String expectedSha256 = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        assertEquals(expectedSha256, blob.sha256());
+        assertEquals(content.length, blob.size());
+        assertFalse(blob.deduplicated());
+        assertArrayEquals(content, Files.readAllBytes(blobStorage.resolve(blob.sha256())));
+    }
+
+    @Test
+    void storeIdenticalContentOnlyOnce() throws Exception {
+        BlobStorage blobStorage = new BlobStorage(root);
+        byte[] content = "same scan".getBytes(StandardCharsets.UTF_8);
+
+        StoredBlob first = blobStorage.store(new ByteArrayInputStream(content));
+        StoredBlob second = blobStorage.store(new ByteArrayInputStream(content));
+
+        assertEquals(first.sha256(), second.sha256());
+        assertTrue(second.deduplicated());
+        try (var tempFiles = Files.list(root.resolve("tmp"))) {
+            assertEquals(0, tempFiles.count());
+        }
+    }
+
+    private byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+}
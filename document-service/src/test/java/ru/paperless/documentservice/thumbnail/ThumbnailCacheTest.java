@@ -0,0 +1,112 @@
+package ru.paperless.documentservice.thumbnail;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ThumbnailCacheTest {
+
+    @TempDir
+    private Path root;
+
+    @Test
+    void leastRecentlyUsedIsEvictedOverBudget() throws Exception {
+        ThumbnailCache cache = new ThumbnailCache(root, DataSize.ofBytes(250));
+        ThumbnailKey first = key("a");
+        ThumbnailKey second = key("b");
+        ThumbnailKey third = key("c");
+        cache.put(first, new byte[100]);
+        cache.put(second, new byte[100]);
+        assertNotNull(cache.get(first));
+
+        cache.put(third, new byte[100]);
+
+        assertNull(cache.get(second));
+        assertNotNull(cache.get(first));
+        assertNotNull(cache.get(third));
+        assertEquals(200, cache.usedBytes());
+        assertEquals(1, cache.evictions());
+        assertFalse(Files.exists(root.resolve("thumbnails").resolve(second.fileName())));
+    }
+
+    @Test
+    void cachedFileIsServedFromDisk() throws Exception {
+        ThumbnailCache cache = new ThumbnailCache(root, DataSize.ofKilobytes(1));
+        byte[] content = {1, 2, 3};
+        cache.put(key("a"), content);
+
+        try (Thumbnail thumbnail = cache.get(key("a"))) {
+            assertEquals(3, thumbnail.size());
+            assertArrayEquals(content, read(thumbnail));
+        }
+        assertArrayEquals(content, cache.read(key("a")));
+    }
+
+    @Test
+    void openedThumbnailIsReadableAfterEviction() throws Exception {
+        ThumbnailCache cache = new ThumbnailCache(root, DataSize.ofBytes(150));
+        byte[] content = new byte[100];
+        content[99] = 7;
+        cache.put(key("a"), content);
+
+        try (Thumbnail thumbnail = cache.get(key("a"))) {
+            // Параллельный рендер вытесняет превью, которое ещё отдаётся
+            cache.put(key("b"), new byte[100]);
+
+            assertFalse(Files.exists(root.resolve("thumbnails").resolve(key("a").fileName())));
+            assertArrayEquals(content, read(thumbnail));
+        }
+        assertNull(cache.get(key("a")));
+    }
+
+    @Test
+    void fileDeletedBehindCacheIsMiss() throws Exception {
+        ThumbnailCache cache = new ThumbnailCache(root, DataSize.ofKilobytes(1));
+        cache.put(key("a"), new byte[100]);
+        Files.delete(root.resolve("thumbnails").resolve(key("a").fileName()));
+
+        assertNull(cache.get(key("a")));
+        assertFalse(cache.contains(key("a")));
+        assertEquals(0, cache.usedBytes());
+    }
+
+    @Test
+    void thumbnailLargerThanBudgetIsNotCached() throws Exception {
+        ThumbnailCache cache = new ThumbnailCache(root, DataSize.ofBytes(10));
+
+        Thumbnail thumbnail = cache.put(key("a"), new byte[11]);
+
+        assertNull(thumbnail.channel());
+        assertEquals(11, thumbnail.content().length);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void indexIsRestoredAfterRestart() throws Exception {
+        ThumbnailCache cache = new ThumbnailCache(root, DataSize.ofKilobytes(1));
+        cache.put(key("a"), new byte[100]);
+        Files.write(root.resolve("thumbnails").resolve("render-1.part"), new byte[10]);
+
+        ThumbnailCache restarted = new ThumbnailCache(root, DataSize.ofKilobytes(1));
+
+        assertNotNull(restarted.get(key("a")));
+        assertEquals(100, restarted.usedBytes());
+        assertFalse(Files.exists(root.resolve("thumbnails").resolve("render-1.part")));
+    }
+
+    private static byte[] read(Thumbnail thumbnail) throws Exception {
+        ByteBuffer content = ByteBuffer.allocate((int) thumbnail.size());
+        thumbnail.channel().read(content, 0);
+        return content.array();
+    }
+
+    private static ThumbnailKey key(String sha256) {
+        return new ThumbnailKey(sha256, 1, ThumbnailSize.SMALL);
+    }
+}
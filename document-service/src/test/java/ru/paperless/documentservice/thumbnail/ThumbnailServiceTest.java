@@ -0,0 +1,154 @@
+package ru.paperless.documentservice.thumbnail;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import ru.paperless.documentservice.exception.ThumbnailRenderingOverloadedException;
+import ru.paperless.documentservice.exception.ThumbnailUnavailableException;
+import ru.paperless.documentservice.model.DTO.DocumentResponseDTO;
+import ru.paperless.documentservice.model.enums.ProcessingStage;
+import ru.paperless.documentservice.storage.BlobStorage;
+import ru.paperless.documentservice.storage.StoredBlob;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ThumbnailServiceTest {
+
+    @TempDir
+    private Path root;
+
+    private ThumbnailService thumbnailService;
+
+    @AfterEach
+    void tearDown() {
+        if (thumbnailService != null) {
+            thumbnailService.stop();
+        }
+    }
+
+    @Test
+    void pdfPageIsRenderedAtRequestedWidthAndCached() throws Exception {
+        BlobStorage blobStorage = new BlobStorage(root);
+        thumbnailService = service(blobStorage, new ThumbnailRenderer(), 1);
+        DocumentResponseDTO document = document(blobStorage.store(new ByteArrayInputStream(pdf(2))), "application/pdf");
+
+        Thumbnail thumbnail = thumbnailService.getThumbnail(document, 2, ThumbnailSize.MEDIUM);
+
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(thumbnail.content()));
+        assertEquals(ThumbnailSize.MEDIUM.getWidth(), image.getWidth());
+        try (Thumbnail cached = thumbnailService.getThumbnail(document, 2, ThumbnailSize.MEDIUM)) {
+            assertNotNull(cached.channel());
+            assertEquals(thumbnail.size(), cached.size());
+        }
+        assertEquals(1, thumbnailService.renders());
+        assertThrows(ThumbnailUnavailableException.class,
+                () -> thumbnailService.getThumbnail(document, 3, ThumbnailSize.MEDIUM));
+    }
+
+    @Test
+    void concurrentRequestsShareOneRender() throws Exception {
+        BlobStorage blobStorage = new BlobStorage(root);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger renders = new AtomicInteger();
+        thumbnailService = service(blobStorage, blockingRenderer(release, renders), 4);
+        DocumentResponseDTO document = document(new StoredBlob("ab".repeat(32), 1, false), "application/pdf");
+
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Thumbnail>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(clients.submit(() -> thumbnailService.getThumbnail(document, 1, ThumbnailSize.SMALL)));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (thumbnailService.joined() < 7 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+            for (Future<Thumbnail> result : results) {
+                assertEquals(3, result.get(5, TimeUnit.SECONDS).size());
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+        assertEquals(1, renders.get());
+        assertEquals(7, thumbnailService.joined());
+    }
+
+    @Test
+    void fullRenderQueueIsRejected() throws Exception {
+        BlobStorage blobStorage = new BlobStorage(root);
+        CountDownLatch release = new CountDownLatch(1);
+        thumbnailService = new ThumbnailService(blobStorage, blockingRenderer(release, new AtomicInteger()),
+                new ThumbnailCache(root, DataSize.ofMegabytes(1)), 1, 1, Duration.ofMillis(50));
+        DocumentResponseDTO document = document(new StoredBlob("ab".repeat(32), 1, false), "application/pdf");
+
+        try {
+            // Первый занимает поток рендера, второй — единственное место в очереди
+            assertThrows(ThumbnailRenderingOverloadedException.class,
+                    () -> thumbnailService.getThumbnail(document, 1, ThumbnailSize.SMALL));
+            assertThrows(ThumbnailRenderingOverloadedException.class,
+                    () -> thumbnailService.getThumbnail(document, 2, ThumbnailSize.SMALL));
+            assertThrows(ThumbnailRenderingOverloadedException.class,
+                    () -> thumbnailService.getThumbnail(document, 3, ThumbnailSize.SMALL));
+            assertEquals(1, thumbnailService.rejected());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private ThumbnailService service(BlobStorage blobStorage, ThumbnailRenderer renderer, int threads) throws Exception {
+        return new ThumbnailService(blobStorage, renderer, new ThumbnailCache(root, DataSize.ofMegabytes(1)),
+                threads, 16, Duration.ofSeconds(10));
+    }
+
+    private static ThumbnailRenderer blockingRenderer(CountDownLatch release, AtomicInteger renders) {
+        return new ThumbnailRenderer() {
+            @Override
+            public byte[] render(Path file, String contentType, int page, ThumbnailSize size) {
+                renders.incrementAndGet();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new byte[]{1, 2, 3};
+            }
+        };
+    }
+
+    private static byte[] pdf(int pages) throws Exception {
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (int i = 0; i < pages; i++) {
+                document.addPage(new PDPage(PDRectangle.A4));
+            }
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static DocumentResponseDTO document(StoredBlob blob, String contentType) {
+        return new DocumentResponseDTO(UUID.randomUUID(), UUID.randomUUID(), "scan.pdf", contentType,
+                blob.size(), blob.sha256(), Instant.now(), ProcessingStage.DONE);
+    }
+}
@@ -0,0 +1,254 @@
+package ru.paperless.documentservice.versioning;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.paperless.documentservice.repository.DocumentRepository;
+import ru.paperless.documentservice.storage.BlobStorage;
+import ru.paperless.documentservice.storage.BlockStore;
+import ru.paperless.documentservice.storage.StoredBlob;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Testcontainers(disabledWithoutDocker = true)
+public class BlockRepositoryTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final Duration GRACE = Duration.ofHours(1);
+
+    private static DriverManagerDataSource dataSource;
+
+    private static NamedParameterJdbcTemplate jdbcTemplate;
+
+    private static BlockRepository blockRepository;
+
+    private static DocumentVersionRepository documentVersionRepository;
+
+    @TempDir
+    private Path root;
+
+    private final DocumentRepository documentRepository = mock(DocumentRepository.class);
+
+    private BlockStore blockStore;
+
+    private BlobStorage blobStorage;
+
+    private BlockGarbageCollector collector;
+
+    @BeforeAll
+    static void migrate() {
+        dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        blockRepository = new BlockRepository(jdbcTemplate);
+        documentVersionRepository = new DocumentVersionRepository(jdbcTemplate);
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jdbcTemplate.getJdbcTemplate().update("delete from pl_blocks");
+        jdbcTemplate.getJdbcTemplate().update("delete from pl_document_versions");
+        blockStore = new BlockStore(root);
+        blobStorage = new BlobStorage(root);
+        collector = new BlockGarbageCollector(blockRepository, documentVersionRepository, documentRepository,
+                blockStore, blobStorage, new TransactionTemplate(new DataSourceTransactionManager(dataSource)), GRACE);
+    }
+
+    @Test
+    void sharedBlockIsCountedPerReferenceAndReleasedByLastVersion() {
+        ChunkManifest.Chunk shared = chunk("shared");
+        List<ChunkManifest.Chunk> first = List.of(shared, chunk("first"), shared);
+        List<ChunkManifest.Chunk> second = List.of(shared, chunk("second"));
+        blockRepository.reserve(first);
+        blockRepository.reserve(second);
+
+        assertTrue(blockRepository.acquire(first));
+        assertTrue(blockRepository.acquire(second));
+        assertEquals(3, refCount(shared));
+        assertNull(releasedAt(shared));
+
+        blockRepository.release(first);
+        assertEquals(1, refCount(shared));
+        assertNull(releasedAt(shared));
+        assertNotNull(releasedAt(chunk("first")));
+
+        blockRepository.release(second);
+        assertEquals(0, refCount(shared));
+        assertNotNull(releasedAt(shared));
+    }
+
+    @Test
+    void releasedBlockIsDeletedOnlyAfterGrace() throws Exception {
+        ChunkManifest.Chunk recent = store("recent");
+        ChunkManifest.Chunk expired = store("expired");
+        ChunkManifest.Chunk referenced = store("referenced");
+        assertTrue(blockRepository.acquire(List.of(referenced)));
+        expire(expired);
+
+        collector.sweepBlocks();
+
+        assertEquals(1, collector.sweptBlocks());
+        assertFalse(Files.exists(blockStore.resolve(expired.hash())));
+        assertTrue(Files.exists(blockStore.resolve(recent.hash())));
+        assertTrue(Files.exists(blockStore.resolve(referenced.hash())));
+        assertEquals(Stream.of(recent.hash(), referenced.hash()).sorted().toList(), hashes());
+    }
+
+    @Test
+    void reserveExtendsGraceOfReleasedBlock() throws Exception {
+        ChunkManifest.Chunk block = store("block");
+        expire(block);
+
+        // Новая загрузка нашла тот же блок до прохода сборщика
+        blockRepository.reserve(List.of(block));
+        collector.sweepBlocks();
+
+        assertTrue(Files.exists(blockStore.resolve(block.hash())));
+        assertTrue(blockRepository.acquire(List.of(block)));
+        assertEquals(1, refCount(block));
+    }
+
+    @Test
+    void acquireFailsForBlockSweptAfterReserve() throws Exception {
+        ChunkManifest.Chunk swept = store("swept");
+        ChunkManifest.Chunk kept = store("kept");
+        // Первую пачку загрузка зарезервировала раньше grace-периода
+        expire(swept);
+        collector.sweepBlocks();
+
+        assertFalse(blockRepository.acquire(List.of(swept, kept)));
+        assertFalse(Files.exists(blockStore.resolve(swept.hash())));
+    }
+
+    @Test
+    void sweptBlockIsReservedAgainAsNewRow() throws Exception {
+        ChunkManifest.Chunk block = store("block");
+        expire(block);
+        collector.sweepBlocks();
+
+        blockRepository.reserve(List.of(block));
+
+        assertEquals(0, refCount(block));
+        assertNotNull(releasedAt(block));
+        assertTrue(blockRepository.acquire(List.of(block)));
+    }
+
+    @Test
+    void supersededBlobIsDeletedAfterGraceUnlessStillUsed() throws Exception {
+        StoredBlob unused = blobStorage.store(new ByteArrayInputStream("unused".getBytes()));
+        StoredBlob used = blobStorage.store(new ByteArrayInputStream("used".getBytes()));
+        UUID unusedDocument = version(unused);
+        UUID usedDocument = version(used);
+        documentVersionRepository.releaseBlob(unusedDocument, 1);
+        documentVersionRepository.releaseBlob(usedDocument, 1);
+        expireBlob(unusedDocument, unused);
+        expireBlob(usedDocument, used);
+        // Тот же файл загружен другим документом
+        when(documentRepository.existsBySha256(used.sha256())).thenReturn(true);
+
+        collector.sweepBlobs();
+
+        assertEquals(1, collector.sweptBlobs());
+        assertFalse(Files.exists(blobStorage.resolve(unused.sha256())));
+        assertTrue(Files.exists(blobStorage.resolve(used.sha256())));
+        assertTrue(documentVersionRepository.findReleasedBlobs(Duration.ZERO, 10).isEmpty());
+    }
+
+    @Test
+    void recentlyReleasedBlobIsKept() throws Exception {
+        StoredBlob blob = blobStorage.store(new ByteArrayInputStream("recent".getBytes()));
+        UUID documentId = version(blob);
+        documentVersionRepository.releaseBlob(documentId, 1);
+
+        collector.sweepBlobs();
+
+        assertTrue(Files.exists(blobStorage.resolve(blob.sha256())));
+        assertEquals(List.of(new DocumentVersionRepository.ReleasedBlob(documentId, 1, blob.sha256())),
+                documentVersionRepository.findReleasedBlobs(Duration.ZERO, 10));
+    }
+
+    private static ChunkManifest.Chunk chunk(String content) {
+        return new ChunkManifest.Chunk(sha256(content), content.length());
+    }
+
+    private ChunkManifest.Chunk store(String content) throws Exception {
+        ChunkManifest.Chunk chunk = chunk(content);
+        blockRepository.reserve(List.of(chunk));
+        blockStore.write(chunk.hash(), content.getBytes(), 0, chunk.length());
+        return chunk;
+    }
+
+    private UUID version(StoredBlob blob) {
+        UUID documentId = UUID.randomUUID();
+        jdbcTemplate.update("insert into pl_documents (id, owner_id, file_name, content_type, size, sha256, created_at) " +
+                        "values (:id, :ownerId, 'scan.pdf', 'application/pdf', :size, :sha256, :createdAt)",
+                new MapSqlParameterSource()
+                        .addValue("id", documentId)
+                        .addValue("ownerId", UUID.randomUUID())
+                        .addValue("size", blob.size())
+                        .addValue("sha256", blob.sha256())
+                        .addValue("createdAt", Timestamp.from(Instant.now())));
+        documentVersionRepository.insert(documentId, 1, blob.size(), blob.sha256(), 0, List.of());
+        return documentId;
+    }
+
+    private void expire(ChunkManifest.Chunk chunk) {
+        jdbcTemplate.update("update pl_blocks set released_at = now() - interval '2 hours' where hash = :hash",
+                Map.of("hash", chunk.hash()));
+    }
+
+    private void expireBlob(UUID documentId, StoredBlob blob) throws Exception {
+        jdbcTemplate.update("update pl_document_versions set blob_released_at = now() - interval '2 hours' " +
+                "where document_id = :documentId", Map.of("documentId", documentId));
+        Files.setLastModifiedTime(blobStorage.resolve(blob.sha256()), FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+    }
+
+    private long refCount(ChunkManifest.Chunk chunk) {
+        return jdbcTemplate.queryForObject("select ref_count from pl_blocks where hash = :hash",
+                Map.of("hash", chunk.hash()), Long.class);
+    }
+
+    private Timestamp releasedAt(ChunkManifest.Chunk chunk) {
+        return jdbcTemplate.queryForObject("select released_at from pl_blocks where hash = :hash",
+                Map.of("hash", chunk.hash()), Timestamp.class);
+    }
+
+    private List<String> hashes() {
+        return jdbcTemplate.getJdbcTemplate().queryForList("select hash from pl_blocks order by hash", String.class);
+    }
+
+    private static String sha256(String content) {
+        return HexFormat.of().formatHex(BlobStorage.sha256Digest().digest(content.getBytes()));
+    }
+}
@@ -0,0 +1,73 @@
+package ru.paperless.documentservice.versioning;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContentDefinedChunkerTest {
+
+    @Test
+    void chunksConcatenateToInputAndStayWithinBounds() throws Exception {
+        byte[] content = random(1024 * 1024, 1);
+        ByteArrayOutputStream joined = new ByteArrayOutputStream();
+        List<Integer> sizes = new ArrayList<>();
+
+        new ContentDefinedChunker().split(new ByteArrayInputStream(content), (data, offset, length) -> {
+            joined.write(data, offset, length);
+            sizes.add(length);
+        });
+
+        assertArrayEquals(content, joined.toByteArray());
+        for (int i = 0; i < sizes.size() - 1; i++) {
+            assertTrue(sizes.get(i) >= ContentDefinedChunker.MIN_SIZE);
+            assertTrue(sizes.get(i) <= ContentDefinedChunker.MAX_SIZE);
+        }
+        double average = (double) content.length / sizes.size();
+        assertTrue(average > ContentDefinedChunker.AVERAGE_SIZE / 2.0 && average < ContentDefinedChunker.AVERAGE_SIZE * 2.0,
+                "average chunk size " + average);
+    }
+
+    @Test
+    void insertionChangesOnlyNeighbouringChunks() throws Exception {
+        byte[] original = random(1024 * 1024, 2);
+        byte[] edited = new byte[original.length + 100];
+        int at = original.length / 2;
+        System.arraycopy(original, 0, edited, 0, at);
+        System.arraycopy(random(100, 3), 0, edited, at, 100);
+        System.arraycopy(original, at, edited, at + 100, original.length - at);
+
+        List<String> before = chunks(original);
+        List<String> after = chunks(edited);
+
+        Set<String> changed = new HashSet<>(after);
+        before.forEach(changed::remove);
+        assertTrue(changed.size() <= 2, "changed chunks: " + changed.size());
+    }
+
+    @Test
+    void emptyInputHasNoChunks() throws Exception {
+        assertTrue(chunks(new byte[0]).isEmpty());
+    }
+
+    private static List<String> chunks(byte[] content) throws Exception {
+        List<String> chunks = new ArrayList<>();
+        new ContentDefinedChunker().split(new ByteArrayInputStream(content), (data, offset, length) ->
+                chunks.add(Arrays.toString(Arrays.copyOfRange(data, offset, offset + length))));
+        return chunks;
+    }
+
+    private static byte[] random(int size, long seed) {
+        byte[] bytes = new byte[size];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,195 @@
+package ru.paperless.documentservice.versioning;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.paperless.documentservice.event.DocumentStoredEvent;
+import ru.paperless.documentservice.exception.DocumentVersionConflictException;
+import ru.paperless.documentservice.mapper.DocumentMapper;
+import ru.paperless.documentservice.model.DTO.DocumentVersionDTO;
+import ru.paperless.documentservice.model.entity.DocumentEntity;
+import ru.paperless.documentservice.model.enums.ProcessingStage;
+import ru.paperless.documentservice.pipeline.DocumentPipeline;
+import ru.paperless.documentservice.repository.DocumentRepository;
+import ru.paperless.documentservice.storage.BlobStorage;
+import ru.paperless.documentservice.storage.BlockStore;
+import ru.paperless.documentservice.storage.StoredBlob;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DocumentVersionServiceTest {
+
+    @TempDir
+    private Path root;
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private DocumentVersionRepository documentVersionRepository;
+
+    @Mock
+    private BlockRepository blockRepository;
+
+    @Mock
+    private DocumentPipeline documentPipeline;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private BlobStorage blobStorage;
+
+    private BlockStore blockStore;
+
+    private DocumentVersionService documentVersionService;
+
+    private final UUID documentId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        blobStorage = new BlobStorage(root);
+        blockStore = new BlockStore(root);
+        documentVersionService = new DocumentVersionService(documentRepository, new DocumentMapper(),
+                documentVersionRepository, blockRepository, blockStore, blobStorage, documentPipeline, eventPublisher,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+    }
+
+    @Test
+    void firstNewVersionImportsOriginalAndStoresOnlyChangedChunks() throws Exception {
+        byte[] original = random(1024 * 1024);
+        byte[] edited = original.clone();
+        edited[1000] ^= 1;
+        DocumentEntity document = document(blobStorage.store(new ByteArrayInputStream(original)));
+        when(documentRepository.findById(documentId)).thenReturn(Optional.of(document));
+        when(documentRepository.findByIdForUpdate(documentId)).thenReturn(Optional.of(document));
+        when(documentRepository.save(document)).thenReturn(document);
+        when(documentVersionRepository.findLatestVersion(documentId))
+                .thenReturn(Optional.empty(), Optional.empty(), Optional.of(1));
+        when(blockRepository.acquire(anyList())).thenReturn(true);
+
+        DocumentVersionDTO version = documentVersionService.uploadVersion(documentId, new ByteArrayInputStream(edited));
+
+        assertEquals(2, version.version());
+        assertTrue(version.storedBytes() < original.length / 4, "stored " + version.storedBytes());
+        ArgumentCaptor<List<ChunkManifest.Chunk>> chunks = ArgumentCaptor.captor();
+        verify(documentVersionRepository).insert(eq(documentId), eq(1), eq((long) original.length), anyString(),
+                eq((long) original.length), anyList());
+        verify(documentVersionRepository).insert(eq(documentId), eq(2), eq((long) edited.length), eq(version.sha256()),
+                eq(version.storedBytes()), chunks.capture());
+        verify(documentVersionRepository).releaseBlob(documentId, 1);
+        verify(eventPublisher).publishEvent(any(DocumentStoredEvent.class));
+        assertEquals(2, document.getCurrentVersion());
+        assertEquals(version.sha256(), document.getSha256());
+        assertEquals(ProcessingStage.EXTRACT_TEXT, document.getProcessingStage());
+
+        ByteArrayOutputStream reconstructed = new ByteArrayOutputStream();
+        documentVersionService.writeChunks(chunks.getValue(), reconstructed);
+        assertArrayEquals(edited, reconstructed.toByteArray());
+    }
+
+    @Test
+    void unchangedContentDoesNotCreateVersion() throws Exception {
+        byte[] content = random(10_000);
+        DocumentEntity document = document(blobStorage.store(new ByteArrayInputStream(content)));
+        when(documentRepository.findById(documentId)).thenReturn(Optional.of(document));
+
+        DocumentVersionDTO version = documentVersionService.uploadVersion(documentId, new ByteArrayInputStream(content));
+
+        assertEquals(1, version.version());
+        verify(documentVersionRepository, never()).insert(any(), anyInt(), anyLong(), any(), anyLong(), any());
+    }
+
+    @Test
+    void versionWithCollectedBlocksIsNotCommittedAndItsBlobIsDeleted() throws Exception {
+        DocumentEntity document = document(blobStorage.store(new ByteArrayInputStream(random(10_000))));
+        stubVersionedDocument(document);
+        // Сборщик удалил зарезервированный блок, пока загрузка писала остальные
+        when(blockRepository.acquire(anyList())).thenReturn(false);
+        byte[] edited = random(20_000);
+
+        assertThrows(DocumentVersionConflictException.class,
+                () -> documentVersionService.uploadVersion(documentId, new ByteArrayInputStream(edited)));
+
+        verify(documentVersionRepository, never()).insert(any(), anyInt(), anyLong(), any(), anyLong(), any());
+        assertFalse(Files.exists(blobStorage.resolve(BlobStorage.sha256Of(write(edited)))));
+        assertTrue(Files.exists(blobStorage.resolve(document.getSha256())));
+        assertEquals(1, document.getCurrentVersion());
+    }
+
+    @Test
+    void failedCommitKeepsDeduplicatedBlob() throws Exception {
+        DocumentEntity document = document(blobStorage.store(new ByteArrayInputStream(random(10_000))));
+        stubVersionedDocument(document);
+        when(blockRepository.acquire(anyList())).thenReturn(false);
+        // То же содержимое уже хранится у другого документа
+        StoredBlob shared = blobStorage.store(new ByteArrayInputStream(random(20_000)));
+
+        assertThrows(DocumentVersionConflictException.class,
+                () -> documentVersionService.uploadVersion(documentId, new ByteArrayInputStream(random(20_000))));
+
+        assertTrue(Files.exists(blobStorage.resolve(shared.sha256())));
+    }
+
+    @Test
+    void currentVersionCannotBeDeleted() throws Exception {
+        DocumentEntity document = document(blobStorage.store(new ByteArrayInputStream(random(100))));
+        when(documentRepository.findByIdForUpdate(documentId)).thenReturn(Optional.of(document));
+
+        assertThrows(DocumentVersionConflictException.class, () -> documentVersionService.deleteVersion(documentId, 1));
+        verifyNoInteractions(blockRepository);
+    }
+
+    private void stubVersionedDocument(DocumentEntity document) {
+        when(documentRepository.findById(documentId)).thenReturn(Optional.of(document));
+        when(documentRepository.findByIdForUpdate(documentId)).thenReturn(Optional.of(document));
+        when(documentVersionRepository.findLatestVersion(documentId)).thenReturn(Optional.of(1));
+    }
+
+    private Path write(byte[] content) throws Exception {
+        return Files.write(root.resolve("expected.bin"), content);
+    }
+
+    private DocumentEntity document(StoredBlob blob) {
+        return DocumentEntity.builder()
+                .id(documentId)
+                .ownerId(UUID.randomUUID())
+                .fileName("contract.pdf")
+                .contentType("application/pdf")
+                .size(blob.size())
+                .sha256(blob.sha256())
+                .createdAt(Instant.now())
+                .processingStage(ProcessingStage.DONE)
+                .build();
+    }
+
+    private static byte[] random(int size) {
+        byte[] bytes = new byte[size];
+        new Random(7).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,63 @@
+package ru.paperless.documentservice.versioning;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.paperless.documentservice.storage.BlockStore;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VersionWriterTest {
+
+    @TempDir
+    private Path root;
+
+    @Test
+    void smallEditStoresOnlyChangedChunks() throws Exception {
+        BlockStore blockStore = new BlockStore(root);
+        List<ChunkManifest.Chunk> reserved = new ArrayList<>();
+        VersionWriter writer = new VersionWriter(blockStore, reserved::addAll);
+        byte[] original = random(2 * 1024 * 1024);
+        byte[] edited = original.clone();
+        edited[original.length / 3] ^= 1;
+
+        VersionWriter.Result first = writer.write(new ByteArrayInputStream(original));
+        VersionWriter.Result second = writer.write(new ByteArrayInputStream(edited));
+
+        assertEquals(original.length, first.storedBytes());
+        assertEquals(edited.length, second.size());
+        assertTrue(second.storedBytes() <= 2L * ContentDefinedChunker.MAX_SIZE, "stored " + second.storedBytes());
+        assertEquals(first.chunks().size() + second.chunks().size(), reserved.size());
+        assertArrayEquals(edited, reconstruct(blockStore, second.chunks()));
+        assertArrayEquals(original, reconstruct(blockStore, first.chunks()));
+    }
+
+    @Test
+    void manifestRoundTrips() throws Exception {
+        VersionWriter.Result result = new VersionWriter(new BlockStore(root), chunks -> {
+        }).write(new ByteArrayInputStream(random(100_000)));
+
+        assertEquals(result.chunks(), ChunkManifest.decode(ChunkManifest.encode(result.chunks())));
+    }
+
+    private static byte[] reconstruct(BlockStore blockStore, List<ChunkManifest.Chunk> chunks) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        for (ChunkManifest.Chunk chunk : chunks) {
+            blockStore.copyTo(chunk.hash(), out, buffer);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] random(int size) {
+        byte[] bytes = new byte[size];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,39 @@
+package ru.paperless.benchmarks;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public final class BenchmarkApplications {
+
+    private BenchmarkApplications() {
+    }
+
+    public static ConfigurableApplicationContext start(Class<?> applicationClass,
+                                                       WebApplicationType webApplicationType,
+                                                       String... extraProperties) {
+        List<String> properties = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID()
+                        + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.flyway.enabled=false",
+                // Нагрузочные прогоны бьют с одного адреса и упёрлись бы в квоту клиента
+                "paperless.rate-limit.enabled=false",
+                "spring.jpa.show-sql=false",
+                "server.port=0",
+                "logging.level.root=WARN"
+        ));
+        properties.addAll(List.of(extraProperties));
+
+        return new SpringApplicationBuilder(applicationClass)
+                .web(webApplicationType)
+                .run(properties.stream().map(property -> "--" + property).toArray(String[]::new));
+    }
+}
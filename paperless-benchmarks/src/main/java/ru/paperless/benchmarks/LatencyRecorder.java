@@ -0,0 +1,54 @@
+package ru.paperless.benchmarks;
+
+import java.util.Arrays;
+
+public final class LatencyRecorder {
+
+    private long[] samples = new long[1 << 16];
+
+    private int size;
+
+    public void record(long nanos) {
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        samples[size++] = nanos;
+    }
+
+    public void addAll(LatencyRecorder other) {
+        for (int i = 0; i < other.size; i++) {
+            record(other.samples[i]);
+        }
+    }
+
+    public int count() {
+        return size;
+    }
+
+    public Percentiles percentiles() {
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        return new Percentiles(
+                percentile(sorted, 0.50),
+                percentile(sorted, 0.90),
+                percentile(sorted, 0.99),
+                percentile(sorted, 0.999),
+                size == 0 ? 0 : sorted[size - 1]);
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    public record Percentiles(long p50, long p90, long p99, long p999, long max) {
+
+        public String format() {
+            return String.format("p50=%.2fms p90=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms",
+                    p50 / 1e6, p90 / 1e6, p99 / 1e6, p999 / 1e6, max / 1e6);
+        }
+    }
+}
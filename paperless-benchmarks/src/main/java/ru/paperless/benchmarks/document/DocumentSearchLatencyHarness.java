@@ -0,0 +1,204 @@
+package ru.paperless.benchmarks.document;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import ru.paperless.benchmarks.LatencyRecorder;
+import ru.paperless.documentservice.search.DocumentSearchCriteria;
+import ru.paperless.documentservice.search.DocumentSearchRepository;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Задержка полнотекстового поиска на большом индексе. Заполняет Postgres синтетическими документами
+ * (по умолчанию 1M, словарь с распределением, близким к Ципфу) и гоняет смесь запросов через
+ * {@link DocumentSearchRepository}. Нужен реальный Postgres: url=jdbc:postgresql://host:port/db.
+ */
+public final class DocumentSearchLatencyHarness {
+
+    private static final int VOCABULARY_SIZE = 50_000;
+
+    private static final int SEED_BATCH_SIZE = 50_000;
+
+    private static final int OWNERS = 1_000;
+
+    private DocumentSearchLatencyHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        try (HikariDataSource dataSource = new HikariDataSource()) {
+            dataSource.setJdbcUrl(options.url());
+            dataSource.setUsername(options.user());
+            dataSource.setPassword(options.password());
+            dataSource.setMaximumPoolSize(options.threads());
+
+            // Та же схема, что создаёт document-service при старте
+            Flyway.configure()
+                    .dataSource(dataSource)
+                    .table("flyway_document_service_history")
+                    .baselineOnMigrate(true)
+                    .baselineVersion("0")
+                    .load()
+                    .migrate();
+
+            NamedParameterJdbcTemplate jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+            DocumentSearchRepository repository = new DocumentSearchRepository(jdbcTemplate);
+            seed(jdbcTemplate.getJdbcTemplate(), options);
+
+            drive(repository, options, options.warmupSeconds());
+            Map<QueryKind, LatencyRecorder> result = drive(repository, options, options.durationSeconds());
+            result.forEach((kind, recorder) -> System.out.printf("%-14s n=%-8d %s%n",
+                    kind, recorder.count(), recorder.percentiles().format()));
+        }
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate, Options options) {
+        Long existing = jdbcTemplate.queryForObject(
+                "select count(*) from pl_document_texts where file_name like 'bench-%'", Long.class);
+        if (existing != null && existing >= options.documents()) {
+            System.out.printf("Reusing %d seeded documents%n", existing);
+            return;
+        }
+        long started = System.nanoTime();
+        for (long from = existing == null ? 1 : existing + 1; from <= options.documents(); from += SEED_BATCH_SIZE) {
+            long to = Math.min(options.documents(), from + SEED_BATCH_SIZE - 1);
+            jdbcTemplate.update("insert into pl_documents (id, owner_id, file_name, content_type, size, sha256, created_at) " +
+                    "select md5('bench-doc-' || i)::uuid, md5('bench-owner-' || (i % ?))::uuid, 'bench-' || i || '.pdf', " +
+                    "'application/pdf', 1024, md5(i::text) || md5(i::text), now() - (i % 730) * interval '1 day' " +
+                    "from generate_series(?::bigint, ?::bigint) i on conflict do nothing", OWNERS, from, to);
+            jdbcTemplate.update("insert into pl_document_texts (document_id, owner_id, created_at, file_name, content) " +
+                    "select md5('bench-doc-' || i)::uuid, md5('bench-owner-' || (i % ?))::uuid, " +
+                    "now() - (i % 730) * interval '1 day', 'bench-' || i || '.pdf', " +
+                    "(select string_agg('w' || floor(? * power(random(), 3))::int, ' ') " +
+                    "from generate_series(1, ? + 0 * i) g) " +
+                    "from generate_series(?::bigint, ?::bigint) i on conflict do nothing",
+                    OWNERS, VOCABULARY_SIZE, options.wordsPerDocument(), from, to);
+            System.out.printf("Seeded %d/%d documents in %ds%n",
+                    to, options.documents(), Duration.ofNanos(System.nanoTime() - started).toSeconds());
+        }
+        jdbcTemplate.execute("analyze pl_documents");
+        jdbcTemplate.execute("analyze pl_document_texts");
+    }
+
+    private static Map<QueryKind, LatencyRecorder> drive(DocumentSearchRepository repository,
+                                                         Options options,
+                                                         int seconds) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(options.threads());
+        List<Future<Map<QueryKind, LatencyRecorder>>> futures = new ArrayList<>();
+        for (int i = 0; i < options.threads(); i++) {
+            futures.add(workers.submit(() -> {
+                Map<QueryKind, LatencyRecorder> recorders = new EnumMap<>(QueryKind.class);
+                while (System.nanoTime() < deadline) {
+                    QueryKind kind = QueryKind.values()[ThreadLocalRandom.current().nextInt(QueryKind.values().length)];
+                    DocumentSearchCriteria criteria = kind.criteria();
+                    long begin = System.nanoTime();
+                    repository.search(criteria, 21, 0);
+                    recorders.computeIfAbsent(kind, key -> new LatencyRecorder()).record(System.nanoTime() - begin);
+                }
+                return recorders;
+            }));
+        }
+        Map<QueryKind, LatencyRecorder> merged = new EnumMap<>(QueryKind.class);
+        for (Future<Map<QueryKind, LatencyRecorder>> future : futures) {
+            future.get().forEach((kind, recorder) ->
+                    merged.computeIfAbsent(kind, key -> new LatencyRecorder()).addAll(recorder));
+        }
+        workers.shutdown();
+        return merged;
+    }
+
+    enum QueryKind {
+        COMMON_TERM,
+        RARE_TERM,
+        TWO_TERMS,
+        PHRASE,
+        OWNER_FILTER,
+        DATE_RANGE;
+
+        DocumentSearchCriteria criteria() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            return switch (this) {
+                case COMMON_TERM -> new DocumentSearchCriteria("w" + random.nextInt(10), null, null, null);
+                case RARE_TERM -> new DocumentSearchCriteria("w" + (VOCABULARY_SIZE / 2 + random.nextInt(VOCABULARY_SIZE / 2)), null, null, null);
+                case TWO_TERMS -> new DocumentSearchCriteria("w" + random.nextInt(100) + " w" + random.nextInt(1000), null, null, null);
+                case PHRASE -> new DocumentSearchCriteria("\"w" + random.nextInt(20) + " w" + random.nextInt(20) + "\"", null, null, null);
+                case OWNER_FILTER -> new DocumentSearchCriteria("w" + random.nextInt(100), owner(random.nextInt(OWNERS)), null, null);
+                case DATE_RANGE -> {
+                    Instant to = Instant.now().minus(Duration.ofDays(random.nextInt(700)));
+                    yield new DocumentSearchCriteria("w" + random.nextInt(100), null, to.minus(Duration.ofDays(30)), to);
+                }
+            };
+        }
+
+        // Совпадает с md5('bench-owner-' || n)::uuid при заполнении
+        private static UUID owner(int n) {
+            try {
+                ByteBuffer md5 = ByteBuffer.wrap(MessageDigest.getInstance("MD5")
+                        .digest(("bench-owner-" + n).getBytes(StandardCharsets.UTF_8)));
+                return new UUID(md5.getLong(), md5.getLong());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    record Options(
+            String url,
+            String user,
+            String password,
+            long documents,
+            int wordsPerDocument,
+            int threads,
+            int durationSeconds,
+            int warmupSeconds
+    ) {
+
+        static Options parse(String[] args) {
+            String url = null;
+            String user = "postgres";
+            String password = "postgres";
+            long documents = 1_000_000;
+            int words = 200;
+            int threads = 8;
+            int duration = 60;
+            int warmup = 10;
+
+            for (String arg : args) {
+                String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+                String value = pair.length > 1 ? pair[1] : "";
+                switch (pair[0]) {
+                    case "url" -> url = value;
+                    case "user" -> user = value;
+                    case "password" -> password = value;
+                    case "documents" -> documents = Long.parseLong(value);
+                    case "words" -> words = Integer.parseInt(value);
+                    case "threads" -> threads = Integer.parseInt(value);
+                    case "duration" -> duration = Integer.parseInt(value);
+                    case "warmup" -> warmup = Integer.parseInt(value);
+                    default -> throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            }
+            if (url == null) {
+                throw new IllegalArgumentException("url=jdbc:postgresql://... is required");
+            }
+            return new Options(url, user, password, documents, words, threads, duration, warmup);
+        }
+    }
+}
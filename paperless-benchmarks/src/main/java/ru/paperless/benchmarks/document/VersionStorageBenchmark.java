@@ -0,0 +1,121 @@
+package ru.paperless.benchmarks.document;
+
+import org.openjdk.jmh.annotations.*;
+import ru.paperless.documentservice.storage.BlockStore;
+import ru.paperless.documentservice.versioning.ChunkManifest;
+import ru.paperless.documentservice.versioning.VersionWriter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Версии документа полными копиями против блоков по содержимому: {@code versions} правок
+ * документа размером {@code size}, в каждой несколько вставок и замен. Занятое место печатается
+ * в setup, замеряется чтение самой старой версии целиком из файла и сборкой из блоков.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VersionStorageBenchmark {
+
+    private static final int EDITS_PER_VERSION = 5;
+
+    @Param({"4194304"})
+    public int size;
+
+    @Param({"20"})
+    public int versions;
+
+    private Path root;
+
+    private BlockStore blockStore;
+
+    private Path fullCopy;
+
+    private List<ChunkManifest.Chunk> chunks;
+
+    private final byte[] buffer = new byte[64 * 1024];
+
+    @Setup
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("paperless-versions");
+        blockStore = new BlockStore(root);
+        VersionWriter writer = new VersionWriter(blockStore, reserved -> {
+        });
+        Random random = new Random(42);
+        byte[] content = new byte[size];
+        random.nextBytes(content);
+
+        long fullBytes = 0;
+        long blockBytes = 0;
+        for (int version = 1; version <= versions; version++) {
+            Path copy = Files.write(root.resolve("v" + version), content);
+            VersionWriter.Result result = writer.write(new ByteArrayInputStream(content));
+            if (version == 1) {
+                fullCopy = copy;
+                chunks = result.chunks();
+            }
+            fullBytes += content.length;
+            blockBytes += result.storedBytes();
+            content = edit(content, random);
+        }
+        System.out.printf("%n%d versions of %d bytes: full copies %d bytes, blocks %d bytes (%.1fx less)%n",
+                versions, size, fullBytes, blockBytes, (double) fullBytes / blockBytes);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public long readFullCopy() throws IOException {
+        try (InputStream in = Files.newInputStream(fullCopy)) {
+            return in.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    @Benchmark
+    public void readReconstructed() throws IOException {
+        OutputStream out = OutputStream.nullOutputStream();
+        for (ChunkManifest.Chunk chunk : chunks) {
+            blockStore.copyTo(chunk.hash(), out, buffer);
+        }
+    }
+
+    // Вставки и замены по несколько сотен байт в случайных местах
+    private static byte[] edit(byte[] content, Random random) {
+        byte[] edited = content.clone();
+        for (int i = 0; i < EDITS_PER_VERSION; i++) {
+            byte[] patch = new byte[100 + random.nextInt(400)];
+            random.nextBytes(patch);
+            int at = random.nextInt(edited.length - patch.length);
+            if (random.nextBoolean()) {
+                System.arraycopy(patch, 0, edited, at, patch.length);
+            } else {
+                byte[] grown = new byte[edited.length + patch.length];
+                System.arraycopy(edited, 0, grown, 0, at);
+                System.arraycopy(patch, 0, grown, at, patch.length);
+                System.arraycopy(edited, at, grown, at + patch.length, edited.length - at);
+                edited = grown;
+            }
+        }
+        return edited;
+    }
+}
@@ -0,0 +1,80 @@
+package ru.paperless.benchmarks.ratelimit;
+
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.paperless.common.ratelimit.AdaptiveConcurrencyLimit;
+import ru.paperless.common.ratelimit.RateLimitFilter;
+import ru.paperless.common.ratelimit.RateLimiter;
+import ru.paperless.common.ratelimit.TokenBucket;
+
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Накладные расходы {@link RateLimitFilter} на пропущенный запрос: {@code filter} против
+ * {@code passThrough} — тот же вызов цепочки без фильтра. Запросы идут от {@code clients}
+ * клиентов по четырём эндпоинтам, так что в лимитере {@code clients * 4} вёдер.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitFilterBenchmark {
+
+    private static final String[] PATHS = {
+            "/api/v1/users", "/api/v1/users/%s", "/api/v1/documents/%s/content", "/api/v1/users/typeahead"
+    };
+
+    private static final FilterChain CHAIN = (request, response) -> {
+    };
+
+    @Param({"10000"})
+    public int clients;
+
+    private MockHttpServletRequest[] requests;
+
+    private MockHttpServletResponse response;
+
+    private RateLimitFilter filter;
+
+    private TokenBucket bucket;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        requests = new MockHttpServletRequest[4096];
+        for (int i = 0; i < requests.length; i++) {
+            String path = PATHS[random.nextInt(PATHS.length)].formatted(UUID.randomUUID());
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+            request.addHeader("X-Client-Id", "client-" + random.nextInt(clients));
+            requests[i] = request;
+        }
+        response = new MockHttpServletResponse();
+        // Квоты заведомо не исчерпываются: меряется путь пропущенного запроса
+        filter = new RateLimitFilter(new RateLimiter(1e9, 1_000_000, clients * PATHS.length, System::nanoTime),
+                new AdaptiveConcurrencyLimit(1000, 1, 1000, 1.5), "X-Client-Id");
+        bucket = new TokenBucket(1e9, 1_000_000);
+    }
+
+    @Benchmark
+    public void passThrough() throws Exception {
+        CHAIN.doFilter(requests[next++ & (requests.length - 1)], response);
+    }
+
+    @Benchmark
+    public void filter() throws Exception {
+        filter.doFilter(requests[next++ & (requests.length - 1)], response, CHAIN);
+    }
+
+    @Benchmark
+    public long tokenBucket() {
+        return bucket.tryAcquire(System.nanoTime());
+    }
+}
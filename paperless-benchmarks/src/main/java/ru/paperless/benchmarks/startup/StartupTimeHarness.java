@@ -0,0 +1,163 @@
+package ru.paperless.benchmarks.startup;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время до первого ответа и RSS сервиса при обычном запуске и в режиме fast-start
+ * (AOT + CDS + lazy init). Каждый запуск — новый процесс на той же JVM, что и харнесс;
+ * время считается от старта процесса до первого HTTP-ответа /actuator/health (любой статус),
+ * RSS читается из /proc сразу после него. Перед запуском нужна сборка
+ * {@code mvn -pl <service> -am -Pfast-start package -DskipTests} и доступная сервису база.
+ * Свойства spring.* и paperless.* из аргументов передаются сервису как есть.
+ */
+public final class StartupTimeHarness {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private StartupTimeHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        Path target = options.root().resolve(options.service()).resolve("target");
+        String jarName = options.service() + "-1.0.0-exec.jar";
+
+        List<String> baseline = List.of("-jar", target.resolve(jarName).toString());
+        List<String> fastStart = List.of(
+                "-XX:SharedArchiveFile=" + target.resolve("fast-start/application.jsa"),
+                "-Dspring.aot.enabled=true",
+                "-jar", target.resolve("fast-start").resolve(jarName).toString(),
+                "--spring.profiles.active=fast-start");
+
+        Result before = measure("baseline", baseline, options);
+        Result after = measure("fast-start", fastStart, options);
+        System.out.printf("%n%-10s time-to-first-request %.0f -> %.0f ms (%.0f%%), RSS %.0f -> %.0f MiB%n",
+                options.service(), before.medianMillis(), after.medianMillis(),
+                100.0 * (after.medianMillis() - before.medianMillis()) / before.medianMillis(),
+                before.medianRssMiB(), after.medianRssMiB());
+    }
+
+    private static Result measure(String mode, List<String> launch, Options options) throws Exception {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        URI health = URI.create("http://localhost:" + options.port() + "/actuator/health");
+        double[] millis = new double[options.runs()];
+        double[] rss = new double[options.runs()];
+
+        for (int run = 0; run < options.runs(); run++) {
+            List<String> command = new ArrayList<>();
+            command.add(java);
+            command.addAll(options.jvmArgs());
+            command.addAll(launch);
+            command.add("--server.port=" + options.port());
+            command.addAll(options.applicationArgs());
+            File log = Files.createTempFile("startup-" + mode + "-", ".log").toFile();
+
+            long started = System.nanoTime();
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log).start();
+            try {
+                awaitFirstResponse(client, health, process, log, started);
+                millis[run] = (System.nanoTime() - started) / 1e6;
+                rss[run] = residentSetKiB(process.pid()) / 1024.0;
+                System.out.printf("%-10s run %d: %.0f ms, RSS %.0f MiB%n", mode, run + 1, millis[run], rss[run]);
+            } finally {
+                process.destroy();
+                if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                    process.destroyForcibly().waitFor();
+                }
+            }
+        }
+        return new Result(median(millis), median(rss));
+    }
+
+    private static void awaitFirstResponse(HttpClient client, URI health, Process process, File log, long started)
+            throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(health).timeout(Duration.ofSeconds(5)).GET().build();
+        while (System.nanoTime() - started < STARTUP_TIMEOUT.toNanos()) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Service exited with " + process.exitValue() + ", see " + log);
+            }
+            try {
+                client.send(request, HttpResponse.BodyHandlers.discarding());
+                return;
+            } catch (ConnectException e) {
+                Thread.sleep(10);
+            }
+        }
+        throw new IllegalStateException("Service did not answer within " + STARTUP_TIMEOUT + ", see " + log);
+    }
+
+    private static long residentSetKiB(long pid) throws IOException {
+        Path status = Path.of("/proc", Long.toString(pid), "status");
+        if (!Files.exists(status)) {
+            return 0;
+        }
+        return Files.readAllLines(status).stream()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .map(line -> line.replaceAll("\\D", ""))
+                .mapToLong(Long::parseLong)
+                .findFirst()
+                .orElse(0);
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    record Result(double medianMillis, double medianRssMiB) {
+    }
+
+    record Options(
+            Path root,
+            String service,
+            int runs,
+            int port,
+            List<String> jvmArgs,
+            List<String> applicationArgs
+    ) {
+
+        static Options parse(String[] args) {
+            Path root = Path.of(".");
+            String service = "user-service";
+            int runs = 5;
+            int port = 18090;
+            List<String> jvmArgs = new ArrayList<>();
+            List<String> applicationArgs = new ArrayList<>();
+
+            for (String arg : args) {
+                String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+                String value = pair.length > 1 ? pair[1] : "";
+                switch (pair[0]) {
+                    case "root" -> root = Path.of(value);
+                    case "service" -> service = value;
+                    case "runs" -> runs = Integer.parseInt(value);
+                    case "port" -> port = Integer.parseInt(value);
+                    case "jvmArgs" -> jvmArgs.addAll(List.of(value.split(",")));
+                    default -> {
+                        if (!pair[0].startsWith("spring.") && !pair[0].startsWith("paperless.")) {
+                            throw new IllegalArgumentException("Unknown option: " + arg);
+                        }
+                        applicationArgs.add("--" + pair[0] + "=" + value);
+                    }
+                }
+            }
+            return new Options(root, service, runs, port, jvmArgs, applicationArgs);
+        }
+    }
+}
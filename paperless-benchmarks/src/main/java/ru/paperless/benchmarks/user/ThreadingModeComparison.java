@@ -0,0 +1,31 @@
+package ru.paperless.benchmarks.user;
+
+import java.util.List;
+
+/**
+ * Прогоняет {@link UserApiLoadHarness} дважды — на пуле платформенных потоков Tomcat и на
+ * виртуальных потоках — и печатает пропускную способность и хвосты задержек рядом.
+ * Клиентская конкурентность по умолчанию выше размера пула Tomcat (200), иначе режимы не различить.
+ */
+public final class ThreadingModeComparison {
+
+    private ThreadingModeComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        UserApiLoadHarness.Options options = UserApiLoadHarness.Options.parse(
+                args.length == 0 ? new String[]{"threads=512", "duration=30"} : args);
+
+        UserApiLoadHarness.Result platform = UserApiLoadHarness.run(
+                options.withProperties(List.of("spring.threads.virtual.enabled=false")));
+        UserApiLoadHarness.Result virtual = UserApiLoadHarness.run(
+                options.withProperties(List.of("spring.threads.virtual.enabled=true")));
+
+        System.out.println("=== platform threads ===");
+        System.out.print(platform.format());
+        System.out.println("=== virtual threads ===");
+        System.out.print(virtual.format());
+        System.out.printf("throughput ratio (virtual / platform): %.2f%n",
+                virtual.throughput() / platform.throughput());
+    }
+}
@@ -0,0 +1,232 @@
+package ru.paperless.benchmarks.user;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.paperless.benchmarks.BenchmarkApplications;
+import ru.paperless.benchmarks.LatencyRecorder;
+import ru.paperless.userservice.UserServiceApplication;
+import ru.paperless.userservice.model.DTO.UserCreateRequestDTO;
+import ru.paperless.userservice.model.DTO.UserImportReportDTO;
+import ru.paperless.userservice.model.DTO.UserImportRowResultDTO;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Нагрузочный прогон HTTP API пользователей: смесь чтений по ID, страниц списка и создания.
+ * Без --url поднимает user-service на H2 в этом же процессе.
+ */
+public final class UserApiLoadHarness {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private UserApiLoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        Result result = run(options);
+        System.out.println(result.format());
+    }
+
+    public static Result run(Options options) throws Exception {
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.url();
+        if (baseUrl == null) {
+            context = BenchmarkApplications.start(
+                    UserServiceApplication.class,
+                    WebApplicationType.SERVLET,
+                    options.properties().toArray(String[]::new));
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            baseUrl = "http://localhost:" + port;
+        }
+        try {
+            HttpClient client = HttpClient.newBuilder()
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            List<UUID> ids = seed(client, baseUrl, options.users());
+            drive(client, baseUrl, ids, options, options.warmupSeconds());
+            return drive(client, baseUrl, ids, options, options.durationSeconds());
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static List<UUID> seed(HttpClient client, String baseUrl, int users) throws Exception {
+        List<UserCreateRequestDTO> requests = new ArrayList<>(users);
+        String prefix = "load_" + Long.toString(System.nanoTime(), 36) + "_";
+        UserFixtures.createRequests(prefix, users).forEachRemaining(requests::add);
+
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/users/bulk"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(OBJECT_MAPPER.writeValueAsBytes(requests)))
+                        .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        UserImportReportDTO report = OBJECT_MAPPER.readValue(response.body(), UserImportReportDTO.class);
+        return report.rows().stream()
+                .map(UserImportRowResultDTO::id)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private static Result drive(HttpClient client,
+                                String baseUrl,
+                                List<UUID> ids,
+                                Options options,
+                                int seconds) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        AtomicLong sequence = new AtomicLong();
+        ExecutorService workers = Executors.newFixedThreadPool(options.threads());
+        List<Future<Map<Operation, LatencyRecorder>>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+
+        for (int i = 0; i < options.threads(); i++) {
+            futures.add(workers.submit(() -> {
+                Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+                while (System.nanoTime() < deadline) {
+                    Operation operation = Operation.pick(options);
+                    HttpRequest request = operation.request(baseUrl, ids, sequence);
+                    long begin = System.nanoTime();
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    long elapsed = System.nanoTime() - begin;
+                    Operation recorded = response.statusCode() < 400 ? operation : Operation.ERROR;
+                    recorders.computeIfAbsent(recorded, key -> new LatencyRecorder()).record(elapsed);
+                }
+                return recorders;
+            }));
+        }
+
+        Map<Operation, LatencyRecorder> merged = new EnumMap<>(Operation.class);
+        for (Future<Map<Operation, LatencyRecorder>> future : futures) {
+            future.get().forEach((operation, recorder) ->
+                    merged.computeIfAbsent(operation, key -> new LatencyRecorder()).addAll(recorder));
+        }
+        workers.shutdown();
+        return new Result(merged, System.nanoTime() - start);
+    }
+
+    public enum Operation {
+        GET_BY_ID,
+        LIST_PAGE,
+        CREATE,
+        ERROR;
+
+        static Operation pick(Options options) {
+            double roll = ThreadLocalRandom.current().nextDouble();
+            if (roll < options.writeRatio()) {
+                return CREATE;
+            }
+            if (roll < options.writeRatio() + options.listRatio()) {
+                return LIST_PAGE;
+            }
+            return GET_BY_ID;
+        }
+
+        HttpRequest request(String baseUrl, List<UUID> ids, AtomicLong sequence) {
+            return switch (this) {
+                case GET_BY_ID -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/users/"
+                        + ids.get(ThreadLocalRandom.current().nextInt(ids.size())))).GET().build();
+                case LIST_PAGE -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/users?limit=50")).GET().build();
+                case CREATE -> {
+                    String name = "hload_" + Long.toString(System.nanoTime(), 36) + sequence.incrementAndGet();
+                    String body = "{\"userName\":\"" + name + "\",\"email\":\"" + name + "@example.com\"}";
+                    yield HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/users"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(body))
+                            .build();
+                }
+                case ERROR -> throw new IllegalStateException("ERROR is not a request type");
+            };
+        }
+    }
+
+    public record Options(
+            String url,
+            int threads,
+            int durationSeconds,
+            int warmupSeconds,
+            int users,
+            double writeRatio,
+            double listRatio,
+            List<String> properties
+    ) {
+
+        public static Options parse(String[] args) {
+            String url = null;
+            int threads = 32;
+            int duration = 30;
+            int warmup = 5;
+            int users = 10_000;
+            double writeRatio = 0.1;
+            double listRatio = 0.2;
+            List<String> properties = new ArrayList<>();
+
+            for (String arg : args) {
+                String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+                String value = pair.length > 1 ? pair[1] : "";
+                switch (pair[0]) {
+                    case "url" -> url = value;
+                    case "threads" -> threads = Integer.parseInt(value);
+                    case "duration" -> duration = Integer.parseInt(value);
+                    case "warmup" -> warmup = Integer.parseInt(value);
+                    case "users" -> users = Integer.parseInt(value);
+                    case "write-ratio" -> writeRatio = Double.parseDouble(value);
+                    case "list-ratio" -> listRatio = Double.parseDouble(value);
+                    case "property" -> properties.add(value);
+                    default -> throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            }
+            return new Options(url, threads, duration, warmup, users, writeRatio, listRatio, properties);
+        }
+
+        public Options withProperties(List<String> extraProperties) {
+            List<String> merged = new ArrayList<>(properties);
+            merged.addAll(extraProperties);
+            return new Options(url, threads, durationSeconds, warmupSeconds, users, writeRatio, listRatio, merged);
+        }
+    }
+
+    public record Result(Map<Operation, LatencyRecorder> recorders, long elapsedNanos) {
+
+        public long totalRequests() {
+            return recorders.values().stream().mapToLong(LatencyRecorder::count).sum();
+        }
+
+        public double throughput() {
+            return totalRequests() / (elapsedNanos / 1e9);
+        }
+
+        public LatencyRecorder.Percentiles overall() {
+            LatencyRecorder all = new LatencyRecorder();
+            recorders.values().forEach(all::addAll);
+            return all.percentiles();
+        }
+
+        public String format() {
+            StringBuilder report = new StringBuilder();
+            report.append(String.format("requests=%d throughput=%.1f req/s overall: %s%n",
+                    totalRequests(), throughput(), overall().format()));
+            recorders.forEach((operation, recorder) -> report.append(String.format("  %-10s n=%-8d %s%n",
+                    operation, recorder.count(), recorder.percentiles().format())));
+            return report.toString();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package ru.paperless.benchmarks.user;
+
+import ru.paperless.userservice.model.DTO.UserCreateRequestDTO;
+import ru.paperless.userservice.model.DTO.UserResponseDTO;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+public final class UserFixtures {
+
+    private UserFixtures() {
+    }
+
+    public static List<UserResponseDTO> responses(int count) {
+        List<UserResponseDTO> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(new UserResponseDTO(UUID.randomUUID(), "user_" + i, "user_" + i + "@example.com"));
+        }
+        return users;
+    }
+
+    public static Iterator<UserCreateRequestDTO> createRequests(String prefix, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new UserCreateRequestDTO(prefix + i, prefix + i + "@example.com"))
+                .iterator();
+    }
+}
@@ -0,0 +1,45 @@
+package ru.paperless.benchmarks.user;
+
+import org.openjdk.jmh.annotations.*;
+import ru.paperless.userservice.mapper.UserMapper;
+import ru.paperless.userservice.model.DTO.UserCreateRequestDTO;
+import ru.paperless.userservice.model.DTO.UserResponseDTO;
+import ru.paperless.userservice.model.entity.UserEntity;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMapperBenchmark {
+
+    private final UserMapper userMapper = new UserMapper();
+
+    private UserEntity userEntity;
+
+    private UserCreateRequestDTO createRequest;
+
+    @Setup
+    public void setUp() {
+        userEntity = UserEntity.builder()
+                .id(UUID.randomUUID())
+                .userName("benchmark_user")
+                .email("benchmark_user@example.com")
+                .build();
+        createRequest = new UserCreateRequestDTO("benchmark_user", "benchmark_user@example.com");
+    }
+
+    @Benchmark
+    public UserResponseDTO toDto() {
+        return userMapper.toDto(userEntity);
+    }
+
+    @Benchmark
+    public UserEntity toEntity() {
+        return userMapper.toEntity(createRequest);
+    }
+}
@@ -0,0 +1,74 @@
+package ru.paperless.benchmarks.user;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.openjdk.jmh.annotations.*;
+import ru.paperless.userservice.model.DTO.UserResponseDTO;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * JSON против CBOR на списке пользователей: стоимость записи, чтения и записи с gzip, как её
+ * делает Tomcat при {@code server.compression.enabled}. Размеры тел печатаются в setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserSerializationBenchmark {
+
+    @Param({"10", "500", "10000"})
+    public int size;
+
+    @Param({"json", "cbor"})
+    public String format;
+
+    private ObjectWriter writer;
+
+    private ObjectReader reader;
+
+    private List<UserResponseDTO> users;
+
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = format.equals("cbor") ? new CBORMapper() : new ObjectMapper();
+        TypeReference<List<UserResponseDTO>> type = new TypeReference<>() {
+        };
+        writer = objectMapper.writerFor(type);
+        reader = objectMapper.readerFor(type);
+        users = UserFixtures.responses(size);
+        payload = writer.writeValueAsBytes(users);
+        System.out.printf("%n%s, %d users: %d bytes, %d bytes gzipped%n",
+                format, size, payload.length, serializeGzipped().length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public List<UserResponseDTO> deserialize() throws IOException {
+        return reader.readValue(payload);
+    }
+
+    @Benchmark
+    public byte[] serializeGzipped() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            writer.writeValue(gzip, users);
+        }
+        return bytes.toByteArray();
+    }
+}
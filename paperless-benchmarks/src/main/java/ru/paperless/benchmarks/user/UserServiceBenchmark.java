@@ -0,0 +1,88 @@
+package ru.paperless.benchmarks.user;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.paperless.benchmarks.BenchmarkApplications;
+import ru.paperless.userservice.UserServiceApplication;
+import ru.paperless.userservice.cache.UserCache;
+import ru.paperless.userservice.model.DTO.UserCreateRequestDTO;
+import ru.paperless.userservice.model.DTO.UserPageResponseDTO;
+import ru.paperless.userservice.model.DTO.UserResponseDTO;
+import ru.paperless.userservice.service.UserImportService;
+import ru.paperless.userservice.service.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class UserServiceBenchmark {
+
+    @Param({"10000"})
+    public int users;
+
+    private ConfigurableApplicationContext context;
+
+    private UserService userService;
+
+    private UserCache userCache;
+
+    private List<UUID> ids;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplications.start(UserServiceApplication.class, WebApplicationType.NONE);
+        userService = context.getBean(UserService.class);
+        userCache = context.getBean(UserCache.class);
+        context.getBean(UserImportService.class).importUsers(UserFixtures.createRequests("seed_", users));
+
+        // Все id, а не первая страница: иначе чтения крутились бы вокруг сотен горячих строк
+        List<UUID> seeded = new ArrayList<>(users);
+        userService.exportUsers(user -> seeded.add(user.id()));
+        ids = List.copyOf(seeded);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserResponseDTO getUserById_Cached() {
+        return userService.getUserById(randomId());
+    }
+
+    @Benchmark
+    public UserResponseDTO getUserById_Uncached() {
+        UUID id = randomId();
+        userCache.evict(id);
+        return userService.getUserById(id);
+    }
+
+    @Benchmark
+    public UserPageResponseDTO getAllUsers_FirstPage() {
+        return userService.getAllUsers(null, UserService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public UserResponseDTO createUser() {
+        long next = sequence.incrementAndGet();
+        return userService.createUser(new UserCreateRequestDTO("bench_" + next, "bench_" + next + "@example.com"));
+    }
+
+    private UUID randomId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+}
@@ -0,0 +1,93 @@
+package ru.paperless.benchmarks.user;
+
+import org.openjdk.jmh.annotations.*;
+import ru.paperless.userservice.event.UsersImportedEvent;
+import ru.paperless.userservice.model.DTO.UserResponseDTO;
+import ru.paperless.userservice.typeahead.UserTypeaheadIndex;
+import ru.paperless.userservice.typeahead.UserTypeaheadStats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск подсказок по индексу на миллион пользователей. В setup печатает фактический прирост
+ * кучи на пользователя рядом с оценкой, которую индекс отдаёт в метриках.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class UserTypeaheadBenchmark {
+
+    private static final String[] SYLLABLES = {
+            "al", "an", "bo", "da", "el", "ka", "li", "ma", "ni", "ol", "pe", "ra", "se", "ta", "vi", "za"
+    };
+
+    private static final String[] DOMAINS = {"example.com", "mail.ru", "yandex.ru", "paperless.dev"};
+
+    @Param({"1000000"})
+    public int users;
+
+    @Param({"10"})
+    public int limit;
+
+    private UserTypeaheadIndex index;
+
+    private String[] prefixes;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        long before = usedHeap();
+        List<UserResponseDTO> generated = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            String name = name(random) + "_" + i;
+            generated.add(new UserResponseDTO(UUID.randomUUID(), name,
+                    name(random) + i + "@" + DOMAINS[random.nextInt(DOMAINS.length)]));
+        }
+
+        index = new UserTypeaheadIndex(null);
+        index.onUsersImported(new UsersImportedEvent(generated));
+        generated = null;
+        long after = usedHeap();
+
+        UserTypeaheadStats stats = index.stats();
+        System.out.printf("%nTypeahead index: %d users, %d terms, measured %.1f B/user, estimated %.1f B/user%n",
+                stats.users(), stats.terms(), (double) (after - before) / stats.users(), stats.bytesPerUser());
+
+        prefixes = new String[4096];
+        for (int i = 0; i < prefixes.length; i++) {
+            String name = name(random);
+            prefixes[i] = name.substring(0, 1 + random.nextInt(name.length()));
+        }
+    }
+
+    @Benchmark
+    public List<UserResponseDTO> search() {
+        return index.search(prefixes[next++ & (prefixes.length - 1)], limit);
+    }
+
+    private static String name(SplittableRandom random) {
+        StringBuilder name = new StringBuilder();
+        int syllables = 2 + random.nextInt(3);
+        for (int i = 0; i < syllables; i++) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return name.toString();
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,27 @@
+package ru.paperless.common.compression;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "server.compression.enabled", havingValue = "true")
+public class CompressionThresholdAutoConfiguration {
+
+    @Bean
+    public FilterRegistrationBean<CompressionThresholdFilter> compressionThresholdFilter(
+            ServerProperties serverProperties) {
+        Compression compression = serverProperties.getCompression();
+        FilterRegistrationBean<CompressionThresholdFilter> registration = new FilterRegistrationBean<>(
+                new CompressionThresholdFilter(compression.getMimeTypes(), compression.getMinResponseSize().toBytes()));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 30);
+        return registration;
+    }
+}
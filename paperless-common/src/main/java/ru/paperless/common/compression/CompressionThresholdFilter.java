@@ -0,0 +1,127 @@
+package ru.paperless.common.compression;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Делает порог {@code server.compression.min-response-size} рабочим для JSON и CBOR.
+ * Tomcat сравнивает с порогом только известный Content-Length, а конвертеры Jackson
+ * сбрасывают поток в конце записи: ответ коммитится чанками без длины и сжимается при любом размере.
+ * Фильтр пропускает такие сбросы, пока ответ сжимаемого типа меньше порога; тогда Tomcat сам
+ * проставит длину при закрытии. Потоки других типов (например, SSE) сбрасываются как обычно.
+ */
+public class CompressionThresholdFilter extends OncePerRequestFilter {
+
+    private final String[] mimeTypes;
+
+    private final long minResponseSize;
+
+    public CompressionThresholdFilter(String[] mimeTypes, long minResponseSize) {
+        this.mimeTypes = mimeTypes;
+        this.minResponseSize = minResponseSize;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        filterChain.doFilter(request, new ThresholdResponse(response));
+    }
+
+    boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        for (String mimeType : mimeTypes) {
+            if (contentType.startsWith(mimeType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private final class ThresholdResponse extends HttpServletResponseWrapper {
+
+        private ThresholdOutputStream outputStream;
+
+        private ThresholdResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new ThresholdOutputStream(this, super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (shouldFlush()) {
+                super.flushBuffer();
+            }
+        }
+
+        private boolean shouldFlush() {
+            long written = outputStream == null ? 0 : outputStream.written;
+            return isCommitted() || written >= minResponseSize || !isCompressible(getContentType());
+        }
+    }
+
+    private static final class ThresholdOutputStream extends ServletOutputStream {
+
+        private final ThresholdResponse response;
+
+        private final ServletOutputStream delegate;
+
+        private long written;
+
+        private ThresholdOutputStream(ThresholdResponse response, ServletOutputStream delegate) {
+            this.response = response;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            written++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            written += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (response.shouldFlush()) {
+                delegate.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
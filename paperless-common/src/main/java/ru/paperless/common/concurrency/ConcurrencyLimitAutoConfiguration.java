@@ -0,0 +1,56 @@
+package ru.paperless.common.concurrency;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import ru.paperless.common.web.PathPatterns;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+@Slf4j
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "paperless.concurrency-limit.enabled", havingValue = "true")
+public class ConcurrencyLimitAutoConfiguration {
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            ObjectProvider<DataSource> dataSource,
+            @Value("${paperless.concurrency-limit.requests-per-connection:2}") int requestsPerConnection,
+            @Value("${paperless.concurrency-limit.max-concurrent:0}") int maxConcurrent,
+            @Value("${paperless.concurrency-limit.max-queued:1000}") int maxQueued,
+            @Value("${paperless.concurrency-limit.max-wait:2s}") Duration maxWait,
+            @Value("${paperless.concurrency-limit.url-patterns:/api/*}") String[] urlPatterns,
+            @Value("${paperless.concurrency-limit.excluded-paths:}") String[] excludedPaths) {
+        int limit = maxConcurrent > 0
+                ? maxConcurrent
+                : poolSize(dataSource.getIfAvailable()) * requestsPerConnection;
+        log.info("Concurrency limit: {} in-flight requests, {} queued, max wait {}", limit, maxQueued, maxWait);
+
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(limit, maxQueued, maxWait, new PathPatterns(excludedPaths)));
+        registration.addUrlPatterns(urlPatterns);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    private int poolSize(DataSource dataSource) {
+        try {
+            if (dataSource != null && dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            log.warn("Cannot unwrap HikariDataSource, falling back to the default pool size", e);
+        }
+        return 10;
+    }
+}
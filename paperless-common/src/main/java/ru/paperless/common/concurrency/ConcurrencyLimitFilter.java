@@ -0,0 +1,109 @@
+package ru.paperless.common.concurrency;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.paperless.common.web.AsyncCompletion;
+import ru.paperless.common.web.PathPatterns;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ограничивает число одновременно обрабатываемых запросов, чтобы тысячи виртуальных потоков
+ * не выстраивались в очередь за соединениями HikariCP. Сверх лимита запрос ждёт не дольше
+ * {@code maxWait}, а при переполнении очереди сразу получает 503.
+ * <p>
+ * Асинхронный запрос (потоковая выгрузка через {@code StreamingResponseBody}) держит место до
+ * завершения, а не до возврата из первого dispatch: тело пишется уже в другом потоке и с тем же
+ * соединением к БД. Эндпоинты, которые долго ждут без соединения (SSE, long-poll), исключаются
+ * шаблонами {@code excludedPaths}.
+ */
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+
+    private final int maxConcurrent;
+
+    private final int maxQueued;
+
+    private final long maxWaitNanos;
+
+    private final PathPatterns excludedPaths;
+
+    private final AtomicInteger queued = new AtomicInteger();
+
+    public ConcurrencyLimitFilter(int maxConcurrent, int maxQueued, Duration maxWait, PathPatterns excludedPaths) {
+        this.permits = new Semaphore(maxConcurrent);
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.excludedPaths = excludedPaths;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return excludedPaths.matches(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (!acquire()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Server is at its concurrency limit");
+            return;
+        }
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } finally {
+            if (async) {
+                AsyncCompletion.register(request, permits::release);
+            } else {
+                permits.release();
+            }
+        }
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getInFlight() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int getQueued() {
+        return queued.get();
+    }
+
+    private boolean acquire() {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            return false;
+        }
+        try {
+            return permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+}
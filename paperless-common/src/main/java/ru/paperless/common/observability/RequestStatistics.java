@@ -0,0 +1,54 @@
+package ru.paperless.common.observability;
+
+/**
+ * Счётчики SQL-запросов и загруженных сущностей текущего HTTP-запроса. Хранятся в ThreadLocal
+ * потока, выполняющего первый dispatch запроса (в том числе виртуального).
+ * <p>
+ * Запросы к базе из других потоков сюда не попадают: {@code @Async}, {@code CompletableFuture},
+ * тело {@code StreamingResponseBody}/SSE, которое пишется уже после возврата из контроллера,
+ * и повторный async dispatch. Для таких эндпоинтов метрики занижены — смотрите
+ * {@code spring.data.repository.invocations} и статистику Hibernate на уровне фабрики сессий.
+ */
+public final class RequestStatistics {
+
+    private static final ThreadLocal<RequestStatistics> CURRENT = new ThreadLocal<>();
+
+    private int queries;
+
+    private int entitiesLoaded;
+
+    private RequestStatistics() {
+    }
+
+    static RequestStatistics begin() {
+        RequestStatistics statistics = new RequestStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static void recordQuery() {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.queries++;
+        }
+    }
+
+    static void recordEntityLoad() {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.entitiesLoaded++;
+        }
+    }
+
+    public int getQueries() {
+        return queries;
+    }
+
+    public int getEntitiesLoaded() {
+        return entitiesLoaded;
+    }
+}
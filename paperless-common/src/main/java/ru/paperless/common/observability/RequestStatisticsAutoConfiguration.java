@@ -0,0 +1,45 @@
+package ru.paperless.common.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+
+@AutoConfiguration
+@ConditionalOnClass({MeterRegistry.class, StatementInspector.class})
+@ConditionalOnProperty(name = "paperless.observability.request-statistics.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestStatisticsAutoConfiguration {
+
+    private final RequestStatisticsHibernateHooks hooks = new RequestStatisticsHibernateHooks();
+
+    @Bean
+    public HibernatePropertiesCustomizer requestStatisticsHibernatePropertiesCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, hooks);
+            properties.put(AvailableSettings.INTERCEPTOR, hooks);
+        };
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public FilterRegistrationBean<RequestStatisticsFilter> requestStatisticsFilter(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${paperless.observability.query-warn-threshold:20}") int queryWarnThreshold,
+            @Value("${paperless.observability.url-patterns:/api/*}") String[] urlPatterns) {
+        FilterRegistrationBean<RequestStatisticsFilter> registration = new FilterRegistrationBean<>(
+                new RequestStatisticsFilter(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry), queryWarnThreshold));
+        registration.addUrlPatterns(urlPatterns);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
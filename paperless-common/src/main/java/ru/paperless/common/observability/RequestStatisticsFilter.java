@@ -0,0 +1,65 @@
+package ru.paperless.common.observability;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Публикует число SQL-запросов и загруженных сущностей на HTTP-запрос с теми же тегами method/uri,
+ * что и {@code http.server.requests}, и предупреждает о запросах сверх порога — типичный признак N+1.
+ */
+@Slf4j
+public class RequestStatisticsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    private final int queryWarnThreshold;
+
+    public RequestStatisticsFilter(MeterRegistry meterRegistry, int queryWarnThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.queryWarnThreshold = queryWarnThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestStatistics statistics = RequestStatistics.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestStatistics.end();
+            record(request, statistics);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestStatistics statistics) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        String method = request.getMethod();
+
+        DistributionSummary.builder("http.server.requests.queries")
+                .description("SQL-запросы на один HTTP-запрос")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(statistics.getQueries());
+        DistributionSummary.builder("http.server.requests.entities")
+                .description("Сущности, загруженные Hibernate на один HTTP-запрос")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(statistics.getEntitiesLoaded());
+
+        if (statistics.getQueries() > queryWarnThreshold) {
+            log.warn("{} {} executed {} SQL statements and loaded {} entities",
+                    method, uri, statistics.getQueries(), statistics.getEntitiesLoaded());
+        }
+    }
+}
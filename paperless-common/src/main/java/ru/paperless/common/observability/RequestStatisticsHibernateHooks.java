@@ -0,0 +1,24 @@
+package ru.paperless.common.observability;
+
+import org.hibernate.Interceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+
+/**
+ * Подключается к Hibernate как StatementInspector (каждый подготовленный SQL) и Interceptor
+ * (каждая сущность, материализованная из ResultSet). DTO-проекции сущностей не загружают и не считаются.
+ */
+public class RequestStatisticsHibernateHooks implements StatementInspector, Interceptor {
+
+    @Override
+    public String inspect(String sql) {
+        RequestStatistics.recordQuery();
+        return sql;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        RequestStatistics.recordEntityLoad();
+        return false;
+    }
+}
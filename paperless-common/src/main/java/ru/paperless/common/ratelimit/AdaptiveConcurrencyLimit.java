@@ -0,0 +1,114 @@
+package ru.paperless.common.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Лимит одновременных запросов, который подстраивается под задержку (градиентный алгоритм в духе
+ * Vegas). Долгое среднее времени ответа служит базой, короткое — текущим состоянием: пока они близки,
+ * лимит растёт на запас ~√limit, а когда очередь в БД или пуле удлиняет ответы, градиент
+ * {@code tolerance * long / short} падает ниже единицы и лимит сжимается.
+ * <p>
+ * Захват и освобождение — по атомику на запрос; пересчёт под {@code tryLock}, и если лимит уже
+ * пересчитывает другой поток, замер просто пропускается.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private static final double SHORT_WINDOW_ALPHA = 0.1;
+
+    private static final double LONG_WINDOW_ALPHA = 2.0 / (600 + 1);
+
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double tolerance;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile int limit;
+
+    private double estimatedLimit;
+
+    private double shortRtt;
+
+    private double longRtt;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        if (minLimit <= 0 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Expected 0 < minLimit <= initialLimit <= maxLimit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+    public boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > limit) {
+            inFlight.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param rttNanos время обработки или отрицательное значение, если запрос не годится для замера
+     */
+    public void release(long rttNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (rttNanos > 0 && lock.tryLock()) {
+            try {
+                update(rttNanos, inFlightBefore);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    private void update(long rttNanos, int inFlightBefore) {
+        if (longRtt == 0) {
+            shortRtt = rttNanos;
+            longRtt = rttNanos;
+            return;
+        }
+        shortRtt += (rttNanos - shortRtt) * SHORT_WINDOW_ALPHA;
+        longRtt += (rttNanos - longRtt) * LONG_WINDOW_ALPHA;
+
+        // Нагрузка спала — база быстрее догоняет текущую задержку, иначе лимит долго не вырастет
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+        // Лимит используется меньше чем наполовину: задержка ничего не говорит о его величине
+        if (inFlightBefore < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+}
@@ -0,0 +1,65 @@
+package ru.paperless.common.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import ru.paperless.common.web.PathPatterns;
+
+@Slf4j
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "paperless.rate-limit.enabled", havingValue = "true")
+public class RateLimitAutoConfiguration {
+
+    @Bean
+    public RateLimiter rateLimiter(
+            @Value("${paperless.rate-limit.requests-per-second:50}") double requestsPerSecond,
+            @Value("${paperless.rate-limit.burst:100}") int burst,
+            @Value("${paperless.rate-limit.max-clients:100000}") int maxClients) {
+        log.info("Rate limit: {} requests/s per client and endpoint, burst {}", requestsPerSecond, burst);
+        return new RateLimiter(requestsPerSecond, burst, maxClients, System::nanoTime);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "paperless.rate-limit.concurrency.enabled", havingValue = "true")
+    public AdaptiveConcurrencyLimit adaptiveConcurrencyLimit(
+            @Value("${paperless.rate-limit.concurrency.initial-limit:20}") int initialLimit,
+            @Value("${paperless.rate-limit.concurrency.min-limit:4}") int minLimit,
+            @Value("${paperless.rate-limit.concurrency.max-limit:500}") int maxLimit,
+            @Value("${paperless.rate-limit.concurrency.tolerance:1.5}") double tolerance) {
+        log.info("Adaptive concurrency limit: initial {}, range [{}, {}]", initialLimit, minLimit, maxLimit);
+        return new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, tolerance);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(
+            RateLimiter rateLimiter,
+            ObjectProvider<AdaptiveConcurrencyLimit> concurrencyLimit,
+            @Value("${paperless.rate-limit.client-header:X-Client-Id}") String clientHeader,
+            @Value("${paperless.rate-limit.url-patterns:/api/*}") String[] urlPatterns,
+            @Value("${paperless.rate-limit.excluded-paths:}") String[] excludedPaths,
+            @Value("${paperless.rate-limit.concurrency.excluded-paths:}") String[] concurrencyExcludedPaths) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(new RateLimitFilter(
+                rateLimiter, concurrencyLimit.getIfAvailable(), clientHeader,
+                new PathPatterns(excludedPaths), new PathPatterns(concurrencyExcludedPaths)));
+        registration.addUrlPatterns(urlPatterns);
+        // Раньше ConcurrencyLimitFilter: клиент сверх своей квоты не должен занимать место в очереди
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnClass(MeterRegistry.class)
+    public RateLimitMetrics rateLimitMetrics(RateLimiter rateLimiter,
+                                             ObjectProvider<AdaptiveConcurrencyLimit> concurrencyLimit) {
+        return new RateLimitMetrics(rateLimiter, concurrencyLimit.getIfAvailable());
+    }
+}
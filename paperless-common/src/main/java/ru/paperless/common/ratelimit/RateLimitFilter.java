@@ -0,0 +1,160 @@
+package ru.paperless.common.ratelimit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.paperless.common.web.AsyncCompletion;
+import ru.paperless.common.web.PathPatterns;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Защищает API от одного клиента и от перегрузки целиком:
+ * <ul>
+ *     <li>ведро токенов на пару «клиент + эндпоинт»; сверх него — 429 с Retry-After;</li>
+ *     <li>адаптивный лимит одновременных запросов (если задан); сверх него — 503 с Retry-After,
+ *     как у {@link ru.paperless.common.concurrency.ConcurrencyLimitFilter}.</li>
+ * </ul>
+ * Базовая задержка лимита общая для всех эндпоинтов, поэтому долгие по природе запросы в неё не
+ * попадают: асинхронные держат место до завершения, но без замера (время первого dispatch у SSE или
+ * потоковой выгрузки ничего не говорит о нагрузке), а эндпоинты из {@code concurrencyExcludedPaths}
+ * (загрузки, long-poll) идут мимо адаптивного лимита.
+ * Клиент определяется заголовком (по умолчанию {@code X-Client-Id}), без него — адресом.
+ * Эндпоинты из {@code excludedPaths} идут мимо квоты на клиента: так вызываются сервисы друг другом,
+ * например пакетные запросы, которые склеивают обращения многих пользователей.
+ * Идентификаторы в пути (UUID и числа) схлопываются, так что {@code GET /api/v1/users/{id}} — один эндпоинт.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+
+    private final String clientHeader;
+
+    private final PathPatterns excludedPaths;
+
+    private final PathPatterns concurrencyExcludedPaths;
+
+    public RateLimitFilter(RateLimiter rateLimiter, AdaptiveConcurrencyLimit concurrencyLimit, String clientHeader) {
+        this(rateLimiter, concurrencyLimit, clientHeader, PathPatterns.none());
+    }
+
+    public RateLimitFilter(RateLimiter rateLimiter,
+                           AdaptiveConcurrencyLimit concurrencyLimit,
+                           String clientHeader,
+                           PathPatterns concurrencyExcludedPaths) {
+        this(rateLimiter, concurrencyLimit, clientHeader, PathPatterns.none(), concurrencyExcludedPaths);
+    }
+
+    public RateLimitFilter(RateLimiter rateLimiter,
+                           AdaptiveConcurrencyLimit concurrencyLimit,
+                           String clientHeader,
+                           PathPatterns excludedPaths,
+                           PathPatterns concurrencyExcludedPaths) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimit = concurrencyLimit;
+        this.clientHeader = clientHeader;
+        this.excludedPaths = excludedPaths;
+        this.concurrencyExcludedPaths = concurrencyExcludedPaths;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long waitNanos = excludedPaths.matches(request) ? 0 : rateLimiter.tryAcquire(key(request));
+        if (waitNanos > 0) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds(waitNanos)));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Client request rate limit exceeded");
+            return;
+        }
+        if (concurrencyLimit == null || concurrencyExcludedPaths.matches(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!concurrencyLimit.tryAcquire()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Server is shedding load");
+            return;
+        }
+        long start = System.nanoTime();
+        boolean completed = false;
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+            async = request.isAsyncStarted();
+        } finally {
+            if (async) {
+                AsyncCompletion.register(request, () -> concurrencyLimit.release(-1));
+            } else {
+                // Ошибки сервера часто отвечают быстрее обычного и занизили бы оценку задержки
+                boolean sample = completed && response.getStatus() < 500;
+                concurrencyLimit.release(sample ? System.nanoTime() - start : -1);
+            }
+        }
+    }
+
+    String key(HttpServletRequest request) {
+        String client = request.getHeader(clientHeader);
+        if (client == null || client.isBlank()) {
+            client = request.getRemoteAddr();
+        }
+        StringBuilder key = new StringBuilder(client.length() + 64)
+                .append(client).append('|').append(request.getMethod()).append(' ');
+        appendEndpoint(key, request.getRequestURI());
+        return key.toString();
+    }
+
+    static void appendEndpoint(StringBuilder key, String path) {
+        int start = 0;
+        while (start < path.length()) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            if (isIdentifier(path, start, end)) {
+                key.append('*');
+            } else {
+                key.append(path, start, end);
+            }
+            if (end < path.length()) {
+                key.append('/');
+            }
+            start = end + 1;
+        }
+    }
+
+    private static boolean isIdentifier(String path, int start, int end) {
+        int length = end - start;
+        if (length == 0) {
+            return false;
+        }
+        if (length == 36) {
+            for (int i = 0; i < 36; i++) {
+                char c = path.charAt(start + i);
+                boolean dash = i == 8 || i == 13 || i == 18 || i == 23;
+                if (dash ? c != '-' : Character.digit(c, 16) < 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        for (int i = start; i < end; i++) {
+            if (path.charAt(i) < '0' || path.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+}
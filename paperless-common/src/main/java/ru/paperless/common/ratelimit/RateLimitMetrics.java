@@ -0,0 +1,42 @@
+package ru.paperless.common.ratelimit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+public class RateLimitMetrics implements MeterBinder {
+
+    private final RateLimiter rateLimiter;
+
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+
+    public RateLimitMetrics(RateLimiter rateLimiter, AdaptiveConcurrencyLimit concurrencyLimit) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimit = concurrencyLimit;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("http.server.requests.rejected", rateLimiter, RateLimiter::getRejected)
+                .description("Запросы, отклонённые лимитом частоты клиента (429)")
+                .tag("reason", "rate-limit")
+                .register(registry);
+        Gauge.builder("http.server.rate-limit.buckets", rateLimiter, RateLimiter::size)
+                .description("Число отслеживаемых пар клиент + эндпоинт")
+                .register(registry);
+        if (concurrencyLimit == null) {
+            return;
+        }
+        FunctionCounter.builder("http.server.requests.rejected", concurrencyLimit, AdaptiveConcurrencyLimit::getRejected)
+                .description("Запросы, сброшенные адаптивным лимитом параллельности (503)")
+                .tag("reason", "concurrency-limit")
+                .register(registry);
+        Gauge.builder("http.server.concurrency.limit", concurrencyLimit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Текущий адаптивный лимит одновременных запросов")
+                .register(registry);
+        Gauge.builder("http.server.concurrency.in-flight", concurrencyLimit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Запросы в обработке под адаптивным лимитом")
+                .register(registry);
+    }
+}
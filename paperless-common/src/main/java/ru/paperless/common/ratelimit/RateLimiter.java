@@ -0,0 +1,82 @@
+package ru.paperless.common.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Набор {@link TokenBucket} по ключу «клиент + эндпоинт». Число вёдер ограничено: при переполнении
+ * выбрасываются полные, а если не помогло — новые клиенты делят одно общее ведро, чтобы поток
+ * случайных идентификаторов не раздувал память.
+ */
+public class RateLimiter {
+
+    private final double permitsPerSecond;
+
+    private final int burst;
+
+    private final int maxKeys;
+
+    private final LongSupplier nanoClock;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    private final TokenBucket overflow;
+
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    private final LongAdder rejected = new LongAdder();
+
+    public RateLimiter(double permitsPerSecond, int burst, int maxKeys, LongSupplier nanoClock) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.maxKeys = maxKeys;
+        this.nanoClock = nanoClock;
+        this.overflow = new TokenBucket(permitsPerSecond, burst);
+    }
+
+    /**
+     * @return 0, если запрос пропущен, иначе через сколько наносекунд повторить
+     */
+    public long tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        long waitNanos = bucket(key, now).tryAcquire(now);
+        if (waitNanos > 0) {
+            rejected.increment();
+        }
+        return waitNanos;
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    private TokenBucket bucket(String key, long now) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys && !sweep(now)) {
+            return overflow;
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(permitsPerSecond, burst));
+    }
+
+    private boolean sweep(long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            buckets.values().removeIf(bucket -> bucket.isFull(now));
+            return buckets.size() < maxKeys;
+        } finally {
+            sweeping.set(false);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package ru.paperless.common.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ведро токенов без блокировок. Вместо остатка токенов хранится теоретическое время, когда ведро
+ * снова станет полным (GCRA): пополнять ничего не нужно, а запрос стоит одного CAS.
+ */
+public final class TokenBucket {
+
+    private final long intervalNanos;
+
+    private final long capacityNanos;
+
+    private final AtomicLong fullAt = new AtomicLong(Long.MIN_VALUE);
+
+    public TokenBucket(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+        this.capacityNanos = intervalNanos * burst;
+    }
+
+    /**
+     * @return 0, если токен выдан, иначе сколько наносекунд ждать следующего
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long excess = next - nowNanos - capacityNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Полное ведро неотличимо от нового, поэтому его можно выбросить без потери состояния.
+     */
+    public boolean isFull(long nowNanos) {
+        return fullAt.get() <= nowNanos;
+    }
+}
@@ -0,0 +1,42 @@
+package ru.paperless.common.startup;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.annotation.Schedules;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+
+/**
+ * При {@code spring.main.lazy-initialization=true} бины создаются по первому обращению, а
+ * {@code @Scheduled}-методы регистрируются только у созданных бинов: фоновые задачи (релей outbox,
+ * очистка загрузок, дожим конвейера) молча перестали бы работать. Такие бины остаются eager.
+ */
+@AutoConfiguration
+@ConditionalOnProperty(name = "spring.main.lazy-initialization", havingValue = "true")
+public class FastStartAutoConfiguration {
+
+    @Bean
+    static LazyInitializationExcludeFilter scheduledBeansLazyInitializationExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> hasScheduledMethods(beanType);
+    }
+
+    static boolean hasScheduledMethods(Class<?> beanType) {
+        if (beanType == null || !AnnotationUtils.isCandidateClass(beanType, Set.of(Scheduled.class, Schedules.class))) {
+            return false;
+        }
+        return !MethodIntrospector.selectMethods(beanType, (MethodIntrospector.MetadataLookup<Boolean>) method ->
+                isScheduled(method) ? Boolean.TRUE : null).isEmpty();
+    }
+
+    private static boolean isScheduled(Method method) {
+        return AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)
+                || AnnotatedElementUtils.hasAnnotation(method, Schedules.class);
+    }
+}
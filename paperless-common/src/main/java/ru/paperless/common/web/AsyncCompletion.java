@@ -0,0 +1,56 @@
+package ru.paperless.common.web;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Выполняет действие один раз, когда асинхронный запрос завершился (complete, timeout или error).
+ * Фильтры так отпускают ресурсы, которые запрос держит дольше первого dispatch.
+ */
+public final class AsyncCompletion implements AsyncListener {
+
+    private final Runnable action;
+
+    private final AtomicBoolean done = new AtomicBoolean();
+
+    private AsyncCompletion(Runnable action) {
+        this.action = action;
+    }
+
+    /**
+     * @param request запрос, для которого уже вызван {@code startAsync}
+     */
+    public static void register(HttpServletRequest request, Runnable action) {
+        request.getAsyncContext().addListener(new AsyncCompletion(action));
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        run();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        run();
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        run();
+    }
+
+    // Повторный startAsync сбрасывает слушателей контекста
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+        event.getAsyncContext().addListener(this);
+    }
+
+    private void run() {
+        if (done.compareAndSet(false, true)) {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package ru.paperless.common.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Набор шаблонов путей в синтаксисе {@link PathPattern} (например, {@code /api/v1/users/events/**}),
+ * которыми фильтры исключают эндпоинты из своей обработки. Перед шаблоном можно указать метод
+ * ({@code POST /api/v1/documents}), тогда остальные методы того же пути не исключаются.
+ * Путь сравнивается без context path.
+ */
+public final class PathPatterns {
+
+    private final List<Entry> patterns;
+
+    public PathPatterns(String... patterns) {
+        this.patterns = Arrays.stream(patterns)
+                .map(String::trim)
+                .filter(pattern -> !pattern.isEmpty())
+                .map(PathPatterns::parse)
+                .toList();
+    }
+
+    public static PathPatterns none() {
+        return new PathPatterns();
+    }
+
+    public boolean matches(HttpServletRequest request) {
+        if (patterns.isEmpty()) {
+            return false;
+        }
+        PathContainer path = PathContainer.parsePath(
+                request.getRequestURI().substring(request.getContextPath().length()));
+        for (Entry entry : patterns) {
+            if ((entry.method() == null || entry.method().equalsIgnoreCase(request.getMethod()))
+                    && entry.pattern().matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Entry parse(String pattern) {
+        int space = pattern.indexOf(' ');
+        if (space < 0) {
+            return new Entry(null, PathPatternParser.defaultInstance.parse(pattern));
+        }
+        return new Entry(pattern.substring(0, space),
+                PathPatternParser.defaultInstance.parse(pattern.substring(space + 1).trim()));
+    }
+
+    private record Entry(String method, PathPattern pattern) {
+    }
+}
@@ -0,0 +1,47 @@
+package ru.paperless.common.compression;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompressionThresholdFilterTest {
+
+    private final CompressionThresholdFilter filter =
+            new CompressionThresholdFilter(new String[]{"application/json", "application/cbor"}, 2048);
+
+    @Test
+    void smallCompressibleResponseIsNotCommittedByFlush() throws Exception {
+        MockHttpServletResponse response = writeAndFlush("application/json", 100);
+
+        assertFalse(response.isCommitted());
+        assertEquals(100, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void largeCompressibleResponseIsFlushed() throws Exception {
+        MockHttpServletResponse response = writeAndFlush("application/cbor", 4096);
+
+        assertTrue(response.isCommitted());
+    }
+
+    @Test
+    void otherContentTypesAreFlushedImmediately() throws Exception {
+        MockHttpServletResponse response = writeAndFlush("text/event-stream", 10);
+
+        assertTrue(response.isCommitted());
+    }
+
+    private MockHttpServletResponse writeAndFlush(String contentType, int size) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> {
+            res.setContentType(contentType);
+            res.getOutputStream().write(new byte[size]);
+            res.getOutputStream().flush();
+        };
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/users"), response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,108 @@
+package ru.paperless.common.concurrency;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.paperless.common.web.PathPatterns;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrencyLimitFilterTest {
+
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(
+            1, 1, Duration.ofMillis(50), new PathPatterns("/api/v1/users/events/**"));
+
+    @Test
+    void acceptsRequestAndReleasesPermit() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        int[] inFlight = new int[1];
+
+        filter.doFilter(request("/api/v1/users"), response, (req, res) -> inFlight[0] = filter.getInFlight());
+
+        assertEquals(200, response.getStatus());
+        assertEquals(1, inFlight[0]);
+        assertEquals(0, filter.getInFlight());
+    }
+
+    @Test
+    void rejectsWith503WhenQueueWaitExpires() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> {
+            try {
+                filter.doFilter(request("/api/v1/users"), new MockHttpServletResponse(), (req, res) -> {
+                    entered.countDown();
+                    await(finish);
+                });
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(request("/api/v1/users"), rejected, new MockFilterChain());
+
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(0, filter.getQueued());
+        finish.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        assertEquals(0, filter.getInFlight());
+    }
+
+    @Test
+    void releasesPermitWhenChainThrows() {
+        FilterChain failing = (req, res) -> {
+            throw new IllegalStateException("handler failed");
+        };
+
+        assertThrows(IllegalStateException.class,
+                () -> filter.doFilter(request("/api/v1/users"), new MockHttpServletResponse(), failing));
+
+        assertEquals(0, filter.getInFlight());
+    }
+
+    @Test
+    void asyncRequestHoldsPermitUntilCompletion() throws Exception {
+        MockHttpServletRequest request = request("/api/v1/users/export");
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        assertEquals(1, filter.getInFlight());
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+        assertEquals(0, filter.getInFlight());
+    }
+
+    @Test
+    void excludedPathsBypassLimit() throws Exception {
+        int[] inFlight = new int[1];
+
+        filter.doFilter(request("/api/v1/users/events/stream"), new MockHttpServletResponse(),
+                (req, res) -> inFlight[0] = filter.getInFlight());
+
+        assertEquals(0, inFlight[0]);
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package ru.paperless.common.observability;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestStatisticsFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final RequestStatisticsHibernateHooks hooks = new RequestStatisticsHibernateHooks();
+
+    @Test
+    void recordsQueriesAndEntitiesPerRequest() throws Exception {
+        RequestStatisticsFilter filter = new RequestStatisticsFilter(meterRegistry, 20);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/42");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/users/{id}");
+            hooks.inspect("select 1");
+            hooks.inspect("select 2");
+            hooks.onLoad(new Object(), (Object) 1L, null, null, null);
+        });
+
+        DistributionSummary queries = meterRegistry.get("http.server.requests.queries")
+                .tags("method", "GET", "uri", "/api/v1/users/{id}")
+                .summary();
+        DistributionSummary entities = meterRegistry.get("http.server.requests.entities")
+                .tags("method", "GET", "uri", "/api/v1/users/{id}")
+                .summary();
+        assertEquals(1, queries.count());
+        assertEquals(2, queries.totalAmount());
+        assertEquals(1, entities.totalAmount());
+    }
+
+    @Test
+    void ignoresStatementsOutsideRequest() throws Exception {
+        RequestStatisticsFilter filter = new RequestStatisticsFilter(meterRegistry, 20);
+        hooks.inspect("select 1");
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/users"), new MockHttpServletResponse(),
+                (req, res) -> hooks.inspect("select 2"));
+        hooks.inspect("select 3");
+
+        assertEquals(1, meterRegistry.get("http.server.requests.queries").summary().totalAmount());
+    }
+}
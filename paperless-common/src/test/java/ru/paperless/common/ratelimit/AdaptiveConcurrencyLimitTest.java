@@ -0,0 +1,55 @@
+package ru.paperless.common.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveConcurrencyLimitTest {
+
+    @Test
+    void limitGrowsWhileLatencyIsStable() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 4, 200, 1.5);
+
+        saturate(limit, 200, TimeUnit.MILLISECONDS.toNanos(10));
+
+        assertTrue(limit.getLimit() > 100, "limit " + limit.getLimit());
+    }
+
+    @Test
+    void limitShrinksOnLatencySpike() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 4, 200, 1.5);
+        saturate(limit, 200, TimeUnit.MILLISECONDS.toNanos(10));
+        int before = limit.getLimit();
+
+        saturate(limit, 1, TimeUnit.MILLISECONDS.toNanos(100));
+
+        assertTrue(limit.getLimit() < before / 2, before + " -> " + limit.getLimit());
+    }
+
+    @Test
+    void idleLimitDoesNotGrow() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 4, 200, 1.5);
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.release(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+
+        assertEquals(20, limit.getLimit());
+    }
+
+    // Заполняет лимит целиком и отпускает все запросы с заданной задержкой
+    private static void saturate(AdaptiveConcurrencyLimit limit, int rounds, long rttNanos) {
+        for (int round = 0; round < rounds; round++) {
+            int acquired = 0;
+            while (limit.tryAcquire()) {
+                acquired++;
+            }
+            for (int i = 0; i < acquired; i++) {
+                limit.release(rttNanos);
+            }
+        }
+    }
+}
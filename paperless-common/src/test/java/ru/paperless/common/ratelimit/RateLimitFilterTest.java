@@ -0,0 +1,144 @@
+package ru.paperless.common.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.paperless.common.web.PathPatterns;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+public class RateLimitFilterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final RateLimiter rateLimiter = new RateLimiter(1, 2, 100, clock::get);
+
+    private final RateLimitFilter filter = new RateLimitFilter(rateLimiter, null, "X-Client-Id");
+
+    @Test
+    void rejectsClientOverItsBurstWithRetryAfter() throws Exception {
+        assertEquals(200, call("a", "/api/v1/users").getStatus());
+        assertEquals(200, call("a", "/api/v1/users").getStatus());
+
+        MockHttpServletResponse rejected = call("a", "/api/v1/users");
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("1", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(200, call("b", "/api/v1/users").getStatus());
+        assertEquals(200, call("a", "/api/v1/documents").getStatus());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(200, call("a", "/api/v1/users").getStatus());
+    }
+
+    @Test
+    void identifiersInPathShareOneBucket() throws Exception {
+        call("a", "/api/v1/users/0b6a3f5e-2d7c-4c1b-9a55-3f1e8d2c7b10");
+        call("a", "/api/v1/users/5c0e9b8a-1f2d-4e3c-8b7a-6d5c4b3a2f10");
+
+        assertEquals(429, call("a", "/api/v1/users/9a8b7c6d-5e4f-4a3b-8c2d-1e0f9a8b7c6d").getStatus());
+        assertEquals(1, rateLimiter.size());
+    }
+
+    @Test
+    void endpointKeyCollapsesIdentifiers() {
+        StringBuilder key = new StringBuilder();
+        RateLimitFilter.appendEndpoint(key, "/api/v1/uploads/0b6a3f5e-2d7c-4c1b-9a55-3f1e8d2c7b10/chunks/17");
+
+        assertEquals("/api/v1/uploads/*/chunks/*", key.toString());
+    }
+
+    @Test
+    void adaptiveLimitShedsLoadWith503() throws Exception {
+        AdaptiveConcurrencyLimit concurrencyLimit = new AdaptiveConcurrencyLimit(1, 1, 10, 1.5);
+        RateLimitFilter limited = new RateLimitFilter(new RateLimiter(1000, 1000, 100, clock::get),
+                concurrencyLimit, "X-Client-Id");
+        MockHttpServletResponse nested = new MockHttpServletResponse();
+
+        limited.doFilter(request("a", "/api/v1/users"), new MockHttpServletResponse(), (req, res) ->
+                limited.doFilter(request("b", "/api/v1/users"), nested, new MockFilterChain()));
+
+        assertEquals(503, nested.getStatus());
+        assertEquals(0, concurrencyLimit.getInFlight());
+        assertEquals(1, concurrencyLimit.getRejected());
+    }
+
+    @Test
+    void asyncRequestHoldsAdaptivePermitWithoutLatencySample() throws Exception {
+        AdaptiveConcurrencyLimit concurrencyLimit = spy(new AdaptiveConcurrencyLimit(1, 1, 10, 1.5));
+        RateLimitFilter limited = new RateLimitFilter(new RateLimiter(1000, 1000, 100, clock::get),
+                concurrencyLimit, "X-Client-Id");
+        MockHttpServletRequest stream = request("a", "/api/v1/users/events/stream");
+        stream.setAsyncSupported(true);
+
+        limited.doFilter(stream, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        assertEquals(1, concurrencyLimit.getInFlight());
+        ((MockAsyncContext) stream.getAsyncContext()).complete();
+        assertEquals(0, concurrencyLimit.getInFlight());
+        verify(concurrencyLimit).release(-1);
+    }
+
+    @Test
+    void excludedPathsBypassAdaptiveLimit() throws Exception {
+        AdaptiveConcurrencyLimit concurrencyLimit = new AdaptiveConcurrencyLimit(1, 1, 10, 1.5);
+        RateLimitFilter limited = new RateLimitFilter(new RateLimiter(1000, 1000, 100, clock::get),
+                concurrencyLimit, "X-Client-Id", new PathPatterns("PUT /api/v1/uploads/*/chunks/*"));
+        MockHttpServletResponse upload = new MockHttpServletResponse();
+        MockHttpServletResponse status = new MockHttpServletResponse();
+        String chunk = "/api/v1/uploads/0b6a3f5e-2d7c-4c1b-9a55-3f1e8d2c7b10/chunks/3";
+
+        limited.doFilter(request("a", "/api/v1/users"), new MockHttpServletResponse(), (req, res) -> {
+            MockHttpServletRequest put = request("b", chunk);
+            put.setMethod("PUT");
+            limited.doFilter(put, upload, new MockFilterChain());
+            limited.doFilter(request("b", chunk), status, new MockFilterChain());
+        });
+
+        assertEquals(200, upload.getStatus());
+        assertEquals(503, status.getStatus());
+        assertEquals(0, concurrencyLimit.getInFlight());
+    }
+
+    @Test
+    void excludedPathsBypassClientQuota() throws Exception {
+        RateLimitFilter limited = new RateLimitFilter(new RateLimiter(50, 100, 100, clock::get), null, "X-Client-Id",
+                new PathPatterns("POST /api/v1/users/batch-get"), PathPatterns.none());
+
+        // Склеенные запросы идут каждые 5 мс, то есть до 200 в секунду с одного адреса
+        for (int i = 0; i < 200; i++) {
+            MockHttpServletRequest batch = request("document-service", "/api/v1/users/batch-get");
+            batch.setMethod("POST");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            limited.doFilter(batch, response, new MockFilterChain());
+            assertEquals(200, response.getStatus());
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+        for (int i = 0; i < 100; i++) {
+            limited.doFilter(request("document-service", "/api/v1/users"), new MockHttpServletResponse(), new MockFilterChain());
+        }
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        limited.doFilter(request("document-service", "/api/v1/users"), rejected, new MockFilterChain());
+        assertEquals(429, rejected.getStatus());
+    }
+
+    private MockHttpServletResponse call(String client, String uri) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(client, uri), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String client, String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.addHeader("X-Client-Id", client);
+        return request;
+    }
+}
@@ -0,0 +1,43 @@
+package ru.paperless.common.startup;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FastStartAutoConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(FastStartAutoConfiguration.class));
+
+    @Test
+    void keepsScheduledBeansEager() {
+        contextRunner.withPropertyValues("spring.main.lazy-initialization=true").run(context -> {
+            LazyInitializationExcludeFilter filter = context.getBean(LazyInitializationExcludeFilter.class);
+
+            assertTrue(filter.isExcluded("relay", null, ScheduledBean.class));
+            assertFalse(filter.isExcluded("plain", null, PlainBean.class));
+        });
+    }
+
+    @Test
+    void inactiveWithoutLazyInitialization() {
+        contextRunner.run(context -> assertTrue(context.getBeansOfType(LazyInitializationExcludeFilter.class).isEmpty()));
+    }
+
+    static class ScheduledBean {
+
+        @Scheduled(fixedDelay = 1000)
+        void run() {
+        }
+    }
+
+    static class PlainBean {
+
+        void run() {
+        }
+    }
+}
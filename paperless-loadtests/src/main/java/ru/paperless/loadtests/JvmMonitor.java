@@ -0,0 +1,136 @@
+package ru.paperless.loadtests;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.stream.Collectors;
+
+/**
+ * Поведение кучи и GC за прогон по MXBean'ам. Сервисы работают в этом же JVM, поэтому цифры
+ * включают и генератор нагрузки; сравнивать их стоит между прогонами одной конфигурации.
+ * Рост кучи считается по занятости после каждой сборки: среднее последней четверти сборок минус
+ * среднее первой. У утечки оно растёт с длительностью прогона, у здорового сервиса — нет.
+ */
+public final class JvmMonitor implements AutoCloseable {
+
+    private final List<NotificationEmitter> emitters = new ArrayList<>();
+
+    private final NotificationListener listener = this::onNotification;
+
+    private final Set<String> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP)
+            .map(MemoryPoolMXBean::getName)
+            .collect(Collectors.toSet());
+
+    private final List<Long> heapAfterGc = new ArrayList<>();
+
+    private final AtomicLong pauses = new AtomicLong();
+
+    private final AtomicLong pauseMillis = new AtomicLong();
+
+    private final LongAccumulator maxPauseMillis = new LongAccumulator(Math::max, 0);
+
+    private final LongAccumulator maxHeapUsed = new LongAccumulator(Math::max, 0);
+
+    private final long startedNanos = System.nanoTime();
+
+    public JvmMonitor() {
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(listener, null, null);
+                emitters.add(emitter);
+            }
+        }
+    }
+
+    /**
+     * Снимает текущую занятость кучи; вызывается периодически, между сборками.
+     */
+    public void sample() {
+        maxHeapUsed.accumulate(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+    }
+
+    public JvmReport report() {
+        sample();
+        List<Long> samples;
+        synchronized (heapAfterGc) {
+            samples = List.copyOf(heapAfterGc);
+        }
+        int quarter = Math.max(1, samples.size() / 4);
+        long first = samples.isEmpty() ? 0 : average(samples.subList(0, Math.min(quarter, samples.size())));
+        long last = samples.isEmpty() ? 0 : average(samples.subList(samples.size() - Math.min(quarter, samples.size()), samples.size()));
+        double elapsedMillis = (System.nanoTime() - startedNanos) / 1e6;
+        return new JvmReport(
+                maxHeapUsed.get(),
+                first,
+                last,
+                pauses.get(),
+                pauseMillis.get(),
+                maxPauseMillis.get(),
+                elapsedMillis == 0 ? 0 : pauseMillis.get() / elapsedMillis);
+    }
+
+    @Override
+    public void close() {
+        for (NotificationEmitter emitter : emitters) {
+            try {
+                emitter.removeNotificationListener(listener);
+            } catch (ListenerNotFoundException ignored) {
+                // уже снят
+            }
+        }
+    }
+
+    private void onNotification(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info =
+                GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        // У G1 и ZGC конкурентные циклы идут отдельным коллектором и приложение не останавливают
+        if (!info.getGcName().contains("Concurrent") && !info.getGcName().contains("Cycles")) {
+            pauses.incrementAndGet();
+            pauseMillis.addAndGet(info.getGcInfo().getDuration());
+            maxPauseMillis.accumulate(info.getGcInfo().getDuration());
+        }
+        long used = info.getGcInfo().getMemoryUsageAfterGc().entrySet().stream()
+                .filter(pool -> heapPools.contains(pool.getKey()))
+                .mapToLong(pool -> pool.getValue().getUsed())
+                .sum();
+        synchronized (heapAfterGc) {
+            heapAfterGc.add(used);
+        }
+    }
+
+    private static long average(List<Long> values) {
+        return (long) values.stream().mapToLong(Long::longValue).average().orElse(0);
+    }
+
+    public record JvmReport(
+            long maxHeapUsed,
+            long heapAfterGcStart,
+            long heapAfterGcEnd,
+            long gcPauses,
+            long gcPauseMillis,
+            long maxGcPauseMillis,
+            double gcOverhead
+    ) {
+
+        public long heapGrowth() {
+            return heapAfterGcEnd - heapAfterGcStart;
+        }
+    }
+}
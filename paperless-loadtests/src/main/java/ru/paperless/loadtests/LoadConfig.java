@@ -0,0 +1,87 @@
+package ru.paperless.loadtests;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Параметры прогона одной нагрузки. Значение ищется в системных свойствах, затем в
+ * {@code loadtest.properties} с classpath: сначала {@code loadtest.<workload>.<key>}, потом {@code loadtest.<key>}.
+ */
+public final class LoadConfig {
+
+    private static final String RESOURCE = "loadtest.properties";
+
+    private final String workload;
+
+    private final Properties properties;
+
+    private LoadConfig(String workload, Properties properties) {
+        this.workload = workload;
+        this.properties = properties;
+    }
+
+    public static LoadConfig load(String workload) {
+        Properties properties = new Properties();
+        try (InputStream defaults = LoadConfig.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+            if (defaults != null) {
+                properties.load(defaults);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + RESOURCE, e);
+        }
+        properties.putAll(System.getProperties());
+        return of(workload, properties);
+    }
+
+    public static LoadConfig of(String workload, Properties properties) {
+        return new LoadConfig(workload, properties);
+    }
+
+    public String workload() {
+        return workload;
+    }
+
+    public Optional<String> find(String key) {
+        String value = properties.getProperty("loadtest." + workload + "." + key);
+        if (value == null) {
+            value = properties.getProperty("loadtest." + key);
+        }
+        return Optional.ofNullable(value).map(String::trim).filter(v -> !v.isEmpty());
+    }
+
+    public String get(String key) {
+        return find(key).orElseThrow(() -> new IllegalStateException("Missing load test property loadtest." + key));
+    }
+
+    public int getInt(String key) {
+        return Integer.parseInt(get(key));
+    }
+
+    public double getDouble(String key) {
+        return Double.parseDouble(get(key));
+    }
+
+    public Duration getDuration(String key) {
+        return DurationStyle.detectAndParse(get(key));
+    }
+
+    public Optional<Duration> findDuration(String key) {
+        return find(key).map(DurationStyle::detectAndParse);
+    }
+
+    public DataSize getDataSize(String key) {
+        return DataSize.parse(get(key));
+    }
+
+    public Optional<Path> findPath(String key) {
+        return find(key).map(Path::of);
+    }
+}
@@ -0,0 +1,190 @@
+package ru.paperless.loadtests;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Открытая модель нагрузки: операции смеси отправляются с постоянной частотой {@code loadtest.rate}
+ * независимо от того, успевает ли сервис, а задержка считается от запланированного момента отправки.
+ * Если сервис тормозит и все {@code loadtest.max-in-flight} запросов заняты, очередь на отправку
+ * попадает в задержку, а не прячется за снизившимся темпом (coordinated omission). Каждую
+ * {@code loadtest.report-interval} в лог и ленту отчёта пишутся интервальные перцентили.
+ */
+@Slf4j
+public final class LoadDriver {
+
+    private static final int LOGGED_ERRORS_PER_OPERATION = 5;
+
+    private final LoadConfig config;
+
+    public LoadDriver(LoadConfig config) {
+        this.config = config;
+    }
+
+    public LoadReport run(List<LoadOperation> operations) throws InterruptedException {
+        double rate = config.getDouble("rate");
+        Duration duration = config.getDuration("duration");
+        log.info("{}: warming up for {}s at {} ops/s",
+                config.workload(), config.getDuration("warmup").toSeconds(), String.format(Locale.ROOT, "%.1f", rate));
+        new Phase(operations, rate, null).drive(config.getDuration("warmup"));
+
+        log.info("{}: measuring for {}s at {} ops/s",
+                config.workload(), duration.toSeconds(), String.format(Locale.ROOT, "%.1f", rate));
+        try (JvmMonitor monitor = new JvmMonitor()) {
+            Phase phase = new Phase(operations, rate, monitor);
+            long elapsedNanos = phase.drive(duration);
+            Map<String, OperationStats> stats = new LinkedHashMap<>();
+            phase.totals.forEach((name, histogram) ->
+                    stats.put(name, new OperationStats(name, histogram, phase.errors.get(name).sum())));
+            long completed = stats.values().stream().mapToLong(OperationStats::count).sum();
+            return new LoadReport(config.workload(), rate, duration, completed / (elapsedNanos / 1e9),
+                    stats, monitor.report(), phase.timeline);
+        }
+    }
+
+    private final class Phase {
+
+        private final List<LoadOperation> operations;
+
+        private final int[] cumulativeWeights;
+
+        private final double rate;
+
+        private final JvmMonitor monitor;
+
+        private final Map<String, Recorder> recorders = new LinkedHashMap<>();
+
+        private final Map<String, Histogram> totals = new LinkedHashMap<>();
+
+        private final Map<String, LongAdder> errors = new LinkedHashMap<>();
+
+        private final Map<String, AtomicInteger> loggedErrors = new LinkedHashMap<>();
+
+        private final List<String> timeline = new ArrayList<>();
+
+        private long startedNanos;
+
+        private Phase(List<LoadOperation> operations, double rate, JvmMonitor monitor) {
+            this.operations = operations;
+            this.rate = rate;
+            this.monitor = monitor;
+            this.cumulativeWeights = new int[operations.size()];
+            int total = 0;
+            for (int i = 0; i < operations.size(); i++) {
+                LoadOperation operation = operations.get(i);
+                total += operation.weight();
+                cumulativeWeights[i] = total;
+                recorders.put(operation.name(), new Recorder(3));
+                totals.put(operation.name(), new Histogram(3));
+                errors.put(operation.name(), new LongAdder());
+                loggedErrors.put(operation.name(), new AtomicInteger());
+            }
+        }
+
+        private long drive(Duration duration) throws InterruptedException {
+            Semaphore inFlight = new Semaphore(config.getInt("max-in-flight"));
+            long intervalNanos = (long) (1e9 / rate);
+            startedNanos = System.nanoTime();
+            long deadline = startedNanos + duration.toNanos();
+
+            ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+            long reportMillis = config.getDuration("report-interval").toMillis();
+            if (monitor != null) {
+                reporter.scheduleAtFixedRate(this::reportInterval, reportMillis, reportMillis, TimeUnit.MILLISECONDS);
+            }
+            try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (long i = 0; ; i++) {
+                    long intended = startedNanos + i * intervalNanos;
+                    if (intended >= deadline) {
+                        break;
+                    }
+                    long wait;
+                    while ((wait = intended - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    inFlight.acquire();
+                    LoadOperation operation = pick();
+                    workers.execute(() -> {
+                        try {
+                            int status = operation.call().execute();
+                            if (!operation.expectedStatuses().contains(status)) {
+                                error(operation, "HTTP " + status);
+                            }
+                        } catch (Exception e) {
+                            error(operation, e.toString());
+                        } finally {
+                            recorders.get(operation.name()).recordValue(System.nanoTime() - intended);
+                            inFlight.release();
+                        }
+                    });
+                }
+            } finally {
+                reporter.shutdownNow();
+            }
+            long elapsed = System.nanoTime() - startedNanos;
+            reportInterval();
+            return elapsed;
+        }
+
+        private LoadOperation pick() {
+            int roll = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            for (int i = 0; i < cumulativeWeights.length; i++) {
+                if (roll < cumulativeWeights[i]) {
+                    return operations.get(i);
+                }
+            }
+            throw new IllegalStateException("Unreachable");
+        }
+
+        private void error(LoadOperation operation, String detail) {
+            errors.get(operation.name()).increment();
+            if (loggedErrors.get(operation.name()).incrementAndGet() <= LOGGED_ERRORS_PER_OPERATION) {
+                log.warn("{}/{} failed: {}", config.workload(), operation.name(), detail);
+            }
+        }
+
+        private synchronized void reportInterval() {
+            long elapsedSeconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startedNanos);
+            long heapUsedMb = 0;
+            if (monitor != null) {
+                monitor.sample();
+                heapUsedMb = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() >> 20;
+            }
+            StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "%s t=%ds heap=%dMB",
+                    config.workload(), elapsedSeconds, heapUsedMb));
+            for (Map.Entry<String, Recorder> entry : recorders.entrySet()) {
+                Histogram interval = entry.getValue().getIntervalHistogram();
+                totals.get(entry.getKey()).add(interval);
+                if (monitor == null) {
+                    continue;
+                }
+                timeline.add(String.format(Locale.ROOT, "%d,%s,%d,%.3f,%.3f,%.3f,%d", elapsedSeconds, entry.getKey(),
+                        interval.getTotalCount(), interval.getValueAtPercentile(50) / 1e6,
+                        interval.getValueAtPercentile(99) / 1e6, interval.getMaxValue() / 1e6, heapUsedMb));
+                line.append(String.format(Locale.ROOT, " %s[n=%d p99=%.1fms]",
+                        entry.getKey(), interval.getTotalCount(), interval.getValueAtPercentile(99) / 1e6));
+            }
+            if (monitor != null) {
+                log.info("{}", line);
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package ru.paperless.loadtests;
+
+import java.util.Set;
+
+/**
+ * Операция смеси: имя для отчёта, вес и коды ответа, которые для неё нормальны. Например, 409 на
+ * создании с занятым именем — ожидаемый исход, а не ошибка.
+ */
+public record LoadOperation(
+        String name,
+        int weight,
+        Set<Integer> expectedStatuses,
+        Call call
+) {
+
+    @FunctionalInterface
+    public interface Call {
+        /**
+         * Выполняет запрос и возвращает код ответа.
+         */
+        int execute() throws Exception;
+    }
+}
@@ -0,0 +1,117 @@
+package ru.paperless.loadtests;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * Итог прогона. {@link #write} кладёт в каталог отчётов {@code <workload>.properties} (его же
+ * {@link LoadThresholds} читает как базу для сравнения), распределения задержек по операциям
+ * в формате HdrHistogram ({@code .hgrm}, строятся в HistogramLogAnalyzer) и поинтервальную ленту в CSV.
+ */
+public record LoadReport(
+        String workload,
+        double targetRate,
+        Duration duration,
+        double throughput,
+        Map<String, OperationStats> operations,
+        JvmMonitor.JvmReport jvm,
+        List<String> timeline
+) {
+
+    static final String TIMELINE_HEADER = "elapsed_s,operation,count,p50_ms,p99_ms,max_ms,heap_used_mb";
+
+    public long count() {
+        return operations.values().stream().mapToLong(OperationStats::count).sum();
+    }
+
+    public long errors() {
+        return operations.values().stream().mapToLong(OperationStats::errors).sum();
+    }
+
+    public double errorRate() {
+        long count = count();
+        return count == 0 ? 0 : (double) errors() / count;
+    }
+
+    public String format() {
+        StringBuilder result = new StringBuilder(String.format(Locale.ROOT,
+                "%s: target %.1f ops/s, achieved %.1f ops/s over %ds, errors %d of %d%n",
+                workload, targetRate, throughput, duration.toSeconds(), errors(), count()));
+        operations.values().forEach(stats -> result.append("  ").append(stats.format()).append(System.lineSeparator()));
+        result.append(String.format(Locale.ROOT,
+                "  heap max %d MB, after GC %d -> %d MB, %d GC pauses %d ms (max %d ms, %.2f%% of time)%n",
+                jvm.maxHeapUsed() >> 20, jvm.heapAfterGcStart() >> 20, jvm.heapAfterGcEnd() >> 20,
+                jvm.gcPauses(), jvm.gcPauseMillis(), jvm.maxGcPauseMillis(), jvm.gcOverhead() * 100));
+        return result.toString();
+    }
+
+    public Properties toProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("target-rate", number(targetRate));
+        properties.setProperty("duration", duration.toString());
+        properties.setProperty("throughput", number(throughput));
+        properties.setProperty("error-rate", number(errorRate()));
+        operations.forEach((name, stats) -> {
+            String prefix = "operations." + name + ".";
+            properties.setProperty(prefix + "count", Long.toString(stats.count()));
+            properties.setProperty(prefix + "errors", Long.toString(stats.errors()));
+            properties.setProperty(prefix + "p50", number(stats.percentileMillis(50)));
+            properties.setProperty(prefix + "p90", number(stats.percentileMillis(90)));
+            properties.setProperty(prefix + "p99", number(stats.percentileMillis(99)));
+            properties.setProperty(prefix + "p999", number(stats.percentileMillis(99.9)));
+            properties.setProperty(prefix + "max", number(stats.maxMillis()));
+        });
+        properties.setProperty("jvm.max-heap-used", Long.toString(jvm.maxHeapUsed()));
+        properties.setProperty("jvm.heap-growth", Long.toString(jvm.heapGrowth()));
+        properties.setProperty("jvm.gc-pauses", Long.toString(jvm.gcPauses()));
+        properties.setProperty("jvm.gc-pause-ms", Long.toString(jvm.gcPauseMillis()));
+        properties.setProperty("jvm.max-gc-pause-ms", Long.toString(jvm.maxGcPauseMillis()));
+        properties.setProperty("jvm.gc-overhead", number(jvm.gcOverhead()));
+        return properties;
+    }
+
+    public void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        try (OutputStream out = Files.newOutputStream(directory.resolve(workload + ".properties"))) {
+            toProperties().store(out, workload + " load test report");
+        }
+        for (OperationStats stats : operations.values()) {
+            try (PrintStream out = new PrintStream(
+                    Files.newOutputStream(directory.resolve(workload + "-" + stats.name() + ".hgrm")),
+                    false, StandardCharsets.UTF_8)) {
+                stats.histogram().outputPercentileDistribution(out, 1e6);
+            }
+        }
+        Files.write(directory.resolve(workload + "-timeline.csv"),
+                Stream.concat(Stream.of(TIMELINE_HEADER), timeline.stream()).toList(),
+                StandardCharsets.UTF_8);
+    }
+
+    public static Optional<Properties> readBaseline(Path directory, String workload) throws IOException {
+        Path file = directory.resolve(workload + ".properties");
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.ISO_8859_1)) {
+            properties.load(reader);
+        }
+        return Optional.of(properties);
+    }
+
+    private static String number(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+}
@@ -0,0 +1,95 @@
+package ru.paperless.loadtests;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Пороги, при нарушении которых прогон падает. Абсолютные: доля достигнутого темпа от целевого,
+ * p99 каждой операции, доля ошибок, доля времени в паузах GC и рост кучи после сборок. Если
+ * передан отчёт прошлого прогона, дополнительно проверяется, что пропускная способность не упала
+ * и p99 не вырос больше чем на {@code loadtest.threshold.regression}.
+ */
+public final class LoadThresholds {
+
+    private final LoadConfig config;
+
+    private final double minThroughputRatio;
+
+    private final Duration defaultMaxP99;
+
+    private final double maxErrorRate;
+
+    private final double maxGcOverhead;
+
+    private final long maxHeapGrowth;
+
+    private final double maxRegression;
+
+    public LoadThresholds(LoadConfig config) {
+        this.config = config;
+        this.minThroughputRatio = config.getDouble("threshold.min-throughput-ratio");
+        this.defaultMaxP99 = config.getDuration("threshold.p99");
+        this.maxErrorRate = config.getDouble("threshold.error-rate");
+        this.maxGcOverhead = config.getDouble("threshold.gc-overhead");
+        this.maxHeapGrowth = config.getDataSize("threshold.heap-growth").toBytes();
+        this.maxRegression = config.getDouble("threshold.regression");
+    }
+
+    public Duration maxP99(String operation) {
+        return config.findDuration("threshold.p99." + operation).orElse(defaultMaxP99);
+    }
+
+    public List<String> check(LoadReport report, Optional<Properties> baseline) {
+        List<String> violations = new ArrayList<>();
+        if (report.throughput() < report.targetRate() * minThroughputRatio) {
+            violations.add(format("throughput %.1f ops/s is below %.0f%% of target %.1f ops/s",
+                    report.throughput(), minThroughputRatio * 100, report.targetRate()));
+        }
+        if (report.errorRate() > maxErrorRate) {
+            violations.add(format("error rate %.4f exceeds %.4f", report.errorRate(), maxErrorRate));
+        }
+        report.operations().forEach((name, stats) -> {
+            double limit = maxP99(name).toNanos() / 1e6;
+            if (stats.percentileMillis(99) > limit) {
+                violations.add(format("%s p99 %.2fms exceeds %.2fms", name, stats.percentileMillis(99), limit));
+            }
+        });
+        if (report.jvm().gcOverhead() > maxGcOverhead) {
+            violations.add(format("GC pauses took %.2f%% of the run, limit %.2f%%",
+                    report.jvm().gcOverhead() * 100, maxGcOverhead * 100));
+        }
+        if (report.jvm().heapGrowth() > maxHeapGrowth) {
+            violations.add(format("heap after GC grew by %d MB, limit %d MB",
+                    report.jvm().heapGrowth() >> 20, maxHeapGrowth >> 20));
+        }
+        baseline.ifPresent(previous -> checkRegression(report, previous, violations));
+        return violations;
+    }
+
+    private void checkRegression(LoadReport report, Properties baseline, List<String> violations) {
+        double baselineThroughput = Double.parseDouble(baseline.getProperty("throughput", "0"));
+        if (report.throughput() < baselineThroughput * (1 - maxRegression)) {
+            violations.add(format("throughput %.1f ops/s regressed from baseline %.1f ops/s",
+                    report.throughput(), baselineThroughput));
+        }
+        report.operations().forEach((name, stats) -> {
+            String previous = baseline.getProperty("operations." + name + ".p99");
+            if (previous == null) {
+                return;
+            }
+            double baselineP99 = Double.parseDouble(previous);
+            if (stats.percentileMillis(99) > baselineP99 * (1 + maxRegression)) {
+                violations.add(format("%s p99 %.2fms regressed from baseline %.2fms",
+                        name, stats.percentileMillis(99), baselineP99));
+            }
+        });
+    }
+
+    private static String format(String format, Object... args) {
+        return String.format(Locale.ROOT, format, args);
+    }
+}
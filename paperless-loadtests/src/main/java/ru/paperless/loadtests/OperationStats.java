@@ -0,0 +1,36 @@
+package ru.paperless.loadtests;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Итог одной операции: задержки от запланированного момента отправки (с поправкой на
+ * coordinated omission) и число ответов с неожиданным кодом или исключением.
+ */
+public record OperationStats(
+        String name,
+        Histogram histogram,
+        long errors
+) {
+
+    public long count() {
+        return histogram.getTotalCount();
+    }
+
+    public double errorRate() {
+        return count() == 0 ? 0 : (double) errors / count();
+    }
+
+    public double percentileMillis(double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1e6;
+    }
+
+    public double maxMillis() {
+        return histogram.getMaxValue() / 1e6;
+    }
+
+    public String format() {
+        return String.format("%-10s n=%-8d errors=%-5d p50=%.2fms p90=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms",
+                name, count(), errors, percentileMillis(50), percentileMillis(90), percentileMillis(99),
+                percentileMillis(99.9), maxMillis());
+    }
+}
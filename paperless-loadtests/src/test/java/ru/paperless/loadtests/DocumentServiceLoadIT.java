@@ -0,0 +1,159 @@
+package ru.paperless.loadtests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.paperless.documentservice.model.DTO.DocumentResponseDTO;
+import ru.paperless.userservice.model.DTO.UserCreateRequestDTO;
+import ru.paperless.userservice.model.DTO.UserImportReportDTO;
+import ru.paperless.userservice.model.DTO.UserImportRowResultDTO;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Смесь для document-service: списки документов владельца, метаданные, скачивание, полнотекстовый
+ * поиск (с владельцами из user-service), загрузка новых документов и новых версий существующих.
+ * Загрузки идут через конвейер обработки, поэтому его очередь тоже под нагрузкой.
+ */
+public class DocumentServiceLoadIT {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().findAndRegisterModules();
+
+    private static final int VOCABULARY_SIZE = 2_000;
+
+    private static final int DOCUMENT_WORDS = 2_000;
+
+    private static LoadConfig config;
+
+    private static ConfigurableApplicationContext userService;
+
+    private static ConfigurableApplicationContext documentService;
+
+    private static HttpClient client;
+
+    private static String userServiceUrl;
+
+    private static String baseUrl;
+
+    private final String prefix = "lt" + Long.toString(System.currentTimeMillis() % 2_000_000_000L, 36) + "_";
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    @BeforeAll
+    static void start(@TempDir Path storageRoot) {
+        config = LoadConfig.load("documents");
+        userService = PaperlessStack.startUserService(config);
+        userServiceUrl = PaperlessStack.baseUrl(userService);
+        documentService = PaperlessStack.startDocumentService(config, userServiceUrl, storageRoot);
+        baseUrl = PaperlessStack.baseUrl(documentService);
+        client = LoadTests.httpClient(config);
+    }
+
+    @AfterAll
+    static void stop() {
+        if (documentService != null) {
+            documentService.close();
+        }
+        if (userService != null) {
+            userService.close();
+        }
+    }
+
+    @Test
+    void mixedWorkloadStaysWithinThresholds() throws Exception {
+        List<UUID> owners = seedOwners(config.getInt("owners"));
+        List<UUID> documents = new ArrayList<>();
+        for (int i = 0; i < config.getInt("seed"); i++) {
+            documents.add(upload(owners.get(i % owners.size())).id());
+        }
+
+        LoadTests.runAndVerify(config, List.of(
+                new LoadOperation("list", 30, Set.of(200), () -> send(request(
+                        "/api/v1/documents?ownerId=" + pick(owners) + "&limit=20").GET().build())),
+                new LoadOperation("metadata", 20, Set.of(200), () -> send(request(
+                        "/api/v1/documents/" + pick(documents)).GET().build())),
+                new LoadOperation("download", 20, Set.of(200), () -> send(request(
+                        "/api/v1/documents/" + pick(documents) + "/content").GET().build())),
+                new LoadOperation("search", 15, Set.of(200), () -> send(request(
+                        "/api/v1/documents/search?q=" + word(ThreadLocalRandom.current()) + "&size=20").GET().build())),
+                new LoadOperation("upload", 10, Set.of(201), () -> send(uploadRequest(pick(owners)))),
+                new LoadOperation("version", 5, Set.of(201), () -> send(request(
+                        "/api/v1/documents/" + pick(documents) + "/versions")
+                        .header("Content-Type", "text/plain")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(text()))
+                        .build()))));
+    }
+
+    private List<UUID> seedOwners(int owners) throws Exception {
+        List<UserCreateRequestDTO> requests = IntStream.range(0, owners)
+                .mapToObj(i -> new UserCreateRequestDTO(prefix + "o" + i, prefix + "o" + i + "@example.com"))
+                .toList();
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(URI.create(userServiceUrl + "/api/v1/users/bulk"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(OBJECT_MAPPER.writeValueAsBytes(requests)))
+                        .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        UserImportReportDTO report = OBJECT_MAPPER.readValue(response.body(), UserImportReportDTO.class);
+        assertEquals(owners, report.created(), "seeding owners failed");
+        return report.rows().stream().map(UserImportRowResultDTO::id).filter(Objects::nonNull).toList();
+    }
+
+    private DocumentResponseDTO upload(UUID owner) throws Exception {
+        HttpResponse<byte[]> response = client.send(uploadRequest(owner), HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(201, response.statusCode(), () -> new String(response.body(), StandardCharsets.UTF_8));
+        return OBJECT_MAPPER.readValue(response.body(), DocumentResponseDTO.class);
+    }
+
+    private HttpRequest uploadRequest(UUID owner) {
+        return request("/api/v1/documents?ownerId=" + owner + "&fileName=" + prefix + sequence.incrementAndGet() + ".txt")
+                .header("Content-Type", "text/plain")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(text()))
+                .build();
+    }
+
+    // Слова со скошенным распределением: частые термины встречаются почти везде, редкие — в немногих документах
+    private static byte[] text() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder text = new StringBuilder(DOCUMENT_WORDS * 8);
+        for (int i = 0; i < DOCUMENT_WORDS; i++) {
+            text.append(word(random)).append(i % 16 == 15 ? '\n' : ' ');
+        }
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String word(ThreadLocalRandom random) {
+        double skewed = Math.pow(random.nextDouble(), 3);
+        return "term" + (int) (skewed * VOCABULARY_SIZE);
+    }
+
+    private static <T> T pick(List<T> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+
+    private int send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(config.getDuration("request-timeout"));
+    }
+}
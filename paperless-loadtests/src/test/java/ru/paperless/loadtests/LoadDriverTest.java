@@ -0,0 +1,48 @@
+package ru.paperless.loadtests;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoadDriverTest {
+
+    @Test
+    void operationsAreSentAtTargetRate() throws Exception {
+        LoadReport report = new LoadDriver(config(200, 1)).run(List.of(
+                new LoadOperation("fast", 3, Set.of(200), () -> 200),
+                new LoadOperation("failing", 1, Set.of(200), () -> 500)));
+
+        assertEquals(200, report.count());
+        assertEquals(report.operations().get("failing").count(), report.errors());
+        assertTrue(report.operations().get("fast").count() > report.operations().get("failing").count());
+        assertTrue(report.throughput() > 150, "throughput " + report.throughput());
+    }
+
+    @Test
+    void queueingBehindSlowOperationsCountsTowardsLatency() throws Exception {
+        // 20 мс на операцию при одном запросе в полёте — это 50 ops/s против запрошенных 100
+        LoadReport report = new LoadDriver(config(100, 1)).run(List.of(
+                new LoadOperation("slow", 1, Set.of(200), () -> {
+                    Thread.sleep(20);
+                    return 200;
+                })));
+
+        OperationStats stats = report.operations().get("slow");
+        assertTrue(stats.percentileMillis(99) > 400, "p99 " + stats.percentileMillis(99));
+        assertTrue(report.throughput() < 70, "throughput " + report.throughput());
+    }
+
+    private static LoadConfig config(int rate, int maxInFlight) {
+        Properties properties = new Properties();
+        properties.setProperty("loadtest.rate", Integer.toString(rate));
+        properties.setProperty("loadtest.warmup", "0s");
+        properties.setProperty("loadtest.duration", "1s");
+        properties.setProperty("loadtest.max-in-flight", Integer.toString(maxInFlight));
+        properties.setProperty("loadtest.report-interval", "10s");
+        return LoadConfig.of("test", properties);
+    }
+}
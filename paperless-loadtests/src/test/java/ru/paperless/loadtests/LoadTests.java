@@ -0,0 +1,42 @@
+package ru.paperless.loadtests;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+final class LoadTests {
+
+    private LoadTests() {
+    }
+
+    static HttpClient httpClient(LoadConfig config) {
+        return HttpClient.newBuilder()
+                .connectTimeout(config.getDuration("request-timeout"))
+                .build();
+    }
+
+    /**
+     * Прогоняет смесь, пишет отчёт и валит тест, если нарушен хоть один порог.
+     */
+    static LoadReport runAndVerify(LoadConfig config, List<LoadOperation> operations) throws Exception {
+        LoadReport report = new LoadDriver(config).run(operations);
+        System.out.print(report.format());
+        Path reports = config.findPath("reports-dir").orElse(Path.of("target", "loadtest-reports"));
+        report.write(reports);
+
+        Optional<Path> baselineDir = config.findPath("baseline-dir");
+        Optional<Properties> baseline = baselineDir.isPresent()
+                ? LoadReport.readBaseline(baselineDir.get(), config.workload())
+                : Optional.empty();
+        List<String> violations = new LoadThresholds(config).check(report, baseline);
+        if (!violations.isEmpty()) {
+            fail(config.workload() + " load test thresholds violated (report in " + reports.toAbsolutePath() + "):\n  "
+                    + String.join("\n  ", violations));
+        }
+        return report;
+    }
+}
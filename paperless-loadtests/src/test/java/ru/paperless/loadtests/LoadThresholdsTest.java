@@ -0,0 +1,70 @@
+package ru.paperless.loadtests;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoadThresholdsTest {
+
+    private final LoadThresholds thresholds = new LoadThresholds(LoadConfig.of("users", thresholdProperties()));
+
+    @Test
+    void reportWithinThresholdsPasses() {
+        LoadReport report = report(99, Map.of("get", 50.0, "patch", 300.0));
+
+        assertEquals(List.of(), thresholds.check(report, Optional.empty()));
+    }
+
+    @Test
+    void lowThroughputAndSlowOperationsFail() {
+        LoadReport report = report(80, Map.of("get", 150.0, "patch", 300.0));
+
+        List<String> violations = thresholds.check(report, Optional.empty());
+
+        assertEquals(2, violations.size(), violations.toString());
+        assertTrue(violations.get(0).startsWith("throughput 80.0"));
+        assertTrue(violations.get(1).startsWith("get p99"));
+    }
+
+    @Test
+    void regressionAgainstBaselineFails() {
+        LoadReport baseline = report(100, Map.of("get", 20.0, "patch", 100.0));
+        LoadReport report = report(100, Map.of("get", 30.0, "patch", 110.0));
+
+        List<String> violations = thresholds.check(report, Optional.of(baseline.toProperties()));
+
+        assertEquals(1, violations.size(), violations.toString());
+        assertTrue(violations.get(0).startsWith("get p99 30"));
+    }
+
+    private static LoadReport report(double throughput, Map<String, Double> p99Millis) {
+        Map<String, OperationStats> operations = new LinkedHashMap<>();
+        p99Millis.forEach((name, millis) -> {
+            Histogram histogram = new Histogram(3);
+            histogram.recordValueWithCount((long) (millis * 1e6), 1000);
+            operations.put(name, new OperationStats(name, histogram, 0));
+        });
+        return new LoadReport("users", 100, Duration.ofSeconds(60), throughput, operations,
+                new JvmMonitor.JvmReport(200L << 20, 80L << 20, 90L << 20, 10, 100, 20, 0.002), List.of());
+    }
+
+    private static Properties thresholdProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("loadtest.threshold.min-throughput-ratio", "0.95");
+        properties.setProperty("loadtest.threshold.error-rate", "0.001");
+        properties.setProperty("loadtest.threshold.p99", "100ms");
+        properties.setProperty("loadtest.users.threshold.p99.patch", "500ms");
+        properties.setProperty("loadtest.threshold.gc-overhead", "0.05");
+        properties.setProperty("loadtest.threshold.heap-growth", "64MB");
+        properties.setProperty("loadtest.threshold.regression", "0.20");
+        return properties;
+    }
+}
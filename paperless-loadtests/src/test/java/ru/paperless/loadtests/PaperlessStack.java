@@ -0,0 +1,118 @@
+package ru.paperless.loadtests;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import ru.paperless.documentservice.DocumentServiceApplication;
+import ru.paperless.userservice.UserServiceApplication;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Сервисы под нагрузкой: user-service и document-service в этом же JVM на одной базе Postgres,
+ * как в проде (у каждого своя таблица истории Flyway, схема создаётся миграциями с нуля).
+ * База — контейнер Testcontainers на весь прогон или внешняя из {@code loadtest.jdbc-url}.
+ */
+final class PaperlessStack {
+
+    private static final String MIGRATIONS = "db/migration";
+
+    private static PostgreSQLContainer<?> postgres;
+
+    private PaperlessStack() {
+    }
+
+    static ConfigurableApplicationContext startUserService(LoadConfig config) {
+        return start(UserServiceApplication.class, config, List.of());
+    }
+
+    static ConfigurableApplicationContext startDocumentService(LoadConfig config, String userServiceUrl, Path storageRoot) {
+        return start(DocumentServiceApplication.class, config, List.of(
+                "paperless.user-service.url=" + userServiceUrl,
+                "paperless.storage.root=" + storageRoot));
+    }
+
+    static String baseUrl(ConfigurableApplicationContext context) {
+        return "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    private static ConfigurableApplicationContext start(Class<?> application, LoadConfig config, List<String> extra) {
+        List<String> properties = new ArrayList<>(database(config));
+        Path codeSource = codeSource(application);
+        properties.addAll(List.of(
+                // Оба сервиса лежат на classpath: classpath:application.properties нашёлся бы только у первого,
+                // а classpath:db/migration смешал бы миграции обоих
+                "spring.config.location=" + applicationProperties(codeSource),
+                "spring.flyway.locations=filesystem:" + migrations(codeSource),
+                "server.port=0",
+                // Вся нагрузка идёт с одного адреса и упёрлась бы в квоту клиента
+                "paperless.rate-limit.enabled=false",
+                "spring.jpa.show-sql=false",
+                "logging.level.root=WARN",
+                // Конфликты уникальности в смеси ожидаемы и не должны засыпать лог
+                "logging.level.org.hibernate.engine.jdbc.spi.SqlExceptionHelper=off"));
+        properties.addAll(extra);
+        return new SpringApplicationBuilder(application)
+                .run(properties.stream().map(property -> "--" + property).toArray(String[]::new));
+    }
+
+    private static synchronized List<String> database(LoadConfig config) {
+        if (config.find("jdbc-url").isPresent()) {
+            return List.of(
+                    "spring.datasource.url=" + config.get("jdbc-url"),
+                    "spring.datasource.username=" + config.get("jdbc-username"),
+                    "spring.datasource.password=" + config.find("jdbc-password").orElse(""));
+        }
+        if (postgres == null) {
+            // Контейнер останавливает Ryuk после выхода JVM
+            postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+                    .withCommand("postgres", "-c", "max_connections=200");
+            postgres.start();
+        }
+        return List.of(
+                "spring.datasource.url=" + postgres.getJdbcUrl(),
+                "spring.datasource.username=" + postgres.getUsername(),
+                "spring.datasource.password=" + postgres.getPassword());
+    }
+
+    private static Path codeSource(Class<?> application) {
+        try {
+            return Path.of(application.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String applicationProperties(Path codeSource) {
+        return Files.isDirectory(codeSource)
+                ? codeSource.resolve("application.properties").toUri().toString()
+                : "jar:" + codeSource.toUri() + "!/application.properties";
+    }
+
+    private static Path migrations(Path codeSource) {
+        if (Files.isDirectory(codeSource)) {
+            return codeSource.resolve(MIGRATIONS);
+        }
+        try (FileSystem jar = FileSystems.newFileSystem(codeSource)) {
+            Path target = Files.createTempDirectory("paperless-migrations");
+            try (Stream<Path> scripts = Files.list(jar.getPath(MIGRATIONS))) {
+                for (Path script : scripts.toList()) {
+                    Files.copy(script, target.resolve(script.getFileName().toString()));
+                }
+            }
+            return target;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to extract migrations from " + codeSource, e);
+        }
+    }
+}
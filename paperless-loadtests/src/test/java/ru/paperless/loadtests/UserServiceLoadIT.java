@@ -0,0 +1,159 @@
+package ru.paperless.loadtests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.paperless.userservice.model.DTO.UserCreateRequestDTO;
+import ru.paperless.userservice.model.DTO.UserImportReportDTO;
+import ru.paperless.userservice.model.DTO.UserImportRowResultDTO;
+import ru.paperless.userservice.model.DTO.UserUpdateRequestDTO;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Смесь для user-service: листание страниц по курсору, чтение по ID, создание с частыми
+ * конфликтами уникальности и параллельные PATCH небольшого горячего набора пользователей
+ * (часть с If-Match по последней виденной версии, поэтому 409 и 412 — ожидаемые исходы).
+ */
+public class UserServiceLoadIT {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final double DUPLICATE_CREATE_RATIO = 0.25;
+
+    private static LoadConfig config;
+
+    private static ConfigurableApplicationContext userService;
+
+    private static HttpClient client;
+
+    private static String baseUrl;
+
+    private final String prefix = "lt" + Long.toString(System.currentTimeMillis() % 2_000_000_000L, 36) + "_";
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final AtomicReferenceArray<String> cursors = new AtomicReferenceArray<>(256);
+
+    private final Map<UUID, String> hotETags = new ConcurrentHashMap<>();
+
+    @BeforeAll
+    static void start() {
+        config = LoadConfig.load("users");
+        userService = PaperlessStack.startUserService(config);
+        baseUrl = PaperlessStack.baseUrl(userService);
+        client = LoadTests.httpClient(config);
+    }
+
+    @AfterAll
+    static void stop() {
+        if (userService != null) {
+            userService.close();
+        }
+    }
+
+    @Test
+    void mixedWorkloadStaysWithinThresholds() throws Exception {
+        List<UserImportRowResultDTO> seeded = seed(config.getInt("seed"));
+        List<UUID> ids = seeded.stream().map(UserImportRowResultDTO::id).toList();
+        List<String> userNames = seeded.stream().map(UserImportRowResultDTO::userName).toList();
+        List<UUID> hotSet = ids.subList(0, Math.min(config.getInt("hot-set"), ids.size()));
+
+        LoadTests.runAndVerify(config, List.of(
+                new LoadOperation("list", 55, Set.of(200), this::listPage),
+                new LoadOperation("get", 25, Set.of(200), () -> get(ids)),
+                new LoadOperation("create", 10, Set.of(201, 409), () -> create(userNames)),
+                new LoadOperation("patch", 10, Set.of(200, 409, 412), () -> patch(hotSet))));
+    }
+
+    private List<UserImportRowResultDTO> seed(int users) throws Exception {
+        List<UserCreateRequestDTO> requests = IntStream.range(0, users)
+                .mapToObj(i -> new UserCreateRequestDTO(prefix + "s" + i, prefix + "s" + i + "@example.com"))
+                .toList();
+        HttpResponse<byte[]> response = client.send(request("/api/v1/users/bulk")
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(OBJECT_MAPPER.writeValueAsBytes(requests)))
+                        .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        UserImportReportDTO report = OBJECT_MAPPER.readValue(response.body(), UserImportReportDTO.class);
+        assertEquals(users, report.created(), "seeding failed");
+        return report.rows().stream().filter(row -> Objects.nonNull(row.id())).toList();
+    }
+
+    private int listPage() throws Exception {
+        int slot = ThreadLocalRandom.current().nextInt(cursors.length());
+        String cursor = cursors.get(slot);
+        String query = cursor == null ? "" : "&cursor=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8);
+        HttpResponse<byte[]> response = client.send(request("/api/v1/users?limit=50" + query).GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() == 200) {
+            JsonNode next = OBJECT_MAPPER.readTree(response.body()).get("nextCursor");
+            // Следующие листания пойдут и глубже, и с начала
+            cursors.set(ThreadLocalRandom.current().nextInt(cursors.length()), next == null || next.isNull() ? null : next.asText());
+        }
+        return response.statusCode();
+    }
+
+    private int get(List<UUID> ids) throws Exception {
+        UUID id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        return send(request("/api/v1/users/" + id).GET().build());
+    }
+
+    private int create(List<String> userNames) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String userName = random.nextDouble() < DUPLICATE_CREATE_RATIO
+                ? userNames.get(random.nextInt(userNames.size()))
+                : prefix + "c" + sequence.incrementAndGet();
+        byte[] body = OBJECT_MAPPER.writeValueAsBytes(new UserCreateRequestDTO(userName, userName + "@example.com"));
+        return send(request("/api/v1/users")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build());
+    }
+
+    private int patch(List<UUID> hotSet) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        UUID id = hotSet.get(random.nextInt(hotSet.size()));
+        byte[] body = OBJECT_MAPPER.writeValueAsBytes(
+                new UserUpdateRequestDTO(null, prefix + "p" + sequence.incrementAndGet() + "@example.com"));
+        HttpRequest.Builder request = request("/api/v1/users/" + id)
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofByteArray(body));
+        String eTag = hotETags.get(id);
+        if (eTag != null && random.nextBoolean()) {
+            request.header("If-Match", eTag);
+        }
+        HttpResponse<Void> response = client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+        response.headers().firstValue("ETag").ifPresent(value -> hotETags.put(id, value));
+        return response.statusCode();
+    }
+
+    private int send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(config.getDuration("request-timeout"));
+    }
+}
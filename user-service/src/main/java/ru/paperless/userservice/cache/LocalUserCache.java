@@ -0,0 +1,128 @@
+package ru.paperless.userservice.cache;
+
+import ru.paperless.userservice.model.DTO.UserResponseDTO;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class LocalUserCache implements UserCache {
+
+    private final Clock clock;
+
+    private final int maxSize;
+
+    private final long ttlMillis;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final LinkedHashMap<UUID, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    public LocalUserCache(Clock clock, int maxSize, Duration ttl) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache max size must be positive");
+        }
+        this.clock = clock;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    @Override
+    public Optional<UserResponseDTO> get(UUID id) {
+        lock.lock();
+        try {
+            return lookup(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void putIfAbsent(UserResponseDTO user) {
+        lock.lock();
+        try {
+            Entry existing = entries.get(user.id());
+            if (existing == null || isExpired(existing)) {
+                store(user);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(UserResponseDTO user) {
+        lock.lock();
+        try {
+            store(user);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void evict(UUID id) {
+        lock.lock();
+        try {
+            entries.remove(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public UserCacheStats stats() {
+        lock.lock();
+        try {
+            return new UserCacheStats(hits.sum(), misses.sum(), evictions.sum(), OptionalLong.of(entries.size()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Optional<UserResponseDTO> lookup(UUID id) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        if (isExpired(entry)) {
+            entries.remove(id);
+            evictions.increment();
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(entry.user());
+    }
+
+    private void store(UserResponseDTO user) {
+        entries.put(user.id(), new Entry(user, clock.millis() + ttlMillis));
+
+        Iterator<UUID> eldest = entries.keySet().iterator();
+        while (entries.size() > maxSize) {
+            eldest.next();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private boolean isExpired(Entry entry) {
+        return entry.expiresAt() <= clock.millis();
+    }
+
+    private record Entry(UserResponseDTO user, long expiresAt) {
+    }
+}
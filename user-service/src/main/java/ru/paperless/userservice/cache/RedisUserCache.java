@@ -0,0 +1,82 @@
+package ru.paperless.userservice.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import ru.paperless.userservice.model.DTO.UserResponseDTO;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+public class RedisUserCache implements UserCache {
+
+    private static final String ID_KEY = "pl:user:id:";
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final Duration ttl;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    public RedisUserCache(StringRedisTemplate redisTemplate, ObjectMapper objectMapper, Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public Optional<UserResponseDTO> get(UUID id) {
+        String value = redisTemplate.opsForValue().get(ID_KEY + id);
+        if (value == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(deserialize(value));
+    }
+
+    @Override
+    public void putIfAbsent(UserResponseDTO user) {
+        redisTemplate.opsForValue().setIfAbsent(ID_KEY + user.id(), serialize(user), ttl);
+    }
+
+    @Override
+    public void put(UserResponseDTO user) {
+        redisTemplate.opsForValue().set(ID_KEY + user.id(), serialize(user), ttl);
+    }
+
+    @Override
+    public void evict(UUID id) {
+        redisTemplate.delete(ID_KEY + id);
+    }
+
+    @Override
+    public UserCacheStats stats() {
+        // Вытеснение в Redis выполняется самим сервером (maxmemory-policy / TTL), а пересчёт
+        // ключей по префиксу обходит всё пространство ключей, поэтому размер не сообщается
+        return new UserCacheStats(hits.sum(), misses.sum(), 0, OptionalLong.empty());
+    }
+
+    private String serialize(UserResponseDTO user) {
+        try {
+            return objectMapper.writeValueAsString(user);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize user " + user.id(), e);
+        }
+    }
+
+    private UserResponseDTO deserialize(String value) {
+        try {
+            return objectMapper.readValue(value, UserResponseDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot deserialize cached user", e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package ru.paperless.userservice.cache;
+
+import ru.paperless.userservice.model.DTO.UserResponseDTO;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface UserCache {
+
+    Optional<UserResponseDTO> get(UUID id);
+
+    /**
+     * Используется на пути чтения: значение, загруженное из БД, не должно
+     * перетирать то, что уже положила в кэш закоммиченная запись.
+     */
+    void putIfAbsent(UserResponseDTO user);
+
+    void put(UserResponseDTO user);
+
+    void evict(UUID id);
+
+    UserCacheStats stats();
+}
@@ -0,0 +1,24 @@
+package ru.paperless.userservice.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.paperless.userservice.event.UserChangedEvent;
+
+@Component
+@RequiredArgsConstructor
+public class UserCacheInvalidationListener {
+
+    private final UserCache userCache;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserCommitted(UserChangedEvent event) {
+        userCache.put(event.current());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onUserRolledBack(UserChangedEvent event) {
+        userCache.evict(event.current().id());
+    }
+}
@@ -0,0 +1,33 @@
+package ru.paperless.userservice.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class UserCacheMetrics implements MeterBinder {
+
+    private final UserCache userCache;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("users.cache.hits", userCache, cache -> cache.stats().hits())
+                .description("Количество попаданий в кэш пользователей")
+                .register(registry);
+        FunctionCounter.builder("users.cache.misses", userCache, cache -> cache.stats().misses())
+                .description("Количество промахов кэша пользователей")
+                .register(registry);
+        FunctionCounter.builder("users.cache.evictions", userCache, cache -> cache.stats().evictions())
+                .description("Количество вытесненных записей кэша пользователей")
+                .register(registry);
+        if (userCache.stats().size().isPresent()) {
+            Gauge.builder("users.cache.size", userCache, cache -> cache.stats().size().orElse(0))
+                    .description("Текущий размер кэша пользователей")
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package ru.paperless.userservice.cache;
+
+import java.util.OptionalLong;
+
+/**
+ * @param size число записей; пусто, если кэш его не знает (Redis вытесняет записи сам)
+ */
+public record UserCacheStats(
+        long hits,
+        long misses,
+        long evictions,
+        OptionalLong size
+) {
+}
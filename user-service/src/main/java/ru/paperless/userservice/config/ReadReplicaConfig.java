@@ -0,0 +1,101 @@
+package ru.paperless.userservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import ru.paperless.userservice.datasource.ReadReplica;
+import ru.paperless.userservice.datasource.ReadReplicaMetrics;
+import ru.paperless.userservice.datasource.ReadReplicas;
+import ru.paperless.userservice.datasource.ReadYourWrites;
+import ru.paperless.userservice.datasource.ReplicaBalancing;
+import ru.paperless.userservice.datasource.ReplicaRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Маршрутизация read-only транзакций на реплики. Включается заданием
+ * {@code paperless.read-replicas.urls}; без него работает обычный пул из автоконфигурации.
+ */
+@Configuration
+@ConditionalOnProperty(name = "paperless.read-replicas.urls")
+public class ReadReplicaConfig {
+
+    // Пул primary не кандидат на внедрение: все, включая JPA и Flyway, получают маршрутизирующий прокси
+    @Bean(autowireCandidate = false)
+    public HikariDataSource primaryDataSource(DataSourceProperties properties, Environment environment) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties,
+                                 Environment environment,
+                                 ReadReplicas readReplicas,
+                                 ReadYourWrites readYourWrites) {
+        HikariDataSource primary = primaryDataSource(properties, environment);
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(new ReplicaRoutingDataSource(primary, readReplicas, readYourWrites));
+        return dataSource;
+    }
+
+    @Bean
+    public ReadReplicas readReplicas(
+            DataSourceProperties properties,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${paperless.read-replicas.urls}") List<String> urls,
+            @Value("${paperless.read-replicas.username:}") String username,
+            @Value("${paperless.read-replicas.password:}") String password,
+            @Value("${paperless.read-replicas.pool-size:10}") int poolSize,
+            @Value("${paperless.read-replicas.connection-timeout:2s}") Duration connectionTimeout,
+            @Value("${paperless.read-replicas.balancing:least-connections}") ReplicaBalancing balancing,
+            @Value("${paperless.read-replicas.max-lag:0s}") Duration maxLag) {
+        List<ReadReplica> replicas = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            String name = "replica-" + (i + 1);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName(name);
+            dataSource.setJdbcUrl(urls.get(i).trim());
+            dataSource.setDriverClassName(properties.determineDriverClassName());
+            dataSource.setUsername(username.isEmpty() ? properties.determineUsername() : username);
+            dataSource.setPassword(password.isEmpty() ? properties.determinePassword() : password);
+            dataSource.setMaximumPoolSize(poolSize);
+            dataSource.setReadOnly(true);
+            // Короткий таймаут — чтобы упавшая реплика быстро уступала primary, а не держала запрос
+            dataSource.setConnectionTimeout(connectionTimeout.toMillis());
+            // Сервис стартует и при недоступной реплике: она просто не попадёт в ротацию
+            dataSource.setInitializationFailTimeout(-1);
+            meterRegistry.ifAvailable(registry ->
+                    dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            replicas.add(new ReadReplica(name, dataSource));
+        }
+        return new ReadReplicas(replicas, balancing, maxLag, connectionTimeout);
+    }
+
+    @Bean
+    public ReadYourWrites readYourWrites(
+            @Value("${paperless.read-replicas.read-your-writes-window:2s}") Duration window,
+            @Value("${paperless.read-replicas.client-header:X-Client-Id}") String clientHeader) {
+        return new ReadYourWrites(window, clientHeader);
+    }
+
+    @Bean
+    public ReadReplicaMetrics readReplicaMetrics(ReadReplicas readReplicas, ReadYourWrites readYourWrites) {
+        return new ReadReplicaMetrics(readReplicas, readYourWrites);
+    }
+}
@@ -0,0 +1,35 @@
+package ru.paperless.userservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import ru.paperless.userservice.cache.LocalUserCache;
+import ru.paperless.userservice.cache.RedisUserCache;
+import ru.paperless.userservice.cache.UserCache;
+
+import java.time.Clock;
+import java.time.Duration;
+
+@Configuration
+public class UserCacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "paperless.user-cache.backend", havingValue = "local", matchIfMissing = true)
+    public UserCache localUserCache(
+            @Value("${paperless.user-cache.max-size:100000}") int maxSize,
+            @Value("${paperless.user-cache.ttl:10m}") Duration ttl) {
+        return new LocalUserCache(Clock.systemUTC(), maxSize, ttl);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "paperless.user-cache.backend", havingValue = "redis")
+    public UserCache redisUserCache(
+            StringRedisTemplate redisTemplate,
+            ObjectMapper objectMapper,
+            @Value("${paperless.user-cache.ttl:10m}") Duration ttl) {
+        return new RedisUserCache(redisTemplate, objectMapper, ttl);
+    }
+}
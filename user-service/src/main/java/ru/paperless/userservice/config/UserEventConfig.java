@@ -0,0 +1,15 @@
+package ru.paperless.userservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.paperless.userservice.outbox.UserEventLog;
+
+@Configuration
+public class UserEventConfig {
+
+    @Bean
+    public UserEventLog userEventLog(@Value("${paperless.user-events.buffer-size:10000}") int bufferSize) {
+        return new UserEventLog(bufferSize);
+    }
+}
@@ -1,19 +1,37 @@
 package ru.paperless.userservice.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.paperless.common.cbor.CborAutoConfiguration;
+import ru.paperless.userservice.model.DTO.UserBatchGetRequestDTO;
 import ru.paperless.userservice.model.DTO.UserCreateRequestDTO;
+import ru.paperless.userservice.model.DTO.UserImportReportDTO;
+import ru.paperless.userservice.model.DTO.UserPageResponseDTO;
 import ru.paperless.userservice.model.DTO.UserResponseDTO;
+import ru.paperless.userservice.model.DTO.UserTypeaheadResponseDTO;
 import ru.paperless.userservice.model.DTO.UserUpdateRequestDTO;
+import ru.paperless.userservice.service.UserImportService;
 import ru.paperless.userservice.service.UserService;
+import ru.paperless.userservice.typeahead.UserTypeaheadIndex;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
-import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -22,19 +40,111 @@ import java.util.UUID;
 @Tag(name = "Управление пользователями", description = "API`s для управления пользователями системы")
 public class UserController {
 
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
+    private static final MediaType APPLICATION_CBOR_SEQ =
+            MediaType.parseMediaType(CborAutoConfiguration.APPLICATION_CBOR_SEQ_VALUE);
+
+    private static final int DEFAULT_TYPEAHEAD_LIMIT = 10;
+
+    private static final int MAX_TYPEAHEAD_LIMIT = 50;
+
     private final UserService userService;
 
+    private final UserImportService userImportService;
+
+    private final ObjectMapper objectMapper;
+
+    private final MappingJackson2CborHttpMessageConverter cborConverter;
+
+    private final UserTypeaheadIndex userTypeaheadIndex;
+
     @GetMapping
-    @Operation(summary = "Получить список всех пользователей")
-    public ResponseEntity<List<UserResponseDTO>> getAllUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    @Operation(summary = "Получить страницу пользователей (keyset-пагинация по курсору)")
+    public ResponseEntity<UserPageResponseDTO> getAllUsers(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        UserPageResponseDTO page = userService.getAllUsers(cursor, limit);
+        return ResponseEntity.ok().eTag(UserETags.of(page)).varyBy(HttpHeaders.ACCEPT).body(page);
+    }
+
+    @GetMapping(path = "/export",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, CborAutoConfiguration.APPLICATION_CBOR_SEQ_VALUE})
+    @Operation(summary = "Потоковая выгрузка всех пользователей в NDJSON или, по Accept, последовательностью CBOR-значений (RFC 8742)")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
+        // CBOR только по явному запросу: клиенты без Accept по-прежнему получают NDJSON
+        if (accept != null && MediaType.parseMediaTypes(accept).stream()
+                .anyMatch(APPLICATION_CBOR_SEQ::equalsTypeAndSubtype)) {
+            return exportUsersAsCbor();
+        }
+        ObjectWriter writer = objectMapper.writerFor(UserResponseDTO.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            userService.exportUsers(user -> {
+                try {
+                    writer.writeValue(outputStream, user);
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            outputStream.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportUsersAsCbor() {
+        ObjectMapper cborMapper = cborConverter.getObjectMapper();
+        ObjectWriter writer = cborMapper.writerFor(UserResponseDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        // Один генератор на весь поток: значения пишутся подряд прямо в ответ, без буфера на запись
+        StreamingResponseBody body = outputStream -> {
+            JsonGenerator generator = cborMapper.createGenerator(outputStream)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            try (generator) {
+                userService.exportUsers(user -> {
+                    try {
+                        writer.writeValue(generator, user);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_CBOR_SEQ)
+                .body(body);
+    }
+
+    @GetMapping(path = "/typeahead")
+    @Operation(summary = "Подсказки пользователей по префиксу userName или email")
+    public ResponseEntity<UserTypeaheadResponseDTO> typeahead(
+            @RequestParam("q") String query,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        int size = limit == null ? DEFAULT_TYPEAHEAD_LIMIT : Math.max(1, Math.min(limit, MAX_TYPEAHEAD_LIMIT));
+        return ResponseEntity.ok(new UserTypeaheadResponseDTO(
+                userTypeaheadIndex.search(query, size),
+                userTypeaheadIndex.isReady()));
     }
 
     @GetMapping(path = "/{id}")
-    @Operation(summary = "Получить пользователя по ID")
+    @Operation(summary = "Получить пользователя по ID (ETag = версия, If-None-Match -> 304)")
     public ResponseEntity<UserResponseDTO> getUserById(
             @PathVariable("id") UUID id) {
-        return ResponseEntity.ok(userService.getUserById(id));
+        UserResponseDTO user = userService.getUserById(id);
+        return ResponseEntity.ok().eTag(UserETags.of(user)).varyBy(HttpHeaders.ACCEPT).body(user);
+    }
+
+    @PostMapping(path = "/batch-get")
+    @Operation(summary = "Получить пользователей по набору ID (ненайденные ID в ответ не попадают)")
+    public ResponseEntity<Map<UUID, UserResponseDTO>> getUsersByIds(
+            @Valid
+            @RequestBody UserBatchGetRequestDTO userBatchGetRequestDTO) {
+        return ResponseEntity.ok(userService.getUsersByIds(userBatchGetRequestDTO.ids()));
     }
 
     @PostMapping
@@ -46,14 +156,29 @@ public class UserController {
         return ResponseEntity
                 .status(HttpStatus.CREATED)
                 .location(URI.create("/api/v1/users/" + newUser.id()))
+                .eTag(UserETags.of(newUser))
                 .body(newUser);
     }
 
+    @PostMapping(path = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Массовое создание пользователей из JSON-массива (битая строка -> 400 с частичным отчётом)")
+    public ResponseEntity<UserImportReportDTO> importUsersFromJson(InputStream body) throws IOException {
+        return ResponseEntity.ok(userImportService.importJson(body));
+    }
+
+    @PostMapping(path = "/bulk", consumes = TEXT_CSV_VALUE)
+    @Operation(summary = "Массовое создание пользователей из CSV (userName,email; битая строка -> 400 с частичным отчётом)")
+    public ResponseEntity<UserImportReportDTO> importUsersFromCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(userImportService.importCsv(body));
+    }
+
     @PatchMapping(path = "/{id}")
-    @Operation(summary = "Обновление данных пользователя")
+    @Operation(summary = "Обновление данных пользователя (If-Match -> 412 при несовпадении версии)")
     public ResponseEntity<UserResponseDTO> updateUser(
             @PathVariable("id") UUID id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody UserUpdateRequestDTO userUpdateRequestDTO) {
-        return ResponseEntity.ok(userService.updateUser(id, userUpdateRequestDTO));
+        UserResponseDTO updated = userService.updateUser(id, userUpdateRequestDTO, UserETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(UserETags.of(updated)).body(updated);
     }
 }
@@ -0,0 +1,71 @@
+package ru.paperless.userservice.controller;
+
+import ru.paperless.userservice.model.DTO.UserPageResponseDTO;
+import ru.paperless.userservice.model.DTO.UserResponseDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ETag для пользователей: у ресурса — его {@code @Version}, у страницы — хэш пар (id, version)
+ * и курсора. Хэш считается по уже прочитанной странице без сериализации тела, поэтому на 304
+ * не тратится ни Jackson, ни сеть. Оба тега слабые: ответ с тем же тегом бывает в JSON и CBOR
+ * (Vary: Accept) и сжатым, байты у них разные, а Tomcat не сжимает ответы с сильным ETag.
+ * Для If-None-Match этого хватает.
+ */
+final class UserETags {
+
+    private UserETags() {
+    }
+
+    static String of(UserResponseDTO user) {
+        return "W/\"" + user.version() + "\"";
+    }
+
+    static String of(UserPageResponseDTO page) {
+        long hash = 0xcbf29ce484222325L;
+        for (UserResponseDTO user : page.items()) {
+            hash = mix(hash, user.id().getMostSignificantBits());
+            hash = mix(hash, user.id().getLeastSignificantBits());
+            hash = mix(hash, user.version());
+        }
+        hash = mix(hash, page.nextCursor() == null ? 0 : page.nextCursor().hashCode());
+        return "W/\"p-" + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * Версии из If-Match. {@code null} — заголовка нет или {@code *}. Принимаются и {@code W/"7"},
+     * и {@code "7"}: слабым тег сделан только из-за разных форматов ответа, а сама версия однозначно
+     * задаёт данные пользователя, так что сравнение версий остаётся точным. Нечисловые теги
+     * не совпадают ни с чем.
+     */
+    static List<Long> parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals("*")) {
+            return null;
+        }
+        List<Long> versions = new ArrayList<>();
+        for (String tag : ifMatch.split(",")) {
+            String value = tag.strip();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.length() < 3 || !value.startsWith("\"") || !value.endsWith("\"")) {
+                continue;
+            }
+            try {
+                versions.add(Long.parseLong(value.substring(1, value.length() - 1)));
+            } catch (NumberFormatException ignored) {
+                // Чужой тег (например, ETag страницы) не может совпасть с версией пользователя
+            }
+        }
+        return versions;
+    }
+
+    // FNV-1a по 64-битным словам с финальным перемешиванием из SplitMix64
+    private static long mix(long hash, long value) {
+        hash = (hash ^ value) * 0x100000001b3L;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        return hash ^ (hash >>> 33);
+    }
+}
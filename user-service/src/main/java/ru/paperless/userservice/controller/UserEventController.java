@@ -0,0 +1,48 @@
+package ru.paperless.userservice.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.paperless.userservice.model.DTO.UserEventPageDTO;
+import ru.paperless.userservice.outbox.UserEventFeed;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/api/v1/users/events")
+@RequiredArgsConstructor
+public class UserEventController {
+
+    private static final int DEFAULT_LIMIT = 100;
+
+    private static final int MAX_WAIT_SECONDS = 60;
+
+    private final UserEventFeed userEventFeed;
+
+    @GetMapping
+    @Operation(summary = "Изменения пользователей после смещения (long-poll)")
+    public DeferredResult<UserEventPageDTO> getEvents(
+            @RequestParam(name = "after", defaultValue = "0") long after,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @RequestParam(name = "waitSeconds", defaultValue = "30") int waitSeconds) {
+        int size = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, UserEventFeed.MAX_BATCH_SIZE));
+        Duration timeout = Duration.ofSeconds(Math.max(0, Math.min(waitSeconds, MAX_WAIT_SECONDS)));
+        return userEventFeed.poll(Math.max(0, after), size, timeout);
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Поток изменений пользователей (SSE), продолжает с Last-Event-ID")
+    public SseEmitter streamEvents(
+            @RequestParam(name = "after", required = false) Long after,
+            @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        long from = lastEventId != null ? lastEventId : after != null ? after : 0;
+        return userEventFeed.stream(Math.max(0, from));
+    }
+}
@@ -0,0 +1,56 @@
+package ru.paperless.userservice.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ReadReplica {
+
+    private final String name;
+
+    private final HikariDataSource dataSource;
+
+    private final LongAdder reads = new LongAdder();
+
+    private volatile boolean healthy = true;
+
+    public ReadReplica(String name, HikariDataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public HikariDataSource getDataSource() {
+        return dataSource;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    void setHealthy(boolean healthy) {
+        this.healthy = healthy;
+    }
+
+    public long getReads() {
+        return reads.sum();
+    }
+
+    public int getActiveConnections() {
+        // Пул стартует при первом запросе соединения, до этого MXBean нет
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getActiveConnections();
+    }
+
+    Connection getConnection() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        reads.increment();
+        return connection;
+    }
+}
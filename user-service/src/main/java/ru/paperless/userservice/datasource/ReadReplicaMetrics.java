@@ -0,0 +1,40 @@
+package ru.paperless.userservice.datasource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class ReadReplicaMetrics implements MeterBinder {
+
+    private final ReadReplicas replicas;
+
+    private final ReadYourWrites readYourWrites;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (ReadReplica replica : replicas.getReplicas()) {
+            FunctionCounter.builder("users.datasource.reads", replica, ReadReplica::getReads)
+                    .description("Количество read-only соединений, выданных репликой")
+                    .tag("target", replica.getName())
+                    .register(registry);
+            Gauge.builder("users.datasource.replica.healthy", replica, r -> r.isHealthy() ? 1 : 0)
+                    .description("Реплика в ротации (1) или выведена из неё (0)")
+                    .tag("replica", replica.getName())
+                    .register(registry);
+        }
+        FunctionCounter.builder("users.datasource.reads", replicas, ReadReplicas::getPinnedReads)
+                .description("Количество read-only соединений, выданных primary в окне read-your-writes")
+                .tag("target", "primary-pinned")
+                .register(registry);
+        FunctionCounter.builder("users.datasource.reads", replicas, ReadReplicas::getFallbackReads)
+                .description("Количество read-only соединений, выданных primary при недоступности реплик")
+                .tag("target", "primary-fallback")
+                .register(registry);
+        Gauge.builder("users.datasource.read-your-writes.clients", readYourWrites, ReadYourWrites::pinnedClients)
+                .description("Количество клиентов, читающих с primary после записи")
+                .register(registry);
+    }
+}
@@ -0,0 +1,155 @@
+package ru.paperless.userservice.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Набор реплик для чтения: выбор по round-robin или по числу занятых соединений и периодическая
+ * проверка доступности. Реплика, на которой не удалось взять соединение, выводится из ротации
+ * сразу, а возвращается только после успешной проверки.
+ */
+@Slf4j
+public class ReadReplicas implements AutoCloseable {
+
+    // На простаивающем primary время последней проигранной транзакции стареет само по себе,
+    // поэтому отставание считается только пока реплика не догнала полученный WAL
+    private static final String LAG_SQL = "select case when pg_is_in_recovery() "
+            + "and pg_last_wal_receive_lsn() is distinct from pg_last_wal_replay_lsn() "
+            + "then extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000 else 0 end";
+
+    private final List<ReadReplica> replicas;
+
+    private final ReplicaBalancing balancing;
+
+    private final Duration maxLag;
+
+    private final int validationTimeoutSeconds;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final LongAdder pinnedReads = new LongAdder();
+
+    private final LongAdder fallbackReads = new LongAdder();
+
+    public ReadReplicas(List<ReadReplica> replicas, ReplicaBalancing balancing, Duration maxLag, Duration validationTimeout) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("At least one read replica is required");
+        }
+        this.replicas = List.copyOf(replicas);
+        this.balancing = balancing;
+        this.maxLag = maxLag;
+        this.validationTimeoutSeconds = (int) Math.max(1, validationTimeout.toSeconds());
+    }
+
+    public List<ReadReplica> getReplicas() {
+        return replicas;
+    }
+
+    public long healthyCount() {
+        return replicas.stream().filter(ReadReplica::isHealthy).count();
+    }
+
+    public long getPinnedReads() {
+        return pinnedReads.sum();
+    }
+
+    public long getFallbackReads() {
+        return fallbackReads.sum();
+    }
+
+    void recordPinnedRead() {
+        pinnedReads.increment();
+    }
+
+    void recordFallbackRead() {
+        fallbackReads.increment();
+    }
+
+    /**
+     * @param excluded реплики, на которых в этом запросе уже не удалось взять соединение
+     * @return здоровая реплика или {@code null}, если таких не осталось
+     */
+    public ReadReplica select(Collection<ReadReplica> excluded) {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        ReadReplica selected = null;
+        int selectedConnections = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            ReadReplica replica = replicas.get((start + i) % size);
+            if (!replica.isHealthy() || excluded.contains(replica)) {
+                continue;
+            }
+            if (balancing == ReplicaBalancing.ROUND_ROBIN) {
+                return replica;
+            }
+            int connections = replica.getActiveConnections();
+            if (connections < selectedConnections) {
+                selected = replica;
+                selectedConnections = connections;
+            }
+        }
+        return selected;
+    }
+
+    public void markDown(ReadReplica replica, Exception cause) {
+        if (replica.isHealthy()) {
+            log.warn("Read replica {} is unavailable, routing reads elsewhere", replica.getName(), cause);
+        }
+        replica.setHealthy(false);
+    }
+
+    @Scheduled(fixedDelayString = "${paperless.read-replicas.health-check-interval:5s}")
+    public void checkHealth() {
+        for (ReadReplica replica : replicas) {
+            boolean healthy = isHealthy(replica);
+            if (healthy && !replica.isHealthy()) {
+                log.info("Read replica {} is back in rotation", replica.getName());
+            } else if (!healthy && replica.isHealthy()) {
+                log.warn("Read replica {} failed its health check and is out of rotation", replica.getName());
+            }
+            replica.setHealthy(healthy);
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.getDataSource().close());
+    }
+
+    private boolean isHealthy(ReadReplica replica) {
+        try (Connection connection = replica.getDataSource().getConnection()) {
+            if (!connection.isValid(validationTimeoutSeconds)) {
+                return false;
+            }
+            if (maxLag.isZero()) {
+                return true;
+            }
+            long lagMillis = lagMillis(connection);
+            if (lagMillis > maxLag.toMillis()) {
+                log.warn("Read replica {} lags behind primary by {} ms", replica.getName(), lagMillis);
+                return false;
+            }
+            return true;
+        } catch (SQLException e) {
+            log.debug("Health check of read replica {} failed", replica.getName(), e);
+            return false;
+        }
+    }
+
+    private long lagMillis(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(LAG_SQL)) {
+            return resultSet.next() ? resultSet.getLong(1) : 0;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package ru.paperless.userservice.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.paperless.userservice.event.UserChangedEvent;
+import ru.paperless.userservice.event.UsersImportedEvent;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Окно read-your-writes: после записи клиент какое-то время читает с primary, чтобы не увидеть
+ * на отстающей реплике состояние до собственного изменения. Клиент определяется заголовком
+ * (по умолчанию {@code X-Client-Id}), без него — адресом, с которого пришёл запрос.
+ */
+public class ReadYourWrites {
+
+    private final long windowNanos;
+
+    private final String clientHeader;
+
+    private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+
+    public ReadYourWrites(Duration window, String clientHeader) {
+        this.windowNanos = window.toNanos();
+        this.clientHeader = clientHeader;
+    }
+
+    public boolean isPinned() {
+        String client = currentClient();
+        if (client == null) {
+            return false;
+        }
+        Long until = pinnedUntil.get(client);
+        if (until == null) {
+            return false;
+        }
+        if (until - System.nanoTime() > 0) {
+            return true;
+        }
+        pinnedUntil.remove(client, until);
+        return false;
+    }
+
+    public int pinnedClients() {
+        return pinnedUntil.size();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserCommitted(UserChangedEvent event) {
+        recordWrite();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUsersImported(UsersImportedEvent event) {
+        recordWrite();
+    }
+
+    @Scheduled(fixedDelayString = "${paperless.read-replicas.health-check-interval:5s}")
+    public void evictExpired() {
+        long now = System.nanoTime();
+        pinnedUntil.values().removeIf(until -> until - now <= 0);
+    }
+
+    void recordWrite() {
+        String client = currentClient();
+        if (client != null && windowNanos > 0) {
+            pinnedUntil.put(client, System.nanoTime() + windowNanos);
+        }
+    }
+
+    private String currentClient() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return null;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        String client = request.getHeader(clientHeader);
+        return client == null || client.isBlank() ? request.getRemoteAddr() : client;
+    }
+}
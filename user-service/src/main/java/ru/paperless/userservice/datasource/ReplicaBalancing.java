@@ -0,0 +1,6 @@
+package ru.paperless.userservice.datasource;
+
+public enum ReplicaBalancing {
+    ROUND_ROBIN,
+    LEAST_CONNECTIONS
+}
@@ -0,0 +1,60 @@
+package ru.paperless.userservice.datasource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Источник соединений для read-only транзакций. Подключается как
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy#setReadOnlyDataSource read-only DataSource}:
+ * прокси берёт физическое соединение только на первом запросе, когда флаг readOnly транзакции уже выставлен.
+ * Если клиент недавно писал или живых реплик нет, соединение берётся с primary.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+
+    private final ReadReplicas replicas;
+
+    private final ReadYourWrites readYourWrites;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReadReplicas replicas, ReadYourWrites readYourWrites) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (readYourWrites.isPinned()) {
+            replicas.recordPinnedRead();
+            return primary.getConnection();
+        }
+        List<ReadReplica> failed = new ArrayList<>(1);
+        for (ReadReplica replica = replicas.select(failed); replica != null; replica = replicas.select(failed)) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                replicas.markDown(replica, e);
+                failed.add(replica);
+            }
+        }
+        replicas.recordFallbackRead();
+        return primary.getConnection();
+    }
+
+    /**
+     * Как и у Hikari, чужие учётные данные не поддерживаются: реплики ходят под учёткой своих пулов.
+     * {@link SQLFeatureNotSupportedException} остаётся в контракте {@link DataSource}, и вызывающий код
+     * обрабатывает его вместе с прочими {@link SQLException}.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Read replicas use the credentials of their pools");
+    }
+}
@@ -0,0 +1,9 @@
+package ru.paperless.userservice.event;
+
+import ru.paperless.userservice.model.DTO.UserResponseDTO;
+
+public record UserChangedEvent(
+        UserResponseDTO previous,
+        UserResponseDTO current
+) {
+}
@@ -0,0 +1,10 @@
+package ru.paperless.userservice.event;
+
+import ru.paperless.userservice.model.DTO.UserResponseDTO;
+
+import java.util.List;
+
+public record UsersImportedEvent(
+        List<UserResponseDTO> users
+) {
+}
@@ -0,0 +1,7 @@
+package ru.paperless.userservice.exception;
+
+public class EventOffsetExpiredException extends RuntimeException {
+    public EventOffsetExpiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.paperless.userservice.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,36 @@
+package ru.paperless.userservice.exception;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.paperless.userservice.model.entity.UserEntity;
+
+import java.util.Locale;
+
+public final class UserConstraintViolationTranslator {
+
+    private UserConstraintViolationTranslator() {
+    }
+
+    public static RuntimeException translate(DataIntegrityViolationException exception, String userName, String email) {
+        String violation = describeViolation(exception);
+
+        if (violation.contains(UserEntity.USER_NAME_CONSTRAINT) || violation.contains("(user_name)")) {
+            return new UserNameAlreadyExistsException("Уже существует пользователь с username: " + userName);
+        }
+        if (violation.contains(UserEntity.EMAIL_CONSTRAINT) || violation.contains("(email)")) {
+            return new EmailAlreadyExistsException("Уже существует пользователь с email: " + email);
+        }
+        return exception;
+    }
+
+    private static String describeViolation(DataIntegrityViolationException exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException constraintViolation
+                    && constraintViolation.getConstraintName() != null) {
+                return (constraintViolation.getConstraintName() + " " + constraintViolation.getMessage())
+                        .toLowerCase(Locale.ROOT);
+            }
+        }
+        return String.valueOf(exception.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+    }
+}
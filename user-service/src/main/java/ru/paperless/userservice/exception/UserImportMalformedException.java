@@ -0,0 +1,18 @@
+package ru.paperless.userservice.exception;
+
+import lombok.Getter;
+import ru.paperless.userservice.model.DTO.UserImportReportDTO;
+
+/**
+ * Поток импорта оборвался на неразбираемой строке; {@link #getReport()} — отчёт по уже обработанным строкам.
+ */
+@Getter
+public class UserImportMalformedException extends RuntimeException {
+
+    private final UserImportReportDTO report;
+
+    public UserImportMalformedException(String message, UserImportReportDTO report) {
+        super(message);
+        this.report = report;
+    }
+}
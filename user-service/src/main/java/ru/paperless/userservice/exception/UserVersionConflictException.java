@@ -0,0 +1,7 @@
+package ru.paperless.userservice.exception;
+
+public class UserVersionConflictException extends RuntimeException {
+    public UserVersionConflictException(String message) {
+        super(message);
+    }
+}
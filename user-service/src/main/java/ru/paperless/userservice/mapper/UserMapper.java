@@ -1,9 +1,13 @@
 package ru.paperless.userservice.mapper;
 
 import org.springframework.stereotype.Component;
+import ru.paperless.userservice.model.DTO.UserChangeEventDTO;
 import ru.paperless.userservice.model.DTO.UserCreateRequestDTO;
 import ru.paperless.userservice.model.DTO.UserResponseDTO;
 import ru.paperless.userservice.model.entity.UserEntity;
+import ru.paperless.userservice.model.entity.UserOutboxEntity;
+
+import java.util.UUID;
 
 @Component
 public class UserMapper {
@@ -12,7 +16,8 @@ public class UserMapper {
         return new UserResponseDTO(
                 userEntity.getId(),
                 userEntity.getUserName(),
-                userEntity.getEmail()
+                userEntity.getEmail(),
+                userEntity.getVersion()
         );
     }
 
@@ -22,8 +27,24 @@ public class UserMapper {
         }
         return UserEntity
                 .builder()
+                .id(UUID.randomUUID())
                 .userName(userCreateRequestDTO.userName())
                 .email(userCreateRequestDTO.email())
                 .build();
     }
+
+    public UserChangeEventDTO toEventDto(UserOutboxEntity outboxEntity) {
+        UserResponseDTO previous = outboxEntity.getPreviousUserName() == null
+                ? null
+                : new UserResponseDTO(outboxEntity.getUserId(), outboxEntity.getPreviousUserName(),
+                        outboxEntity.getPreviousEmail(), outboxEntity.getUserVersion() - 1);
+        return new UserChangeEventDTO(
+                outboxEntity.getEventOffset(),
+                outboxEntity.getEventType(),
+                previous,
+                new UserResponseDTO(outboxEntity.getUserId(), outboxEntity.getUserName(),
+                        outboxEntity.getEmail(), outboxEntity.getUserVersion()),
+                outboxEntity.getCreatedAt()
+        );
+    }
 }
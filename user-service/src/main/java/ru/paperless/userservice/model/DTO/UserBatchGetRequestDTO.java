@@ -0,0 +1,15 @@
+package ru.paperless.userservice.model.DTO;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.Set;
+import java.util.UUID;
+
+public record UserBatchGetRequestDTO(
+
+        @NotNull
+        @Size(max = 1000)
+        Set<UUID> ids
+) {
+}
@@ -0,0 +1,14 @@
+package ru.paperless.userservice.model.DTO;
+
+import ru.paperless.userservice.model.enums.UserEventType;
+
+import java.time.Instant;
+
+public record UserChangeEventDTO(
+        long offset,
+        UserEventType type,
+        UserResponseDTO previous,
+        UserResponseDTO current,
+        Instant occurredAt
+) {
+}
@@ -0,0 +1,11 @@
+package ru.paperless.userservice.model.DTO;
+
+import java.util.List;
+
+public record UserImportReportDTO(
+        int total,
+        int created,
+        int failed,
+        List<UserImportRowResultDTO> rows
+) {
+}
@@ -0,0 +1,15 @@
+package ru.paperless.userservice.model.DTO;
+
+import ru.paperless.userservice.model.enums.UserImportStatus;
+
+import java.util.UUID;
+
+public record UserImportRowResultDTO(
+        int row,
+        String userName,
+        String email,
+        UserImportStatus status,
+        UUID id,
+        String message
+) {
+}
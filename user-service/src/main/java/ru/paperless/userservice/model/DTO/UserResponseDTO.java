@@ -5,7 +5,11 @@ import java.util.UUID;
 public record UserResponseDTO(
         UUID id,
         String userName,
-        String email
+        String email,
+        long version
 ) {
 
+    public UserResponseDTO(UUID id, String userName, String email) {
+        this(id, userName, email, 0);
+    }
 }
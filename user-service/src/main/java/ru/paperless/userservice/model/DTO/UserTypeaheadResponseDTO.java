@@ -0,0 +1,9 @@
+package ru.paperless.userservice.model.DTO;
+
+import java.util.List;
+
+public record UserTypeaheadResponseDTO(
+        List<UserResponseDTO> items,
+        boolean complete
+) {
+}
@@ -2,6 +2,7 @@ package ru.paperless.userservice.model.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.springframework.data.domain.Persistable;
 
 import java.util.UUID;
 
@@ -11,15 +12,43 @@ import java.util.UUID;
 @Builder
 @Getter
 @Setter
-@Table(name = "pl_users")
-public class UserEntity {
+@Table(name = "pl_users", uniqueConstraints = {
+        @UniqueConstraint(name = UserEntity.USER_NAME_CONSTRAINT, columnNames = "user_name"),
+        @UniqueConstraint(name = UserEntity.EMAIL_CONSTRAINT, columnNames = "email")
+})
+public class UserEntity implements Persistable<UUID> {
+
+    public static final String USER_NAME_CONSTRAINT = "uk_pl_users_user_name";
+
+    public static final String EMAIL_CONSTRAINT = "uk_pl_users_email";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
     private UUID id;
 
-    @Column(name = "user_name", unique = true, nullable = false)
+    @Column(name = "user_name", nullable = false)
     private String userName;
 
-    @Column(name = "email", unique = true, nullable = false)
+    @Column(name = "email", nullable = false)
     private String email;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    @Transient
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean newEntity = true;
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        newEntity = false;
+    }
 }
@@ -0,0 +1,60 @@
+package ru.paperless.userservice.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import ru.paperless.userservice.model.enums.UserEventType;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Строка transactional outbox. Пишется в той же транзакции, что и изменение пользователя;
+ * {@code eventOffset} назначает релей при публикации, уникальный индекс на нём не даёт двум
+ * экземплярам выдать один и тот же номер.
+ */
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+@Table(name = "pl_user_outbox",
+        uniqueConstraints = @UniqueConstraint(name = "uk_pl_user_outbox_event_offset", columnNames = "event_offset"),
+        indexes = @Index(name = "ix_pl_user_outbox_published_at", columnList = "published_at"))
+public class UserOutboxEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_offset")
+    private Long eventOffset;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 16)
+    private UserEventType eventType;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "user_name", nullable = false)
+    private String userName;
+
+    @Column(name = "email", nullable = false)
+    private String email;
+
+    @Column(name = "user_version", nullable = false)
+    private long userVersion;
+
+    @Column(name = "previous_user_name")
+    private String previousUserName;
+
+    @Column(name = "previous_email")
+    private String previousEmail;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "published_at")
+    private Instant publishedAt;
+}
@@ -0,0 +1,6 @@
+package ru.paperless.userservice.model.enums;
+
+public enum UserEventType {
+    CREATED,
+    UPDATED
+}
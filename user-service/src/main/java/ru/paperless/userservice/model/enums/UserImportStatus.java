@@ -0,0 +1,11 @@
+package ru.paperless.userservice.model.enums;
+
+public enum UserImportStatus {
+    CREATED,
+    INVALID,
+    DUPLICATE_IN_REQUEST,
+    USER_NAME_EXISTS,
+    EMAIL_EXISTS,
+    FAILED,
+    MALFORMED
+}
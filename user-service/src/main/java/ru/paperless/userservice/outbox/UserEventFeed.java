@@ -0,0 +1,152 @@
+package ru.paperless.userservice.outbox;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.paperless.userservice.exception.EventOffsetExpiredException;
+import ru.paperless.userservice.mapper.UserMapper;
+import ru.paperless.userservice.model.DTO.UserChangeEventDTO;
+import ru.paperless.userservice.model.DTO.UserEventPageDTO;
+import ru.paperless.userservice.repository.UserOutboxRepository;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Лента изменений пользователей для других сервисов. Ожидание (long-poll и SSE) идёт на
+ * виртуальных потоках и не держит потоки Tomcat.
+ */
+@Slf4j
+@Service
+public class UserEventFeed {
+
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    private final UserEventLog eventLog;
+
+    private final UserOutboxRepository outboxRepository;
+
+    private final UserMapper userMapper;
+
+    private final Duration streamTimeout;
+
+    private final Duration heartbeatInterval;
+
+    private final ExecutorService waiters = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final AtomicInteger subscribers = new AtomicInteger();
+
+    public UserEventFeed(UserEventLog eventLog,
+                         UserOutboxRepository outboxRepository,
+                         UserMapper userMapper,
+                         @Value("${paperless.user-events.stream-timeout:30m}") Duration streamTimeout,
+                         @Value("${paperless.user-events.heartbeat-interval:15s}") Duration heartbeatInterval) {
+        this.eventLog = eventLog;
+        this.outboxRepository = outboxRepository;
+        this.userMapper = userMapper;
+        this.streamTimeout = streamTimeout;
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+    public UserEventPageDTO read(long after, int limit) {
+        List<UserChangeEventDTO> events = eventLog.read(after, limit).orElseGet(() -> readFromOutbox(after, limit));
+        return new UserEventPageDTO(events, events.isEmpty() ? after : events.get(events.size() - 1).offset());
+    }
+
+    public DeferredResult<UserEventPageDTO> poll(long after, int limit, Duration timeout) {
+        // Таймаут MVC чуть больше ожидания, чтобы пустой ответ отдал сам waiter
+        DeferredResult<UserEventPageDTO> result = new DeferredResult<>(timeout.plusSeconds(5).toMillis());
+        UserEventPageDTO page = read(after, limit);
+        if (!page.events().isEmpty() || timeout.isZero()) {
+            result.setResult(page);
+            return result;
+        }
+        waiters.execute(() -> {
+            try {
+                eventLog.awaitAfter(after, timeout);
+                result.setResult(read(after, limit));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result.setResult(page);
+            } catch (RuntimeException e) {
+                result.setErrorResult(e);
+            }
+        });
+        return result;
+    }
+
+    public SseEmitter stream(long after) {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        AtomicBoolean open = new AtomicBoolean(true);
+        emitter.onCompletion(() -> open.set(false));
+        emitter.onTimeout(() -> open.set(false));
+        emitter.onError(error -> open.set(false));
+        subscribers.incrementAndGet();
+        waiters.execute(() -> {
+            try {
+                pump(emitter, open, after);
+            } finally {
+                subscribers.decrementAndGet();
+            }
+        });
+        return emitter;
+    }
+
+    public int subscribers() {
+        return subscribers.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        waiters.shutdownNow();
+    }
+
+    private void pump(SseEmitter emitter, AtomicBoolean open, long after) {
+        long cursor = after;
+        try {
+            while (open.get()) {
+                UserEventPageDTO page = read(cursor, MAX_BATCH_SIZE);
+                if (page.events().isEmpty()) {
+                    if (!eventLog.awaitAfter(cursor, heartbeatInterval)) {
+                        emitter.send(SseEmitter.event().comment("keepalive"));
+                    }
+                    continue;
+                }
+                for (UserChangeEventDTO event : page.events()) {
+                    emitter.send(SseEmitter.event()
+                            .id(Long.toString(event.offset()))
+                            .name(event.type().name())
+                            .data(event));
+                }
+                cursor = page.nextOffset();
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("User event stream closed at offset {}", cursor, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            emitter.complete();
+        } catch (RuntimeException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    private List<UserChangeEventDTO> readFromOutbox(long after, int limit) {
+        long firstOffset = outboxRepository.findFirstOffset().orElse(eventLog.lastOffset() + 1);
+        if (after + 1 < firstOffset) {
+            throw new EventOffsetExpiredException(
+                    "События после смещения " + after + " уже удалены, начните с " + (firstOffset - 1));
+        }
+        return outboxRepository.findByEventOffsetGreaterThanOrderByEventOffsetAsc(after, Limit.of(limit)).stream()
+                .map(userMapper::toEventDto)
+                .toList();
+    }
+}
@@ -0,0 +1,118 @@
+package ru.paperless.userservice.outbox;
+
+import ru.paperless.userservice.model.DTO.UserChangeEventDTO;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Встроенный брокер: кольцевой буфер последних опубликованных событий с непрерывными смещениями.
+ * Подписчики, догнавшие хвост, читают отсюда и ждут новых событий на условии; отставшие
+ * дальше ёмкости буфера дочитывают из outbox-таблицы.
+ */
+public class UserEventLog {
+
+    private final UserChangeEventDTO[] events;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition appended = lock.newCondition();
+
+    // Смещение первого события в буфере и последнего опубликованного
+    private long firstOffset = 1;
+
+    private long lastOffset;
+
+    public UserEventLog(int capacity) {
+        this.events = new UserChangeEventDTO[capacity];
+    }
+
+    public void reset(long offset) {
+        lock.lock();
+        try {
+            firstOffset = offset + 1;
+            lastOffset = offset;
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long lastOffset() {
+        lock.lock();
+        try {
+            return lastOffset;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void append(List<UserChangeEventDTO> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            for (UserChangeEventDTO event : batch) {
+                if (event.offset() != lastOffset + 1) {
+                    throw new IllegalStateException(
+                            "Event offset " + event.offset() + " does not follow " + lastOffset);
+                }
+                events[slot(event.offset())] = event;
+                lastOffset = event.offset();
+            }
+            firstOffset = Math.max(firstOffset, lastOffset - events.length + 1);
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * События после {@code after}, не больше {@code limit}. Пусто, если нужная часть уже
+     * вытеснена из буфера — тогда читать надо из таблицы.
+     */
+    public Optional<List<UserChangeEventDTO>> read(long after, int limit) {
+        lock.lock();
+        try {
+            if (after + 1 < firstOffset) {
+                return Optional.empty();
+            }
+            long to = Math.min(lastOffset, after + limit);
+            List<UserChangeEventDTO> result = new ArrayList<>((int) Math.max(0, to - after));
+            for (long offset = after + 1; offset <= to; offset++) {
+                result.add(events[slot(offset)]);
+            }
+            return Optional.of(result);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ждёт, пока появится событие новее {@code after}. Возвращает false по таймауту.
+     */
+    public boolean awaitAfter(long after, Duration timeout) throws InterruptedException {
+        long remaining = timeout.toNanos();
+        lock.lock();
+        try {
+            while (lastOffset <= after) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = appended.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int slot(long offset) {
+        return (int) Math.floorMod(offset, (long) events.length);
+    }
+}
@@ -0,0 +1,32 @@
+package ru.paperless.userservice.outbox;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.paperless.userservice.repository.UserOutboxRepository;
+
+@Component
+@RequiredArgsConstructor
+public class UserEventMetrics implements MeterBinder {
+
+    private final UserEventLog eventLog;
+
+    private final UserEventFeed eventFeed;
+
+    private final UserOutboxRepository outboxRepository;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("users.events.offset", eventLog, UserEventLog::lastOffset)
+                .description("Смещение последнего опубликованного события пользователей")
+                .register(registry);
+        Gauge.builder("users.events.subscribers", eventFeed, UserEventFeed::subscribers)
+                .description("Открытые SSE-подписки на события пользователей")
+                .register(registry);
+        Gauge.builder("users.outbox.pending", outboxRepository, UserOutboxRepository::countByEventOffsetIsNull)
+                .description("Неопубликованные строки outbox")
+                .register(registry);
+    }
+}
@@ -0,0 +1,64 @@
+package ru.paperless.userservice.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.paperless.userservice.event.UserChangedEvent;
+import ru.paperless.userservice.event.UsersImportedEvent;
+import ru.paperless.userservice.model.DTO.UserResponseDTO;
+import ru.paperless.userservice.model.enums.UserEventType;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Пишет изменения пользователей в {@code pl_user_outbox}. Слушатели синхронные и требуют
+ * открытой транзакции: строка outbox коммитится или откатывается вместе с {@code pl_users}.
+ * Вставка идёт через JDBC-батч, потому что IDENTITY-ключ отключает батчи Hibernate,
+ * а импорт пишет по тысяче событий за раз.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserOutbox {
+
+    private static final String INSERT_SQL = """
+            insert into pl_user_outbox
+                (event_type, user_id, user_name, email, user_version, previous_user_name, previous_email, created_at)
+            values (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onUserChanged(UserChangedEvent event) {
+        UserEventType type = event.previous() == null ? UserEventType.CREATED : UserEventType.UPDATED;
+        append(type, List.of(event));
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onUsersImported(UsersImportedEvent event) {
+        append(UserEventType.CREATED, event.users().stream().map(user -> new UserChangedEvent(null, user)).toList());
+    }
+
+    private void append(UserEventType type, List<UserChangedEvent> changes) {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        jdbcTemplate.batchUpdate(INSERT_SQL, changes, changes.size(), (statement, change) -> {
+            UserResponseDTO current = change.current();
+            UserResponseDTO previous = change.previous();
+            statement.setString(1, type.name());
+            statement.setObject(2, current.id());
+            statement.setString(3, current.userName());
+            statement.setString(4, current.email());
+            statement.setLong(5, current.version());
+            statement.setString(6, previous == null ? null : previous.userName());
+            statement.setString(7, previous == null ? null : previous.email());
+            statement.setObject(8, now);
+        });
+    }
+}
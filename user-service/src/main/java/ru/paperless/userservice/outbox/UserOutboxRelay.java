@@ -0,0 +1,146 @@
+package ru.paperless.userservice.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.paperless.userservice.mapper.UserMapper;
+import ru.paperless.userservice.model.DTO.UserChangeEventDTO;
+import ru.paperless.userservice.repository.UserOutboxRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Публикует outbox в {@link UserEventLog}. Цикл в два шага:
+ * <ol>
+ *     <li>забирает неопубликованные строки ({@code for update skip locked}) и нумерует их подряд
+ *     от текущего максимума. Смещение N+1 можно выдать, только увидев закоммиченное N, а конкурирующий
+ *     экземпляр с тем же номером упирается в уникальный индекс и откатывается — поэтому смещения
+ *     идут без пропусков и коммитятся по порядку;</li>
+ *     <li>дочитывает в буфер всё новее последнего известного смещения — и свои, и чужие публикации.</li>
+ * </ol>
+ * Порядок гарантирован для событий одного пользователя: его изменения сериализуются блокировкой
+ * строки {@code pl_users}, значит, и IDENTITY-ключи outbox у них растут.
+ */
+@Slf4j
+@Component
+public class UserOutboxRelay {
+
+    private static final String CLAIM_SQL =
+            "select id from pl_user_outbox where event_offset is null order by id limit ? for update skip locked";
+
+    private static final String PUBLISH_SQL =
+            "update pl_user_outbox set event_offset = ?, published_at = ? where id = ?";
+
+    private final UserOutboxRepository outboxRepository;
+
+    private final UserMapper userMapper;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final UserEventLog eventLog;
+
+    private final int batchSize;
+
+    private final Duration retention;
+
+    private final ReentrantLock relayLock = new ReentrantLock();
+
+    private volatile boolean initialized;
+
+    public UserOutboxRelay(UserOutboxRepository outboxRepository,
+                           UserMapper userMapper,
+                           JdbcTemplate jdbcTemplate,
+                           TransactionTemplate transactionTemplate,
+                           UserEventLog eventLog,
+                           @Value("${paperless.user-events.batch-size:500}") int batchSize,
+                           @Value("${paperless.user-events.retention:7d}") Duration retention) {
+        this.outboxRepository = outboxRepository;
+        this.userMapper = userMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventLog = eventLog;
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${paperless.user-events.relay-interval:200ms}")
+    public void relay() {
+        if (!relayLock.tryLock()) {
+            return;
+        }
+        try {
+            if (!initialized) {
+                // История до старта в буфер не грузится: отставшие подписчики читают её из таблицы
+                eventLog.reset(outboxRepository.findLastOffset().orElse(0L));
+                initialized = true;
+            }
+            int claimed;
+            do {
+                claimed = claim();
+                tail();
+            } while (claimed == batchSize);
+        } finally {
+            relayLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${paperless.user-events.cleanup-interval:1h}")
+    public void deleteExpired() {
+        int deleted = outboxRepository.deletePublishedBefore(Instant.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Deleted {} user events older than {}", deleted, retention);
+        }
+    }
+
+    private int claim() {
+        try {
+            Integer claimed = transactionTemplate.execute(status -> {
+                List<Long> ids = jdbcTemplate.queryForList(CLAIM_SQL, Long.class, batchSize);
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                long offset = outboxRepository.findLastOffset().orElse(0L);
+                OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+                List<long[]> rows = new ArrayList<>(ids.size());
+                for (Long id : ids) {
+                    rows.add(new long[]{++offset, id});
+                }
+                jdbcTemplate.batchUpdate(PUBLISH_SQL, rows, rows.size(), (statement, row) -> {
+                    statement.setLong(1, row[0]);
+                    statement.setObject(2, now);
+                    statement.setLong(3, row[1]);
+                });
+                return ids.size();
+            });
+            return claimed == null ? 0 : claimed;
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Another relay published user events concurrently, retrying on the next run", e);
+            return 0;
+        }
+    }
+
+    private void tail() {
+        List<UserChangeEventDTO> events;
+        do {
+            events = outboxRepository
+                    .findByEventOffsetGreaterThanOrderByEventOffsetAsc(eventLog.lastOffset(), Limit.of(batchSize))
+                    .stream()
+                    .map(userMapper::toEventDto)
+                    .toList();
+            eventLog.append(events);
+        } while (events.size() == batchSize);
+    }
+}
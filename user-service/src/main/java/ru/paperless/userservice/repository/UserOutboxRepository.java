@@ -0,0 +1,39 @@
+package ru.paperless.userservice.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import ru.paperless.userservice.model.entity.UserOutboxEntity;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface UserOutboxRepository extends JpaRepository<UserOutboxEntity, Long> {
+
+    List<UserOutboxEntity> findByEventOffsetGreaterThanOrderByEventOffsetAsc(long eventOffset, Limit limit);
+
+    long countByEventOffsetIsNull();
+
+    @Query("select max(o.eventOffset) from UserOutboxEntity o")
+    Optional<Long> findLastOffset();
+
+    @Query("select min(o.eventOffset) from UserOutboxEntity o")
+    Optional<Long> findFirstOffset();
+
+    /**
+     * Удаляет опубликованные события старше {@code cutoff}. Строка с максимальным смещением остаётся
+     * всегда: от неё relay нумерует следующие события, и без неё смещения начались бы заново с 1.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            delete from UserOutboxEntity o
+            where o.publishedAt < :cutoff
+              and o.eventOffset < (select max(last.eventOffset) from UserOutboxEntity last)
+            """)
+    int deletePublishedBefore(@Param("cutoff") Instant cutoff);
+}
@@ -1,15 +1,46 @@
 package ru.paperless.userservice.repository;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.paperless.userservice.model.DTO.UserResponseDTO;
 import ru.paperless.userservice.model.entity.UserEntity;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface UserRepository extends JpaRepository<UserEntity, UUID> {
     List<UserEntity> id(UUID id);
 
-    boolean existsByEmail(String email);
+    List<UserEntity> findAllByOrderByIdAsc(Limit limit);
+
+    List<UserEntity> findByIdGreaterThanOrderByIdAsc(UUID id, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new ru.paperless.userservice.model.DTO.UserResponseDTO(u.id, u.userName, u.email, u.version) " +
+            "from UserEntity u order by u.id")
+    Stream<UserResponseDTO> streamAllOrderById();
+
+    // Один план запроса для любого размера пачки, в отличие от IN с переменным числом параметров
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    @Query(value = "select * from pl_users where id = any(:ids)", nativeQuery = true)
+    List<UserEntity> findAllByIdAny(@Param("ids") UUID[] ids);
+
+    // Проверки импорта: два поиска по массиву идут каждый по своему уникальному индексу с одним планом,
+    // а IN по тысяче параметров с OR разбирался и планировался заново и замедлялся с ростом таблицы
+    @Query(value = "select user_name from pl_users where user_name = any(:userNames)", nativeQuery = true)
+    List<String> findExistingUserNames(@Param("userNames") String[] userNames);
 
-    boolean existsByUserName(String userName);
+    @Query(value = "select email from pl_users where email = any(:emails)", nativeQuery = true)
+    List<String> findExistingEmails(@Param("emails") String[] emails);
 }
@@ -0,0 +1,322 @@
+package ru.paperless.userservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.paperless.userservice.event.UsersImportedEvent;
+import ru.paperless.userservice.exception.UserImportMalformedException;
+import ru.paperless.userservice.mapper.UserMapper;
+import ru.paperless.userservice.model.DTO.UserCreateRequestDTO;
+import ru.paperless.userservice.model.DTO.UserImportReportDTO;
+import ru.paperless.userservice.model.DTO.UserImportRowResultDTO;
+import ru.paperless.userservice.model.entity.UserEntity;
+import ru.paperless.userservice.model.enums.UserImportStatus;
+import ru.paperless.userservice.repository.UserRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@Timed(value = "users.import", histogram = true)
+@RequiredArgsConstructor
+public class UserImportService {
+
+    public static final int CHUNK_SIZE = 1000;
+
+    // Конфликт при вставке значит, что параллельно создали пользователя с тем же именем или email;
+    // повторная проверка находит его и отклоняет только эти строки
+    private static final int MAX_CHUNK_ATTEMPTS = 3;
+
+    private static final ObjectReader CSV_READER = new CsvMapper()
+            .enable(CsvParser.Feature.TRIM_SPACES)
+            .enable(CsvParser.Feature.SKIP_EMPTY_LINES)
+            .readerFor(UserCreateRequestDTO.class)
+            .with(CsvSchema.builder()
+                    .addColumn("userName")
+                    .addColumn("email")
+                    .build());
+
+    private final UserRepository userRepository;
+
+    private final UserMapper userMapper;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Validator validator;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public UserImportReportDTO importJson(InputStream inputStream) throws IOException {
+        try (MappingIterator<UserCreateRequestDTO> requests = objectMapper
+                .readerFor(UserCreateRequestDTO.class)
+                .readValues(inputStream)) {
+            return importRows(rowSource(requests, false));
+        }
+    }
+
+    public UserImportReportDTO importCsv(InputStream inputStream) throws IOException {
+        try (MappingIterator<UserCreateRequestDTO> requests = CSV_READER.readValues(inputStream)) {
+            return importRows(rowSource(requests, true));
+        }
+    }
+
+    public UserImportReportDTO importUsers(Iterator<UserCreateRequestDTO> requests) {
+        try {
+            return importRows(new RowSource() {
+                @Override
+                public boolean hasNext() {
+                    return requests.hasNext();
+                }
+
+                @Override
+                public UserCreateRequestDTO next() {
+                    return requests.next();
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Импортирует строки по чанкам. Если поток обрывается на неразбираемой строке, уже прочитанные строки
+     * всё равно импортируются (предыдущие чанки к этому моменту закоммичены), а клиент получает 400
+     * с частичным отчётом, последняя строка которого — та, что не разобралась.
+     */
+    private UserImportReportDTO importRows(RowSource requests) throws IOException {
+        List<UserImportRowResultDTO> results = new ArrayList<>();
+        Set<String> seenUserNames = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+        List<UserCreateRequestDTO> chunk = new ArrayList<>(CHUNK_SIZE);
+        int row = 0;
+        JsonProcessingException malformed = null;
+
+        while (true) {
+            try {
+                if (!requests.hasNext()) {
+                    break;
+                }
+                chunk.add(requests.next());
+            } catch (JsonProcessingException e) {
+                malformed = e;
+                break;
+            }
+            if (chunk.size() == CHUNK_SIZE) {
+                importChunk(chunk, row, seenUserNames, seenEmails, results);
+                row += chunk.size();
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, row, seenUserNames, seenEmails, results);
+        }
+
+        if (malformed != null) {
+            String message = "Строка не разобрана, импорт остановлен: " + malformed.getOriginalMessage();
+            results.add(rowResult(results.size() + 1, null, UserImportStatus.MALFORMED, message));
+            throw new UserImportMalformedException(message, report(results));
+        }
+        return report(results);
+    }
+
+    private UserImportReportDTO report(List<UserImportRowResultDTO> results) {
+        int created = (int) results.stream().filter(result -> result.status() == UserImportStatus.CREATED).count();
+        return new UserImportReportDTO(results.size(), created, results.size() - created, results);
+    }
+
+    private void importChunk(List<UserCreateRequestDTO> chunk,
+                             int firstRow,
+                             Set<String> seenUserNames,
+                             Set<String> seenEmails,
+                             List<UserImportRowResultDTO> results) {
+        UserImportRowResultDTO[] chunkResults = new UserImportRowResultDTO[chunk.size()];
+        List<Integer> candidates = new ArrayList<>(chunk.size());
+
+        for (int i = 0; i < chunk.size(); i++) {
+            UserCreateRequestDTO request = chunk.get(i);
+            int row = firstRow + i + 1;
+            if (request == null) {
+                chunkResults[i] = rowResult(row, null, UserImportStatus.INVALID, "Пустая строка импорта");
+                continue;
+            }
+            Set<ConstraintViolation<UserCreateRequestDTO>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                chunkResults[i] = rowResult(row, request, UserImportStatus.INVALID, violationsMessage(violations));
+            } else if (seenUserNames.contains(request.userName())) {
+                chunkResults[i] = rowResult(row, request, UserImportStatus.DUPLICATE_IN_REQUEST,
+                        "username повторяется в запросе: " + request.userName());
+            } else if (seenEmails.contains(request.email())) {
+                chunkResults[i] = rowResult(row, request, UserImportStatus.DUPLICATE_IN_REQUEST,
+                        "email повторяется в запросе: " + request.email());
+            } else {
+                // Занимаем имя и email только принятой строкой: отклонённая не должна блокировать следующие
+                seenUserNames.add(request.userName());
+                seenEmails.add(request.email());
+                candidates.add(i);
+            }
+        }
+
+        if (!candidates.isEmpty()) {
+            insertCandidates(chunk, firstRow, candidates, chunkResults);
+        }
+        results.addAll(List.of(chunkResults));
+    }
+
+    private void insertCandidates(List<UserCreateRequestDTO> chunk,
+                                  int firstRow,
+                                  List<Integer> candidates,
+                                  UserImportRowResultDTO[] chunkResults) {
+        String[] userNames = new String[candidates.size()];
+        String[] emails = new String[candidates.size()];
+        for (int i = 0; i < candidates.size(); i++) {
+            userNames[i] = chunk.get(candidates.get(i)).userName();
+            emails[i] = chunk.get(candidates.get(i)).email();
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                tryInsertCandidates(chunk, firstRow, candidates, chunkResults, userNames, emails);
+                return;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == MAX_CHUNK_ATTEMPTS) {
+                    log.warn("Bulk import chunk starting at row {} rolled back {} times due to concurrent inserts",
+                            firstRow + 1, attempt, e);
+                    for (int index : candidates) {
+                        chunkResults[index] = rowResult(firstRow + index + 1, chunk.get(index), UserImportStatus.FAILED,
+                                "Конфликт уникальности при вставке, повторите импорт строки");
+                    }
+                    return;
+                }
+                log.debug("Bulk import chunk starting at row {} hit a concurrent insert, re-checking", firstRow + 1);
+            }
+        }
+    }
+
+    private void tryInsertCandidates(List<UserCreateRequestDTO> chunk,
+                                     int firstRow,
+                                     List<Integer> candidates,
+                                     UserImportRowResultDTO[] chunkResults,
+                                     String[] userNames,
+                                     String[] emails) {
+        transactionTemplate.execute(status -> {
+            Set<String> existingUserNames = new HashSet<>(userRepository.findExistingUserNames(userNames));
+            Set<String> existingEmails = new HashSet<>(userRepository.findExistingEmails(emails));
+            List<UserEntity> newUsers = new ArrayList<>(candidates.size());
+
+            for (int index : candidates) {
+                UserCreateRequestDTO request = chunk.get(index);
+                int row = firstRow + index + 1;
+                if (existingUserNames.contains(request.userName())) {
+                    chunkResults[index] = rowResult(row, request, UserImportStatus.USER_NAME_EXISTS,
+                            "Уже существует пользователь с username: " + request.userName());
+                } else if (existingEmails.contains(request.email())) {
+                    chunkResults[index] = rowResult(row, request, UserImportStatus.EMAIL_EXISTS,
+                            "Уже существует пользователь с email: " + request.email());
+                } else {
+                    UserEntity user = userMapper.toEntity(request);
+                    newUsers.add(user);
+                    chunkResults[index] = new UserImportRowResultDTO(
+                            row, request.userName(), request.email(), UserImportStatus.CREATED, user.getId(), null);
+                }
+            }
+            userRepository.saveAll(newUsers);
+            userRepository.flush();
+            entityManager.clear();
+            if (!newUsers.isEmpty()) {
+                eventPublisher.publishEvent(new UsersImportedEvent(newUsers.stream().map(userMapper::toDto).toList()));
+            }
+            return null;
+        });
+    }
+
+    private UserImportRowResultDTO rowResult(int row, UserCreateRequestDTO request, UserImportStatus status, String message) {
+        return new UserImportRowResultDTO(
+                row,
+                request == null ? null : request.userName(),
+                request == null ? null : request.email(),
+                status,
+                null,
+                message);
+    }
+
+    private String violationsMessage(Set<ConstraintViolation<UserCreateRequestDTO>> violations) {
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    /**
+     * В CSV заголовок {@code userName,email} необязателен: первая строка, совпадающая с ним, пропускается.
+     */
+    private RowSource rowSource(MappingIterator<UserCreateRequestDTO> requests, boolean skipCsvHeader) {
+        return new RowSource() {
+
+            private boolean headerChecked = !skipCsvHeader;
+
+            private UserCreateRequestDTO pending;
+
+            @Override
+            public boolean hasNext() throws IOException {
+                if (!headerChecked) {
+                    headerChecked = true;
+                    if (requests.hasNextValue()) {
+                        UserCreateRequestDTO first = requests.nextValue();
+                        pending = isCsvHeader(first) ? null : first;
+                    }
+                }
+                return pending != null || requests.hasNextValue();
+            }
+
+            @Override
+            public UserCreateRequestDTO next() throws IOException {
+                if (pending != null) {
+                    UserCreateRequestDTO next = pending;
+                    pending = null;
+                    return next;
+                }
+                return requests.nextValue();
+            }
+        };
+    }
+
+    private static boolean isCsvHeader(UserCreateRequestDTO row) {
+        return row != null && "userName".equalsIgnoreCase(row.userName()) && "email".equalsIgnoreCase(row.email());
+    }
+
+    /**
+     * Источник строк импорта: в отличие от {@link Iterator} пробрасывает ошибки разбора потока.
+     */
+    private interface RowSource {
+
+        boolean hasNext() throws IOException;
+
+        UserCreateRequestDTO next() throws IOException;
+    }
+}
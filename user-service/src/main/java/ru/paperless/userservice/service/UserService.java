@@ -1,59 +1,130 @@
 package ru.paperless.userservice.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.paperless.userservice.exception.EmailAlreadyExistsException;
+import ru.paperless.userservice.cache.UserCache;
+import ru.paperless.userservice.event.UserChangedEvent;
+import ru.paperless.userservice.exception.InvalidCursorException;
+import ru.paperless.userservice.exception.UserConstraintViolationTranslator;
 import ru.paperless.userservice.exception.UserNotFoundException;
-import ru.paperless.userservice.exception.UserNameAlreadyExistsException;
+import ru.paperless.userservice.exception.UserVersionConflictException;
 import ru.paperless.userservice.mapper.UserMapper;
 import ru.paperless.userservice.model.DTO.UserCreateRequestDTO;
+import ru.paperless.userservice.model.DTO.UserPageResponseDTO;
 import ru.paperless.userservice.model.DTO.UserResponseDTO;
 import ru.paperless.userservice.model.DTO.UserUpdateRequestDTO;
 import ru.paperless.userservice.model.entity.UserEntity;
 import ru.paperless.userservice.repository.UserRepository;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "users.service", histogram = true)
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class UserService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    public static final int MAX_PAGE_SIZE = 500;
+
     private final UserRepository userRepository;
 
     private final UserMapper userMapper;
 
-    public List<UserResponseDTO> getAllUsers() {
-        return userRepository.findAll().stream().map(userMapper::toDto).toList();
+    private final UserCache userCache;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public UserPageResponseDTO getAllUsers(String cursor, Integer limit) {
+        int pageSize = normalizePageSize(limit);
+        Limit fetchLimit = Limit.of(pageSize + 1);
+
+        List<UserEntity> users = cursor == null || cursor.isBlank()
+                ? userRepository.findAllByOrderByIdAsc(fetchLimit)
+                : userRepository.findByIdGreaterThanOrderByIdAsc(decodeCursor(cursor), fetchLimit);
+
+        boolean hasNext = users.size() > pageSize;
+        List<UserEntity> page = hasNext ? users.subList(0, pageSize) : users;
+        String nextCursor = hasNext ? encodeCursor(page.get(page.size() - 1).getId()) : null;
+
+        return new UserPageResponseDTO(page.stream().map(userMapper::toDto).toList(), nextCursor);
+    }
+
+    public void exportUsers(Consumer<UserResponseDTO> consumer) {
+        try (Stream<UserResponseDTO> users = userRepository.streamAllOrderById()) {
+            users.forEach(consumer);
+        }
     }
 
     public UserResponseDTO getUserById(UUID id) {
-        return userMapper.toDto(getUserEntityById(id));
+        return userCache.get(id).orElseGet(() -> {
+            UserResponseDTO user = userMapper.toDto(getUserEntityById(id));
+            userCache.putIfAbsent(user);
+            return user;
+        });
+    }
+
+    /**
+     * Пакетное чтение для других сервисов: сначала кэш, промахи — одним запросом к БД.
+     * Ненайденные ID в ответ не попадают.
+     */
+    public Map<UUID, UserResponseDTO> getUsersByIds(Collection<UUID> ids) {
+        Map<UUID, UserResponseDTO> users = new LinkedHashMap<>();
+        List<UUID> misses = new ArrayList<>();
+        for (UUID id : new LinkedHashSet<>(ids)) {
+            userCache.get(id).ifPresentOrElse(user -> users.put(id, user), () -> misses.add(id));
+        }
+        if (!misses.isEmpty()) {
+            for (UserEntity entity : userRepository.findAllByIdAny(misses.toArray(UUID[]::new))) {
+                UserResponseDTO user = userMapper.toDto(entity);
+                userCache.putIfAbsent(user);
+                users.put(user.id(), user);
+            }
+        }
+        return users;
     }
 
     @Transactional
     public UserResponseDTO createUser(UserCreateRequestDTO userCreateRequestDTO) {
-        userCreateRequestValidation(userCreateRequestDTO);
-        return userMapper.toDto(userRepository.save(userMapper.toEntity(userCreateRequestDTO)));
+        if (userCreateRequestDTO == null) {
+            throw new IllegalArgumentException("User create request cannot be null");
+        }
+        UserResponseDTO user = userMapper.toDto(saveAndFlush(
+                userMapper.toEntity(userCreateRequestDTO),
+                userCreateRequestDTO.userName(),
+                userCreateRequestDTO.email()));
+        eventPublisher.publishEvent(new UserChangedEvent(null, user));
+        return user;
     }
 
+    /**
+     * @param expectedVersions версии из If-Match; {@code null} — без предусловия,
+     *                         пустой набор — ни одна версия не подходит
+     */
     @Transactional
-    public UserResponseDTO updateUser(UUID id, UserUpdateRequestDTO userUpdateRequestDTO) {
+    public UserResponseDTO updateUser(UUID id, UserUpdateRequestDTO userUpdateRequestDTO, Collection<Long> expectedVersions) {
         UserEntity user = getUserEntityById(id);
-
-        if (userUpdateRequestDTO.userName() != null &&
-                !user.getUserName().equals(userUpdateRequestDTO.userName()) &&
-                userRepository.existsByUserName(userUpdateRequestDTO.userName())) {
-            throw new UserNameAlreadyExistsException("Уже существует пользователь с username: " + userUpdateRequestDTO.userName());
-        }
-
-        if (userUpdateRequestDTO.email() != null &&
-                !user.getEmail().equals(userUpdateRequestDTO.email()) &&
-                userRepository.existsByEmail(userUpdateRequestDTO.email())) {
-            throw new EmailAlreadyExistsException("Уже существует пользователь с email: " + userUpdateRequestDTO.email());
+        if (expectedVersions != null && !expectedVersions.contains(user.getVersion())) {
+            throw versionConflict(id);
         }
+        UserResponseDTO previous = userMapper.toDto(user);
 
         if (userUpdateRequestDTO.userName() != null) {
             user.setUserName(userUpdateRequestDTO.userName());
@@ -61,7 +132,17 @@ public class UserService {
         if (userUpdateRequestDTO.email() != null) {
             user.setEmail(userUpdateRequestDTO.email());
         }
-        return userMapper.toDto(userRepository.save(user));
+        userCache.evict(id);
+        UserEntity saved;
+        try {
+            saved = saveAndFlush(user, userUpdateRequestDTO.userName(), userUpdateRequestDTO.email());
+        } catch (OptimisticLockingFailureException e) {
+            // Параллельное обновление успело закоммитить новую версию между чтением и записью
+            throw expectedVersions != null ? versionConflict(id) : e;
+        }
+        UserResponseDTO updated = userMapper.toDto(saved);
+        eventPublisher.publishEvent(new UserChangedEvent(previous, updated));
+        return updated;
     }
 
     private UserEntity getUserEntityById(UUID id) {
@@ -70,15 +151,43 @@ public class UserService {
                 .orElseThrow(() -> new UserNotFoundException("Пользователь с ID: " + id + " не найден"));
     }
 
-    private void userCreateRequestValidation(UserCreateRequestDTO userCreateRequestDTO) {
-        if (userCreateRequestDTO == null) {
-            throw new IllegalArgumentException("User create request cannot be null");
+    private UserVersionConflictException versionConflict(UUID id) {
+        return new UserVersionConflictException("Версия пользователя с ID: " + id + " не совпадает с If-Match");
+    }
+
+    private UserEntity saveAndFlush(UserEntity user, String userName, String email) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw UserConstraintViolationTranslator.translate(e, userName, email);
+        }
+    }
+
+    private int normalizePageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
         }
-        if (userRepository.existsByUserName(userCreateRequestDTO.userName())) {
-            throw new UserNameAlreadyExistsException("Уже существует пользователь с username: " + userCreateRequestDTO.userName());
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private String encodeCursor(UUID id) {
+        ByteBuffer buffer = ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    private UUID decodeCursor(String cursor) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Некорректный курсор: " + cursor);
         }
-        if (userRepository.existsByEmail(userCreateRequestDTO.email())) {
-            throw new EmailAlreadyExistsException("Уже существует пользователь с email: " + userCreateRequestDTO.email());
+        if (bytes.length != 16) {
+            throw new InvalidCursorException("Некорректный курсор: " + cursor);
         }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
     }
 }
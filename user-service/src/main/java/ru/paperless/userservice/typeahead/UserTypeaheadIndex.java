@@ -0,0 +1,243 @@
+package ru.paperless.userservice.typeahead;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.paperless.userservice.event.UserChangedEvent;
+import ru.paperless.userservice.event.UsersImportedEvent;
+import ru.paperless.userservice.model.DTO.UserResponseDTO;
+import ru.paperless.userservice.service.UserService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Префиксный индекс для подсказок: отсортированная карта «терм в нижнем регистре → пользователи»
+ * по userName и email. Поиск — один {@code subMap} по диапазону [префикс, префикс + U+FFFF) без блокировок;
+ * записи (создание и изменение пользователей) редки и идут под одной блокировкой, чтобы точно
+ * вести счётчики. Индекс строится при старте потоковым чтением всех пользователей, пока он строится,
+ * поиск отвечает по уже загруженной части.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserTypeaheadIndex {
+
+    private static final UserResponseDTO[] NO_USERS = new UserResponseDTO[0];
+
+    private final UserService userService;
+
+    private final ConcurrentSkipListMap<String, UserResponseDTO[]> terms = new ConcurrentSkipListMap<>();
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    // Пользователи, изменённые во время построения: их актуальное состояние уже пришло событием
+    private final Set<UUID> changedDuringBuild = ConcurrentHashMap.newKeySet();
+
+    private long termCount;
+
+    private long userCount;
+
+    private long estimatedBytes;
+
+    private volatile boolean ready;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long started = System.nanoTime();
+        userService.exportUsers(user -> {
+            writeLock.lock();
+            try {
+                if (!changedDuringBuild.contains(user.id())) {
+                    add(user);
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        });
+        ready = true;
+        changedDuringBuild.clear();
+        UserTypeaheadStats stats = stats();
+        log.info("Typeahead index built: {} users, {} terms, ~{} bytes per user in {} ms",
+                stats.users(), stats.terms(), Math.round(stats.bytesPerUser()),
+                Duration.ofNanos(System.nanoTime() - started).toMillis());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        writeLock.lock();
+        try {
+            if (!ready) {
+                changedDuringBuild.add(event.current().id());
+            }
+            if (event.previous() != null) {
+                remove(event.previous());
+            }
+            add(event.current());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUsersImported(UsersImportedEvent event) {
+        event.users().forEach(this::add);
+    }
+
+    public List<UserResponseDTO> search(String prefix, int limit) {
+        String from = normalize(prefix);
+        if (from.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Map<UUID, UserResponseDTO> matches = new LinkedHashMap<>();
+        for (UserResponseDTO[] users : terms.subMap(from, true, from + Character.MAX_VALUE, false).values()) {
+            for (UserResponseDTO user : users) {
+                matches.putIfAbsent(user.id(), user);
+                if (matches.size() == limit) {
+                    return new ArrayList<>(matches.values());
+                }
+            }
+        }
+        return new ArrayList<>(matches.values());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public UserTypeaheadStats stats() {
+        writeLock.lock();
+        try {
+            return new UserTypeaheadStats(termCount, userCount, estimatedBytes, ready);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    void add(UserResponseDTO user) {
+        writeLock.lock();
+        try {
+            boolean added = addTerm(user.userName(), user);
+            addTerm(user.email(), user);
+            if (added) {
+                userCount++;
+                estimatedBytes += MemoryEstimates.user(user);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void remove(UserResponseDTO user) {
+        boolean removed = removeTerm(user.userName(), user.id());
+        removeTerm(user.email(), user.id());
+        if (removed) {
+            userCount--;
+            estimatedBytes -= MemoryEstimates.user(user);
+        }
+    }
+
+    // Методы ниже вызываются только под writeLock, поэтому get/put не гоняются друг с другом
+    private boolean addTerm(String value, UserResponseDTO user) {
+        String term = normalize(value);
+        UserResponseDTO[] existing = terms.getOrDefault(term, NO_USERS);
+        UserResponseDTO[] updated = Arrays.copyOf(existing, existing.length + 1);
+        int index = existing.length;
+        for (int i = 0; i < existing.length; i++) {
+            if (existing[i].id().equals(user.id())) {
+                updated = existing.clone();
+                index = i;
+                break;
+            }
+        }
+        updated[index] = user;
+        terms.put(term, updated);
+        boolean added = index == existing.length;
+        if (existing.length == 0) {
+            termCount++;
+        }
+        if (added) {
+            estimatedBytes += MemoryEstimates.term(term, value, updated.length)
+                    - (existing.length == 0 ? 0 : MemoryEstimates.term(term, value, existing.length));
+        }
+        return added;
+    }
+
+    private boolean removeTerm(String value, UUID id) {
+        String term = normalize(value);
+        UserResponseDTO[] existing = terms.get(term);
+        if (existing == null) {
+            return false;
+        }
+        UserResponseDTO[] updated = Arrays.stream(existing)
+                .filter(user -> !user.id().equals(id))
+                .toArray(UserResponseDTO[]::new);
+        if (updated.length == existing.length) {
+            return false;
+        }
+        estimatedBytes -= MemoryEstimates.term(term, value, existing.length);
+        if (updated.length == 0) {
+            terms.remove(term);
+            termCount--;
+        } else {
+            terms.put(term, updated);
+            estimatedBytes += MemoryEstimates.term(term, value, updated.length);
+        }
+        return true;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.strip().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Оценка занимаемой памяти для 64-битной JVM со сжатыми указателями. Фактический расход
+     * на большом наборе меряет UserTypeaheadBenchmark в paperless-benchmarks.
+     */
+    static final class MemoryEstimates {
+
+        // Узел ConcurrentSkipListMap (24) и в среднем треть индексного узла (24 / 3)
+        private static final long SKIP_LIST_ENTRY = 24 + 8;
+
+        private MemoryEstimates() {
+        }
+
+        // Если значение уже в нижнем регистре, normalize возвращает ту же строку, что лежит в DTO
+        static long term(String term, String source, int users) {
+            return SKIP_LIST_ENTRY + (term == source ? 0 : string(term)) + align(16 + 4L * users);
+        }
+
+        static long user(UserResponseDTO user) {
+            // Сам DTO (24), UUID (32) и его строки
+            return 24 + 32 + string(user.userName()) + string(user.email());
+        }
+
+        private static long string(String value) {
+            if (value == null) {
+                return 0;
+            }
+            boolean latin1 = value.chars().allMatch(c -> c < 256);
+            return 24 + align(16 + (latin1 ? value.length() : 2L * value.length()));
+        }
+
+        private static long align(long bytes) {
+            return (bytes + 7) & ~7L;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package ru.paperless.userservice.typeahead;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class UserTypeaheadMetrics implements MeterBinder {
+
+    private final UserTypeaheadIndex userTypeaheadIndex;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("users.typeahead.users", userTypeaheadIndex, index -> index.stats().users())
+                .description("Пользователи в индексе подсказок")
+                .register(registry);
+        Gauge.builder("users.typeahead.terms", userTypeaheadIndex, index -> index.stats().terms())
+                .description("Термы в индексе подсказок")
+                .register(registry);
+        Gauge.builder("users.typeahead.estimated.bytes", userTypeaheadIndex, index -> index.stats().estimatedBytes())
+                .description("Оценка памяти, занятой индексом подсказок")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("users.typeahead.bytes.per.user", userTypeaheadIndex, index -> index.stats().bytesPerUser())
+                .description("Оценка памяти индекса подсказок на одного пользователя")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+}
@@ -0,0 +1,13 @@
+package ru.paperless.userservice.typeahead;
+
+public record UserTypeaheadStats(
+        long terms,
+        long users,
+        long estimatedBytes,
+        boolean ready
+) {
+
+    public double bytesPerUser() {
+        return users == 0 ? 0 : (double) estimatedBytes / users;
+    }
+}
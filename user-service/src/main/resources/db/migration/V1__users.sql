@@ -0,0 +1,34 @@
+-- Схема user-service. Базы, созданные раньше через ddl-auto=update, получают baseline 0
+-- и проходят эту миграцию как no-op: все операторы идемпотентны.
+
+create table if not exists pl_users (
+    id        uuid         not null,
+    user_name varchar(255) not null,
+    email     varchar(255) not null,
+    version   bigint       default 0 not null,
+    primary key (id),
+    constraint uk_pl_users_user_name unique (user_name),
+    constraint uk_pl_users_email unique (email)
+);
+
+alter table pl_users add column if not exists version bigint default 0 not null;
+
+create table if not exists pl_user_outbox (
+    id                 bigint generated by default as identity,
+    event_offset       bigint,
+    event_type         varchar(16)  not null check (event_type in ('CREATED', 'UPDATED')),
+    user_id            uuid         not null,
+    user_name          varchar(255) not null,
+    email              varchar(255) not null,
+    user_version       bigint       default 0 not null,
+    previous_user_name varchar(255),
+    previous_email     varchar(255),
+    created_at         timestamp(6) with time zone not null,
+    published_at       timestamp(6) with time zone,
+    primary key (id),
+    constraint uk_pl_user_outbox_event_offset unique (event_offset)
+);
+
+alter table pl_user_outbox add column if not exists user_version bigint default 0 not null;
+
+create index if not exists ix_pl_user_outbox_published_at on pl_user_outbox (published_at);
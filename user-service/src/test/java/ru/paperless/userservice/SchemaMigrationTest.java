@@ -0,0 +1,65 @@
+package ru.paperless.userservice;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.paperless.userservice.model.entity.UserEntity;
+import ru.paperless.userservice.repository.UserRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Схему в проде создаёт Flyway, а Hibernate её только проверяет (ddl-auto=validate). Остальные
+ * тесты идут на H2 со схемой от Hibernate, поэтому расхождение миграций и сущностей видно только здесь:
+ * контекст с основными настройками поднимается на настоящем Postgres.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest
+public class SchemaMigrationTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void migrationsProduceSchemaThatEntitiesValidateAgainst() {
+        List<String> applied = jdbcTemplate.queryForList(
+                "select version from flyway_user_service_history where success order by installed_rank", String.class);
+
+        assertEquals(List.of("1"), applied);
+    }
+
+    @Test
+    void versionDefaultComesFromMigration() {
+        UUID id = UUID.randomUUID();
+        // Строка без версии, как у базы, созданной до появления колонки
+        jdbcTemplate.update("insert into pl_users (id, user_name, email) values (?, 'legacy', 'legacy@example.com')", id);
+
+        UserEntity user = userRepository.findById(id).orElseThrow();
+
+        assertEquals(0, user.getVersion());
+        user.setEmail("legacy_new@example.com");
+        assertEquals(1, userRepository.saveAndFlush(user).getVersion());
+    }
+}
@@ -0,0 +1,94 @@
+package ru.paperless.userservice.cache;
+
+import org.junit.jupiter.api.Test;
+import ru.paperless.userservice.model.DTO.UserResponseDTO;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalUserCacheTest {
+
+    private final MutableClock clock = new MutableClock();
+
+    private final UUID id = UUID.fromString("ef428bb1-e5ae-441d-afb6-e8f5b5e7670a");
+
+    @Test
+    void putReplacesPreviousVersion() {
+        LocalUserCache cache = new LocalUserCache(clock, 10, Duration.ofMinutes(1));
+
+        cache.put(new UserResponseDTO(id, "old_username", "admin@example.com"));
+        cache.put(new UserResponseDTO(id, "new_username", "admin@example.com"));
+
+        assertEquals("new_username", cache.get(id).orElseThrow().userName());
+        assertEquals(1, cache.stats().hits());
+        assertEquals(1, cache.stats().size().getAsLong());
+    }
+
+    @Test
+    void putIfAbsentDoesNotOverwriteCommittedValue() {
+        LocalUserCache cache = new LocalUserCache(clock, 10, Duration.ofMinutes(1));
+
+        cache.put(new UserResponseDTO(id, "new_username", "admin@example.com"));
+        cache.putIfAbsent(new UserResponseDTO(id, "old_username", "admin@example.com"));
+
+        assertEquals("new_username", cache.get(id).orElseThrow().userName());
+    }
+
+    @Test
+    void evictLeastRecentlyUsedWhenFull() {
+        LocalUserCache cache = new LocalUserCache(clock, 2, Duration.ofMinutes(1));
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+
+        cache.put(new UserResponseDTO(first, "user1", "user1@example.com"));
+        cache.put(new UserResponseDTO(second, "user2", "user2@example.com"));
+        cache.get(first);
+        cache.put(new UserResponseDTO(third, "user3", "user3@example.com"));
+
+        assertTrue(cache.get(first).isPresent());
+        assertTrue(cache.get(second).isEmpty());
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    @Test
+    void expireEntriesAfterTtl() {
+        LocalUserCache cache = new LocalUserCache(clock, 10, Duration.ofSeconds(30));
+
+        cache.put(new UserResponseDTO(id, "admin", "admin@example.com"));
+        clock.advance(Duration.ofSeconds(31));
+
+        assertTrue(cache.get(id).isEmpty());
+        assertEquals(0, cache.stats().size().getAsLong());
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
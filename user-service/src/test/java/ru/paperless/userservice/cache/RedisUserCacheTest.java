@@ -0,0 +1,99 @@
+package ru.paperless.userservice.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.paperless.userservice.model.DTO.UserResponseDTO;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testcontainers(disabledWithoutDocker = true)
+public class RedisUserCacheTest {
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+
+    private static StringRedisTemplate redisTemplate;
+
+    private final UUID id = UUID.fromString("ef428bb1-e5ae-441d-afb6-e8f5b5e7670a");
+
+    private final UUID otherId = UUID.fromString("0b7f3c52-8f0e-4a53-9d7c-3f1f0e6d2a11");
+
+    private RedisUserCache cache;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(REDIS.getHost(), REDIS.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.getRequiredConnectionFactory().getConnection().serverCommands().flushAll();
+        cache = new RedisUserCache(redisTemplate, new ObjectMapper(), Duration.ofMinutes(1));
+    }
+
+    @Test
+    void putReplacesPreviousVersion() {
+        cache.put(new UserResponseDTO(id, "old_username", "admin@example.com", 1));
+        cache.put(new UserResponseDTO(id, "new_username", "admin@example.com", 2));
+
+        assertEquals(2, cache.get(id).orElseThrow().version());
+        assertTrue(redisTemplate.getExpire("pl:user:id:" + id) > 0);
+    }
+
+    @Test
+    void evictRemovesOnlyThatUser() {
+        cache.put(new UserResponseDTO(id, "admin", "admin@example.com"));
+        UserResponseDTO other = new UserResponseDTO(otherId, "other", "other@example.com");
+        cache.put(other);
+
+        cache.evict(id);
+
+        assertTrue(cache.get(id).isEmpty());
+        assertEquals(other, cache.get(otherId).orElseThrow());
+    }
+
+    @Test
+    void putIfAbsentKeepsCommittedValue() {
+        UserResponseDTO committed = new UserResponseDTO(id, "new_username", "admin@example.com", 2);
+        cache.put(committed);
+
+        cache.putIfAbsent(new UserResponseDTO(id, "old_username", "admin@example.com", 1));
+
+        assertEquals(committed, cache.get(id).orElseThrow());
+    }
+
+    @Test
+    void statsCountHitsAndMissesWithoutSize() {
+        cache.put(new UserResponseDTO(id, "admin", "admin@example.com"));
+
+        cache.get(id);
+        cache.get(otherId);
+
+        UserCacheStats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertTrue(stats.size().isEmpty());
+    }
+}
@@ -0,0 +1,35 @@
+package ru.paperless.userservice.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class UserCacheMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void registerSizeGaugeForLocalCache() {
+        new UserCacheMetrics(new LocalUserCache(Clock.systemUTC(), 10, Duration.ofMinutes(1))).bindTo(registry);
+
+        assertEquals(0, registry.get("users.cache.size").gauge().value());
+    }
+
+    @Test
+    void skipSizeGaugeWhenCacheDoesNotKnowSize() {
+        UserCache cache = mock(UserCache.class);
+        when(cache.stats()).thenReturn(new UserCacheStats(0, 0, 0, OptionalLong.empty()));
+
+        new UserCacheMetrics(cache).bindTo(registry);
+
+        assertNull(registry.find("users.cache.size").gauge());
+        assertNotNull(registry.find("users.cache.hits").functionCounter());
+    }
+}
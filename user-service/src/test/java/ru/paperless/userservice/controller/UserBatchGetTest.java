@@ -0,0 +1,82 @@
+package ru.paperless.userservice.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import ru.paperless.userservice.model.DTO.UserBatchGetRequestDTO;
+import ru.paperless.userservice.model.DTO.UserCreateRequestDTO;
+import ru.paperless.userservice.model.DTO.UserResponseDTO;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Квота заведомо меньше пачки запросов ниже: batch-get должен идти мимо неё
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "paperless.rate-limit.requests-per-second=1",
+        "paperless.rate-limit.burst=20"
+})
+@ActiveProfiles("test")
+public class UserBatchGetTest {
+
+    private static final ParameterizedTypeReference<Map<UUID, UserResponseDTO>> USER_MAP =
+            new ParameterizedTypeReference<>() {
+            };
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void batchGetReturnsFoundUsersKeyedById() {
+        Set<UUID> created = IntStream.range(0, 5)
+                .mapToObj(i -> restTemplate.postForObject("/api/v1/users",
+                        new UserCreateRequestDTO("batch_" + i, "batch_" + i + "@example.com"), UserResponseDTO.class))
+                .map(UserResponseDTO::id)
+                .collect(Collectors.toSet());
+        UUID unknown = UUID.randomUUID();
+        Set<UUID> requested = new HashSet<>(created);
+        requested.add(unknown);
+
+        ResponseEntity<Map<UUID, UserResponseDTO>> response = restTemplate.exchange("/api/v1/users/batch-get",
+                HttpMethod.POST, new HttpEntity<>(new UserBatchGetRequestDTO(requested)), USER_MAP);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(created, response.getBody().keySet());
+        response.getBody().forEach((id, user) -> assertEquals(id, user.id()));
+    }
+
+    @Test
+    void coalescedBurstFromDocumentServiceIsNotRateLimited() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Client-Id", "document-service");
+        HttpEntity<UserBatchGetRequestDTO> batch = new HttpEntity<>(new UserBatchGetRequestDTO(Set.of(UUID.randomUUID())), headers);
+
+        for (int i = 0; i < 200; i++) {
+            assertEquals(HttpStatus.OK, restTemplate.exchange("/api/v1/users/batch-get", HttpMethod.POST, batch, USER_MAP)
+                    .getStatusCode());
+        }
+    }
+
+    @Test
+    void batchGetRejectsTooManyIds() {
+        Set<UUID> ids = IntStream.range(0, 1001).mapToObj(i -> UUID.randomUUID()).collect(Collectors.toSet());
+
+        ResponseEntity<String> response = restTemplate.postForEntity("/api/v1/users/batch-get",
+                new UserBatchGetRequestDTO(ids), String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+}
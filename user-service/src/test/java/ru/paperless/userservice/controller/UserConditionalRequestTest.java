@@ -0,0 +1,109 @@
+package ru.paperless.userservice.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import ru.paperless.userservice.model.DTO.UserCreateRequestDTO;
+import ru.paperless.userservice.model.DTO.UserPageResponseDTO;
+import ru.paperless.userservice.model.DTO.UserResponseDTO;
+import ru.paperless.userservice.model.DTO.UserUpdateRequestDTO;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class UserConditionalRequestTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void getWithMatchingIfNoneMatchReturnsNotModified() {
+        UserResponseDTO user = create("etag_user");
+
+        ResponseEntity<UserResponseDTO> first = restTemplate.getForEntity("/api/v1/users/" + user.id(), UserResponseDTO.class);
+        assertEquals("W/\"0\"", first.getHeaders().getETag());
+
+        ResponseEntity<String> second = restTemplate.exchange("/api/v1/users/" + user.id(), HttpMethod.GET,
+                new HttpEntity<>(headers(HttpHeaders.IF_NONE_MATCH, first.getHeaders().getETag())), String.class);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, second.getStatusCode());
+        assertNull(second.getBody());
+    }
+
+    @Test
+    void patchHonoursIfMatch() {
+        UserResponseDTO user = create("if_match_user");
+        String url = "/api/v1/users/" + user.id();
+        String etag = restTemplate.getForEntity(url, UserResponseDTO.class).getHeaders().getETag();
+
+        ResponseEntity<UserResponseDTO> updated = restTemplate.exchange(url, HttpMethod.PATCH,
+                new HttpEntity<>(new UserUpdateRequestDTO("if_match_user_v1", null), headers(HttpHeaders.IF_MATCH, etag)),
+                UserResponseDTO.class);
+        assertEquals(HttpStatus.OK, updated.getStatusCode());
+        assertEquals(1, updated.getBody().version());
+        assertEquals("W/\"1\"", updated.getHeaders().getETag());
+
+        ResponseEntity<String> stale = restTemplate.exchange(url, HttpMethod.PATCH,
+                new HttpEntity<>(new UserUpdateRequestDTO("if_match_user_v2", null), headers(HttpHeaders.IF_MATCH, "\"0\"")),
+                String.class);
+        assertEquals(HttpStatus.PRECONDITION_FAILED, stale.getStatusCode());
+        assertEquals("if_match_user_v1", restTemplate.getForObject(url, UserResponseDTO.class).userName());
+    }
+
+    @Test
+    void jsonAndCborRepresentationsShareWeakETag() {
+        UserResponseDTO user = create("representation_etag_user");
+        String url = "/api/v1/users/" + user.id();
+        HttpHeaders cbor = new HttpHeaders();
+        cbor.setAccept(List.of(MediaType.APPLICATION_CBOR));
+
+        ResponseEntity<String> json = restTemplate.getForEntity(url, String.class);
+        ResponseEntity<byte[]> binary = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(cbor), byte[].class);
+
+        // Байты представлений разные, поэтому сильный тег у них совпадать не может
+        assertEquals(MediaType.APPLICATION_CBOR, binary.getHeaders().getContentType());
+        assertTrue(json.getHeaders().getETag().startsWith("W/"));
+        assertEquals(json.getHeaders().getETag(), binary.getHeaders().getETag());
+        assertTrue(json.getHeaders().getVary().contains(HttpHeaders.ACCEPT));
+    }
+
+    @Test
+    void collectionETagChangesWhenUserOnPageChanges() {
+        UserResponseDTO user = create("page_etag_user");
+        ResponseEntity<UserPageResponseDTO> page = restTemplate.getForEntity("/api/v1/users?limit=500", UserPageResponseDTO.class);
+        String etag = page.getHeaders().getETag();
+
+        ResponseEntity<String> unchanged = restTemplate.exchange("/api/v1/users?limit=500", HttpMethod.GET,
+                new HttpEntity<>(headers(HttpHeaders.IF_NONE_MATCH, etag)), String.class);
+        assertEquals(HttpStatus.NOT_MODIFIED, unchanged.getStatusCode());
+
+        restTemplate.exchange("/api/v1/users/" + user.id(), HttpMethod.PATCH,
+                new HttpEntity<>(new UserUpdateRequestDTO(null, "page_etag_user_new@example.com")), UserResponseDTO.class);
+        ResponseEntity<String> changed = restTemplate.exchange("/api/v1/users?limit=500", HttpMethod.GET,
+                new HttpEntity<>(headers(HttpHeaders.IF_NONE_MATCH, etag)), String.class);
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertNotEquals(etag, changed.getHeaders().getETag());
+    }
+
+    private UserResponseDTO create(String userName) {
+        return restTemplate.postForObject("/api/v1/users",
+                new UserCreateRequestDTO(userName, userName + "@example.com"), UserResponseDTO.class);
+    }
+
+    private static HttpHeaders headers(String name, String value) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(name, value);
+        return headers;
+    }
+}
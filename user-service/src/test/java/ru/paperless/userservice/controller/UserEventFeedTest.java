@@ -0,0 +1,112 @@
+package ru.paperless.userservice.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.context.ActiveProfiles;
+import ru.paperless.userservice.model.DTO.UserChangeEventDTO;
+import ru.paperless.userservice.model.DTO.UserCreateRequestDTO;
+import ru.paperless.userservice.model.DTO.UserEventPageDTO;
+import ru.paperless.userservice.model.DTO.UserResponseDTO;
+import ru.paperless.userservice.model.DTO.UserUpdateRequestDTO;
+import ru.paperless.userservice.model.enums.UserEventType;
+import ru.paperless.userservice.repository.UserOutboxRepository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class UserEventFeedTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserOutboxRepository outboxRepository;
+
+    @Test
+    void createAndUpdateArePublishedInOrder() {
+        long start = outboxRepository.findLastOffset().orElse(0L);
+        UserResponseDTO created = restTemplate.postForObject("/api/v1/users",
+                new UserCreateRequestDTO("feed_user", "feed_user@example.com"), UserResponseDTO.class);
+        restTemplate.exchange("/api/v1/users/" + created.id(), HttpMethod.PATCH,
+                new HttpEntity<>(new UserUpdateRequestDTO("feed_user_renamed", null)), UserResponseDTO.class);
+
+        List<UserChangeEventDTO> events = new ArrayList<>();
+        long after = start;
+        for (int attempt = 0; attempt < 10 && events.size() < 2; attempt++) {
+            UserEventPageDTO page = restTemplate.getForObject(
+                    "/api/v1/users/events?after={after}&waitSeconds=2", UserEventPageDTO.class, after);
+            page.events().stream().filter(event -> event.current().id().equals(created.id())).forEach(events::add);
+            after = page.nextOffset();
+        }
+
+        assertEquals(2, events.size());
+        assertEquals(UserEventType.CREATED, events.get(0).type());
+        assertNull(events.get(0).previous());
+        assertEquals(UserEventType.UPDATED, events.get(1).type());
+        assertEquals("feed_user", events.get(1).previous().userName());
+        assertEquals("feed_user_renamed", events.get(1).current().userName());
+        assertTrue(events.get(0).offset() < events.get(1).offset());
+    }
+
+    @Test
+    void failedCreateDoesNotReachOutbox() {
+        restTemplate.postForObject("/api/v1/users",
+                new UserCreateRequestDTO("feed_dup", "feed_dup@example.com"), UserResponseDTO.class);
+        long before = outboxRepository.count();
+
+        restTemplate.postForEntity("/api/v1/users",
+                new UserCreateRequestDTO("feed_dup", "feed_dup2@example.com"), String.class);
+
+        assertEquals(before, outboxRepository.count());
+    }
+
+    @Test
+    void longPollReturnsEmptyPageAfterTimeout() {
+        long last = restTemplate.getForObject("/api/v1/users/events?after=0&limit=1000&waitSeconds=0",
+                UserEventPageDTO.class).nextOffset();
+
+        UserEventPageDTO page = restTemplate.getForObject(
+                "/api/v1/users/events?after={after}&waitSeconds=1", UserEventPageDTO.class, last + 1000);
+
+        assertTrue(page.events().isEmpty());
+        assertEquals(last + 1000, page.nextOffset());
+    }
+
+    @Test
+    void cleanupKeepsOffsetsGrowing() {
+        UserResponseDTO first = restTemplate.postForObject("/api/v1/users",
+                new UserCreateRequestDTO("feed_cleanup1", "feed_cleanup1@example.com"), UserResponseDTO.class);
+        long published = awaitOffsetOf(first.id(), 0);
+
+        outboxRepository.deletePublishedBefore(Instant.now().plusSeconds(60));
+        assertEquals(published, outboxRepository.findLastOffset().orElseThrow());
+
+        UserResponseDTO second = restTemplate.postForObject("/api/v1/users",
+                new UserCreateRequestDTO("feed_cleanup2", "feed_cleanup2@example.com"), UserResponseDTO.class);
+        assertTrue(awaitOffsetOf(second.id(), published) > published);
+    }
+
+    private long awaitOffsetOf(UUID userId, long after) {
+        for (int attempt = 0; attempt < 10; attempt++) {
+            UserEventPageDTO page = restTemplate.getForObject(
+                    "/api/v1/users/events?after={after}&waitSeconds=2", UserEventPageDTO.class, after);
+            for (UserChangeEventDTO event : page.events()) {
+                if (event.current().id().equals(userId)) {
+                    return event.offset();
+                }
+            }
+            after = page.nextOffset();
+        }
+        throw new AssertionError("Event for user " + userId + " was not published");
+    }
+}
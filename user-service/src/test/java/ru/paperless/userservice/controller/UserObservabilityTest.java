@@ -0,0 +1,42 @@
+package ru.paperless.userservice.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import ru.paperless.userservice.model.DTO.UserCreateRequestDTO;
+import ru.paperless.userservice.model.DTO.UserResponseDTO;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability
+@ActiveProfiles("test")
+public class UserObservabilityTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void prometheusEndpointExposesRequestServiceAndPersistenceMetrics() {
+        UserResponseDTO created = restTemplate.postForObject("/api/v1/users",
+                new UserCreateRequestDTO("observed", "observed@example.com"), UserResponseDTO.class);
+        restTemplate.getForObject("/api/v1/users/{id}", UserResponseDTO.class, created.id());
+
+        ResponseEntity<String> response = restTemplate.getForEntity("/actuator/prometheus", String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        String metrics = response.getBody();
+        assertTrue(metrics.contains("http_server_requests_seconds_bucket{"));
+        assertTrue(metrics.contains("uri=\"/api/v1/users/{id}\""));
+        assertTrue(metrics.contains("users_service_seconds_count{"));
+        assertTrue(metrics.contains("method=\"createUser\""));
+        assertTrue(metrics.contains("http_server_requests_queries_sum{"));
+        assertTrue(metrics.contains("hibernate_statements_total"));
+        assertTrue(metrics.contains("hikaricp_connections_max"));
+    }
+}
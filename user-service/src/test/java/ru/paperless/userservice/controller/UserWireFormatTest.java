@@ -0,0 +1,125 @@
+package ru.paperless.userservice.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import ru.paperless.userservice.model.DTO.UserBatchGetRequestDTO;
+import ru.paperless.userservice.model.DTO.UserCreateRequestDTO;
+import ru.paperless.userservice.model.DTO.UserResponseDTO;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class UserWireFormatTest {
+
+    private static final MediaType APPLICATION_CBOR_SEQ = MediaType.parseMediaType("application/cbor-seq");
+
+    private final CBORMapper cborMapper = new CBORMapper();
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void userIsServedAsCborOnRequest() throws Exception {
+        UserResponseDTO user = create("cbor_user");
+
+        ResponseEntity<byte[]> response = restTemplate.exchange("/api/v1/users/" + user.id(), HttpMethod.GET,
+                new HttpEntity<>(accept(MediaType.APPLICATION_CBOR)), byte[].class);
+
+        assertEquals(MediaType.APPLICATION_CBOR, response.getHeaders().getContentType());
+        assertTrue(response.getHeaders().getVary().contains(HttpHeaders.ACCEPT));
+        assertEquals(user, cborMapper.readValue(response.getBody(), UserResponseDTO.class));
+    }
+
+    @Test
+    void batchGetAcceptsAndReturnsCbor() throws Exception {
+        UserResponseDTO user = create("cbor_batch_user");
+        HttpHeaders headers = accept(MediaType.APPLICATION_CBOR);
+        headers.setContentType(MediaType.APPLICATION_CBOR);
+        byte[] body = cborMapper.writeValueAsBytes(new UserBatchGetRequestDTO(Set.of(user.id())));
+
+        byte[] response = restTemplate.exchange("/api/v1/users/batch-get", HttpMethod.POST,
+                new HttpEntity<>(body, headers), byte[].class).getBody();
+
+        Map<UUID, UserResponseDTO> users = cborMapper.readValue(response, new TypeReference<>() {
+        });
+        assertEquals(Map.of(user.id(), user), users);
+    }
+
+    @Test
+    void exportStreamsCborSequence() throws Exception {
+        UserResponseDTO user = create("cbor_export_user");
+
+        ResponseEntity<byte[]> response = restTemplate.exchange("/api/v1/users/export", HttpMethod.GET,
+                new HttpEntity<>(accept(APPLICATION_CBOR_SEQ)), byte[].class);
+
+        assertEquals(APPLICATION_CBOR_SEQ, response.getHeaders().getContentType());
+        List<UserResponseDTO> users = cborMapper.readerFor(UserResponseDTO.class)
+                .<UserResponseDTO>readValues(response.getBody())
+                .readAll();
+        assertTrue(users.contains(user));
+    }
+
+    @Test
+    void exportDefaultsToNdjson() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/v1/users/export", String.class);
+
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+    }
+
+    @Test
+    void largeResponsesAreCompressed() throws Exception {
+        IntStream.range(0, 40).forEach(i -> create("gzip_user_" + i));
+        HttpClient client = HttpClient.newHttpClient();
+
+        HttpResponse<byte[]> compressed = client.send(HttpRequest.newBuilder(uri("/api/v1/users?limit=40"))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+        HttpResponse<byte[]> small = client.send(HttpRequest.newBuilder(uri("/api/v1/users?limit=1"))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals("gzip", compressed.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null));
+        assertTrue(compressed.headers().firstValue(HttpHeaders.ETAG).orElseThrow().startsWith("W/"));
+        assertTrue(small.headers().firstValue(HttpHeaders.CONTENT_ENCODING).isEmpty());
+    }
+
+    private UserResponseDTO create(String userName) {
+        return restTemplate.postForObject("/api/v1/users",
+                new UserCreateRequestDTO(userName, userName + "@example.com"), UserResponseDTO.class);
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static HttpHeaders accept(MediaType mediaType) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(mediaType));
+        return headers;
+    }
+}
@@ -0,0 +1,96 @@
+package ru.paperless.userservice.datasource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import ru.paperless.userservice.model.DTO.UserCreateRequestDTO;
+import ru.paperless.userservice.model.DTO.UserPageResponseDTO;
+import ru.paperless.userservice.model.DTO.UserResponseDTO;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Primary и две реплики — отдельные базы H2. Реплики наполняются своими строками, чтобы по ответу
+ * было видно, откуда пришло чтение.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing_primary;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "paperless.read-replicas.urls=" + ReadReplicaRoutingTest.REPLICA_1 + "," + ReadReplicaRoutingTest.REPLICA_2,
+        "paperless.read-replicas.balancing=round-robin",
+        "paperless.read-replicas.max-lag=0s",
+        "paperless.read-replicas.read-your-writes-window=1m"
+})
+@ActiveProfiles("test")
+public class ReadReplicaRoutingTest {
+
+    static final String REPLICA_1 = "jdbc:h2:mem:routing_replica_1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    static final String REPLICA_2 = "jdbc:h2:mem:routing_replica_2;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ReadReplicas readReplicas;
+
+    @BeforeAll
+    static void prepareReplicas() {
+        seedReplica(REPLICA_1, "replica_1_user");
+        seedReplica(REPLICA_2, "replica_2_user");
+    }
+
+    @Test
+    void readOnlyTransactionsAreSpreadAcrossReplicas() {
+        Set<String> userNames = new HashSet<>();
+        for (int i = 0; i < 6; i++) {
+            listUsers("reader").forEach(user -> userNames.add(user.userName()));
+        }
+
+        assertEquals(Set.of("replica_1_user", "replica_2_user"), userNames);
+        assertTrue(readReplicas.getReplicas().stream().allMatch(replica -> replica.getReads() > 0));
+    }
+
+    @Test
+    void clientReadsOwnWritesFromPrimary() {
+        HttpHeaders headers = clientHeaders("writer");
+        restTemplate.exchange("/api/v1/users", HttpMethod.POST,
+                new HttpEntity<>(new UserCreateRequestDTO("routing_writer", "routing_writer@example.com"), headers),
+                UserResponseDTO.class);
+
+        assertTrue(listUsers("writer").stream().anyMatch(user -> user.userName().equals("routing_writer")));
+        assertTrue(listUsers("other").stream().noneMatch(user -> user.userName().equals("routing_writer")));
+        assertTrue(readReplicas.getPinnedReads() > 0);
+    }
+
+    private List<UserResponseDTO> listUsers(String client) {
+        return restTemplate.exchange("/api/v1/users", HttpMethod.GET,
+                new HttpEntity<>(clientHeaders(client)), UserPageResponseDTO.class).getBody().items();
+    }
+
+    private static HttpHeaders clientHeaders(String client) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Client-Id", client);
+        return headers;
+    }
+
+    private static void seedReplica(String url, String userName) {
+        Flyway.configure().dataSource(url, "sa", "").load().migrate();
+        new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""))
+                .update("insert into pl_users (id, user_name, email) values (?, ?, ?)",
+                        UUID.randomUUID(), userName, userName + "@example.com");
+    }
+}
@@ -0,0 +1,94 @@
+package ru.paperless.userservice.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private final DataSource primary = mock(DataSource.class);
+
+    private final Connection primaryConnection = mock(Connection.class);
+
+    private final ReadYourWrites readYourWrites = new ReadYourWrites(Duration.ofSeconds(2), "X-Client-Id");
+
+    @Test
+    void failsOverToNextReplicaAndThenToPrimary() throws SQLException {
+        ReadReplica broken = replica("replica-1", 0);
+        ReadReplica healthy = replica("replica-2", 0);
+        Connection replicaConnection = mock(Connection.class);
+        when(broken.getDataSource().getConnection()).thenThrow(new SQLException("connection refused"));
+        when(healthy.getDataSource().getConnection()).thenReturn(replicaConnection);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        ReadReplicas replicas = new ReadReplicas(List.of(broken, healthy), ReplicaBalancing.ROUND_ROBIN,
+                Duration.ZERO, Duration.ofSeconds(1));
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary, replicas, readYourWrites);
+
+        assertSame(replicaConnection, dataSource.getConnection());
+        assertFalse(broken.isHealthy());
+
+        healthy.setHealthy(false);
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertEquals(1, replicas.getFallbackReads());
+    }
+
+    @Test
+    void leastConnectionsPicksIdlestHealthyReplica() {
+        ReadReplica busy = replica("replica-1", 8);
+        ReadReplica idle = replica("replica-2", 1);
+        ReadReplica down = replica("replica-3", 0);
+        down.setHealthy(false);
+        ReadReplicas replicas = new ReadReplicas(List.of(busy, idle, down), ReplicaBalancing.LEAST_CONNECTIONS,
+                Duration.ZERO, Duration.ofSeconds(1));
+
+        for (int i = 0; i < 3; i++) {
+            assertSame(idle, replicas.select(Set.of()));
+        }
+        assertSame(busy, replicas.select(Set.of(idle)));
+    }
+
+    @Test
+    void healthCheckReturnsReplicaToRotation() throws SQLException {
+        ReadReplica replica = replica("replica-1", 0);
+        Connection connection = mock(Connection.class);
+        when(replica.getDataSource().getConnection()).thenReturn(connection);
+        when(connection.isValid(anyInt())).thenReturn(true);
+        ReadReplicas replicas = new ReadReplicas(List.of(replica), ReplicaBalancing.ROUND_ROBIN,
+                Duration.ZERO, Duration.ofSeconds(1));
+        replicas.markDown(replica, new SQLException("timeout"));
+        assertNull(replicas.select(Set.of()));
+
+        replicas.checkHealth();
+
+        assertSame(replica, replicas.select(Set.of()));
+    }
+
+    @Test
+    void explicitCredentialsAreNotSupported() {
+        ReadReplicas replicas = new ReadReplicas(List.of(replica("replica-1", 0)), ReplicaBalancing.ROUND_ROBIN,
+                Duration.ZERO, Duration.ofSeconds(1));
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary, replicas, readYourWrites);
+
+        assertThrows(SQLFeatureNotSupportedException.class, () -> dataSource.getConnection("reader", "secret"));
+        verifyNoInteractions(primary);
+    }
+
+    private ReadReplica replica(String name, int activeConnections) {
+        HikariDataSource dataSource = mock(HikariDataSource.class);
+        HikariPoolMXBean pool = mock(HikariPoolMXBean.class);
+        when(pool.getActiveConnections()).thenReturn(activeConnections);
+        when(dataSource.getHikariPoolMXBean()).thenReturn(pool);
+        return new ReadReplica(name, dataSource);
+    }
+}
@@ -0,0 +1,76 @@
+package ru.paperless.userservice.outbox;
+
+import org.junit.jupiter.api.Test;
+import ru.paperless.userservice.model.DTO.UserChangeEventDTO;
+import ru.paperless.userservice.model.DTO.UserResponseDTO;
+import ru.paperless.userservice.model.enums.UserEventType;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserEventLogTest {
+
+    @Test
+    void readsContiguousEventsAfterOffset() {
+        UserEventLog log = new UserEventLog(8);
+        log.reset(10);
+        log.append(events(11, 15));
+
+        assertEquals(List.of(12L, 13L), offsets(log.read(11, 2).orElseThrow()));
+        assertEquals(List.of(14L, 15L), offsets(log.read(13, 10).orElseThrow()));
+        assertTrue(log.read(15, 10).orElseThrow().isEmpty());
+    }
+
+    @Test
+    void evictedOffsetsMustBeReadFromOutbox() {
+        UserEventLog log = new UserEventLog(4);
+        log.append(events(1, 10));
+
+        assertTrue(log.read(5, 10).isEmpty());
+        assertEquals(List.of(7L, 8L, 9L, 10L), offsets(log.read(6, 10).orElseThrow()));
+    }
+
+    @Test
+    void rejectsGapInOffsets() {
+        UserEventLog log = new UserEventLog(4);
+        log.append(events(1, 2));
+
+        assertThrows(IllegalStateException.class, () -> log.append(events(4, 4)));
+    }
+
+    @Test
+    void awaitWakesUpOnAppend() throws Exception {
+        UserEventLog log = new UserEventLog(4);
+
+        assertFalse(log.awaitAfter(0, Duration.ofMillis(10)));
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return log.awaitAfter(0, Duration.ofSeconds(10));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        log.append(events(1, 1));
+
+        assertTrue(waiter.get(5, TimeUnit.SECONDS));
+    }
+
+    private static List<UserChangeEventDTO> events(long from, long to) {
+        return LongStream.rangeClosed(from, to)
+                .mapToObj(offset -> new UserChangeEventDTO(offset, UserEventType.CREATED, null,
+                        new UserResponseDTO(UUID.randomUUID(), "user_" + offset, "user_" + offset + "@example.com"),
+                        Instant.now()))
+                .toList();
+    }
+
+    private static List<Long> offsets(List<UserChangeEventDTO> events) {
+        return events.stream().map(UserChangeEventDTO::offset).toList();
+    }
+}
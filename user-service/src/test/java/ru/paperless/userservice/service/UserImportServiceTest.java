@@ -0,0 +1,192 @@
+package ru.paperless.userservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.paperless.userservice.exception.UserImportMalformedException;
+import ru.paperless.userservice.mapper.UserMapper;
+import ru.paperless.userservice.model.DTO.UserImportReportDTO;
+import ru.paperless.userservice.model.DTO.UserImportRowResultDTO;
+import ru.paperless.userservice.model.enums.UserImportStatus;
+import ru.paperless.userservice.repository.UserRepository;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserImportServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    private UserImportService userImportService;
+
+    @BeforeEach
+    void setUp() {
+        userImportService = new UserImportService(
+                userRepository, new UserMapper(), entityManager, transactionTemplate, validator, new ObjectMapper(), eventPublisher);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void importCsv_ReportsEveryRow() throws Exception {
+        String csv = """
+                userName,email
+                new_user1,new1@example.com
+                taken_name,new2@example.com
+                new_user3,taken@example.com
+                new_user1,new4@example.com
+                bad,not_valid_email
+                """;
+
+        when(userRepository.findExistingUserNames(any())).thenReturn(List.of("taken_name"));
+        when(userRepository.findExistingEmails(any())).thenReturn(List.of("taken@example.com"));
+
+        UserImportReportDTO report = userImportService.importCsv(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(5, report.total());
+        assertEquals(1, report.created());
+        assertEquals(4, report.failed());
+        assertEquals(UserImportStatus.CREATED, report.rows().get(0).status());
+        assertNotNull(report.rows().get(0).id());
+        assertEquals(UserImportStatus.USER_NAME_EXISTS, report.rows().get(1).status());
+        assertEquals(UserImportStatus.EMAIL_EXISTS, report.rows().get(2).status());
+        assertEquals(UserImportStatus.DUPLICATE_IN_REQUEST, report.rows().get(3).status());
+        assertEquals(UserImportStatus.INVALID, report.rows().get(4).status());
+
+        verify(userRepository, times(1)).findExistingUserNames(any());
+        verify(userRepository, times(1)).findExistingEmails(any());
+        verify(userRepository, times(1)).saveAll(anyIterable());
+    }
+
+    @Test
+    void importJson_ChecksUniquenessOncePerChunk() throws Exception {
+        StringBuilder json = new StringBuilder("[");
+        int total = UserImportService.CHUNK_SIZE + 10;
+        for (int i = 0; i < total; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"userName\":\"user_").append(i).append("\",\"email\":\"user").append(i).append("@example.com\"}");
+        }
+        json.append(']');
+
+        UserImportReportDTO report = userImportService.importJson(
+                new ByteArrayInputStream(json.toString().getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(total, report.total());
+        assertEquals(total, report.created());
+        assertEquals(total, report.rows().get(total - 1).row());
+        verify(userRepository, times(2)).findExistingUserNames(any());
+        verify(userRepository, times(2)).findExistingEmails(any());
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void importCsv_RejectedRowDoesNotReserveItsOtherKey() throws Exception {
+        String csv = """
+                first_user,shared@example.com
+                "second_user","shared@example.com"
+                second_user,second@example.com
+                """;
+
+        UserImportReportDTO report = userImportService.importCsv(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(3, report.total());
+        assertEquals(UserImportStatus.CREATED, report.rows().get(0).status());
+        assertEquals(UserImportStatus.DUPLICATE_IN_REQUEST, report.rows().get(1).status());
+        assertEquals(UserImportStatus.CREATED, report.rows().get(2).status());
+        assertEquals("second_user", report.rows().get(2).userName());
+    }
+
+    @Test
+    void importJson_MalformedRowStopsImportWithPartialReport() {
+        StringBuilder json = new StringBuilder("[");
+        int valid = UserImportService.CHUNK_SIZE + 5;
+        for (int i = 0; i < valid; i++) {
+            json.append("{\"userName\":\"user_").append(i).append("\",\"email\":\"user").append(i).append("@example.com\"},");
+        }
+        json.append("{\"userName\":\"broken\",");
+
+        UserImportMalformedException exception = assertThrows(UserImportMalformedException.class,
+                () -> userImportService.importJson(new ByteArrayInputStream(json.toString().getBytes(StandardCharsets.UTF_8))));
+
+        UserImportReportDTO report = exception.getReport();
+        assertEquals(valid + 1, report.total());
+        assertEquals(valid, report.created());
+        UserImportRowResultDTO failing = report.rows().get(valid);
+        assertEquals(valid + 1, failing.row());
+        assertEquals(UserImportStatus.MALFORMED, failing.status());
+        verify(userRepository, times(2)).saveAll(anyIterable());
+    }
+
+    @Test
+    void importCsv_TooManyColumnsStopsImport() {
+        String csv = """
+                userName,email
+                csv_user,csv_user@example.com
+                extra,extra@example.com,unexpected
+                """;
+
+        UserImportMalformedException exception = assertThrows(UserImportMalformedException.class,
+                () -> userImportService.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))));
+
+        assertEquals(2, exception.getReport().total());
+        assertEquals(UserImportStatus.CREATED, exception.getReport().rows().get(0).status());
+        assertEquals(UserImportStatus.MALFORMED, exception.getReport().rows().get(1).status());
+    }
+
+    @Test
+    void importCsv_ConcurrentInsertRejectsOnlyConflictingRow() throws Exception {
+        String csv = """
+                first_user,first@example.com
+                raced_user,raced@example.com
+                third_user,third@example.com
+                """;
+
+        // Первая попытка натыкается на уникальный индекс: raced_user успели создать параллельно
+        when(userRepository.findExistingUserNames(any())).thenReturn(List.of(), List.of("raced_user"));
+        when(userRepository.saveAll(anyIterable()))
+                .thenThrow(new DataIntegrityViolationException("uk_pl_users_user_name"))
+                .thenReturn(List.of());
+
+        UserImportReportDTO report = userImportService.importCsv(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, report.created());
+        assertEquals(UserImportStatus.CREATED, report.rows().get(0).status());
+        assertEquals(UserImportStatus.USER_NAME_EXISTS, report.rows().get(1).status());
+        assertEquals(UserImportStatus.CREATED, report.rows().get(2).status());
+        verify(userRepository, times(2)).findExistingUserNames(any());
+    }
+}
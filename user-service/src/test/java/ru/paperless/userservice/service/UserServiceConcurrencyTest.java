@@ -0,0 +1,147 @@
+package ru.paperless.userservice.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import ru.paperless.userservice.exception.EmailAlreadyExistsException;
+import ru.paperless.userservice.exception.UserNameAlreadyExistsException;
+import ru.paperless.userservice.model.DTO.UserCreateRequestDTO;
+import ru.paperless.userservice.model.DTO.UserUpdateRequestDTO;
+import ru.paperless.userservice.outbox.UserOutboxRelay;
+import ru.paperless.userservice.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+public class UserServiceConcurrencyTest {
+
+    private static final int THREADS = 32;
+
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Relay по расписанию читает outbox и попадал бы в статистику запросов
+    @MockitoBean
+    private UserOutboxRelay outboxRelay;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAllInBatch();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void concurrentCreatesWithSameUserName_OnlyOneSucceeds() throws Exception {
+        statistics.clear();
+
+        for (int round = 0; round < ROUNDS; round++) {
+            String userName = "racer_" + round;
+            AtomicInteger conflicts = new AtomicInteger();
+
+            int created = race(index -> {
+                try {
+                    userService.createUser(new UserCreateRequestDTO(userName, "racer_" + index + "_" + userName + "@example.com"));
+                    return true;
+                } catch (UserNameAlreadyExistsException e) {
+                    conflicts.incrementAndGet();
+                    return false;
+                }
+            });
+
+            assertEquals(1, created);
+            assertEquals(THREADS - 1, conflicts.get());
+        }
+
+        // Каждая попытка — один INSERT без предварительных проверок (outbox пишется мимо Hibernate)
+        assertEquals((long) ROUNDS * THREADS, statistics.getPrepareStatementCount());
+        assertEquals(ROUNDS, userRepository.count());
+    }
+
+    @Test
+    void concurrentUpdatesToSameEmail_OnlyOneSucceeds() throws Exception {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            ids.add(userService.createUser(new UserCreateRequestDTO("updater_" + i, "updater_" + i + "@example.com")).id());
+        }
+        AtomicInteger conflicts = new AtomicInteger();
+        statistics.clear();
+
+        int updated = race(index -> {
+            try {
+                userService.updateUser(ids.get(index), new UserUpdateRequestDTO(null, "contended@example.com"), null);
+                return true;
+            } catch (EmailAlreadyExistsException e) {
+                conflicts.incrementAndGet();
+                return false;
+            }
+        });
+
+        assertEquals(1, updated);
+        assertEquals(THREADS - 1, conflicts.get());
+        // Загрузка пользователя и UPDATE, без проверки занятости email
+        assertEquals(2L * THREADS, statistics.getPrepareStatementCount());
+        assertEquals(1, userRepository.findAll().stream()
+                .filter(user -> user.getEmail().equals("contended@example.com"))
+                .count());
+    }
+
+    private int race(IndexedTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                int index = i;
+                Callable<Boolean> call = () -> {
+                    start.await();
+                    return task.run(index);
+                };
+                results.add(executor.submit(call));
+            }
+            start.countDown();
+
+            int succeeded = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(30, TimeUnit.SECONDS)) {
+                    succeeded++;
+                }
+            }
+            return succeeded;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexedTask {
+        boolean run(int index) throws Exception;
+    }
+}
@@ -1,19 +1,32 @@
 package ru.paperless.userservice.service;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import ru.paperless.userservice.cache.UserCache;
+import ru.paperless.userservice.event.UserChangedEvent;
+import ru.paperless.userservice.exception.EmailAlreadyExistsException;
+import ru.paperless.userservice.exception.InvalidCursorException;
+import ru.paperless.userservice.exception.UserNameAlreadyExistsException;
 import ru.paperless.userservice.exception.UserNotFoundException;
+import ru.paperless.userservice.exception.UserVersionConflictException;
 import ru.paperless.userservice.mapper.UserMapper;
 import ru.paperless.userservice.model.DTO.UserCreateRequestDTO;
+import ru.paperless.userservice.model.DTO.UserPageResponseDTO;
 import ru.paperless.userservice.model.DTO.UserResponseDTO;
 import ru.paperless.userservice.model.DTO.UserUpdateRequestDTO;
 import ru.paperless.userservice.model.entity.UserEntity;
 import ru.paperless.userservice.repository.UserRepository;
 
+import java.sql.SQLException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -29,6 +42,12 @@ public class UserServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserService userService;
 
@@ -52,37 +71,76 @@ public class UserServiceTest {
         UserResponseDTO dto2 = new UserResponseDTO(user2.getId(), user2.getUserName(), user2.getEmail());
         UserResponseDTO dto3 = new UserResponseDTO(user3.getId(), user3.getUserName(), user3.getEmail());
 
-        when(userRepository.findAll()).thenReturn(List.of(user1, user2, user3));
+        when(userRepository.findAllByOrderByIdAsc(Limit.of(UserService.DEFAULT_PAGE_SIZE + 1)))
+                .thenReturn(List.of(user1, user2, user3));
         when(userMapper.toDto(user1)).thenReturn(dto1);
         when(userMapper.toDto(user2)).thenReturn(dto2);
         when(userMapper.toDto(user3)).thenReturn(dto3);
 
-        List<UserResponseDTO> result = userService.getAllUsers();
+        UserPageResponseDTO result = userService.getAllUsers(null, null);
 
         assertNotNull(result);
-        assertEquals(3, result.size());
+        assertEquals(3, result.items().size());
+        assertNull(result.nextCursor());
 
-        assertEquals(userName, result.get(0).userName());
-        assertEquals("user2", result.get(1).userName());
-        assertEquals("user3", result.get(2).userName());
+        assertEquals(userName, result.items().get(0).userName());
+        assertEquals("user2", result.items().get(1).userName());
+        assertEquals("user3", result.items().get(2).userName());
 
-        verify(userRepository, times(1)).findAll();
+        verify(userRepository, times(1)).findAllByOrderByIdAsc(any());
+        verify(userRepository, never()).findAll();
         verify(userMapper, times(3)).toDto(any(UserEntity.class));
     }
 
     @Test
     void returnAllUsers_WhenNotExists() {
 
-        when(userRepository.findAll()).thenReturn(List.of());
+        when(userRepository.findAllByOrderByIdAsc(any())).thenReturn(List.of());
 
-        List<UserResponseDTO> result = userService.getAllUsers();
+        UserPageResponseDTO result = userService.getAllUsers(null, null);
 
         assertNotNull(result);
-        assertTrue(result.isEmpty());
-        verify(userRepository, times(1)).findAll();
+        assertTrue(result.items().isEmpty());
+        assertNull(result.nextCursor());
+        verify(userRepository, times(1)).findAllByOrderByIdAsc(any());
         verify(userMapper, never()).toDto(any());
     }
 
+    @Test
+    void returnAllUsers_FollowsCursorToNextPage() {
+        UserEntity user1 = UserEntity.builder().id(id).userName(userName).email(email).build();
+        UserEntity user2 = UserEntity.builder().id(UUID.randomUUID()).userName("user2").email("user2@example.com").build();
+        UserEntity user3 = UserEntity.builder().id(UUID.randomUUID()).userName("user3").email("user3@example.com").build();
+
+        when(userRepository.findAllByOrderByIdAsc(Limit.of(3))).thenReturn(List.of(user1, user2, user3));
+        when(userMapper.toDto(any(UserEntity.class)))
+                .thenAnswer(invocation -> {
+                    UserEntity user = invocation.getArgument(0);
+                    return new UserResponseDTO(user.getId(), user.getUserName(), user.getEmail());
+                });
+
+        UserPageResponseDTO firstPage = userService.getAllUsers(null, 2);
+
+        assertEquals(2, firstPage.items().size());
+        assertNotNull(firstPage.nextCursor());
+
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(user2.getId(), Limit.of(3))).thenReturn(List.of(user3));
+
+        UserPageResponseDTO secondPage = userService.getAllUsers(firstPage.nextCursor(), 2);
+
+        assertEquals(1, secondPage.items().size());
+        assertEquals("user3", secondPage.items().get(0).userName());
+        assertNull(secondPage.nextCursor());
+    }
+
+    @Test
+    void returnAllUsers_WithNotValidCursor() {
+
+        assertThrows(InvalidCursorException.class, () -> userService.getAllUsers("not a cursor", null));
+
+        verify(userRepository, never()).findByIdGreaterThanOrderByIdAsc(any(), any());
+    }
+
     @Test
     void returnExistingUserById() {
         UserEntity userEntity = UserEntity.builder()
@@ -106,6 +164,41 @@ public class UserServiceTest {
 
         verify(userRepository, times(1)).findById(id);
         verify(userMapper, times(1)).toDto(userEntity);
+        verify(userCache, times(1)).putIfAbsent(expectedResponse);
+    }
+
+    @Test
+    void returnCachedUserById_WithoutQueryingRepository() {
+        UserResponseDTO cached = new UserResponseDTO(id, userName, email);
+
+        when(userCache.get(id)).thenReturn(Optional.of(cached));
+
+        UserResponseDTO actualResponse = userService.getUserById(id);
+
+        assertEquals(cached, actualResponse);
+        verify(userRepository, never()).findById(any());
+        verify(userCache, never()).putIfAbsent(any());
+    }
+
+    @Test
+    void returnUsersByIds_FromCacheAndSingleQueryForMisses() {
+        UUID missingId = UUID.randomUUID();
+        UUID loadedId = UUID.randomUUID();
+        UserResponseDTO cached = new UserResponseDTO(id, userName, email);
+        UserEntity loadedEntity = UserEntity.builder().id(loadedId).userName("loaded").email("loaded@example.com").build();
+        UserResponseDTO loaded = new UserResponseDTO(loadedId, "loaded", "loaded@example.com");
+
+        when(userCache.get(id)).thenReturn(Optional.of(cached));
+        when(userCache.get(loadedId)).thenReturn(Optional.empty());
+        when(userCache.get(missingId)).thenReturn(Optional.empty());
+        when(userRepository.findAllByIdAny(new UUID[]{loadedId, missingId})).thenReturn(List.of(loadedEntity));
+        when(userMapper.toDto(loadedEntity)).thenReturn(loaded);
+
+        Map<UUID, UserResponseDTO> users = userService.getUsersByIds(List.of(id, loadedId, missingId, id));
+
+        assertEquals(Map.of(id, cached, loadedId, loaded), users);
+        verify(userRepository, times(1)).findAllByIdAny(any());
+        verify(userCache, times(1)).putIfAbsent(loaded);
     }
 
     @Test
@@ -146,7 +239,7 @@ public class UserServiceTest {
         );
 
         when(userMapper.toEntity(createRequest)).thenReturn(userEntityToSave);
-        when(userRepository.save(userEntityToSave)).thenReturn(savedUserEntity);
+        when(userRepository.saveAndFlush(userEntityToSave)).thenReturn(savedUserEntity);
         when(userMapper.toDto(savedUserEntity)).thenReturn(expectedResponse);
 
         UserResponseDTO actualResponse = userService.createUser(createRequest);
@@ -157,7 +250,7 @@ public class UserServiceTest {
         assertEquals(TEST_VALID_EMAIL, actualResponse.email());
 
         verify(userMapper, times(1)).toEntity(createRequest);
-        verify(userRepository, times(1)).save(userEntityToSave);
+        verify(userRepository, times(1)).saveAndFlush(userEntityToSave);
         verify(userMapper, times(1)).toDto(savedUserEntity);
     }
 
@@ -170,12 +263,61 @@ public class UserServiceTest {
         );
 
         assertEquals("User create request cannot be null", exception.getMessage());
-        verify(userRepository, never()).save(any());
+        verify(userRepository, never()).saveAndFlush(any());
         verify(userMapper, never()).toEntity(any());
         verify(userMapper, never()).toDto(any());
 
     }
 
+    @Test
+    void createUser_WithExistingUserName() {
+
+        UserCreateRequestDTO createRequest = new UserCreateRequestDTO(TEST_VALID_USERNAME, TEST_VALID_EMAIL);
+        UserEntity userEntityToSave = UserEntity.builder()
+                .userName(TEST_VALID_USERNAME)
+                .email(TEST_VALID_EMAIL)
+                .build();
+
+        when(userMapper.toEntity(createRequest)).thenReturn(userEntityToSave);
+        when(userRepository.saveAndFlush(userEntityToSave)).thenThrow(uniqueViolation(UserEntity.USER_NAME_CONSTRAINT));
+
+        UserNameAlreadyExistsException exception = assertThrows(
+                UserNameAlreadyExistsException.class,
+                () -> userService.createUser(createRequest)
+        );
+
+        assertEquals("Уже существует пользователь с username: " + TEST_VALID_USERNAME, exception.getMessage());
+        verify(userRepository).saveAndFlush(userEntityToSave);
+        verifyNoMoreInteractions(userRepository);
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void updateUser_WithExistingEmail() {
+
+        UserEntity existingUser = UserEntity.builder()
+                .id(id)
+                .userName("username")
+                .email("old@example.com")
+                .build();
+
+        UserUpdateRequestDTO updateRequest = new UserUpdateRequestDTO(null, "taken@example.com");
+
+        when(userRepository.findById(id)).thenReturn(Optional.of(existingUser));
+        when(userRepository.saveAndFlush(existingUser)).thenThrow(uniqueViolation(UserEntity.EMAIL_CONSTRAINT));
+
+        EmailAlreadyExistsException exception = assertThrows(
+                EmailAlreadyExistsException.class,
+                () -> userService.updateUser(id, updateRequest, null)
+        );
+
+        assertEquals("Уже существует пользователь с email: taken@example.com", exception.getMessage());
+        verify(userRepository).findById(id);
+        verify(userRepository).saveAndFlush(existingUser);
+        verifyNoMoreInteractions(userRepository);
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
     @Test
     void updateUser_WithValidData() {
 
@@ -192,21 +334,25 @@ public class UserServiceTest {
                 .email("old@example.com")
                 .build();
 
+        UserResponseDTO previousResponse = new UserResponseDTO(id, "old_username", "old@example.com");
         UserResponseDTO expectedResponse = new UserResponseDTO(id, "new_username", "old@example.com");
 
         when(userRepository.findById(id)).thenReturn(Optional.of(existingUser));
-        when(userRepository.save(existingUser)).thenReturn(updatedUser);
+        when(userMapper.toDto(existingUser)).thenReturn(previousResponse);
+        when(userRepository.saveAndFlush(existingUser)).thenReturn(updatedUser);
         when(userMapper.toDto(updatedUser)).thenReturn(expectedResponse);
 
-        UserResponseDTO result = userService.updateUser(id, updateRequest);
+        UserResponseDTO result = userService.updateUser(id, updateRequest, null);
 
         assertNotNull(result);
         assertEquals("new_username", result.userName());
         assertEquals("old@example.com", result.email()); // email не изменился
 
         verify(userRepository, times(1)).findById(id);
-        verify(userRepository, times(1)).save(existingUser);
+        verify(userRepository, times(1)).saveAndFlush(existingUser);
         verify(userMapper, times(1)).toDto(updatedUser);
+        verify(userCache, times(1)).evict(id);
+        verify(eventPublisher, times(1)).publishEvent(new UserChangedEvent(previousResponse, expectedResponse));
     }
 
     @Test
@@ -217,15 +363,33 @@ public class UserServiceTest {
 
         UserNotFoundException exception = assertThrows(
                 UserNotFoundException.class,
-                () -> userService.updateUser(id, updateRequest)
+                () -> userService.updateUser(id, updateRequest, null)
         );
 
         assertEquals("Пользователь с ID: " + id + " не найден", exception.getMessage());
         verify(userRepository, times(1)).findById(id);
-        verify(userRepository, never()).save(any());
+        verify(userRepository, never()).saveAndFlush(any());
         verify(userMapper, never()).toDto(any());
     }
 
+    @Test
+    void updateUser_WithStaleIfMatchVersion() {
+        UserEntity existingUser = UserEntity.builder()
+                .id(id)
+                .userName("username")
+                .email("old@example.com")
+                .version(3)
+                .build();
+        when(userRepository.findById(id)).thenReturn(Optional.of(existingUser));
+
+        assertThrows(UserVersionConflictException.class,
+                () -> userService.updateUser(id, new UserUpdateRequestDTO("new_username", null), List.of(2L)));
+
+        assertEquals("username", existingUser.getUserName());
+        verify(userRepository, never()).saveAndFlush(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
     @Test
     void updateUser_UpdateOnlyEmail() {
 
@@ -243,16 +407,24 @@ public class UserServiceTest {
                 .email("new@example.com")
                 .build();
 
+        UserResponseDTO previousResponse = new UserResponseDTO(id, "username", "old@example.com");
         UserResponseDTO expectedResponse = new UserResponseDTO(id, "username", "new@example.com");
 
         when(userRepository.findById(id)).thenReturn(Optional.of(existingUser));
-        when(userRepository.save(existingUser)).thenReturn(updatedUser);
+        when(userMapper.toDto(existingUser)).thenReturn(previousResponse);
+        when(userRepository.saveAndFlush(existingUser)).thenReturn(updatedUser);
         when(userMapper.toDto(updatedUser)).thenReturn(expectedResponse);
 
-        UserResponseDTO result = userService.updateUser(id, updateRequest);
+        UserResponseDTO result = userService.updateUser(id, updateRequest, null);
 
         assertNotNull(result);
         assertEquals("username", result.userName());
         assertEquals("new@example.com", result.email());
     }
-}
\ No newline at end of file
+
+    private DataIntegrityViolationException uniqueViolation(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("duplicate key value violates unique constraint",
+                        new SQLException("duplicate key", "23505"), constraintName));
+    }
+}
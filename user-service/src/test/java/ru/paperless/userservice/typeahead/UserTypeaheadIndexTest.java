@@ -0,0 +1,102 @@
+package ru.paperless.userservice.typeahead;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.paperless.userservice.event.UserChangedEvent;
+import ru.paperless.userservice.event.UsersImportedEvent;
+import ru.paperless.userservice.model.DTO.UserResponseDTO;
+import ru.paperless.userservice.service.UserService;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+public class UserTypeaheadIndexTest {
+
+    @Mock
+    private UserService userService;
+
+    private UserTypeaheadIndex index;
+
+    private final UserResponseDTO alice = user("Alice", "alice@example.com");
+
+    private final UserResponseDTO alex = user("alex_k", "kovalev@example.com");
+
+    private final UserResponseDTO bob = user("bob", "bob@alpha.org");
+
+    @BeforeEach
+    void setUp() {
+        index = new UserTypeaheadIndex(userService);
+        doAnswer(invocation -> {
+            Consumer<UserResponseDTO> consumer = invocation.getArgument(0);
+            List.of(alice, alex, bob).forEach(consumer);
+            return null;
+        }).when(userService).exportUsers(any());
+        index.build();
+    }
+
+    @Test
+    void searchMatchesUserNameAndEmailPrefixIgnoringCase() {
+        assertEquals(List.of(alex, alice), index.search("AL", 10));
+        assertEquals(List.of(alex), index.search("kov", 10));
+        assertEquals(List.of(bob), index.search("bob@", 10));
+        assertTrue(index.search("carol", 10).isEmpty());
+        assertTrue(index.search("  ", 10).isEmpty());
+    }
+
+    @Test
+    void searchRespectsLimitAndReturnsEachUserOnce() {
+        assertEquals(List.of(alex), index.search("al", 1));
+        // userName и email Alice начинаются с одного префикса
+        assertEquals(List.of(alice), index.search("alic", 10));
+    }
+
+    @Test
+    void updateReplacesOldTerms() {
+        UserResponseDTO renamed = new UserResponseDTO(alice.id(), "alicia", "alicia@example.com");
+
+        index.onUserChanged(new UserChangedEvent(alice, renamed));
+
+        assertTrue(index.search("alice", 10).isEmpty());
+        assertEquals(List.of(renamed), index.search("alicia", 10));
+        assertEquals(3, index.stats().users());
+        assertEquals(6, index.stats().terms());
+    }
+
+    @Test
+    void createdAndImportedUsersAreSearchable() {
+        UserResponseDTO carol = user("carol", "carol@example.com");
+        UserResponseDTO dave = user("dave", "dave@example.com");
+
+        index.onUserChanged(new UserChangedEvent(null, carol));
+        index.onUsersImported(new UsersImportedEvent(List.of(dave)));
+
+        assertEquals(List.of(carol), index.search("car", 10));
+        assertEquals(List.of(dave), index.search("dav", 10));
+    }
+
+    @Test
+    void statsTrackMemoryEstimate() {
+        UserTypeaheadStats stats = index.stats();
+
+        assertTrue(stats.ready());
+        assertEquals(3, stats.users());
+        assertEquals(6, stats.terms());
+        assertTrue(stats.bytesPerUser() > 100);
+
+        index.onUserChanged(new UserChangedEvent(alice, alice));
+        assertEquals(stats, index.stats());
+    }
+
+    private static UserResponseDTO user(String userName, String email) {
+        return new UserResponseDTO(UUID.randomUUID(), userName, email);
+    }
+}